@@ -1,5 +1,8 @@
 package org.mariadb.jdbc;
 
+import org.mariadb.jdbc.internal.query.MariaDbQuery;
+import org.mariadb.jdbc.internal.query.Query;
+import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.Utils;
 
 import java.io.InputStream;
@@ -7,8 +10,10 @@ import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Calendar;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -48,6 +53,7 @@ public class MariaDbCallableStatement implements CallableStatement {
      * Database connection.
      */
     private MariaDbConnection con;
+    private Connection connectionHandle;
     /**
      * Prepared statement, typically used to set input variables, in which case it has the form
      * set _jdbc_var1=?,...,jdbc_var_N=?
@@ -80,6 +86,15 @@ public class MariaDbCallableStatement implements CallableStatement {
     private CallParameter[] params;
     private CallableParameterMetaData parameterMetadata;
     private int parametersCount;
+    /**
+     * Stored procedure is executed with a server prepared statement "CALL proc(?,...)" : input parameters are sent
+     * with the execution, and server returns output parameters in a result set in the same round trip.
+     */
+    private boolean nativeCall;
+    /**
+     * For native call, column of each parameter in the output parameters result set (0 if not an output parameter).
+     */
+    private int[] outputColumnIndexes;
 
     /**
      * Constructor.
@@ -89,6 +104,7 @@ public class MariaDbCallableStatement implements CallableStatement {
      */
     public MariaDbCallableStatement(MariaDbConnection connection, String query) throws SQLException {
         con = connection;
+        connectionHandle = connection.getConnectionHandle();
 
         query = Utils.nativeSql(query, connection.noBackslashEscapes);
         batchIgnoreResult = new BitSet();
@@ -108,19 +124,35 @@ public class MariaDbCallableStatement implements CallableStatement {
             // function returning result, generate "SELECT FUNC(args) into @_jdbc_var_1
             callQuery = "select " + procedureName + resolveArguments(arguments, 2) + " into " + getVariableName(1);
         }
-        callStatement = con.createStatement();
 
-        // Generate set _jdbc_var1=?,....set jdbc_var_n=? prepared statement
-        if (parametersCount != 0) {
-            StringBuffer sb = new StringBuffer("set ");
-            for (int i = 1; i <= parametersCount; i++) {
-                if (i > 1) {
-                    sb.append(",");
+        if (!isFunction && parametersCount > 0 && canUseNativeCall()) {
+            try {
+                preparedStatement = new MariaDbServerPreparedStatement(con, "call " + procedureName + ((arguments != null) ? arguments : "()"),
+                        Statement.NO_GENERATED_KEYS);
+                callStatement = preparedStatement;
+                nativeCall = true;
+            } catch (SQLException e) {
+                //server cannot prepare CALL command : use user variables
+            }
+        }
+
+        if (!nativeCall) {
+            callStatement = con.createStatement();
+
+            // Generate set _jdbc_var1=?,....set jdbc_var_n=? prepared statement
+            if (parametersCount != 0) {
+                StringBuffer sb = new StringBuffer("set ");
+                for (int i = 1; i <= parametersCount; i++) {
+                    if (i > 1) {
+                        sb.append(",");
+                    }
+                    sb.append(getVariableName(i));
+                    sb.append("=?");
                 }
-                sb.append(getVariableName(i));
-                sb.append("=?");
+                preparedStatement = con.prepareStatement(sb.toString());
             }
-            preparedStatement = con.prepareStatement(sb.toString());
+        }
+        if (parametersCount != 0) {
             for (int i = 1; i <= parametersCount; i++) {
                 preparedStatement.setNull(i, Types.NULL);
             }
@@ -136,6 +168,18 @@ public class MariaDbCallableStatement implements CallableStatement {
         parameterMetadata = new CallableParameterMetaData(params, con, procedureName, isFunction);
     }
 
+    /**
+     * Server output parameters result set (SERVER_PS_OUT_PARAMS) are available since MySQL 5.5.3, and need server
+     * prepared statements.
+     *
+     * @return true if procedure can be executed with a server prepared statement
+     */
+    private boolean canUseNativeCall() {
+        Options options = con.getProtocol().getOptions();
+        return options.useServerPrepStmts && !options.allowMultiQueries && !options.rewriteBatchedStatements
+                && con.getProtocol().versionGreaterOrEqual(5, 5, 3);
+    }
+
     boolean hasOutputParameters() {
         for (int i = 1; i < params.length; i++) {
             if (params[i].isOutput) {
@@ -157,6 +201,10 @@ public class MariaDbCallableStatement implements CallableStatement {
 
 
     void readOutputParameters() throws SQLException {
+        if (nativeCall) {
+            readNativeOutputParameters();
+            return;
+        }
         if (callStatement.getFetchSize() == Integer.MIN_VALUE) {
             // For streaming queries
             // make sure there are no more results left from the call statement
@@ -165,6 +213,13 @@ public class MariaDbCallableStatement implements CallableStatement {
             ;
         }
 
+        Statement st = con.createStatement();
+        ResultSet rs = st.executeQuery(outputParametersQuery());
+        rs.next();
+        rsOutputParameters = rs;
+    }
+
+    private String outputParametersQuery() {
         StringBuffer sb = new StringBuffer("SELECT ");
         for (int i = 1; i <= parametersCount; i++) {
             if (i != 1) {
@@ -176,12 +231,92 @@ public class MariaDbCallableStatement implements CallableStatement {
                 sb.append(getVariableName(i));
             }
         }
-        Statement st = con.createStatement();
-        ResultSet rs = st.executeQuery(sb.toString());
+        return sb.toString();
+    }
+
+    /**
+     * Take output parameters result set out of native call results.
+     * Output parameters result set only contains OUT and INOUT parameters, in procedure parameter order.
+     *
+     * @throws SQLException if results cannot be read
+     */
+    private void readNativeOutputParameters() throws SQLException {
+        ResultSet rs = ((MariaDbStatement) callStatement).removeOutputParameterResult();
+        if (rs == null) {
+            return;
+        }
         rs.next();
+        int columnCount = rs.getMetaData().getColumnCount();
+        int registered = 0;
+        for (int i = 1; i <= parametersCount; i++) {
+            if (params[i].isOutput) {
+                registered++;
+            }
+        }
+        if (registered != columnCount) {
+            //some OUT or INOUT parameters have not been registered : get parameter modes from procedure definition
+            try {
+                parameterMetadata.readMetadataFromDbIfRequired();
+            } catch (SQLException sqle) {
+                //no access to metadata : use registered parameters
+            }
+        }
+        outputColumnIndexes = new int[parametersCount + 1];
+        int column = 0;
+        for (int i = 1; i <= parametersCount && column < columnCount; i++) {
+            if (params[i].isOutput) {
+                outputColumnIndexes[i] = ++column;
+            }
+        }
         rsOutputParameters = rs;
     }
 
+    /**
+     * Execute SET, CALL and output parameters SELECT in one multi-statement packet.
+     *
+     * @return true if the first procedure result is a result set
+     * @throws SQLException if execution fails
+     */
+    private boolean executeInOneRoundTrip() throws SQLException {
+        MariaDbStatement statement = (MariaDbStatement) callStatement;
+        boolean readOutput = hasOutputParameters();
+        List<Query> queries = new ArrayList<>(3);
+        queries.add(((MariaDbClientPreparedStatement) preparedStatement).getQuery());
+        queries.add(new MariaDbQuery(callQuery));
+        if (readOutput) {
+            queries.add(new MariaDbQuery(outputParametersQuery()));
+        }
+        statement.execute(queries, false, 0);
+
+        //first result is user variables assignment
+        boolean ret = statement.getMoreResults();
+        if (readOutput) {
+            ResultSet rs = statement.removeLastResult();
+            if (rs != null) {
+                rs.next();
+                rsOutputParameters = rs;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Get output parameters result set column of a parameter.
+     *
+     * @param parameterIndex parameter index
+     * @return column index
+     * @throws SQLException if parameter is not an output parameter
+     */
+    private int outputIndex(int parameterIndex) throws SQLException {
+        if (outputColumnIndexes == null) {
+            return parameterIndex;
+        }
+        if (parameterIndex < 1 || parameterIndex >= outputColumnIndexes.length || outputColumnIndexes[parameterIndex] == 0) {
+            throw new SQLException("Parameter " + parameterIndex + " is not an output parameter");
+        }
+        return outputColumnIndexes[parameterIndex];
+    }
+
     /**
      * Fetch output variables
      *
@@ -194,6 +329,9 @@ public class MariaDbCallableStatement implements CallableStatement {
         }
         if (rsOutputParameters == null) {
             readOutputParameters();
+            if (rsOutputParameters == null) {
+                throw new SQLException("no output parameters");
+            }
         }
         return rsOutputParameters;
     }
@@ -439,7 +577,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public String getString(int parameterIndex) throws SQLException {
-        return outputParameters().getString(parameterIndex);
+        return outputParameters().getString(outputIndex(parameterIndex));
     }
 
 
@@ -448,7 +586,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public boolean getBoolean(int parameterIndex) throws SQLException {
-        return outputParameters().getBoolean(parameterIndex);
+        return outputParameters().getBoolean(outputIndex(parameterIndex));
     }
 
     public boolean getBoolean(String parameterName) throws SQLException {
@@ -456,7 +594,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public byte getByte(int parameterIndex) throws SQLException {
-        return outputParameters().getByte(parameterIndex);
+        return outputParameters().getByte(outputIndex(parameterIndex));
     }
 
 
@@ -465,7 +603,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public short getShort(int parameterIndex) throws SQLException {
-        return outputParameters().getShort(parameterIndex);
+        return outputParameters().getShort(outputIndex(parameterIndex));
     }
 
 
@@ -474,7 +612,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public int getInt(int parameterIndex) throws SQLException {
-        return outputParameters().getInt(parameterIndex);
+        return outputParameters().getInt(outputIndex(parameterIndex));
     }
 
 
@@ -483,7 +621,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public long getLong(int parameterIndex) throws SQLException {
-        return outputParameters().getLong(parameterIndex);
+        return outputParameters().getLong(outputIndex(parameterIndex));
     }
 
 
@@ -492,7 +630,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public float getFloat(int parameterIndex) throws SQLException {
-        return outputParameters().getFloat(parameterIndex);
+        return outputParameters().getFloat(outputIndex(parameterIndex));
     }
 
     public float getFloat(String parameterName) throws SQLException {
@@ -500,7 +638,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public double getDouble(int parameterIndex) throws SQLException {
-        return outputParameters().getDouble(parameterIndex);
+        return outputParameters().getDouble(outputIndex(parameterIndex));
     }
 
     public double getDouble(String parameterName) throws SQLException {
@@ -514,11 +652,11 @@ public class MariaDbCallableStatement implements CallableStatement {
      */
     @Deprecated
     public BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
-        return outputParameters().getBigDecimal(parameterIndex);
+        return outputParameters().getBigDecimal(outputIndex(parameterIndex));
     }
 
     public BigDecimal getBigDecimal(int parameterIndex) throws SQLException {
-        return outputParameters().getBigDecimal(parameterIndex);
+        return outputParameters().getBigDecimal(outputIndex(parameterIndex));
     }
 
     public BigDecimal getBigDecimal(String parameterName) throws SQLException {
@@ -527,7 +665,7 @@ public class MariaDbCallableStatement implements CallableStatement {
 
 
     public byte[] getBytes(int parameterIndex) throws SQLException {
-        return outputParameters().getBytes(parameterIndex);
+        return outputParameters().getBytes(outputIndex(parameterIndex));
     }
 
     public byte[] getBytes(String parameterName) throws SQLException {
@@ -536,11 +674,11 @@ public class MariaDbCallableStatement implements CallableStatement {
 
 
     public Date getDate(int parameterIndex) throws SQLException {
-        return outputParameters().getDate(parameterIndex);
+        return outputParameters().getDate(outputIndex(parameterIndex));
     }
 
     public Date getDate(int parameterIndex, Calendar cal) throws SQLException {
-        return outputParameters().getDate(parameterIndex, cal);
+        return outputParameters().getDate(outputIndex(parameterIndex), cal);
     }
 
     public Date getDate(String parameterName) throws SQLException {
@@ -553,12 +691,12 @@ public class MariaDbCallableStatement implements CallableStatement {
 
 
     public Time getTime(int parameterIndex) throws SQLException {
-        return outputParameters().getTime(parameterIndex);
+        return outputParameters().getTime(outputIndex(parameterIndex));
     }
 
 
     public Time getTime(int parameterIndex, Calendar cal) throws SQLException {
-        return outputParameters().getTime(parameterIndex, cal);
+        return outputParameters().getTime(outputIndex(parameterIndex), cal);
     }
 
     public Time getTime(String parameterName) throws SQLException {
@@ -570,12 +708,12 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public Timestamp getTimestamp(int parameterIndex) throws SQLException {
-        return outputParameters().getTimestamp(parameterIndex);
+        return outputParameters().getTimestamp(outputIndex(parameterIndex));
     }
 
 
     public Timestamp getTimestamp(int parameterIndex, Calendar cal) throws SQLException {
-        return outputParameters().getTimestamp(parameterIndex, cal);
+        return outputParameters().getTimestamp(outputIndex(parameterIndex), cal);
     }
 
     public Timestamp getTimestamp(String parameterName) throws SQLException {
@@ -698,12 +836,12 @@ public class MariaDbCallableStatement implements CallableStatement {
             case Types.VARCHAR:
                 return getString(parameterIndex);
             default:
-                return outputParameters().getObject(parameterIndex);
+                return outputParameters().getObject(outputIndex(parameterIndex));
         }
     }
 
     public Object getObject(int parameterIndex, Map<String, Class<?>> map) throws SQLException {
-        return outputParameters().getObject(parameterIndex, map);
+        return outputParameters().getObject(outputIndex(parameterIndex), map);
     }
 
     public Object getObject(String parameterName) throws SQLException {
@@ -728,7 +866,7 @@ public class MariaDbCallableStatement implements CallableStatement {
 
 
     public Ref getRef(int parameterIndex) throws SQLException {
-        return outputParameters().getRef(parameterIndex);
+        return outputParameters().getRef(outputIndex(parameterIndex));
     }
 
     public Ref getRef(String parameterName) throws SQLException {
@@ -737,7 +875,7 @@ public class MariaDbCallableStatement implements CallableStatement {
 
 
     public Blob getBlob(int parameterIndex) throws SQLException {
-        return outputParameters().getBlob(parameterIndex);
+        return outputParameters().getBlob(outputIndex(parameterIndex));
     }
 
     public Blob getBlob(String parameterName) throws SQLException {
@@ -745,7 +883,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public Clob getClob(int parameterIndex) throws SQLException {
-        return outputParameters().getClob(parameterIndex);
+        return outputParameters().getClob(outputIndex(parameterIndex));
     }
 
     public Clob getClob(String parameterName) throws SQLException {
@@ -753,7 +891,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public Array getArray(int parameterIndex) throws SQLException {
-        return outputParameters().getArray(parameterIndex);
+        return outputParameters().getArray(outputIndex(parameterIndex));
     }
 
     public Array getArray(String parameterName) throws SQLException {
@@ -769,7 +907,7 @@ public class MariaDbCallableStatement implements CallableStatement {
 
     @Override
     public URL getURL(int parameterIndex) throws SQLException {
-        return outputParameters().getURL(parameterIndex);
+        return outputParameters().getURL(outputIndex(parameterIndex));
     }
 
     @Override
@@ -1040,7 +1178,7 @@ public class MariaDbCallableStatement implements CallableStatement {
 
 
     public RowId getRowId(int parameterIndex) throws SQLException {
-        return outputParameters().getRowId(parameterIndex);
+        return outputParameters().getRowId(outputIndex(parameterIndex));
     }
 
     public RowId getRowId(String parameterName) throws SQLException {
@@ -1167,7 +1305,7 @@ public class MariaDbCallableStatement implements CallableStatement {
 
     @Override
     public NClob getNClob(int parameterIndex) throws SQLException {
-        return outputParameters().getNClob(parameterIndex);
+        return outputParameters().getNClob(outputIndex(parameterIndex));
     }
 
     @Override
@@ -1187,7 +1325,7 @@ public class MariaDbCallableStatement implements CallableStatement {
 
     @Override
     public SQLXML getSQLXML(int parameterIndex) throws SQLException {
-        return outputParameters().getSQLXML(parameterIndex);
+        return outputParameters().getSQLXML(outputIndex(parameterIndex));
     }
 
     @Override
@@ -1197,7 +1335,7 @@ public class MariaDbCallableStatement implements CallableStatement {
 
     @Override
     public String getNString(int parameterIndex) throws SQLException {
-        return outputParameters().getNString(parameterIndex);
+        return outputParameters().getNString(outputIndex(parameterIndex));
     }
 
     @Override
@@ -1207,7 +1345,7 @@ public class MariaDbCallableStatement implements CallableStatement {
 
     @Override
     public Reader getNCharacterStream(int parameterIndex) throws SQLException {
-        return outputParameters().getNCharacterStream(parameterIndex);
+        return outputParameters().getNCharacterStream(outputIndex(parameterIndex));
     }
 
     @Override
@@ -1216,7 +1354,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public Reader getCharacterStream(int parameterIndex) throws SQLException {
-        return outputParameters().getCharacterStream(parameterIndex);
+        return outputParameters().getCharacterStream(outputIndex(parameterIndex));
 
     }
 
@@ -1322,7 +1460,12 @@ public class MariaDbCallableStatement implements CallableStatement {
      * method <code>clearParameters</code>.
      */
     public void clearParameters() throws SQLException {
-        if (parametersCount > 0) {
+        if (parametersCount > 0 && nativeCall) {
+            preparedStatement.clearParameters();
+            for (int i = 1; i <= parametersCount; i++) {
+                preparedStatement.setNull(i, Types.NULL);
+            }
+        } else if (parametersCount > 0) {
             MariaDbClientPreparedStatement ps = (MariaDbClientPreparedStatement) inputParameters();
             if (!ps.parametersCleared) {
                 ps.clearParameters();
@@ -1375,6 +1518,18 @@ public class MariaDbCallableStatement implements CallableStatement {
                 rsOutputParameters.close();
                 rsOutputParameters = null;
             }
+            if (nativeCall) {
+                boolean ret = preparedStatement.execute();
+                if (callStatement.getFetchSize() != Integer.MIN_VALUE) {
+                    readNativeOutputParameters();
+                    ret = callStatement.getResultSet() != null;
+                }
+                return ret;
+            }
+            if (parametersCount > 0 && con.getProtocol().getOptions().allowMultiQueries
+                    && callStatement.getFetchSize() != Integer.MIN_VALUE) {
+                return executeInOneRoundTrip();
+            }
             if (parametersCount > 0) {
                 preparedStatement.execute();
             }
@@ -1416,7 +1571,9 @@ public class MariaDbCallableStatement implements CallableStatement {
      * @see Statement#addBatch
      */
     public void addBatch() throws SQLException {
-        if (preparedStatement == null) {
+        if (nativeCall) {
+            preparedStatement.addBatch();
+        } else if (preparedStatement == null) {
             preparedStatement = con.prepareStatement(callQuery);
             preparedStatement.addBatch();
         } else if (parametersCount == 0) {
@@ -1511,6 +1668,9 @@ public class MariaDbCallableStatement implements CallableStatement {
     public void close() throws SQLException {
 
         if (preparedStatement != null) {
+            if (callStatement == preparedStatement) {
+                callStatement = null;
+            }
             preparedStatement.close();
             preparedStatement = null;
         }
@@ -1702,7 +1862,7 @@ public class MariaDbCallableStatement implements CallableStatement {
     }
 
     public Connection getConnection() throws SQLException {
-        return con;
+        return connectionHandle;
     }
 
     public ResultSet getGeneratedKeys() throws SQLException {
@@ -51,6 +51,7 @@ OF SUCH DAMAGE.
 
 import org.mariadb.jdbc.internal.util.Utils;
 import org.mariadb.jdbc.internal.query.MariaDbClientParameterizeQuery;
+import org.mariadb.jdbc.internal.query.Query;
 import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
 
 import java.sql.*;
@@ -85,7 +86,7 @@ public class MariaDbClientPreparedStatement extends AbstractMariaDbPrepareStatem
         /*if(log.isDebugEnabled()) {
             log.debug("Creating prepared statement for " + sql);
         }*/
-        query = new MariaDbClientParameterizeQuery(Utils.nativeSql(sqlQuery, connection.noBackslashEscapes),
+        query = MariaDbClientParameterizeQuery.newInstance(Utils.nativeSql(sqlQuery, connection.noBackslashEscapes),
                 connection.noBackslashEscapes, (isRewriteable && firstRewrite != null) ? firstRewrite.length() : -1);
         parametersCleared = true;
     }
@@ -205,10 +206,17 @@ public class MariaDbClientPreparedStatement extends AbstractMariaDbPrepareStatem
     @Override
     public void clearBatch() {
         if (batchQueries != null) {
+            for (Query batchQuery : batchQueries) {
+                ParameterHolder.release(((MariaDbClientParameterizeQuery) batchQuery).getParameters());
+            }
             batchQueries.clear();
         }
     }
 
+    private boolean hasBatch() {
+        return batchQueries != null && !batchQueries.isEmpty();
+    }
+
     /**
      * Retrieves a <code>ResultSetMetaData</code> object that contains information about the columns of the
      * <code>ResultSet</code> object that will be returned when this <code>PreparedStatement</code> object is executed.
@@ -245,9 +253,19 @@ public class MariaDbClientPreparedStatement extends AbstractMariaDbPrepareStatem
     }
 
 
+    MariaDbClientParameterizeQuery getQuery() {
+        return query;
+    }
+
     @Override
     protected void setParameter(final int parameterIndex, final ParameterHolder holder) throws SQLException {
+        ParameterHolder previous = (parameterIndex > 0 && parameterIndex <= query.getParamCount())
+                ? query.getParameters()[parameterIndex - 1] : null;
         query.setParameter(parameterIndex - 1, holder);
+        //parameters added to batch are released with the batch
+        if (previous != null && previous != holder && !hasBatch()) {
+            previous.release();
+        }
         parametersCleared = false;
     }
 
@@ -283,6 +301,9 @@ public class MariaDbClientPreparedStatement extends AbstractMariaDbPrepareStatem
      */
     @Override
     public void clearParameters() {
+        if (!hasBatch()) {
+            ParameterHolder.release(query.getParameters());
+        }
         query.clearParameters();
         parametersCleared = true;
     }
@@ -292,6 +313,8 @@ public class MariaDbClientPreparedStatement extends AbstractMariaDbPrepareStatem
     @Override
     public void close() throws SQLException {
         isClosed();
+        ParameterHolder.release(query.getParameters());
+        clearBatch();
         super.close();
     }
 
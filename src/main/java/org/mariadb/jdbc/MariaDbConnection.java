@@ -52,6 +52,7 @@ package org.mariadb.jdbc;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
 import org.mariadb.jdbc.internal.util.DefaultOptions;
 import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.PrepareStatementCache;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.util.Utils;
 import org.mariadb.jdbc.internal.protocol.Protocol;
@@ -61,6 +62,7 @@ import java.sql.*;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
@@ -73,6 +75,8 @@ public final class MariaDbConnection implements Connection {
     private final Protocol protocol;
     public Pattern requestWithoutComments = Pattern.compile("((?<![\\\\])['\"])((?:.(?!(?<![\\\\])\\1))*.?)\\1", Pattern.CASE_INSENSITIVE);
     public MariaDbPooledConnection pooledConnection;
+    //connection handle lent by pool, if any
+    private volatile Connection handle;
     boolean noBackslashEscapes;
     boolean nullCatalogMeansCurrent = true;
     int autoIncrementIncrement;
@@ -151,6 +155,39 @@ public final class MariaDbConnection implements Connection {
         return new MariaDbStatement(this, Statement.NO_GENERATED_KEYS);
     }
 
+    /**
+     * Send a select query without waiting for server response, using a new statement.
+     * Calling thread is released as soon as query is sent; the result set is read when server response is available,
+     * or when another command is executed on this connection.
+     * The statement is internal : it is closed when the result set is closed.
+     *
+     * @param sql the query to send to the server
+     * @return future result set
+     * @throws SQLException if the query could not be sent to server
+     */
+    public Future<ResultSet> executeQueryAsync(String sql) throws SQLException {
+        checkConnection();
+        MariaDbStatement statement = new MariaDbStatement(this, Statement.NO_GENERATED_KEYS);
+        statement.closeOnCompletion();
+        statement.internalAsync = true;
+        return statement.executeQueryAsync(sql);
+    }
+
+    /**
+     * Send an update query without waiting for server response, using a new statement.
+     * The statement is internal : it is closed once the update count is read.
+     *
+     * @param sql the update query
+     * @return future update count
+     * @throws SQLException if the query could not be sent to server
+     */
+    public Future<Integer> executeUpdateAsync(String sql) throws SQLException {
+        checkConnection();
+        MariaDbStatement statement = new MariaDbStatement(this, Statement.NO_GENERATED_KEYS);
+        statement.internalAsync = true;
+        return statement.executeUpdateAsync(sql);
+    }
+
     /**
      * Creates a <code>Statement</code> object that will generate <code>ResultSet</code> objects with the given type and concurrency. This method is
      * the same as the <code>createStatement</code> method above, but it allows the default result set type and concurrency to be overridden. The
@@ -371,7 +408,8 @@ public final class MariaDbConnection implements Connection {
      */
     public PreparedStatement internalPrepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
         checkConnection();
-        if (!options.allowMultiQueries && !options.rewriteBatchedStatements && options.useServerPrepStmts && checkIfPreparable(sql)) {
+        if (!options.allowMultiQueries && (!options.rewriteBatchedStatements || options.useBulkStmts)
+                && options.useServerPrepStmts && checkIfPreparable(sql)) {
             return new MariaDbServerPreparedStatement(this, sql, autoGeneratedKeys);
         }
         return new MariaDbClientPreparedStatement(this, sql, autoGeneratedKeys);
@@ -479,6 +517,8 @@ public final class MariaDbConnection implements Connection {
 
     /**
      * Sets whether this connection is auto commited.
+     * Outside a transaction, the command is sent with the next statement : if it fails, the statement is executed
+     * nevertheless and the error is reported by getWarnings().
      *
      * @param autoCommit if it should be auto commited.
      * @throws SQLException if something goes wrong talking to the server.
@@ -487,11 +527,10 @@ public final class MariaDbConnection implements Connection {
         if (autoCommit == getAutoCommit()) {
             return;
         }
-        Statement stmt = createStatement();
         try {
-            stmt.executeUpdate("set autocommit=" + ((autoCommit) ? "1" : "0"));
-        } finally {
-            stmt.close();
+            protocol.setAutoCommit(autoCommit);
+        } catch (QueryException e) {
+            ExceptionMapper.throwException(e, this, null);
         }
     }
 
@@ -557,6 +596,12 @@ public final class MariaDbConnection implements Connection {
      * @throws SQLException if there is a problem talking to the server.
      */
     public void close() throws SQLException {
+        Connection currentHandle = handle;
+        if (currentHandle != null) {
+            //connection obtained by unwrap() : close lent handle, that will return connection to pool
+            currentHandle.close();
+            return;
+        }
         if (pooledConnection != null) {
             if (protocol != null && protocol.inTransaction()) {
                 /* Rollback transaction prior to returning physical connection to the pool */
@@ -568,6 +613,27 @@ public final class MariaDbConnection implements Connection {
         protocol.closeExplicit();
     }
 
+    /**
+     * Set connection handle lent by a pool for this connection, null when connection is returned to pool.
+     * Statements and metadata created while handle is set return it in getConnection().
+     *
+     * @param handle connection handle
+     */
+    public void setConnectionHandle(Connection handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Connection that statements created now must return in getConnection() : handle lent by pool, or this
+     * connection.
+     *
+     * @return connection
+     */
+    Connection getConnectionHandle() {
+        Connection currentHandle = handle;
+        return (currentHandle != null) ? currentHandle : this;
+    }
+
     /**
      * checks if the connection is closed.
      *
@@ -621,6 +687,10 @@ public final class MariaDbConnection implements Connection {
      * @see #setCatalog
      */
     public String getCatalog() throws SQLException {
+        if (protocol.isSessionStateTracked()) {
+            String database = protocol.getDatabase();
+            return (database == null || database.isEmpty()) ? null : database;
+        }
         String catalog = null;
         Statement st = null;
         try {
@@ -667,6 +737,9 @@ public final class MariaDbConnection implements Connection {
      * @see #setTransactionIsolation
      */
     public int getTransactionIsolation() throws SQLException {
+        if (protocol.isSessionStateTracked() && protocol.getTransactionIsolationLevel() != 0) {
+            return protocol.getTransactionIsolationLevel();
+        }
         final Statement stmt = createStatement();
         try {
             final ResultSet rs = stmt.executeQuery("SELECT @@tx_isolation");
@@ -694,6 +767,8 @@ public final class MariaDbConnection implements Connection {
      * <p>Attempts to change the transaction isolation level for this <code>Connection</code> object to the one given. The constants defined in the
      * interface <code>Connection</code> are the possible transaction isolation levels.</p>
      * <p><B>Note:</B> If this method is called during a transaction, the result is implementation-defined.</p>
+     * <p>The command is sent with the next statement : if it fails, the statement is executed nevertheless and the
+     * error is reported by getWarnings().</p>
      *
      * @param level one of the following <code>Connection</code> constants: <code>Connection.TRANSACTION_READ_UNCOMMITTED</code>,
      * <code>Connection.TRANSACTION_READ_COMMITTED</code>, <code>Connection.TRANSACTION_REPEATABLE_READ</code>, or
@@ -724,13 +799,27 @@ public final class MariaDbConnection implements Connection {
      * @see java.sql.SQLWarning
      */
     public SQLWarning getWarnings() throws SQLException {
-        if (warningsCleared || isClosed() || !protocol.hasWarnings()) {
+        if (warningsCleared || isClosed()) {
+            return null;
+        }
+        //session command (autocommit, isolation, max rows, timeout) sent with last statement failed,
+        //but statement has been executed.
+        QueryException sessionException = protocol.getSessionCommandException();
+        if (sessionException == null && !protocol.hasWarnings()) {
             return null;
         }
-        Statement st = null;
-        ResultSet rs = null;
         SQLWarning last = null;
         SQLWarning first = null;
+        if (sessionException != null) {
+            first = new SQLWarning(sessionException.getMessage(), sessionException.getSqlState(),
+                    sessionException.getErrorCode(), sessionException);
+            last = first;
+            if (!protocol.hasWarnings()) {
+                return first;
+            }
+        }
+        Statement st = null;
+        ResultSet rs = null;
         try {
             st = this.createStatement();
             rs = st.executeQuery("show warnings");
@@ -1173,6 +1262,36 @@ public final class MariaDbConnection implements Connection {
         return protocol.getDatabase();
     }
 
+    /**
+     * Number of server prepared statement found in cache (option cachePrepStmts).
+     *
+     * @return cache hit count
+     */
+    public long getPrepStmtCacheHits() {
+        PrepareStatementCache cache = protocol.prepareStatementCache();
+        return (cache == null) ? 0 : cache.getHits();
+    }
+
+    /**
+     * Number of server prepared statement not found in cache, that had to be prepared (option cachePrepStmts).
+     *
+     * @return cache miss count
+     */
+    public long getPrepStmtCacheMisses() {
+        PrepareStatementCache cache = protocol.prepareStatementCache();
+        return (cache == null) ? 0 : cache.getMisses();
+    }
+
+    /**
+     * Number of server prepared statement evicted from cache since cache size exceed prepStmtCacheSize.
+     *
+     * @return cache eviction count
+     */
+    public long getPrepStmtCacheEvictions() {
+        PrepareStatementCache cache = protocol.prepareStatementCache();
+        return (cache == null) ? 0 : cache.getEvictions();
+    }
+
     protected boolean getPinGlobalTxToPhysicalConnection() {
         return protocol.getPinGlobalTxToPhysicalConnection();
     }
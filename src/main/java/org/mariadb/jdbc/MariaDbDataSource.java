@@ -55,6 +55,7 @@ import org.mariadb.jdbc.internal.util.DefaultOptions;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.util.constant.HaMode;
 import org.mariadb.jdbc.internal.util.Utils;
+import org.mariadb.jdbc.internal.util.pool.Pool;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 
 import javax.sql.*;
@@ -69,6 +70,7 @@ import java.util.logging.Logger;
 
 public class MariaDbDataSource implements DataSource, ConnectionPoolDataSource, XADataSource {
     private final UrlParser urlParser;
+    private volatile Pool pool;
 
     /**
      * Constructor.
@@ -257,6 +259,18 @@ public class MariaDbDataSource implements DataSource, ConnectionPoolDataSource,
      * @throws java.sql.SQLException if a database access error occurs
      */
     public Connection getConnection() throws SQLException {
+        if (urlParser.getOptions().pool) {
+            return getPool().getConnection();
+        }
+        return createConnection();
+    }
+
+    private Connection createConnection(String username, String password) throws SQLException {
+        setCredentials(username, password);
+        return createConnection();
+    }
+
+    private Connection createConnection() throws SQLException {
         try {
             ReentrantLock lock = new ReentrantLock();
             Protocol proxyfiedProtocol = Utils.retrieveProxy(urlParser, lock);
@@ -277,12 +291,62 @@ public class MariaDbDataSource implements DataSource, ConnectionPoolDataSource,
      * @since 1.4
      */
     public Connection getConnection(final String username, final String password) throws SQLException {
-        urlParser.setUsername(username);
-        urlParser.setPassword(password);
+        setCredentials(username, password);
         //if (log.isDebugEnabled()) log.debug("connection : " +urlParser.toString());
         return getConnection();
     }
 
+    /**
+     * Change connection credentials.
+     * Pooled connections are bound to the user that created them, so an existing pool is closed when
+     * credentials differ.
+     *
+     * @param username user
+     * @param password password
+     */
+    private synchronized void setCredentials(String username, String password) {
+        if (pool != null && (!equals(username, urlParser.getUsername()) || !equals(password, urlParser.getPassword()))) {
+            pool.close();
+            pool = null;
+        }
+        urlParser.setUsername(username);
+        urlParser.setPassword(password);
+    }
+
+    private static boolean equals(String value, String other) {
+        return (value == null) ? other == null : value.equals(other);
+    }
+
+    /**
+     * Get the connection pool used by this datasource when option "pool" is set, creating it on first call.
+     *
+     * @return connection pool
+     */
+    public Pool getPool() {
+        Pool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                current = pool;
+                if (current == null) {
+                    current = new Pool(urlParser);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Close the connection pool if one was created. Idle connections are closed, connections in use are closed
+     * when returned.
+     */
+    public synchronized void close() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
     /**
      * Retrieves the log writer for this <code>DataSource</code> object.
      * <p>
@@ -401,7 +465,7 @@ public class MariaDbDataSource implements DataSource, ConnectionPoolDataSource,
      * @since 1.4
      */
     public PooledConnection getPooledConnection() throws SQLException {
-        return new MariaDbPooledConnection((MariaDbConnection) getConnection());
+        return new MariaDbPooledConnection((MariaDbConnection) createConnection());
     }
 
     /**
@@ -417,17 +481,17 @@ public class MariaDbDataSource implements DataSource, ConnectionPoolDataSource,
      * @since 1.4
      */
     public PooledConnection getPooledConnection(String user, String password) throws SQLException {
-        return new MariaDbPooledConnection((MariaDbConnection) getConnection(user, password));
+        return new MariaDbPooledConnection((MariaDbConnection) createConnection(user, password));
     }
 
     @Override
     public XAConnection getXAConnection() throws SQLException {
-        return new MariaXaConnection((MariaDbConnection) getConnection());
+        return new MariaXaConnection((MariaDbConnection) createConnection());
     }
 
     @Override
     public XAConnection getXAConnection(String user, String password) throws SQLException {
-        return new MariaXaConnection((MariaDbConnection) getConnection(user, password));
+        return new MariaXaConnection((MariaDbConnection) createConnection(user, password));
     }
 
     public Logger getParentLogger() throws SQLFeatureNotSupportedException {
@@ -66,6 +66,7 @@ public class MariaDbDatabaseMetaData implements DatabaseMetaData {
     private static final String DRIVER_NAME = "MariaDB connector/J";
     private String url;
     private MariaDbConnection connection;
+    private Connection connectionHandle;
     private String databaseProductName = "MySQL";
     private String username;
 
@@ -78,6 +79,7 @@ public class MariaDbDatabaseMetaData implements DatabaseMetaData {
      */
     public MariaDbDatabaseMetaData(Connection connection, String user, String url) {
         this.connection = (MariaDbConnection) connection;
+        this.connectionHandle = this.connection.getConnectionHandle();
         this.username = user;
         this.url = url;
         this.connection.getProtocol().getServerVersion();
@@ -2164,7 +2166,7 @@ public class MariaDbDatabaseMetaData implements DatabaseMetaData {
     }
 
     public Connection getConnection() throws SQLException {
-        return connection;
+        return connectionHandle;
     }
 
     public boolean supportsSavepoints() throws SQLException {
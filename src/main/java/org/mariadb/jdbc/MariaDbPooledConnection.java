@@ -2,6 +2,9 @@ package org.mariadb.jdbc;
 
 import javax.sql.*;
 
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.threadly.concurrent.event.ListenerHelper;
 
 import java.sql.Connection;
@@ -14,6 +17,9 @@ public class MariaDbPooledConnection implements PooledConnection {
     MariaDbConnection connection;
     ListenerHelper<ConnectionEventListener> connectionEventListeners;
     ListenerHelper<StatementEventListener> statementEventListeners;
+    private final String initialDatabase;
+    private final int initialTransactionIsolation;
+    private final boolean initialReadOnly;
 
     /**
      * Constructor.
@@ -24,6 +30,45 @@ public class MariaDbPooledConnection implements PooledConnection {
         connection.pooledConnection = this;
         statementEventListeners = ListenerHelper.build(StatementEventListener.class);
         connectionEventListeners = ListenerHelper.build(ConnectionEventListener.class);
+        Protocol protocol = connection.getProtocol();
+        initialDatabase = protocol.getDatabase();
+        initialTransactionIsolation = protocol.getTransactionIsolationLevel();
+        initialReadOnly = protocol.getReadonly();
+    }
+
+    /**
+     * Restore connection to the state it had when this PooledConnection has been created, so that it can be lent again.
+     * Current transaction is rolled back, then autocommit, transaction isolation, catalog and read-only state changed
+     * using JDBC methods are restored from driver cached session state : autocommit and transaction isolation are
+     * sent with next command, so restoring them doesn't cost a round trip.
+     * When useResetConnection is set, whole session is reset using COM_RESET_CONNECTION if server supports it
+     * (server prepared statements are then released).
+     *
+     * @param useResetConnection reset session using COM_RESET_CONNECTION
+     * @throws SQLException if state cannot be restored
+     */
+    public void resetState(boolean useResetConnection) throws SQLException {
+        Protocol protocol = connection.getProtocol();
+        try {
+            if (protocol.inTransaction()) {
+                protocol.rollback();
+            }
+            if (!useResetConnection || !protocol.resetConnection()) {
+                connection.setAutoCommit(true);
+                if (initialTransactionIsolation != 0 && protocol.getTransactionIsolationLevel() != initialTransactionIsolation) {
+                    connection.setTransactionIsolation(initialTransactionIsolation);
+                }
+            }
+        } catch (QueryException e) {
+            ExceptionMapper.throwException(e, connection, null);
+        }
+        if (initialDatabase != null && !initialDatabase.isEmpty() && !initialDatabase.equals(protocol.getDatabase())) {
+            connection.setCatalog(initialDatabase);
+        }
+        if (protocol.getReadonly() != initialReadOnly) {
+            connection.setReadOnly(initialReadOnly);
+        }
+        connection.reenableWarnings();
     }
 
     /**
@@ -63,6 +108,7 @@ public class MariaDbPooledConnection implements PooledConnection {
     @Override
     public void close() throws SQLException {
         connection.pooledConnection = null;
+        connection.setConnectionHandle(null);
         connection.close();
     }
 
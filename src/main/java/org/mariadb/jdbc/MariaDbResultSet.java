@@ -92,13 +92,13 @@ public class MariaDbResultSet implements ResultSet {
         this.statement = statement;
         this.protocol = protocol;
         this.cal = (protocol != null) ? protocol.getCalendar() : null;
-        this.columnNameMap = new ColumnNameMap(dqr.getColumnInformation());
+        this.columnNameMap = (statement != null) ? statement.getColumnNameMap(dqr.getColumnInformation())
+                : new ColumnNameMap(dqr.getColumnInformation());
     }
 
     private static MariaDbResultSet createEmptyResultSet() {
         ColumnInformation[] colList = new ColumnInformation[0];
-        List<ValueObject[]> voList = Collections.emptyList();
-        AbstractQueryResult qr = new CachedSelectResult(colList, voList, (short) 0);
+        AbstractQueryResult qr = new CachedSelectResult(colList, false, null, (short) 0);
         return new MariaDbResultSet(qr, null, null);
     }
 
@@ -124,10 +124,8 @@ public class MariaDbResultSet implements ResultSet {
 
         final byte[] boolTrue = {1};
         final byte[] boolFalse = {0};
-        List<ValueObject[]> rows = new ArrayList<>();
+        CachedSelectResult result = new CachedSelectResult(columns, false, protocol.getOptions(), (short) 0);
         for (String[] rowData : data) {
-            ValueObject[] row = new ValueObject[columnNameLength];
-
             if (rowData.length != columnNameLength) {
                 throw new RuntimeException("Number of elements in the row != number of columns :" + rowData.length + " vs " + columnNameLength);
             }
@@ -145,19 +143,22 @@ public class MariaDbResultSet implements ResultSet {
                         bytes = new byte[0];
                     }
                 }
-                row[i] = new MariaDbValueObject(bytes, columns[i], protocol.getOptions());
+                if (bytes == null) {
+                    result.addValue(null, 0, -1);
+                } else {
+                    result.addValue(bytes, 0, bytes.length);
+                }
             }
-            rows.add(row);
         }
         if (findColumnReturnsOne) {
-            return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0),
+            return new MariaDbResultSet(result,
                     null, protocol) {
                 public int findColumn(String name) {
                     return 1;
                 }
             };
         }
-        return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0),
+        return new MariaDbResultSet(result,
                 null, protocol);
     }
 
@@ -192,10 +193,8 @@ public class MariaDbResultSet implements ResultSet {
 
         final byte[] boolTrue = {1};
         final byte[] boolFalse = {0};
-        List<ValueObject[]> rows = new ArrayList<>();
+        CachedSelectResult result = new CachedSelectResult(columns, false, protocol.getOptions(), (short) 0);
         for (String[] rowData : data) {
-            ValueObject[] row = new ValueObject[columnLength];
-
             if (rowData.length != columnLength) {
                 throw new RuntimeException("Number of elements in the row != number of columns :" + rowData.length + " vs " + columnLength);
             }
@@ -213,19 +212,22 @@ public class MariaDbResultSet implements ResultSet {
                         bytes = new byte[0];
                     }
                 }
-                row[i] = new MariaDbValueObject(bytes, columns[i], protocol.getOptions());
+                if (bytes == null) {
+                    result.addValue(null, 0, -1);
+                } else {
+                    result.addValue(bytes, 0, bytes.length);
+                }
             }
-            rows.add(row);
         }
         if (findColumnReturnsOne) {
-            return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0),
+            return new MariaDbResultSet(result,
                     null, protocol) {
                 public int findColumn(String name) {
                     return 1;
                 }
             };
         }
-        return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0),
+        return new MariaDbResultSet(result,
                 null, protocol);
     }
 
@@ -339,6 +341,9 @@ public class MariaDbResultSet implements ResultSet {
         if (this.queryResult != null) {
             this.queryResult.close();
         }
+        if (statement != null) {
+            statement.resultSetClosed();
+        }
     }
 
     /**
@@ -1470,7 +1475,8 @@ public class MariaDbResultSet implements ResultSet {
      * @since 1.2
      */
     public int getType() throws SQLException {
-        return (queryResult instanceof StreamingSelectResult) ? ResultSet.TYPE_FORWARD_ONLY : ResultSet.TYPE_SCROLL_INSENSITIVE;
+        return (queryResult instanceof StreamingSelectResult || queryResult instanceof CursorSelectResult)
+                ? ResultSet.TYPE_FORWARD_ONLY : ResultSet.TYPE_SCROLL_INSENSITIVE;
     }
 
     /**
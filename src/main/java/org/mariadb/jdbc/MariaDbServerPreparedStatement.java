@@ -51,16 +51,22 @@ OF SUCH DAMAGE.
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.queryresults.AbstractQueryResult;
+import org.mariadb.jdbc.internal.queryresults.ColumnNameMap;
 import org.mariadb.jdbc.internal.queryresults.ModifyQueryResult;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
 import org.mariadb.jdbc.internal.queryresults.ResultSetType;
 import org.mariadb.jdbc.internal.MariaDbType;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatement {
     protected boolean binaryData = true;
@@ -72,6 +78,11 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
     MariaDbParameterMetaData parameterMetaData;
     ParameterHolder[] currentParameterHolder;
     List<ParameterHolder[]> queryParameters = new ArrayList<>();
+    //multi-row INSERT execution of batch : query parts, and prepare results by number of rows
+    private static final int MAX_BULK_ROWS = 1024;
+    private String[] bulkQueryParts;
+    private Map<Integer, PrepareResult> bulkPrepareResults;
+    private PrepareResult cursorPrepareResult;
 
     /**
      * Constructor for creating Server prepared statement.
@@ -137,7 +148,12 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
     protected void setParameter(final int parameterIndex, final ParameterHolder holder) throws SQLException {
 
         try {
+            ParameterHolder previous = currentParameterHolder[parameterIndex - 1];
             currentParameterHolder[parameterIndex - 1] = holder;
+            //parameters added to batch are released with the batch
+            if (previous != null && previous != holder && queryParameters.isEmpty()) {
+                previous.release();
+            }
         } catch (ArrayIndexOutOfBoundsException a) {
             throw ExceptionMapper.getSqlException("Could not set parameter at position " + parameterIndex
                     + ", parameter length is " + parameterCount);
@@ -158,6 +174,9 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
 
     @Override
     public void clearBatch() {
+        for (ParameterHolder[] parameters : queryParameters) {
+            ParameterHolder.release(parameters);
+        }
         queryParameters.clear();
     }
 
@@ -228,6 +247,30 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
             executeQueryProlog();
             try {
                 int queryParameterSize = queryParameters.size();
+                int bulkRows = (protocol.getOptions().useBulkStmts && queryParameterSize > 1) ? getBulkRows() : 0;
+                while (bulkRows > 1 && queryParameterSize - counter > 1) {
+                    //chunks of "power of 2" rows, so that a few multi-row statements are prepared and reused
+                    int rows = Math.min(bulkRows, Integer.highestOneBit(queryParameterSize - counter));
+                    executeBulk(counter, rows, ret);
+                    counter += rows;
+                }
+                if (counter == 0 && protocol.getOptions().useBatchMultiSend && queryParameterSize > 1) {
+                    List<Object> results = new ArrayList<>(queryParameterSize);
+                    try {
+                        protocol.executePreparedBatch(sql, queryParameters, prepareResult, parameterTypeHeader, results);
+                    } catch (QueryException e) {
+                        //report update counts of executions acknowledged before connection error
+                        readBatchResults(results, ret, insertIds);
+                        counter = results.size();
+                        refreshPrepareAfterFailover();
+                        throw e;
+                    }
+                    counter = results.size();
+                    QueryException batchException = readBatchResults(results, ret, insertIds);
+                    if (batchException != null) {
+                        throw batchException;
+                    }
+                }
                 for (; counter < queryParameterSize; counter++) {
                     queryResult = protocol.executePreparedQuery(sql, queryParameters.get(counter), prepareResult, parameterTypeHeader,
                             isStreaming());
@@ -274,17 +317,287 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
     }
 
 
+    /**
+     * Batch executions are not relaunched after a failover : if connection has been reestablished, prepare statement
+     * again, since statement id belongs to previous connection.
+     */
+    private void refreshPrepareAfterFailover() {
+        if (protocol.getProxy() != null && protocol.isConnected()) {
+            try {
+                prepareResult = protocol.prepare(sql);
+            } catch (QueryException qe) {
+                //eat exception : batch exception will be thrown
+            }
+        }
+    }
+
+    /**
+     * Get the number of batch rows that can be sent in one multi-row INSERT statement.
+     * Only INSERT ... VALUES (...) queries can be executed this way, with no parameter outside the VALUES
+     * parentheses. Number of rows is limited by 65535 parameters by statement and by max_allowed_packet.
+     *
+     * @return maximum rows by statement, or 0 if batch cannot be executed with multi-row INSERT
+     * @throws QueryException if parameter length cannot be read
+     */
+    private int getBulkRows() throws QueryException {
+        //generated keys of a multi-row INSERT are not known to be contiguous (explicit ids, innodb_autoinc_lock_mode)
+        if (autoGeneratedKeys) {
+            return 0;
+        }
+        if (bulkQueryParts == null) {
+            bulkQueryParts = parseBulkInsert(sql, parameterCount, connection.noBackslashEscapes);
+        }
+        if (bulkQueryParts.length == 0) {
+            return 0;
+        }
+        long maxRowLength = 0;
+        try {
+            for (ParameterHolder[] parameters : queryParameters) {
+                long rowLength = 0;
+                for (ParameterHolder parameter : parameters) {
+                    if (parameter.isLongData()) {
+                        //stream data are sent with COM_STMT_SEND_LONG_DATA, for each execution
+                        return 0;
+                    }
+                    //parameter type and null bitmap bytes
+                    rowLength += parameter.getApproximateTextProtocolLength() + 3;
+                }
+                maxRowLength = Math.max(maxRowLength, rowLength);
+            }
+        } catch (IOException ioe) {
+            throw new QueryException("Could not read parameter length: " + ioe.getMessage(), -1, "HY000", ioe);
+        }
+
+        long maxAllowedPacket = Long.parseLong(protocol.getServerData("max_allowed_packet")) - 1024;
+        long valuesLength = bulkQueryParts[1].length() + 1;
+        long rows = Math.min(MAX_BULK_ROWS, 65535 / parameterCount);
+        rows = Math.min(rows, maxAllowedPacket / Math.max(1, maxRowLength));
+        rows = Math.min(rows, (maxAllowedPacket - bulkQueryParts[0].length() - bulkQueryParts[2].length()) / valuesLength);
+        return (rows < 2) ? 0 : Integer.highestOneBit((int) rows);
+    }
+
+    /**
+     * Split INSERT query into the part before VALUES parentheses, the parenthesized values, and the part after.
+     * Comments and quoted literals / identifiers are skipped, so that only SQL tokens are considered.
+     * Query must start with INSERT, have VALUE(S) followed by a single parenthesized row containing all parameters.
+     * Executable comments ("/*!" or "/*M!") are executed by server, so query is then not considered.
+     *
+     * @param sql query
+     * @param parameterCount number of parameters of prepared statement
+     * @param noBackslashEscapes is backslash an escape character in string literals
+     * @return query parts, or an empty array if query cannot be executed as a multi-row INSERT
+     */
+    static String[] parseBulkInsert(String sql, int parameterCount, boolean noBackslashEscapes) {
+        String[] notBulk = new String[0];
+        if (parameterCount == 0) {
+            return notBulk;
+        }
+        int length = sql.length();
+        boolean isInsert = false;
+        boolean afterValues = false;
+        int depth = 0;
+        int startBracket = -1;
+        int endBracket = -1;
+        int paramCount = 0;
+        int pos = 0;
+        while (pos < length) {
+            char car = sql.charAt(pos);
+            if (Character.isWhitespace(car)) {
+                pos++;
+                continue;
+            }
+            //comments
+            if (car == '#' || (car == '-' && pos + 1 < length && sql.charAt(pos + 1) == '-'
+                    && (pos + 2 == length || Character.isWhitespace(sql.charAt(pos + 2))))) {
+                int endLine = sql.indexOf('\n', pos);
+                pos = (endLine == -1) ? length : endLine + 1;
+                continue;
+            }
+            if (car == '/' && pos + 1 < length && sql.charAt(pos + 1) == '*') {
+                if (pos + 2 < length && (sql.charAt(pos + 2) == '!' || sql.charAt(pos + 2) == 'M')) {
+                    return notBulk;
+                }
+                int endComment = sql.indexOf("*/", pos + 2);
+                if (endComment == -1) {
+                    return notBulk;
+                }
+                pos = endComment + 2;
+                continue;
+            }
+            //quoted string or identifier
+            if (car == '\'' || car == '"' || car == '`') {
+                pos++;
+                while (pos < length && sql.charAt(pos) != car) {
+                    if (sql.charAt(pos) == '\\' && car != '`' && !noBackslashEscapes) {
+                        pos++;
+                    }
+                    pos++;
+                }
+                if (pos >= length) {
+                    return notBulk;
+                }
+                pos++;
+                continue;
+            }
+            if (Character.isLetter(car) || car == '_') {
+                int wordStart = pos;
+                while (pos < length && (Character.isLetterOrDigit(sql.charAt(pos)) || sql.charAt(pos) == '_'
+                        || sql.charAt(pos) == '$')) {
+                    pos++;
+                }
+                String word = sql.substring(wordStart, pos);
+                if (!isInsert) {
+                    if (!"INSERT".equalsIgnoreCase(word)) {
+                        return notBulk;
+                    }
+                    isInsert = true;
+                } else if (startBracket == -1 && depth == 0) {
+                    if ("SELECT".equalsIgnoreCase(word)) {
+                        return notBulk;
+                    }
+                    afterValues = "VALUES".equalsIgnoreCase(word) || "VALUE".equalsIgnoreCase(word);
+                }
+                continue;
+            }
+            if (!isInsert) {
+                return notBulk;
+            }
+            switch (car) {
+                case '(':
+                    if (afterValues && startBracket == -1) {
+                        startBracket = pos;
+                    }
+                    depth++;
+                    break;
+                case ')':
+                    if (--depth == 0 && startBracket != -1 && endBracket == -1) {
+                        endBracket = pos;
+                    }
+                    break;
+                case '?':
+                    if (startBracket != -1 && endBracket == -1) {
+                        paramCount++;
+                    }
+                    break;
+                case ';':
+                    return notBulk;
+                default:
+            }
+            pos++;
+        }
+        //all parameters must be in values, since the values part only is repeated
+        if (endBracket == -1 || paramCount != parameterCount) {
+            return notBulk;
+        }
+        return new String[] {sql.substring(0, startBracket), sql.substring(startBracket, endBracket + 1),
+                sql.substring(endBracket + 1)};
+    }
+
+    /**
+     * Execute rows of the batch with a multi-row INSERT statement.
+     * Update count of each row is 1 if each row has been inserted, SUCCESS_NO_INFO otherwise (or if the query has an
+     * ON DUPLICATE KEY UPDATE part, since an updated row counts as 2 affected rows).
+     * Never used when generated keys are requested.
+     *
+     * @param firstRow index of first row
+     * @param rows number of rows
+     * @param updateCounts update counts to fill
+     * @throws QueryException if statement fails
+     */
+    private void executeBulk(int firstRow, int rows, int[] updateCounts) throws QueryException {
+        if (bulkPrepareResults == null) {
+            bulkPrepareResults = new HashMap<>();
+        }
+        StringBuilder sb = new StringBuilder(bulkQueryParts[0]);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(bulkQueryParts[1]);
+        }
+        String bulkSql = sb.append(bulkQueryParts[2]).toString();
+
+        PrepareResult bulkPrepareResult = bulkPrepareResults.get(rows);
+        if (bulkPrepareResult == null) {
+            bulkPrepareResult = protocol.prepare(bulkSql);
+            bulkPrepareResults.put(rows, bulkPrepareResult);
+        }
+
+        ParameterHolder[] parameters = new ParameterHolder[rows * parameterCount];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(queryParameters.get(firstRow + i), 0, parameters, i * parameterCount, parameterCount);
+        }
+        queryResult = protocol.executePreparedQuery(bulkSql, parameters, bulkPrepareResult, new MariaDbType[parameters.length], false);
+
+        // in case of failover
+        if (queryResult.getFailureObject() != null) {
+            bulkPrepareResults.put(rows, queryResult.getFailureObject());
+        }
+
+        long affectedRows = (queryResult.getResultSetType() == ResultSetType.MODIFY && bulkQueryParts[2].trim().isEmpty())
+                ? ((ModifyQueryResult) queryResult).getUpdateCount() : -1;
+        for (int i = 0; i < rows; i++) {
+            updateCounts[firstRow + i] = (affectedRows == rows) ? 1 : SUCCESS_NO_INFO;
+        }
+    }
+
+    /**
+     * Fill update counts (and insert ids if generated keys are requested) from results of a multi-send batch.
+     * Update count of a failed execution is set to EXECUTE_FAILED.
+     *
+     * @param results results of each execution sent to server
+     * @param updateCounts update counts to fill
+     * @param insertIds insert ids to fill if generated keys are requested
+     * @return the first execution error, or null if all executions succeed
+     */
+    private QueryException readBatchResults(List<Object> results, int[] updateCounts, long[] insertIds) {
+        QueryException firstException = null;
+        int counter = 0;
+        for (Object result : results) {
+            if (result instanceof QueryException) {
+                updateCounts[counter] = EXECUTE_FAILED;
+                if (firstException == null) {
+                    firstException = (QueryException) result;
+                }
+            } else {
+                queryResult = (AbstractQueryResult) result;
+                if (queryResult.getResultSetType() == ResultSetType.MODIFY) {
+                    updateCounts[counter] = (int) ((ModifyQueryResult) queryResult).getUpdateCount();
+                    if (autoGeneratedKeys) {
+                        insertIds[counter] = ((ModifyQueryResult) queryResult).getInsertId();
+                    }
+                } else {
+                    updateCounts[counter] = SUCCESS_NO_INFO;
+                }
+            }
+            counter++;
+        }
+        return firstException;
+    }
+
     private boolean executeInternal(ParameterHolder[] parameters, MariaDbType[] parameterTypeHeader) throws SQLException {
         executing = true;
         QueryException exception = null;
         executeQueryProlog();
         try {
             batchResultSet = null;
-            queryResult = protocol.executePreparedQuery(sql, parameters, prepareResult, parameterTypeHeader, isStreaming());
-
-            // in case of failover
-            if (queryResult.getFailureObject() != null) {
-                prepareResult = queryResult.getFailureObject();
+            if (getFetchSize() > 0 && protocol.getOptions().useCursorFetch) {
+                //server cursor belongs to statement id : cursor fetch use a statement not shared with prepare cache
+                if (cursorPrepareResult == null) {
+                    cursorPrepareResult = protocol.prepare(sql, false);
+                }
+                queryResult = protocol.executePreparedQueryWithCursor(sql, parameters, cursorPrepareResult, parameterTypeHeader,
+                        getFetchSize());
+                // in case of failover
+                if (queryResult.getFailureObject() != null) {
+                    cursorPrepareResult = queryResult.getFailureObject();
+                }
+            } else {
+                queryResult = protocol.executePreparedQuery(sql, parameters, prepareResult, parameterTypeHeader, isStreaming());
+                // in case of failover
+                if (queryResult.getFailureObject() != null) {
+                    prepareResult = queryResult.getFailureObject();
+                }
             }
             cacheMoreResults();
             return (queryResult.getResultSetType() == ResultSetType.SELECT);
@@ -308,7 +621,7 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
             timerTask = null;
         }
 
-        if (isTimedout) {
+        if (isTimedout || (exception != null && exception.getErrorCode() == ER_STATEMENT_TIMEOUT)) {
             isTimedout = false;
             exception = new QueryException("Query timed out", 1317, "JZ0002", exception);
         }
@@ -354,6 +667,9 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
 
     @Override
     public void clearParameters() throws SQLException {
+        if (queryParameters.isEmpty()) {
+            ParameterHolder.release(currentParameterHolder);
+        }
         currentParameterHolder = new ParameterHolder[prepareResult.parameters.length];
     }
 
@@ -384,6 +700,15 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
         return result;
     }
 
+    /**
+     * Column index by name is shared by results of this prepared statement.
+     * @param columns result set columns
+     * @return column name map
+     */
+    @Override
+    ColumnNameMap getColumnNameMap(ColumnInformation[] columns) {
+        return prepareResult.getColumnNameMap(columns);
+    }
 
     /**
      * <p>Releases this <code>Statement</code> object's database and JDBC resources immediately instead of waiting for this
@@ -405,10 +730,22 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
         // This makes the cache eligible for garbage collection earlier if the statement is not
         // immediately garbage collected
         cachedResultSets.clear();
+        ParameterHolder.release(currentParameterHolder);
+        clearBatch();
 
         if (protocol.isConnected()) {
             try {
-                protocol.releasePrepareStatement(sql, prepareResult.statementId);
+                protocol.releasePrepareStatement(prepareResult);
+                if (bulkPrepareResults != null) {
+                    for (PrepareResult bulkPrepareResult : bulkPrepareResults.values()) {
+                        protocol.releasePrepareStatement(bulkPrepareResult);
+                    }
+                    bulkPrepareResults = null;
+                }
+                if (cursorPrepareResult != null) {
+                    protocol.releasePrepareStatement(cursorPrepareResult);
+                    cursorPrepareResult = null;
+                }
             } catch (QueryException e) {
                 //if (log.isDebugEnabled()) log.debug("Error releasing preparedStatement", e);
             }
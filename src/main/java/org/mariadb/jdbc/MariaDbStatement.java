@@ -49,25 +49,40 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc;
 
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.queryresults.AbstractQueryResult;
 import org.mariadb.jdbc.internal.util.Utils;
+import org.mariadb.jdbc.internal.util.scheduler.HashedWheelTimer;
 import org.mariadb.jdbc.internal.query.MariaDbQuery;
 import org.mariadb.jdbc.internal.query.Query;
+import org.mariadb.jdbc.internal.queryresults.CachedSelectResult;
+import org.mariadb.jdbc.internal.queryresults.ColumnNameMap;
 import org.mariadb.jdbc.internal.queryresults.ModifyQueryResult;
 import org.mariadb.jdbc.internal.queryresults.ResultSetType;
+import org.mariadb.jdbc.internal.queryresults.SelectQueryResult;
+import org.mariadb.jdbc.internal.queryresults.StreamingSelectResult;
+import org.mariadb.jdbc.internal.protocol.AsyncQuery;
+import org.mariadb.jdbc.internal.protocol.KillConnectionManager;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 
 public class MariaDbStatement implements Statement {
-    private static volatile Timer timer;
+    /**
+     * Delay added to client side timeout when server enforces the timeout itself, so that KILL QUERY is only a
+     * fallback.
+     */
+    private static final long SERVER_TIMEOUT_GRACE = 1000;
     /**
      * the protocol used to talk to the server.
      */
@@ -82,7 +97,7 @@ public class MariaDbStatement implements Statement {
      * The actual query result.
      */
     protected AbstractQueryResult queryResult;
-    protected TimerTask timerTask;
+    protected HashedWheelTimer.Timeout timerTask;
     protected boolean isRewriteable = true;
     protected String firstRewrite = null;
     protected ResultSet batchResultSet = null;
@@ -90,7 +105,7 @@ public class MariaDbStatement implements Statement {
     boolean isTimedout;
     volatile boolean executing;
     List<Query> batchQueries;
-    Queue<Object> cachedResultSets;
+    Deque<Object> cachedResultSets;
     //are warnings cleared?
     private boolean warningsCleared;
     private int queryTimeout;
@@ -98,6 +113,14 @@ public class MariaDbStatement implements Statement {
     private int fetchSize;
     private boolean isStreaming = false;
     private int maxRows;
+    private boolean closeOnCompletion;
+    //statement created by connection for an asynchronous query, closed once result is read
+    boolean internalAsync;
+    private final Connection connectionHandle;
+    /**
+     * Server error when max_statement_time is exceeded.
+     */
+    static final int ER_STATEMENT_TIMEOUT = 1969;
     public static final Pattern deleteEndSemicolonPattern = Pattern.compile("[;][ ]*$", Pattern.CASE_INSENSITIVE);
 
     /**
@@ -110,30 +133,17 @@ public class MariaDbStatement implements Statement {
         this.autoGeneratedKeys = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS;
         this.protocol = connection.getProtocol();
         this.connection = connection;
+        this.connectionHandle = connection.getConnectionHandle();
         this.escapeProcessing = true;
         cachedResultSets = new LinkedList<>();
     }
 
-    private static Timer getTimer() {
-        Timer result = timer;
-        if (result == null) {
-            synchronized (MariaDbStatement.class) {
-                result = timer;
-                if (result == null) {
-                    timer = result = new Timer("MariaDB-JDBC-Timer", true);
-                }
-            }
-        }
-        return result;
-    }
-
     /**
      * Provide a "cleanup" method that can be called after unloading driver, to fix Tomcat's obscure classpath handling.
      */
     public static void unloadDriver() {
-        if (timer != null) {
-            timer.cancel();
-        }
+        KillConnectionManager.closeAll();
+        HashedWheelTimer.shutdownDefault();
     }
 
     public boolean isStreaming() {
@@ -150,11 +160,14 @@ public class MariaDbStatement implements Statement {
     }
 
     // Part of query prolog - setup timeout timer
-    private void setTimerTask() {
+    private void setTimerTask(boolean serverTimeout) {
         assert (timerTask == null);
-        timerTask = new TimerTask() {
+        Runnable cancelTask = new Runnable() {
             @Override
             public void run() {
+                if (!executing) {
+                    return;
+                }
                 try {
                     isTimedout = true;
                     protocol.cancelCurrentQuery();
@@ -162,7 +175,8 @@ public class MariaDbStatement implements Statement {
                 }
             }
         };
-        getTimer().schedule(timerTask, queryTimeout * 1000);
+        timerTask = HashedWheelTimer.getDefault().schedule(cancelTask,
+                queryTimeout * 1000L + (serverTimeout ? SERVER_TIMEOUT_GRACE : 0));
     }
 
     void executeQueryProlog() throws SQLException {
@@ -186,15 +200,16 @@ public class MariaDbStatement implements Statement {
         }
 
         cachedResultSets.clear();
-        ((MariaDbConnection) getConnection()).reenableWarnings();
+        connection.reenableWarnings();
 
         try {
             protocol.setMaxRows(maxRows);
         } catch (QueryException qe) {
             ExceptionMapper.throwException(qe, connection, this);
         }
+        boolean serverTimeout = protocol.setStatementTimeout(queryTimeout);
         if (queryTimeout != 0) {
-            setTimerTask();
+            setTimerTask(serverTimeout);
         }
     }
 
@@ -229,7 +244,7 @@ public class MariaDbStatement implements Statement {
             timerTask = null;
         }
 
-        if (isTimedout) {
+        if (isTimedout || (queryException != null && queryException.getErrorCode() == ER_STATEMENT_TIMEOUT)) {
             isTimedout = false;
             queryException = new QueryException("Query timed out", 1317, "JZ0002", queryException);
         }
@@ -496,6 +511,90 @@ public class MariaDbStatement implements Statement {
         return executeUpdate(stringToQuery(queryString));
     }
 
+    /**
+     * Send a select query without waiting for server response.
+     * Calling thread is released as soon as query is sent; the result set is read when server response is available,
+     * or when another command is executed on this connection.
+     *
+     * @param queryString the query to send to the server
+     * @return future result set
+     * @throws SQLException if the query could not be sent to server
+     */
+    public Future<ResultSet> executeQueryAsync(String queryString) throws SQLException {
+        return executeAsync(stringToQuery(queryString), true);
+    }
+
+    /**
+     * Send an update query without waiting for server response.
+     *
+     * @param queryString the update query
+     * @return future update count
+     * @throws SQLException if the query could not be sent to server
+     */
+    public Future<Integer> executeUpdateAsync(String queryString) throws SQLException {
+        this.autoGeneratedKeys = false;
+        return executeAsync(stringToQuery(queryString), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Future<T> executeAsync(final Query query, final boolean returnResultSet) throws SQLException {
+        checkClose();
+        executing = true;
+        connection.lock.lock();
+        try {
+            executeQueryProlog();
+            batchResultSet = null;
+            final AtomicReference<AsyncQuery<Object>> sentQuery = new AtomicReference<>();
+            AsyncQuery<Object> asyncQuery = new AsyncQuery<>(new Callable<Object>() {
+                @Override
+                public Object call() throws SQLException {
+                    QueryException exception = null;
+                    boolean resultSetReturned = false;
+                    try {
+                        try {
+                            queryResult = sentQuery.get().getProtocol().getResult(query, isStreaming(), false);
+                            cacheMoreResults();
+                        } catch (QueryException e) {
+                            exception = e;
+                        } finally {
+                            executing = false;
+                        }
+                        executeQueryEpilog(exception, query);
+                        if (returnResultSet) {
+                            if (queryResult.getResultSetType() == ResultSetType.SELECT) {
+                                resultSetReturned = true;
+                                return getResultSet();
+                            }
+                            return MariaDbResultSet.EMPTY;
+                        }
+                        return getUpdateCount();
+                    } finally {
+                        //internal statement returning a result set is closed with it (closeOnCompletion)
+                        if (internalAsync && !resultSetReturned) {
+                            close();
+                        }
+                    }
+                }
+            });
+            sentQuery.set(asyncQuery);
+            try {
+                protocol.executeQueryAsync(query, asyncQuery);
+            } catch (QueryException e) {
+                executing = false;
+                try {
+                    executeQueryEpilog(e, query);
+                } finally {
+                    if (internalAsync) {
+                        close();
+                    }
+                }
+            }
+            return (Future<T>) asyncQuery;
+        } finally {
+            connection.lock.unlock();
+        }
+    }
+
 
     /**
      * Executes the given SQL statement and signals the driver with the given flag about whether the auto-generated keys produced by this
@@ -803,7 +902,7 @@ public class MariaDbStatement implements Statement {
      */
     @Override
     public Connection getConnection() throws SQLException {
-        return this.connection;
+        return this.connectionHandle;
     }
 
     /**
@@ -895,6 +994,15 @@ public class MariaDbStatement implements Statement {
     public void setPoolable(final boolean poolable) throws SQLException {
     }
 
+    /**
+     * Get column index by name for result set columns.
+     * @param columns result set columns
+     * @return column name map
+     */
+    ColumnNameMap getColumnNameMap(ColumnInformation[] columns) {
+        return new ColumnNameMap(columns);
+    }
+
     /**
      * Retrieves the current result as a ResultSet object. This method should be called only once per result.
      *
@@ -945,6 +1053,66 @@ public class MariaDbStatement implements Statement {
         }
     }
 
+    /**
+     * Remove from current results the result set containing stored procedure output parameters, that server sends
+     * after procedure results when a CALL is executed with a server prepared statement.
+     *
+     * @return output parameters result set, or null if server has not sent output parameters
+     * @throws SQLException if results cannot be read
+     */
+    ResultSet removeOutputParameterResult() throws SQLException {
+        SelectQueryResult outputResult = null;
+        if (isStreaming()) {
+            //results are not cached : read results until output parameters
+            while (queryResult != null && !isOutputParameterResult(queryResult)) {
+                getInternalMoreResults(true);
+            }
+            if (queryResult == null) {
+                return null;
+            }
+            try {
+                outputResult = CachedSelectResult.createCachedSelectResult((StreamingSelectResult) queryResult);
+            } catch (IOException | QueryException e) {
+                ExceptionMapper.throwException(new QueryException(e.getMessage(), -1,
+                        ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e), connection, this);
+            }
+            //read ending OK packet
+            while (queryResult != null) {
+                getInternalMoreResults(true);
+            }
+        } else if (isOutputParameterResult(queryResult)) {
+            outputResult = (SelectQueryResult) queryResult;
+            getInternalMoreResults();
+        } else {
+            Iterator<Object> iterator = cachedResultSets.iterator();
+            while (iterator.hasNext()) {
+                Object result = iterator.next();
+                if (result instanceof AbstractQueryResult && isOutputParameterResult((AbstractQueryResult) result)) {
+                    outputResult = (SelectQueryResult) result;
+                    iterator.remove();
+                    break;
+                }
+            }
+        }
+        return (outputResult == null) ? null : new MariaDbResultSet(outputResult, this, protocol);
+    }
+
+    private boolean isOutputParameterResult(AbstractQueryResult result) {
+        return result instanceof SelectQueryResult && ((SelectQueryResult) result).isOutputParameterResult();
+    }
+
+    /**
+     * Remove last result of current execution, so it's not returned to application.
+     *
+     * @return last result if it's a result set, or null
+     */
+    ResultSet removeLastResult() {
+        if (cachedResultSets.isEmpty() || !(cachedResultSets.peekLast() instanceof SelectQueryResult)) {
+            return null;
+        }
+        return new MariaDbResultSet((AbstractQueryResult) cachedResultSets.removeLast(), this, protocol);
+    }
+
     /**
      * Get more result implementation.
      * @return <code>true</code> if the next result is a <code>ResultSet</code> object; <code>false</code> if it is an update count or there are no
@@ -1431,16 +1599,38 @@ public class MariaDbStatement implements Statement {
         return interfaceOrWrapper.isInstance(this);
     }
 
+    /**
+     * Specifies that this statement will be closed when its result set is closed.
+     *
+     * @throws SQLException if this method is called on a closed statement
+     */
     @Override
     public void closeOnCompletion() throws SQLException {
-        // TODO Auto-generated method stub
-
+        checkClose();
+        closeOnCompletion = true;
     }
 
+    /**
+     * Returns a value indicating whether this statement will be closed when its result set is closed.
+     *
+     * @return true if the statement will be closed when its result set is closed
+     * @throws SQLException if this method is called on a closed statement
+     */
     @Override
     public boolean isCloseOnCompletion() throws SQLException {
-        // TODO Auto-generated method stub
-        return false;
+        checkClose();
+        return closeOnCompletion;
+    }
+
+    /**
+     * Called when a result set of this statement is closed.
+     *
+     * @throws SQLException if statement close fails
+     */
+    void resultSetClosed() throws SQLException {
+        if (closeOnCompletion && !isClosed) {
+            close();
+        }
     }
 
     // Part of query prolog - check if connection is broken and reconnect
@@ -68,6 +68,11 @@ public class MariaDbServerCapabilities {
     public static final int SECURE_CONNECTION = 32768;  /* New 4.1 authentication */
     public static final int MULTI_STATEMENTS = 1 << 16; /* Enable/disable multi-stmt support */
     public static final int MULTI_RESULTS = 1 << 17;    /* Enable/disable multi-results */
+    public static final int PS_MULTI_RESULTS = 1 << 18; /* Enable/disable multi-results for server prepared statement */
     public static final int PLUGIN_AUTH = 1 << 19;      /* Client supports plugin authentication */
+    public static final int CLIENT_SESSION_TRACK = 1 << 23; /* Server sends session state changes in OK packets */
     public static final int PROGRESS = 1 << 29;         /* Client support progress indicator */
+
+    /* MariaDB extended capabilities, exchanged when LONG_PASSWORD (CLIENT_MYSQL) is not set */
+    public static final int MARIADB_CLIENT_CACHE_METADATA = 1 << 4; /* Prepared statement result metadata can be skipped */
 }
\ No newline at end of file
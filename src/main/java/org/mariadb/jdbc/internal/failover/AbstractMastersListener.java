@@ -55,7 +55,13 @@ import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.query.MariaDbQuery;
 import org.mariadb.jdbc.internal.query.Query;
 import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.protocol.AbstractConnectProtocol;
 import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.failover.tools.HostHealthListener;
+import org.mariadb.jdbc.internal.failover.tools.HostHealthMonitor;
+import org.mariadb.jdbc.internal.failover.tools.HostSelectionStrategies;
+import org.mariadb.jdbc.internal.failover.tools.HostSelectionStrategy;
+import org.mariadb.jdbc.internal.failover.tools.HostStatistics;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 import org.threadly.concurrent.ConfigurableThreadFactory;
 import org.threadly.concurrent.PriorityScheduler;
@@ -66,7 +72,13 @@ import org.threadly.util.Clock;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.SocketException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -76,7 +88,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 
-public abstract class AbstractMastersListener implements Listener {
+public abstract class AbstractMastersListener implements Listener, HostHealthListener {
     private static PrioritySchedulerService getSchedulerForNewListener() {
         schedulerSizeChangeExecutor.execute(increasePoolSize);
         // TODO - if desired we could limit this scheduler so no single listener could dominate the pool
@@ -117,6 +129,11 @@ public abstract class AbstractMastersListener implements Listener {
     protected boolean explicitClosed = false;
     private volatile long masterHostFailTimestamp = 0;
     private AtomicBoolean masterHostFail = new AtomicBoolean();
+    private HostSelectionStrategy hostSelectionStrategy;
+    private boolean trackHostStatistics;
+    private HostHealthMonitor healthMonitor;
+    private volatile long nextReconnectTime = 0;
+    private volatile long lastQueryTime = 0;
 
     protected AbstractMastersListener(UrlParser urlParser) {
         this.urlParser = urlParser;
@@ -180,9 +197,162 @@ public abstract class AbstractMastersListener implements Listener {
     public void addToBlacklist(HostAddress hostAddress) {
         if (hostAddress != null && !explicitClosed) {
             blacklist.put(hostAddress, Clock.accurateForwardProgressingMillis());
+            //server may be restarted with other variables
+            AbstractConnectProtocol.invalidateServerData(hostAddress);
         }
     }
 
+    /**
+     * Get the hosts to try for a new connection, in the following order :
+     * <ol>
+     * <li>not blacklisted hosts, ordered according to option "loadBalanceStrategy"</li>
+     * <li>not blacklisted hosts lagging more than "maxReplicationLag" seconds (sampled during last loadBalanceBlacklistTimeout)</li>
+     * <li>random order blacklisted hosts</li>
+     * </ol>
+     *
+     * @return ordered host list
+     * @throws QueryException if loadBalanceStrategy is not valid
+     */
+    protected List<HostAddress> getLoopAddresses() throws QueryException {
+        List<HostAddress> loopAddress = new LinkedList<>(urlParser.getHostAddresses());
+        loopAddress.removeAll(blacklist.keySet());
+        getHostSelectionStrategy().sort(loopAddress, urlParser);
+
+        int maxReplicationLag = urlParser.getOptions().maxReplicationLag;
+        if (maxReplicationLag > 0) {
+            long expireTime = Clock.lastKnownForwardProgressingMillis()
+                    - (urlParser.getOptions().loadBalanceBlacklistTimeout * 1000);
+            List<HostAddress> laggingHosts = new ArrayList<>();
+            Iterator<HostAddress> iterator = loopAddress.iterator();
+            while (iterator.hasNext()) {
+                HostAddress hostAddress = iterator.next();
+                HostStatistics hostStatistics = HostStatistics.get(hostAddress);
+                if (hostStatistics.isLagging(maxReplicationLag) && hostStatistics.getReplicationLagTimestamp() >= expireTime) {
+                    iterator.remove();
+                    laggingHosts.add(hostAddress);
+                }
+            }
+            loopAddress.addAll(laggingHosts);
+        }
+
+        List<HostAddress> blacklistShuffle = new ArrayList<>(blacklist.keySet());
+        Collections.shuffle(blacklistShuffle);
+        loopAddress.addAll(blacklistShuffle);
+        return loopAddress;
+    }
+
+    protected HostSelectionStrategy getHostSelectionStrategy() throws QueryException {
+        if (hostSelectionStrategy == null) {
+            hostSelectionStrategy = HostSelectionStrategies.getStrategy(urlParser.getOptions().loadBalanceStrategy);
+            //statistics are only needed by strategies other than random
+            trackHostStatistics = !(hostSelectionStrategy instanceof HostSelectionStrategies.RandomStrategy);
+        }
+        return hostSelectionStrategy;
+    }
+
+    /**
+     * Register to the shared host health monitor, that verify hosts every "validConnectionTimeout" seconds.
+     */
+    protected void registerHealthMonitor() {
+        if (urlParser.getOptions().validConnectionTimeout > 0 && healthMonitor == null) {
+            healthMonitor = HostHealthMonitor.register(urlParser, this, parentScheduler);
+        }
+    }
+
+    protected void unregisterHealthMonitor() {
+        if (healthMonitor != null) {
+            healthMonitor.unregister(this);
+            healthMonitor = null;
+        }
+    }
+
+    @Override
+    public Boolean probe(HostAddress hostAddress) {
+        return probeProtocol(currentProtocol, hostAddress);
+    }
+
+    /**
+     * Ping a connection for the health monitor, if connected to this host and not in use.
+     * Connection is considered in use if a query has been executed during last "validConnectionTimeout" seconds, or if
+     * results (streaming result set, asynchronous query) or session commands are pending : a ping would corrupt or
+     * consume them.
+     * Replication lag is sampled at the same time on replicas if option "maxReplicationLag" is set.
+     *
+     * @param protocol connection
+     * @param hostAddress verified host
+     * @return ping result, or null if connection cannot be used
+     */
+    protected Boolean probeProtocol(Protocol protocol, HostAddress hostAddress) {
+        if (explicitClosed || protocol == null || !hostAddress.equals(protocol.getHostAddress()) || !protocol.isConnected()) {
+            return null;
+        }
+        if (lastQueryTime + (urlParser.getOptions().validConnectionTimeout * 1000)
+                > Clock.lastKnownForwardProgressingMillis()) {
+            return null;
+        }
+        if (!proxy.lock.tryLock()) {
+            return null;
+        }
+        try {
+            if (protocol.hasUnreadData() || protocol.hasDeferredSessionCommands()) {
+                return null;
+            }
+            //probe runs on the shared scheduler thread : must not wait more than the probe timeout
+            int socketTimeout = protocol.getTimeout();
+            protocol.setSocketTimeout(HostHealthMonitor.getProbeTimeout(urlParser.getOptions()));
+            try {
+                if (!protocol.ping()) {
+                    return false;
+                }
+                if (urlParser.getOptions().maxReplicationLag > 0 && !protocol.isMasterConnection()) {
+                    HostStatistics.get(hostAddress).sampleReplicationLag(protocol);
+                }
+                return true;
+            } finally {
+                if (protocol.isConnected()) {
+                    protocol.setSocketTimeout(socketTimeout);
+                }
+            }
+        } catch (QueryException e) {
+            if (e.getSqlState() != null && e.getSqlState().startsWith("08") && protocol.isConnected()) {
+                //a timed out answer may still come : connection can't be used anymore
+                protocol.close();
+            }
+            return false;
+        } catch (SocketException e) {
+            return false;
+        } finally {
+            proxy.lock.unlock();
+        }
+    }
+
+    @Override
+    public void hostDown(HostAddress hostAddress) {
+        addToBlacklist(hostAddress);
+        Protocol protocol = currentProtocol;
+        if (protocol != null && hostAddress.equals(protocol.getHostAddress()) && setMasterHostFail()) {
+            launchFailLoopIfNotlaunched(false);
+        }
+    }
+
+    @Override
+    public void hostUp(HostAddress hostAddress) {
+        blacklist.remove(hostAddress);
+        if (hasHostFail()) {
+            //connections waiting for this host must not all reconnect at the same time
+            nextReconnectTime = Clock.lastKnownForwardProgressingMillis() + HostHealthMonitor.getHostUpDelay();
+            launchFailLoopIfNotlaunched(false);
+        }
+    }
+
+    /**
+     * Set time of next background reconnection attempt, using a jittered backoff depending on number of attempts.
+     */
+    protected void delayNextReconnection() {
+        nextReconnectTime = Clock.lastKnownForwardProgressingMillis()
+                + HostHealthMonitor.getReconnectDelay(currentConnectionAttempts.get());
+    }
+
     /**
      * Permit to remove Host to blacklist after loadBalanceBlacklistTimeout seconds.
      */
@@ -252,6 +422,7 @@ public abstract class AbstractMastersListener implements Listener {
         if (! masterHostFail.get() && masterHostFail.compareAndSet(false, true)) {
             masterHostFailTimestamp = Clock.accurateForwardProgressingMillis();
             currentConnectionAttempts.set(0);
+            delayNextReconnection();
             return true;
         }
         return false;
@@ -282,7 +453,7 @@ public abstract class AbstractMastersListener implements Listener {
     public HandleErrorResult relaunchOperation(Method method, Object[] args) throws IllegalAccessException, InvocationTargetException {
         HandleErrorResult handleErrorResult = new HandleErrorResult(true);
         if (method != null) {
-            if ("executeQuery".equals(method.getName())) {
+            if ("executeQuery".equals(method.getName()) || "executeQueryAsync".equals(method.getName())) {
                 String query = ((Query) args[0]).toString().toUpperCase();
                 if (!query.equals("ALTER SYSTEM CRASH")
                         && !query.startsWith("KILL")) {
@@ -298,6 +469,12 @@ public abstract class AbstractMastersListener implements Listener {
                     handleErrorResult.mustThrowError = false;
                 } catch (Exception e) {
                 }
+            } else if ("executePreparedBatch".equals(method.getName())) {
+                //some executions may have been done before failure, batch must not be relaunched
+                return handleErrorResult;
+            } else if ("executePreparedQueryWithCursor".equals(method.getName())) {
+                //the statementId has been discarded with previous session
+                return handleErrorResult;
             } else {
                 handleErrorResult.resultObject = method.invoke(currentProtocol, args);
                 handleErrorResult.mustThrowError = false;
@@ -308,6 +485,18 @@ public abstract class AbstractMastersListener implements Listener {
 
     @Override
     public Object invoke(Method method, Object[] args) throws Throwable {
+        lastQueryTime = Clock.accurateForwardProgressingMillis();
+        if (trackHostStatistics && method.getName().startsWith("execute")) {
+            HostStatistics hostStatistics = HostStatistics.get(currentProtocol.getHostAddress());
+            long start = System.nanoTime();
+            hostStatistics.startRequest();
+            try {
+                return method.invoke(currentProtocol, args);
+            } finally {
+                hostStatistics.endRequest();
+                hostStatistics.addLatency(System.nanoTime() - start);
+            }
+        }
         return method.invoke(currentProtocol, args);
     }
 
@@ -326,6 +515,7 @@ public abstract class AbstractMastersListener implements Listener {
             try {
                 to.setMaxRows(from.getMaxRows());
                 to.setInternalMaxRows(from.getMaxRows());
+                to.setStatementTimeout(from.getStatementTimeout());
                 if (from.getTransactionIsolationLevel() != 0) {
                     to.setTransactionIsolation(from.getTransactionIsolationLevel());
                 }
@@ -333,7 +523,7 @@ public abstract class AbstractMastersListener implements Listener {
                     to.setCatalog(from.getDatabase());
                 }
                 if (from.getAutocommit() != to.getAutocommit()) {
-                    to.executeQuery(new MariaDbQuery("set autocommit=" + (from.getAutocommit() ? "1" : "0")));
+                    to.setAutoCommit(from.getAutocommit());
                 }
             } finally {
                 proxy.lock.unlock();
@@ -450,6 +640,10 @@ public abstract class AbstractMastersListener implements Listener {
         @Override
         protected void doRun() {
             if (!explicitClosed && hasHostFail()) {
+                if (Clock.lastKnownForwardProgressingMillis() < nextReconnectTime) {
+                    //waiting for backoff delay
+                    return;
+                }
                 if (listener.shouldReconnect()) {
                     try {
                         if (currentConnectionAttempts.get() >= urlParser.getOptions().failoverLoopRetries) {
@@ -462,6 +656,7 @@ public abstract class AbstractMastersListener implements Listener {
                         stopFailover();
                     } catch (Exception e) {
                         //FailLoop search connection failed
+                        delayNextReconnection();
                     }
                 } else {
                     if (currentConnectionAttempts.get() > urlParser.getOptions().retriesAllDown) {
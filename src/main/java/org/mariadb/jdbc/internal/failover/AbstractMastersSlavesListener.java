@@ -144,6 +144,7 @@ public abstract class AbstractMastersSlavesListener extends AbstractMastersListe
         if (! secondaryHostFail.get() && secondaryHostFail.compareAndSet(false, true)) {
             secondaryHostFailTimestamp.set(Clock.accurateForwardProgressingMillis());
             currentConnectionAttempts.set(0);
+            delayNextReconnection();
             return true;
         }
         return false;
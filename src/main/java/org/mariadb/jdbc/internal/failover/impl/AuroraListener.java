@@ -60,9 +60,6 @@ import org.mariadb.jdbc.internal.protocol.Protocol;
 
 import java.io.IOException;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 public class AuroraListener extends MastersSlavesListener {
@@ -82,12 +79,13 @@ public class AuroraListener extends MastersSlavesListener {
 
     @Override
     public void initializeConnection() throws QueryException {
-        startPingLoop();
+        registerHealthMonitor();
         try {
             reconnectFailedConnection(new SearchFilter(true, true, true));
         } catch (QueryException e) {
 //            log.debug("initializeConnection failed", e);
             checkInitialConnection();
+            unregisterHealthMonitor();
             throw e;
         }
     }
@@ -107,15 +105,11 @@ public class AuroraListener extends MastersSlavesListener {
         resetOldsBlackListHosts();
 
         //put the list in the following order
-        // - random order not connected host
+        // - not connected host, ordered by loadBalanceStrategy
+        // - lagging host
         // - random order blacklist host
         // - random order connected host
-        List<HostAddress> loopAddress = new LinkedList<>(urlParser.getHostAddresses());
-        loopAddress.removeAll(blacklist.keySet());
-        Collections.shuffle(loopAddress);
-        List<HostAddress> blacklistShuffle = new ArrayList<>(blacklist.keySet());
-        Collections.shuffle(blacklistShuffle);
-        loopAddress.addAll(blacklistShuffle);
+        List<HostAddress> loopAddress = getLoopAddresses();
 
         //put connected at end
         if (masterProtocol != null && !isMasterHostFail()) {
@@ -62,8 +62,6 @@ import org.mariadb.jdbc.internal.protocol.Protocol;
 
 import java.lang.reflect.Method;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -89,6 +87,7 @@ public class MastersFailoverListener extends AbstractMastersListener {
 //        log.trace("launching initial loop");
         reconnectFailedConnection(new SearchFilter(true, false));
 //        log.trace("launching initial loop end");
+        registerHealthMonitor();
     }
 
     /**
@@ -123,6 +122,7 @@ public class MastersFailoverListener extends AbstractMastersListener {
             setExplicitClosed(true);
             try {
                 //closing first additional thread if running to avoid connection creation before closing
+                unregisterHealthMonitor();
                 failLoopRunner.blockTillTerminated();
 
                 //closing connection
@@ -190,19 +190,16 @@ public class MastersFailoverListener extends AbstractMastersListener {
         currentConnectionAttempts.incrementAndGet();
         resetOldsBlackListHosts();
 
-        List<HostAddress> loopAddress = new LinkedList<>(urlParser.getHostAddresses());
+        List<HostAddress> loopAddress;
         if (HaMode.FAILOVER.equals(mode)) {
             //put the list in the following order
-            // - random order not connected host
+            // - not connected host, ordered by loadBalanceStrategy
             // - random order blacklist host
             // - random order connected host
-            loopAddress.removeAll(blacklist.keySet());
-            Collections.shuffle(loopAddress);
-            List<HostAddress> blacklistShuffle = new ArrayList<>(blacklist.keySet());
-            Collections.shuffle(blacklistShuffle);
-            loopAddress.addAll(blacklistShuffle);
+            loopAddress = getLoopAddresses();
         } else {
             //order in sequence
+            loopAddress = new LinkedList<>(urlParser.getHostAddresses());
             loopAddress.removeAll(blacklist.keySet());
             loopAddress.addAll(blacklist.keySet());
         }
@@ -62,19 +62,14 @@ import org.threadly.util.Clock;
 
 import java.lang.reflect.Method;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
  * this class handle the operation when multiple hosts.
  */
 public class MastersSlavesListener extends AbstractMastersSlavesListener {
-    private final PingLoop pingLoopRunner;
     protected Protocol masterProtocol;
     protected Protocol secondaryProtocol;
-    private long lastQueryTime = 0;
 
     /**
      * Initialization.
@@ -82,17 +77,8 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
      */
     public MastersSlavesListener(final UrlParser urlParser) {
         super(urlParser);
-        pingLoopRunner = new PingLoop(this);
         masterProtocol = null;
         secondaryProtocol = null;
-        lastQueryTime = Clock.accurateForwardProgressingMillis();
-    }
-
-    protected void startPingLoop() {
-        if (urlParser.getOptions().validConnectionTimeout > 0) {
-            long frequencyMillis = urlParser.getOptions().validConnectionTimeout * 1000;
-            scheduler.scheduleWithFixedDelay(pingLoopRunner, frequencyMillis, frequencyMillis);
-        }
     }
 
     /**
@@ -101,13 +87,19 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
      */
     @Override
     public void initializeConnection() throws QueryException {
-        startPingLoop();
+        registerHealthMonitor();
         try {
             reconnectFailedConnection(new SearchFilter(true, true, true));
         } catch (QueryException e) {
 //            log.trace("initializeConnection failed", e);
             checkInitialConnection();
-            throwFailoverMessage(e, false);
+            try {
+                throwFailoverMessage(e, false);
+            } catch (QueryException qe) {
+                //connection will not be created
+                unregisterHealthMonitor();
+                throw qe;
+            }
         }
     }
 
@@ -133,7 +125,7 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
                 setExplicitClosed(true);
 
                 //closing first additional thread if running to avoid connection creation before closing
-                pingLoopRunner.blockTillTerminated();
+                unregisterHealthMonitor();
                 failLoopRunner.blockTillTerminated();
 
                 //closing connections
@@ -169,10 +161,6 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
         if (isMasterHostFail() || isSecondaryHostFail()) {
             queriesSinceFailover.incrementAndGet();
         }
-
-        if (urlParser.getOptions().validConnectionTimeout != 0) {
-            lastQueryTime = Clock.accurateForwardProgressingMillis();
-        }
     }
 
 
@@ -224,15 +212,11 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
         resetOldsBlackListHosts();
 
         //put the list in the following order
-        // - random order not connected host
+        // - not connected host, ordered by loadBalanceStrategy
+        // - lagging host
         // - random order blacklist host
         // - random order connected host
-        List<HostAddress> loopAddress = new LinkedList<>(urlParser.getHostAddresses());
-        loopAddress.removeAll(blacklist.keySet());
-        Collections.shuffle(loopAddress);
-        List<HostAddress> blacklistShuffle = new ArrayList<>(blacklist.keySet());
-        Collections.shuffle(blacklistShuffle);
-        loopAddress.addAll(blacklistShuffle);
+        List<HostAddress> loopAddress = getLoopAddresses();
 
         //put connected at end
         if (masterProtocol != null && !isMasterHostFail()) {
@@ -620,6 +604,55 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
         }
     }
 
+    @Override
+    public Boolean probe(HostAddress hostAddress) {
+        Protocol master = masterProtocol;
+        if (!isMasterHostFail() && master != null && hostAddress.equals(master.getHostAddress())) {
+            Boolean result = probeProtocol(master, hostAddress);
+            if (Boolean.FALSE.equals(result)) {
+                handlePrimaryProbeFailure();
+            }
+            return result;
+        }
+        Protocol secondary = secondaryProtocol;
+        if (!isSecondaryHostFail() && secondary != null && hostAddress.equals(secondary.getHostAddress())) {
+            return probeProtocol(secondary, hostAddress);
+        }
+        return null;
+    }
+
+    @Override
+    public void hostDown(HostAddress hostAddress) {
+        addToBlacklist(hostAddress);
+        Protocol master = masterProtocol;
+        if (master != null && hostAddress.equals(master.getHostAddress())) {
+            handlePrimaryProbeFailure();
+        }
+        Protocol secondary = secondaryProtocol;
+        if (secondary != null && hostAddress.equals(secondary.getHostAddress()) && setSecondaryHostFail()) {
+            launchFailLoopIfNotlaunched(false);
+        }
+    }
+
+    /**
+     * Master connection verification failed : switch to secondary if permitted and launch reconnection,
+     * without blocking the health monitor thread.
+     */
+    private void handlePrimaryProbeFailure() {
+        if (setMasterHostFail()) {
+            scheduler.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        primaryFail(null, null);
+                    } catch (Throwable t) {
+                        //do nothing
+                    }
+                }
+            });
+        }
+    }
+
     /**
      * Check master status.
      * @param searchFilter search filter
@@ -705,46 +738,4 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
             }
         }
     }
-    /**
-     * private class to check of currents connections are still ok.
-     */
-    protected class PingLoop extends TerminatableRunnable {
-        MastersSlavesListener listener;
-
-        public PingLoop(MastersSlavesListener listener) {
-            this.listener = listener;
-        }
-
-        @Override
-        protected void doRun() {
-            if (explicitClosed) {
-                scheduler.remove(this);
-            } else if (lastQueryTime + (urlParser.getOptions().validConnectionTimeout * 1000) < Clock.lastKnownForwardProgressingMillis()
-                    && !isMasterHostFail()) {
-                boolean masterFail = false;
-                try {
-                    if (masterProtocol != null && masterProtocol.isConnected()) {
-                        checkMasterStatus(null);
-                    } else {
-                        masterFail = true;
-                    }
-                } catch (QueryException e) {
-                    masterFail = true;
-                }
-
-                if (masterFail && setMasterHostFail()) {
-                    try {
-                        listener.primaryFail(null, null);
-                    } catch (Throwable t) {
-                        //do nothing
-                    }
-                }
-            }
-        }
-
-        @Override
-        protected void unscheduleTask() {
-            scheduler.remove(this);
-        }
-    }
 }
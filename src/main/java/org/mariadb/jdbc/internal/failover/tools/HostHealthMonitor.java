@@ -0,0 +1,255 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover.tools;
+
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.util.Options;
+import org.threadly.concurrent.PrioritySchedulerService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Host health registry shared by all connections using the same host list.
+ * <p>
+ * Instead of each connection verifying its own connections, each host is verified once per "validConnectionTimeout"
+ * interval, using an idle connection of a registered listener (ping). A host is considered down after
+ * FAILURES_BEFORE_DOWN consecutive failed verifications, and up again when a ping succeeds.
+ * State changes are pushed to all registered listeners.
+ * </p>
+ * <p>
+ * Hosts without idle connection are not verified : opening a socket without authentication would be counted by
+ * server as a connection error (blocking the client host after "max_connect_errors"). Recovery of a down host
+ * without idle connection is left to the reconnection loops.
+ * </p>
+ * <p>
+ * The monitor also provide the reconnection delays, with jitter, so that connections don't all try to reconnect
+ * at the same time after a failover.
+ * </p>
+ */
+public class HostHealthMonitor implements Runnable {
+    private static final ConcurrentMap<List<Object>, HostHealthMonitor> monitors = new ConcurrentHashMap<>();
+
+    private static final long MIN_RECONNECT_DELAY = 250;
+    private static final long MAX_RECONNECT_DELAY = 5000;
+    private static final int FAILURES_BEFORE_DOWN = 2;
+
+    private final List<Object> key;
+    private final List<HostAddress> hostAddresses;
+    private final Options options;
+    private final PrioritySchedulerService scheduler;
+    private final Set<HostHealthListener> listeners = new CopyOnWriteArraySet<>();
+    private final Set<HostAddress> downHosts = new CopyOnWriteArraySet<>();
+    //only used by run(), that is never executed concurrently
+    private final Map<HostAddress, Integer> failures = new HashMap<>();
+    private boolean scheduled = false;
+
+    private HostHealthMonitor(List<Object> key, List<HostAddress> hostAddresses, Options options,
+                              PrioritySchedulerService scheduler) {
+        this.key = key;
+        this.hostAddresses = hostAddresses;
+        this.options = options;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Register a listener to the monitor of its host list, creating and scheduling the monitor if needed.
+     * Connections share a monitor only if they have the same hosts and the same options used for verification
+     * (interval "validConnectionTimeout" and "connectTimeout").
+     *
+     * @param urlParser connection string information
+     * @param listener listener
+     * @param scheduler scheduler that will run verifications
+     * @return monitor
+     */
+    public static HostHealthMonitor register(UrlParser urlParser, HostHealthListener listener, PrioritySchedulerService scheduler) {
+        List<HostAddress> hostAddresses = new ArrayList<>(urlParser.getHostAddresses());
+        Options options = urlParser.getOptions();
+        List<Object> key = Arrays.<Object>asList(hostAddresses, options.validConnectionTimeout, options.connectTimeout);
+        while (true) {
+            HostHealthMonitor monitor = monitors.get(key);
+            if (monitor == null) {
+                monitor = new HostHealthMonitor(key, hostAddresses, options, scheduler);
+                HostHealthMonitor previous = monitors.putIfAbsent(key, monitor);
+                if (previous != null) {
+                    monitor = previous;
+                }
+            }
+            if (monitor.addListener(listener)) {
+                return monitor;
+            }
+            //monitor has just been stopped, create a new one
+            monitors.remove(key, monitor);
+        }
+    }
+
+    private synchronized boolean addListener(HostHealthListener listener) {
+        if (monitors.get(key) != this) {
+            return false;
+        }
+        listeners.add(listener);
+        if (!scheduled) {
+            long frequencyMillis = options.validConnectionTimeout * 1000;
+            scheduler.scheduleWithFixedDelay(this, frequencyMillis, frequencyMillis);
+            scheduled = true;
+        }
+        return true;
+    }
+
+    /**
+     * Unregister a listener. Monitor is stopped when there is no more listener.
+     * @param listener listener
+     */
+    public synchronized void unregister(HostHealthListener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            monitors.remove(key, this);
+            if (scheduled) {
+                scheduler.remove(this);
+                scheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Indicate if the last verification of this host failed.
+     * @param hostAddress host
+     * @return true if host is down
+     */
+    public boolean isDown(HostAddress hostAddress) {
+        return downHosts.contains(hostAddress);
+    }
+
+    /**
+     * Delay before next reconnection attempt : exponential backoff from 250ms to 5s, with a random part of half
+     * the delay, so that connections that failed at the same time will not retry at the same time.
+     *
+     * @param attempts number of reconnection attempts already done
+     * @return delay in milliseconds
+     */
+    public static long getReconnectDelay(int attempts) {
+        long delay = MIN_RECONNECT_DELAY << Math.min(Math.max(attempts, 0), 6);
+        delay = Math.min(delay, MAX_RECONNECT_DELAY);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Maximum time a verification can take : "connectTimeout" if set, else 5s.
+     * @param options connection options
+     * @return timeout in milliseconds
+     */
+    public static int getProbeTimeout(Options options) {
+        return (options.connectTimeout != null && options.connectTimeout > 0) ? options.connectTimeout : 5000;
+    }
+
+    /**
+     * Random delay to spread reconnections when a host is up again.
+     * @return delay in milliseconds
+     */
+    public static long getHostUpDelay() {
+        return ThreadLocalRandom.current().nextLong(MIN_RECONNECT_DELAY * 4);
+    }
+
+    @Override
+    public void run() {
+        for (HostAddress hostAddress : hostAddresses) {
+            Boolean up = probe(hostAddress);
+            if (up == null) {
+                //state cannot be verified : down state is kept only as long as listeners blacklist host
+                failures.remove(hostAddress);
+                downHosts.remove(hostAddress);
+            } else if (up) {
+                failures.remove(hostAddress);
+                if (downHosts.remove(hostAddress)) {
+                    for (HostHealthListener listener : listeners) {
+                        listener.hostUp(hostAddress);
+                    }
+                }
+            } else {
+                Integer previousFailures = failures.get(hostAddress);
+                int hostFailures = (previousFailures == null) ? 1 : previousFailures + 1;
+                failures.put(hostAddress, hostFailures);
+                if (hostFailures >= FAILURES_BEFORE_DOWN) {
+                    //listeners are notified each time, to keep host blacklisted as long as it is down
+                    downHosts.add(hostAddress);
+                    for (HostHealthListener listener : listeners) {
+                        listener.hostDown(hostAddress);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Verify host using an idle connection of a registered listener.
+     *
+     * @param hostAddress host
+     * @return true if host answered, false if connection failed, null if no listener has an idle connection to host
+     */
+    private Boolean probe(HostAddress hostAddress) {
+        for (HostHealthListener listener : listeners) {
+            Boolean result = listener.probe(hostAddress);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+}
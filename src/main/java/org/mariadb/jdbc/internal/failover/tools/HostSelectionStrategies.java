@@ -0,0 +1,188 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover.tools;
+
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Built-in host selection strategies.
+ */
+public class HostSelectionStrategies {
+
+    /**
+     * Get strategy corresponding to option "loadBalanceStrategy".
+     * @param name built-in strategy name, or class name of a HostSelectionStrategy implementation. null means random.
+     * @return strategy
+     * @throws QueryException if strategy is unknown or cannot be instantiated
+     */
+    public static HostSelectionStrategy getStrategy(String name) throws QueryException {
+        if (name == null || "random".equalsIgnoreCase(name)) {
+            return new RandomStrategy();
+        }
+        switch (name) {
+            case "leastLatency":
+                return new LeastLatencyStrategy();
+            case "leastOutstanding":
+                return new LeastOutstandingStrategy();
+            case "weighted":
+                return new WeightedStrategy();
+            default:
+                try {
+                    return (HostSelectionStrategy) Class.forName(name).newInstance();
+                } catch (Exception e) {
+                    throw new QueryException("Unknown loadBalanceStrategy '" + name + "' : must be random, leastLatency, "
+                            + "leastOutstanding, weighted or the class name of a HostSelectionStrategy implementation", -1, "08000", e);
+                }
+        }
+    }
+
+    /**
+     * Random order (default).
+     */
+    public static class RandomStrategy implements HostSelectionStrategy {
+        @Override
+        public void sort(List<HostAddress> hosts, UrlParser urlParser) {
+            Collections.shuffle(hosts);
+        }
+    }
+
+    /**
+     * Lowest average round trip time first. Hosts without measure are tried first, to get one.
+     */
+    public static class LeastLatencyStrategy implements HostSelectionStrategy {
+        @Override
+        public void sort(List<HostAddress> hosts, UrlParser urlParser) {
+            //shuffle first, so hosts with equal latency are randomly ordered (sort is stable)
+            Collections.shuffle(hosts);
+            Collections.sort(hosts, new Comparator<HostAddress>() {
+                @Override
+                public int compare(HostAddress host1, HostAddress host2) {
+                    long latency1 = HostStatistics.get(host1).getLatency();
+                    long latency2 = HostStatistics.get(host2).getLatency();
+                    return (latency1 < latency2) ? -1 : ((latency1 == latency2) ? 0 : 1);
+                }
+            });
+        }
+    }
+
+    /**
+     * Fewest queries in progress first.
+     */
+    public static class LeastOutstandingStrategy implements HostSelectionStrategy {
+        @Override
+        public void sort(List<HostAddress> hosts, UrlParser urlParser) {
+            Collections.shuffle(hosts);
+            Collections.sort(hosts, new Comparator<HostAddress>() {
+                @Override
+                public int compare(HostAddress host1, HostAddress host2) {
+                    int outstanding1 = HostStatistics.get(host1).getOutstandingRequests();
+                    int outstanding2 = HostStatistics.get(host2).getOutstandingRequests();
+                    return (outstanding1 < outstanding2) ? -1 : ((outstanding1 == outstanding2) ? 0 : 1);
+                }
+            });
+        }
+    }
+
+    /**
+     * Random order where a host with weight 2 has twice the chance to be first than a host with weight 1.
+     * Weights are set by option "loadBalanceWeights" ("host1=3,host2=1").
+     */
+    public static class WeightedStrategy implements HostSelectionStrategy {
+        @Override
+        public void sort(List<HostAddress> hosts, UrlParser urlParser) {
+            Map<String, Double> weights = parseWeights(urlParser.getOptions().loadBalanceWeights);
+            final Map<HostAddress, Double> keys = new HashMap<>();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (HostAddress host : hosts) {
+                Double weight = weights.get(host.host);
+                if (weight == null) {
+                    weight = weights.get(host.host + ":" + host.port);
+                }
+                double hostWeight = (weight == null) ? 1 : weight;
+                //weighted random sampling : key = u^(1/w), highest keys first
+                double key = (hostWeight <= 0) ? -1 : Math.pow(random.nextDouble(), 1 / hostWeight);
+                keys.put(host, key);
+            }
+            Collections.sort(hosts, new Comparator<HostAddress>() {
+                @Override
+                public int compare(HostAddress host1, HostAddress host2) {
+                    return Double.compare(keys.get(host2), keys.get(host1));
+                }
+            });
+        }
+
+        private static Map<String, Double> parseWeights(String loadBalanceWeights) {
+            Map<String, Double> weights = new HashMap<>();
+            if (loadBalanceWeights != null) {
+                for (String pair : loadBalanceWeights.split(",")) {
+                    int separator = pair.lastIndexOf('=');
+                    if (separator > 0) {
+                        try {
+                            weights.put(pair.substring(0, separator).trim(), Double.parseDouble(pair.substring(separator + 1).trim()));
+                        } catch (NumberFormatException nfe) {
+                            //wrong weight is ignored
+                        }
+                    }
+                }
+            }
+            return weights;
+        }
+    }
+}
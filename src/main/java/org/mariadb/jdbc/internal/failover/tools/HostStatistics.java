@@ -0,0 +1,179 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover.tools;
+
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.threadly.util.Clock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Host statistics used to choose between hosts : average round trip time, queries in progress and replication lag.
+ * Like the blacklist, statistics are shared inside the classloader.
+ */
+public class HostStatistics {
+    private static final ConcurrentMap<HostAddress, HostStatistics> statistics = new ConcurrentHashMap<>();
+
+    //weight of a new sample in the exponentially weighted moving average
+    private static final double EWMA_WEIGHT = 0.2;
+    public static final long UNKNOWN = -1;
+    //replica with replication stopped (Seconds_Behind_Master is NULL) : always lagging
+    public static final long REPLICATION_STOPPED = Long.MAX_VALUE;
+
+    private final AtomicInteger outstandingRequests = new AtomicInteger();
+    private volatile long latencyNanos = UNKNOWN;
+    private volatile long replicationLag = UNKNOWN;
+    private volatile long replicationLagTimestamp;
+
+    /**
+     * Get statistics of a host.
+     * @param hostAddress host
+     * @return host statistics
+     */
+    public static HostStatistics get(HostAddress hostAddress) {
+        HostStatistics hostStatistics = statistics.get(hostAddress);
+        if (hostStatistics == null) {
+            hostStatistics = new HostStatistics();
+            HostStatistics previous = statistics.putIfAbsent(hostAddress, hostStatistics);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return hostStatistics;
+    }
+
+    public static void clear() {
+        statistics.clear();
+    }
+
+    /**
+     * Add a round trip time sample (ping or query execution).
+     * @param nanos round trip time in nanoseconds
+     */
+    public synchronized void addLatency(long nanos) {
+        if (latencyNanos == UNKNOWN) {
+            latencyNanos = nanos;
+        } else {
+            latencyNanos = (long) (latencyNanos + EWMA_WEIGHT * (nanos - latencyNanos));
+        }
+    }
+
+    /**
+     * Average round trip time.
+     * @return average round trip time in nanoseconds, or UNKNOWN if never measured
+     */
+    public long getLatency() {
+        return latencyNanos;
+    }
+
+    public void startRequest() {
+        outstandingRequests.incrementAndGet();
+    }
+
+    public void endRequest() {
+        outstandingRequests.decrementAndGet();
+    }
+
+    public int getOutstandingRequests() {
+        return outstandingRequests.get();
+    }
+
+    /**
+     * Sample replication lag of a replica connection.
+     * If lag cannot be read (like user without REPLICATION CLIENT privilege), lag is UNKNOWN : host is not considered lagging.
+     * @param protocol replica connection
+     * @throws QueryException if connection error occur
+     */
+    public void sampleReplicationLag(Protocol protocol) throws QueryException {
+        long lag;
+        try {
+            lag = protocol.getReplicationLag();
+        } catch (QueryException e) {
+            if (e.getSqlState() != null && e.getSqlState().startsWith("08")) {
+                throw e;
+            }
+            lag = UNKNOWN;
+        }
+        setReplicationLag(lag, Clock.lastKnownForwardProgressingMillis());
+    }
+
+    /**
+     * Set replication lag sampled on host.
+     * @param seconds Seconds_Behind_Master value, UNKNOWN if host is not a replica,
+     *                or REPLICATION_STOPPED if replication is not running
+     * @param timestamp sample time in milliseconds
+     */
+    public void setReplicationLag(long seconds, long timestamp) {
+        replicationLag = seconds;
+        replicationLagTimestamp = timestamp;
+    }
+
+    public long getReplicationLag() {
+        return replicationLag;
+    }
+
+    public long getReplicationLagTimestamp() {
+        return replicationLagTimestamp;
+    }
+
+    /**
+     * Indicate if last replication lag sample exceed the maximum allowed.
+     * @param maxReplicationLag maximum lag in seconds (0 means no limit)
+     * @return true if host is known to be lagging more than maxReplicationLag seconds, or if replication is stopped
+     */
+    public boolean isLagging(int maxReplicationLag) {
+        return maxReplicationLag > 0 && replicationLag > maxReplicationLag;
+    }
+}
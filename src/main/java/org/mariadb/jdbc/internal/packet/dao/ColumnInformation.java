@@ -50,7 +50,6 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.packet.dao;
 
 import org.mariadb.jdbc.internal.MariaDbType;
-import org.mariadb.jdbc.internal.util.buffer.Reader;
 import org.mariadb.jdbc.internal.util.constant.ColumnFlags;
 
 import java.io.IOException;
@@ -98,7 +97,9 @@ public class ColumnInformation {
             4, 4, 4, 4, 0, 4, 0, 0,
             0, 0, 0, 0, 0, 0, 0, 0
     };
-    ByteBuffer buffer;
+    //column definition packet, names are decoded only when needed
+    private byte[] buffer;
+    private String[] names;
     private short charsetNumber;
     private long length;
     private MariaDbType type;
@@ -111,12 +112,12 @@ public class ColumnInformation {
 
     /**
      * Read column information from buffer.
+     * Packet data is copied, so buffer can be reused afterward.
      * @param buffer buffer
      */
     public ColumnInformation(ByteBuffer buffer) {
-        this.buffer = buffer;
-        buffer.mark();
-        Reader reader = new Reader(buffer);
+        this.buffer = new byte[buffer.remaining()];
+        buffer.duplicate().get(this.buffer);
 
         /*
         lenenc_str     catalog
@@ -134,18 +135,13 @@ public class ColumnInformation {
         2              filler [00] [00]
 
          */
-        reader.skipLengthEncodedBytes();  /* catalog */
-        reader.skipLengthEncodedBytes();  /* db */
-        reader.skipLengthEncodedBytes();  /* table */
-        reader.skipLengthEncodedBytes();  /* original table */
-        reader.skipLengthEncodedBytes();  /* name */
-        reader.skipLengthEncodedBytes();  /* org_name */
-        reader.skipBytes(1);
-        charsetNumber = reader.readShort();
-        length = reader.readInt();
-        type = MariaDbType.fromServer(reader.readByte() & 0xff);
-        flags = reader.readShort();
-        decimals = reader.readByte();
+        int pos = skipStrings(6);
+        pos++; //length of fixed-length fields
+        charsetNumber = (short) readInt(pos, 2);
+        length = readInt(pos + 2, 4);
+        type = MariaDbType.fromServer(this.buffer[pos + 6] & 0xff);
+        flags = (short) readInt(pos + 7, 2);
+        decimals = this.buffer[pos + 9];
 
 
         int sqlType = type.getSqlType();
@@ -157,6 +153,66 @@ public class ColumnInformation {
         }
     }
 
+    /**
+     * Indicate if column definition packet is identical to the one of this column information,
+     * so this object can be used instead of parsing a new one.
+     * @param buffer column definition packet
+     * @return true if packets are identical
+     */
+    public boolean isSameDefinition(ByteBuffer buffer) {
+        if (this.buffer == null || buffer.remaining() != this.buffer.length) {
+            return false;
+        }
+        int position = buffer.position();
+        for (int i = 0; i < this.buffer.length; i++) {
+            if (buffer.get(position + i) != this.buffer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readInt(int pos, int byteNumber) {
+        int value = 0;
+        for (int i = 0; i < byteNumber; i++) {
+            value |= (buffer[pos + i] & 0xff) << (8 * i);
+        }
+        return value;
+    }
+
+    /**
+     * Skip length encoded strings from packet beginning.
+     * @param number number of strings to skip
+     * @return position after skipped strings
+     */
+    private int skipStrings(int number) {
+        int pos = 0;
+        for (int i = 0; i < number; i++) {
+            int len = buffer[pos++] & 0xff;
+            switch (len) {
+                case 251:
+                    len = 0;
+                    break;
+                case 252:
+                    len = readInt(pos, 2);
+                    pos += 2;
+                    break;
+                case 253:
+                    len = readInt(pos, 3);
+                    pos += 3;
+                    break;
+                case 254:
+                    len = readInt(pos, 4);
+                    pos += 8;
+                    break;
+                default:
+                    break;
+            }
+            pos += len;
+        }
+        return pos;
+    }
+
     /**
      * Constructor.
      * @param name column name
@@ -205,17 +261,25 @@ public class ColumnInformation {
     }
 
     private String getString(int idx) {
-        try {
-            buffer.reset();
-            buffer.mark();
-            Reader reader = new Reader(buffer);
-            for (int i = 0; i < idx; i++) {
-                reader.skipLengthEncodedBytes();
+        if (names == null) {
+            names = new String[6];
+        }
+        String name = names[idx];
+        if (name == null) {
+            int pos = skipStrings(idx);
+            int len = buffer[pos++] & 0xff;
+            if (len == 252) {
+                len = readInt(pos, 2);
+                pos += 2;
+            } else if (len == 253) {
+                len = readInt(pos, 3);
+                pos += 3;
             }
-            return new String(reader.getLengthEncodedBytes(), StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            throw new RuntimeException("this does not happen", e);
+            //names are interned : same table and column names are shared by all result sets
+            name = new String(buffer, pos, len, StandardCharsets.UTF_8).intern();
+            names[idx] = name;
         }
+        return name;
     }
 
     public String getCatalog() {
@@ -52,6 +52,7 @@ OF SUCH DAMAGE.
 
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.TemporalCodec;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 
 import java.io.IOException;
@@ -84,11 +85,9 @@ public class DateParameter extends NotLongDataParameterHolder {
      * @param os output buffer
      */
     public void writeTo(OutputStream os) throws IOException {
-        if (options.useLegacyDatetimeCode || options.maximizeMysqlCompatibility) {
-            calendar = Calendar.getInstance();
-        }
-        calendar.setTimeInMillis(date.getTime());
-        ParameterWriter.writeDate(os, calendar);
+        TemporalCodec codec = (options.useLegacyDatetimeCode || options.maximizeMysqlCompatibility)
+                ? TemporalCodec.getDefault() : TemporalCodec.getInstance(calendar);
+        ParameterWriter.writeDate(os, date, codec);
     }
 
     public long getApproximateTextProtocolLength() {
@@ -102,9 +101,7 @@ public class DateParameter extends NotLongDataParameterHolder {
      * @param writeBuffer output buffer
      */
     public void writeBinary(PacketOutputStream writeBuffer) {
-        calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(date.getTime());
-        writeBuffer.writeDateLength(calendar);
+        writeBuffer.writeDateLength(TemporalCodec.getDefault(), date);
     }
 
     public MariaDbType getMariaDbType() {
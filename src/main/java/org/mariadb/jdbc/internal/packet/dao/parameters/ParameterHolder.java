@@ -69,6 +69,27 @@ public abstract class ParameterHolder implements Cloneable {
 
     public abstract long getApproximateTextProtocolLength() throws IOException;
 
+    /**
+     * Release resources kept by this parameter, when parameter is discarded.
+     */
+    public void release() {
+    }
+
+    /**
+     * Release resources kept by parameters.
+     * @param parameters parameters (may be null, or contain null values)
+     */
+    public static void release(ParameterHolder[] parameters) {
+        if (parameters == null) {
+            return;
+        }
+        for (ParameterHolder parameter : parameters) {
+            if (parameter != null) {
+                parameter.release();
+            }
+        }
+    }
+
     /**
      * Nice formatting of prepared statements using PreparedStatement.toString().
      * @return formatted value
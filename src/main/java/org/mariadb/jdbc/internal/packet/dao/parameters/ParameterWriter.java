@@ -1,11 +1,14 @@
 package org.mariadb.jdbc.internal.packet.dao.parameters;
 
+import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+import org.mariadb.jdbc.internal.stream.SpillOutputStream;
+import org.mariadb.jdbc.internal.util.TemporalCodec;
+
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Time;
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
 
 /**
@@ -18,6 +21,10 @@ public class ParameterWriter {
 
     private static void writeBytesEscaped(OutputStream out, byte[] bytes, int count, boolean noBackslashEscapes)
             throws IOException {
+        if (out instanceof PacketOutputStream) {
+            ((PacketOutputStream) out).writeEscaped(bytes, 0, count, noBackslashEscapes);
+            return;
+        }
         if (noBackslashEscapes) {
             for (int i = 0; i < count; i++) {
                 byte bit = bytes[i];
@@ -52,6 +59,33 @@ public class ParameterWriter {
         writeBytesEscaped(out, bytes, bytes.length, noBackslashEscapes);
     }
 
+    /**
+     * Write chars escaped and encoded in UTF-8.
+     * A high surrogate ending chars is kept, since its low surrogate will be in next chars : it is moved to the first
+     * position of the array, next chars must then be added after it.
+     *
+     * @param out database stream
+     * @param chars chars to write
+     * @param count number of chars to write
+     * @param noBackslashEscapes must backslash be escape
+     * @return number of chars kept (0 or 1)
+     * @throws IOException if any error occur when writing to database
+     */
+    private static int writeCharsEscaped(OutputStream out, char[] chars, int count, boolean noBackslashEscapes)
+            throws IOException {
+        int written;
+        if (out instanceof PacketOutputStream) {
+            written = ((PacketOutputStream) out).writeEscaped(chars, 0, count, noBackslashEscapes);
+        } else {
+            written = (count > 0 && Character.isHighSurrogate(chars[count - 1])) ? count - 1 : count;
+            writeBytesEscaped(out, new String(chars, 0, written).getBytes("UTF-8"), noBackslashEscapes);
+        }
+        if (written < count) {
+            chars[0] = chars[written];
+        }
+        return count - written;
+    }
+
     /**
      * Write byte array in text format.
      * @param out database stream
@@ -73,9 +107,12 @@ public class ParameterWriter {
      * @throws IOException if any error occur when writing to database
      */
     public static void write(OutputStream out, String value, boolean noBackslashEscapes) throws IOException {
-        byte[] bytes = value.getBytes("UTF-8");
         out.write(QUOTE);
-        writeBytesEscaped(out, bytes, noBackslashEscapes);
+        if (out instanceof PacketOutputStream) {
+            ((PacketOutputStream) out).writeEscaped(value, noBackslashEscapes);
+        } else {
+            writeBytesEscaped(out, value.getBytes("UTF-8"), noBackslashEscapes);
+        }
         out.write(QUOTE);
     }
 
@@ -88,7 +125,7 @@ public class ParameterWriter {
      */
     public static void write(OutputStream out, InputStream is, boolean noBackslashEscapes) throws IOException {
         out.write(QUOTE);
-        byte[] buffer = new byte[1024];
+        byte[] buffer = new byte[8192];
         int len;
         while ((len = is.read(buffer)) >= 0) {
             writeBytesEscaped(out, buffer, len, noBackslashEscapes);
@@ -106,7 +143,7 @@ public class ParameterWriter {
      */
     public static void write(OutputStream out, InputStream is, long length, boolean noBackslashEscapes) throws IOException {
         out.write(QUOTE);
-        byte[] buffer = new byte[1024];
+        byte[] buffer = new byte[8192];
         long bytesLeft = length;
         int len;
 
@@ -133,28 +170,7 @@ public class ParameterWriter {
      * @throws IOException if any error occur when writing to database
      */
     public static void write(OutputStream out, java.io.Reader reader, boolean noBackslashEscapes) throws IOException {
-        out.write(QUOTE);
-        char[] buffer = new char[1024];
-        int len;
-        while ((len = reader.read(buffer)) >= 0) {
-            writeBytesEscaped(out, new String(buffer, 0, len).getBytes("UTF-8"), noBackslashEscapes);
-        }
-        out.write(QUOTE);
-    }
-
-    /**
-     * Write cached reader char array to buffer.
-     * @param out output buffer
-     * @param readArrays cache char array
-     * @param noBackslashEscapes backslash must be escape flag
-     * @throws IOException if error occur when writing to buffer
-     */
-    public static void write(OutputStream out, ArrayList<char[]> readArrays, boolean noBackslashEscapes) throws IOException {
-        out.write(QUOTE);
-        for (char[] charArray : readArrays) {
-            writeBytesEscaped(out, new String(charArray, 0, charArray.length).getBytes("UTF-8"), noBackslashEscapes);
-        }
-        out.write(QUOTE);
+        write(out, reader, Long.MAX_VALUE, noBackslashEscapes);
     }
 
     /**
@@ -168,26 +184,88 @@ public class ParameterWriter {
     public static void write(OutputStream out, java.io.Reader reader, long length, boolean noBackslashEscapes)
             throws IOException {
         out.write(QUOTE);
-        char[] buffer = new char[1024];
+        char[] buffer = new char[8192];
         long charsLeft = length;
+        int kept = 0;
         int len;
 
         for (; ; ) {
-            int charsToRead = (int) Math.min(charsLeft, buffer.length);
+            int charsToRead = (int) Math.min(charsLeft, buffer.length - kept);
             if (charsToRead == 0) {
                 break;
             }
-            len = reader.read(buffer, 0, charsToRead);
+            len = reader.read(buffer, kept, charsToRead);
             if (len <= 0) {
                 break;
             }
-            byte[] bytes = new String(buffer, 0, len).getBytes("UTF-8");
-            writeBytesEscaped(out, bytes, bytes.length, noBackslashEscapes);
+            kept = writeCharsEscaped(out, buffer, kept + len, noBackslashEscapes);
             charsLeft -= len;
         }
+        if (kept > 0) {
+            //unpaired high surrogate
+            out.write('?');
+        }
         out.write(QUOTE);
     }
 
+    private static boolean isEscaped(int value, boolean noBackslashEscapes) {
+        if (noBackslashEscapes) {
+            return value == '\'';
+        }
+        return value == '\\' || value == '\'' || value == '"' || value == 0;
+    }
+
+    /**
+     * Copy stream data, without escaping.
+     * @param out stream to copy to
+     * @param is input stream to copy
+     * @param noBackslashEscapes must backslash be escape
+     * @return length of data when written in text format by write(OutputStream, InputStream, boolean)
+     * @throws IOException if any error occur reading or copying data
+     */
+    public static long copy(OutputStream out, InputStream is, boolean noBackslashEscapes) throws IOException {
+        long textLength = 2;
+        byte[] buffer = new byte[8192];
+        int len;
+        while ((len = is.read(buffer)) >= 0) {
+            out.write(buffer, 0, len);
+            textLength += len;
+            for (int i = 0; i < len; i++) {
+                if (isEscaped(buffer[i], noBackslashEscapes)) {
+                    textLength++;
+                }
+            }
+        }
+        return textLength;
+    }
+
+    /**
+     * Copy reader data encoded in UTF-8, without escaping.
+     * Escaped characters being ASCII, copied data can then be written in text format as a stream.
+     * @param out stream to copy to
+     * @param reader reader to copy
+     * @param noBackslashEscapes must backslash be escape
+     * @return length of data when written in text format by write(OutputStream, Reader, boolean)
+     * @throws IOException if any error occur reading or copying data
+     */
+    public static long copy(SpillOutputStream out, java.io.Reader reader, boolean noBackslashEscapes)
+            throws IOException {
+        long textLength = 2 - out.size();
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        char[] buffer = new char[8192];
+        int len;
+        while ((len = reader.read(buffer)) >= 0) {
+            writer.write(buffer, 0, len);
+            for (int i = 0; i < len; i++) {
+                if (isEscaped(buffer[i], noBackslashEscapes)) {
+                    textLength++;
+                }
+            }
+        }
+        writer.flush();
+        return textLength + out.size();
+    }
+
     public static void write(OutputStream out, int value) throws IOException {
         out.write(String.valueOf(value).getBytes());
     }
@@ -204,34 +282,58 @@ public class ParameterWriter {
         out.write(bd.toPlainString().getBytes());
     }
 
+
     /**
-     * Write cache byte array to buffer.
-     * @param out buffer
-     * @param readArrays cache byte array
-     * @param noBackslashEscapes must escape backslash flag
-     * @throws IOException if error occur writing buffer
+     * Write date in text format.
+     * @param out database stream
+     * @param date date to write
+     * @param codec time zone codec
+     * @throws IOException if any error occur when writing to database
      */
-    public static void writeBytesArray(OutputStream out, ArrayList<byte[]> readArrays, boolean noBackslashEscapes) throws IOException {
+    public static void writeDate(OutputStream out, java.util.Date date, TemporalCodec codec) throws IOException {
         out.write(QUOTE);
-        for (byte[] buffer : readArrays) {
-            writeBytesEscaped(out, buffer, buffer.length, noBackslashEscapes);
-        }
+        writeDateFields(out, codec.toFields(date.getTime()));
         out.write(QUOTE);
     }
 
+    private static void writeDateFields(OutputStream out, long fields) throws IOException {
+        writeDigits(out, TemporalCodec.getYear(fields), 4);
+        out.write('-');
+        writeDigits(out, TemporalCodec.getMonth(fields), 2);
+        out.write('-');
+        writeDigits(out, TemporalCodec.getDayOfMonth(fields), 2);
+    }
+
+    private static void writeTimeFields(OutputStream out, long fields) throws IOException {
+        writeDigits(out, TemporalCodec.getHour(fields), 2);
+        out.write(':');
+        writeDigits(out, TemporalCodec.getMinute(fields), 2);
+        out.write(':');
+        writeDigits(out, TemporalCodec.getSecond(fields), 2);
+    }
 
     /**
-     * Write date in text format.
+     * Write positive value with a minimum number of digits, left padded with zeros.
      * @param out database stream
-     * @param calendar session calendar
+     * @param value value
+     * @param minDigits minimum number of digits
      * @throws IOException if any error occur when writing to database
      */
-    public static void writeDate(OutputStream out, Calendar calendar) throws IOException {
-        out.write(QUOTE);
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        String dateString = sdf.format(calendar.getTime());
-        out.write(dateString.getBytes());
-        out.write(QUOTE);
+    private static void writeDigits(OutputStream out, int value, int minDigits) throws IOException {
+        int digits = 1;
+        for (int remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < minDigits; i++) {
+            out.write('0');
+        }
+        int factor = 1;
+        for (int i = 1; i < digits; i++) {
+            factor *= 10;
+        }
+        for (; factor > 0; factor /= 10) {
+            out.write('0' + (value / factor) % 10);
+        }
     }
 
     static void formatMicroseconds(OutputStream out, int microseconds, boolean writeFractionalSeconds) throws IOException {
@@ -252,19 +354,17 @@ public class ParameterWriter {
      * Write timestamps in text format
      * @param out database outputstream
      * @param ts timestamp to write
-     * @param calendar session calendar
+     * @param calendar session calendar (null for JVM default time zone)
      * @param writeFractionalSeconds must fractional seconds be send to database
      * @throws IOException if any error occur when writing to database.
      */
     public static void writeTimestamp(OutputStream out, Timestamp ts, Calendar calendar, boolean writeFractionalSeconds)
             throws IOException {
         out.write(QUOTE);
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        if (calendar != null) {
-            sdf.setCalendar(calendar);
-        }
-        String dateString = sdf.format(ts);
-        out.write(dateString.getBytes());
+        long fields = TemporalCodec.getInstance(calendar).toFields(ts.getTime());
+        writeDateFields(out, fields);
+        out.write(' ');
+        writeTimeFields(out, fields);
         formatMicroseconds(out, ts.getNanos() / 1000, writeFractionalSeconds);
         out.write(QUOTE);
     }
@@ -273,22 +373,17 @@ public class ParameterWriter {
      * Write time in text format.
      * @param out database outputStream
      * @param time time to write
-     * @param calendar session calendar
+     * @param calendar session calendar (null for JVM default time zone)
      * @param writeFractionalSeconds must fractional seconds be send to database
      * @throws IOException if any error occur when writing to database.
      */
     public static void writeTime(OutputStream out, Time time, Calendar calendar, boolean writeFractionalSeconds)
             throws IOException {
         out.write(QUOTE);
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
-        if (calendar != null) {
-            sdf.setCalendar(calendar);
-        }
-        String dateString = sdf.format(time);
         if (time.getTime() < 0) {
-            dateString = "-" + dateString;
+            out.write('-');
         }
-        out.write(dateString.getBytes());
+        writeTimeFields(out, TemporalCodec.getInstance(calendar).toFields(time.getTime()));
         int microseconds = (int) (time.getTime() % 1000) * 1000;
         formatMicroseconds(out, microseconds, writeFractionalSeconds);
         out.write(QUOTE);
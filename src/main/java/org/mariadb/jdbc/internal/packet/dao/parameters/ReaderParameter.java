@@ -51,14 +51,16 @@ package org.mariadb.jdbc.internal.packet.dao.parameters;
 
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.stream.SpillOutputStream;
 
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 
 
 public class ReaderParameter extends LongDataParameterHolder {
     private Reader reader;
-    private ArrayList<char[]> readArrays = null;
+    private SpillOutputStream data = null;
+    private long textLength;
     private long length;
     private boolean noBackslashEscapes;
 
@@ -84,8 +86,10 @@ public class ReaderParameter extends LongDataParameterHolder {
      * @throws IOException if any error occur when reading reader
      */
     public void writeTo(OutputStream os) throws IOException {
-        if (readArrays != null) {
-            ParameterWriter.write(os, readArrays, noBackslashEscapes);
+        if (data != null) {
+            try (InputStream dataStream = data.getInputStream()) {
+                ParameterWriter.write(os, dataStream, noBackslashEscapes);
+            }
         } else {
             if (length == Long.MAX_VALUE) {
                 ParameterWriter.write(os, reader, noBackslashEscapes);
@@ -96,38 +100,45 @@ public class ReaderParameter extends LongDataParameterHolder {
     }
 
     /**
-     * Return approximated data calculated length for rewriting queries
+     * Return data length in text format.
+     * When length is unknown, data are read and kept (in a temporary file when big) until release() is called, so
+     * returned length is exact and data can still be written. This is only needed when a size check must be done
+     * before sending data, writeTo() stream data otherwise.
      *
-     * @return approximated data length.
+     * @return data length.
      * @throws IOException if error reading stream
      */
     public long getApproximateTextProtocolLength() throws IOException {
+        if (data != null) {
+            return textLength;
+        }
         if (length == Long.MAX_VALUE) {
-            readArrays = new ArrayList<>();
-            int length = 0;
-            int len;
-            char[] buffer = new char[1024];
-            while ((len = reader.read(buffer)) >= 0) {
-                readArrays.add(buffer);
-                buffer = new char[1024];
-                length += len;
+            SpillOutputStream spill = new SpillOutputStream();
+            try {
+                textLength = ParameterWriter.copy(spill, reader, noBackslashEscapes);
+            } catch (IOException ioe) {
+                spill.close();
+                throw ioe;
             }
-            reader = null;
-            //length * 2 due to escape done after
-            return 2 + length * 2;
-
+            data = spill;
+            return textLength;
         } else {
             return length;
         }
     }
 
-
     /**
      * Write reader to database in binary format.
      * @param os database outputStream
      * @throws IOException if any error occur when reading reader
      */
     public void writeBinary(PacketOutputStream os) throws IOException {
+        if (data != null) {
+            try (Reader dataReader = new InputStreamReader(data.getInputStream(), StandardCharsets.UTF_8)) {
+                os.sendStream(dataReader, mariaDbCharset);
+            }
+            return;
+        }
         if (length == Long.MAX_VALUE) {
             os.sendStream(reader, mariaDbCharset);
         } else {
@@ -135,6 +146,17 @@ public class ReaderParameter extends LongDataParameterHolder {
         }
     }
 
+    /**
+     * Release data read to know length.
+     */
+    @Override
+    public void release() {
+        if (data != null) {
+            data.close();
+            data = null;
+        }
+    }
+
     public MariaDbType getMariaDbType() {
         return MariaDbType.BLOB;
     }
@@ -51,18 +51,19 @@ package org.mariadb.jdbc.internal.packet.dao.parameters;
 
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+import org.mariadb.jdbc.internal.stream.SpillOutputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.ArrayList;
 
 
 public class StreamParameter extends LongDataParameterHolder {
     private InputStream is;
     private long length;
     private boolean noBackslashEscapes;
-    private ArrayList<byte[]> readArrays = null;
+    private SpillOutputStream data = null;
+    private long textLength;
 
     /**
      * Constructor.
@@ -86,8 +87,10 @@ public class StreamParameter extends LongDataParameterHolder {
      * @throws IOException if any error occur when reader stream
      */
     public void writeTo(final OutputStream os) throws IOException {
-        if (readArrays != null) {
-            ParameterWriter.writeBytesArray(os, readArrays, noBackslashEscapes);
+        if (data != null) {
+            try (InputStream dataStream = data.getInputStream()) {
+                ParameterWriter.write(os, dataStream, noBackslashEscapes);
+            }
         } else {
             if (length == Long.MAX_VALUE) {
                 ParameterWriter.write(os, is, noBackslashEscapes);
@@ -98,26 +101,28 @@ public class StreamParameter extends LongDataParameterHolder {
     }
 
     /**
-     * Return approximated data calculated length.
+     * Return data length in text format.
+     * When length is unknown, data are read and kept (in a temporary file when big) until release() is called, so
+     * returned length is exact and data can still be written. This is only needed when a size check must be done
+     * before sending data, writeTo() stream data otherwise.
      *
-     * @return approximated data length.
+     * @return data length.
      * @throws IOException if error reading stream
      */
     public long getApproximateTextProtocolLength() throws IOException {
+        if (data != null) {
+            return textLength;
+        }
         if (length == Long.MAX_VALUE) {
-            readArrays = new ArrayList<>();
-            int length = 0;
-            int len;
-            byte[] buffer = new byte[1024];
-            while ((len = is.read(buffer)) >= 0) {
-                readArrays.add(buffer);
-                buffer = new byte[1024];
-                length += len;
+            SpillOutputStream spill = new SpillOutputStream();
+            try {
+                textLength = ParameterWriter.copy(spill, is, noBackslashEscapes);
+            } catch (IOException ioe) {
+                spill.close();
+                throw ioe;
             }
-            is = null;
-            //length * 2 due to escape done after
-            return 2 + length * 2;
-
+            data = spill;
+            return textLength;
         } else {
             return length;
         }
@@ -129,6 +134,12 @@ public class StreamParameter extends LongDataParameterHolder {
      * @throws IOException if any error occur when reader stream
      */
     public void writeBinary(PacketOutputStream os) throws IOException {
+        if (data != null) {
+            try (InputStream dataStream = data.getInputStream()) {
+                os.sendStream(dataStream);
+            }
+            return;
+        }
         if (length == Long.MAX_VALUE) {
             os.sendStream(is);
         } else {
@@ -142,6 +153,17 @@ public class StreamParameter extends LongDataParameterHolder {
         return "<Stream> " + is;
     }
 
+    /**
+     * Release data read to know length.
+     */
+    @Override
+    public void release() {
+        if (data != null) {
+            data.close();
+            data = null;
+        }
+    }
+
     public MariaDbType getMariaDbType() {
         return MariaDbType.BLOB;
     }
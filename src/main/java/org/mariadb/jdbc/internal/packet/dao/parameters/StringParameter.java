@@ -70,7 +70,8 @@ public class StringParameter extends NotLongDataParameterHolder {
     }
 
     public long getApproximateTextProtocolLength() throws IOException {
-        return String.valueOf(string).getBytes().length * 2;
+        //an UTF-8 encoded char is at most 3 bytes, escaped chars 2 bytes
+        return string.length() * 3;
     }
 
     public void writeBinary(PacketOutputStream writeBuffer) {
@@ -53,6 +53,7 @@ package org.mariadb.jdbc.internal.packet.dao.parameters;
 
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.TemporalCodec;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 
 import java.io.IOException;
@@ -91,10 +92,7 @@ public class TimeParameter extends NotLongDataParameterHolder {
      * @param writeBuffer write buffer
      */
     public void writeBinary(PacketOutputStream writeBuffer) {
-        calendar = Calendar.getInstance();
-        calendar.setTime(time);
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        writeBuffer.writeTimeLength(calendar, fractionalSeconds);
+        writeBuffer.writeTimeLength(TemporalCodec.getDefault(), time, fractionalSeconds);
     }
 
     public MariaDbType getMariaDbType() {
@@ -50,6 +50,7 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.packet.dao.parameters;
 
 import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.TemporalCodec;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 import org.mariadb.jdbc.internal.MariaDbType;
 
@@ -91,11 +92,8 @@ public class TimestampParameter extends NotLongDataParameterHolder {
      * @param writeBuffer buffer to write
      */
     public void writeBinary(PacketOutputStream writeBuffer) {
-        if (options.useLegacyDatetimeCode) {
-            calendar = Calendar.getInstance();
-        }
-        calendar.setTimeInMillis(ts.getTime());
-        writeBuffer.writeTimestampLength(calendar, ts, fractionalSeconds);
+        TemporalCodec codec = options.useLegacyDatetimeCode ? TemporalCodec.getDefault() : TemporalCodec.getInstance(calendar);
+        writeBuffer.writeTimestampLength(codec, ts, fractionalSeconds);
     }
 
     public MariaDbType getMariaDbType() {
@@ -71,6 +71,7 @@ public class ReadInitialConnectPacket {
     //private final byte[] seed1;
     //private final byte[] seed2;
     private final int serverCapabilities;
+    private final int serverMariaDbCapabilities;
     private final byte serverLanguage;
     private final short serverStatus;
     private final byte[] seed;
@@ -95,10 +96,18 @@ public class ReadInitialConnectPacket {
         serverThreadId = reader.readInt();
         final byte[] seed1 = reader.readRawBytes(8);
         reader.skipByte();
-        serverCapabilities = reader.readShort();
+        final int lowerCapabilities = reader.readShort() & 0xffff;
         serverLanguage = reader.readByte();
         serverStatus = reader.readShort();
-        reader.skipBytes(13);
+        serverCapabilities = lowerCapabilities | ((reader.readShort() & 0xffff) << 16);
+        reader.skipBytes(7); //auth plugin data length and filler
+        //MariaDB 10.2+ server indicate extended capabilities by not setting CLIENT_MYSQL (LONG_PASSWORD)
+        if ((serverCapabilities & MariaDbServerCapabilities.LONG_PASSWORD) == 0) {
+            serverMariaDbCapabilities = reader.readInt();
+        } else {
+            reader.skipBytes(4);
+            serverMariaDbCapabilities = 0;
+        }
         final byte[] seed2 = reader.readRawBytes(12);
         seed = Utils.copyWithLength(seed1, seed1.length + seed2.length);
         System.arraycopy(seed2, 0, seed, seed1.length, seed2.length);
@@ -149,6 +158,10 @@ public class ReadInitialConnectPacket {
         return serverCapabilities;
     }
 
+    public int getServerMariaDbCapabilities() {
+        return serverMariaDbCapabilities;
+    }
+
     public byte getServerLanguage() {
         return serverLanguage;
     }
@@ -0,0 +1,205 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.packet.result;
+
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+
+/**
+ * Decoding plan of binary protocol rows for a given result set shape, computed once from column types.
+ * For each column, data length is known in advance (fixed width types) or length encoded, so rows can be
+ * decoded without checking column types for each value.
+ * When all columns have a fixed width, data offsets of rows without NULL values are precomputed as well.
+ */
+public class BinaryRowDecoder {
+    /**
+     * Data length is length encoded.
+     */
+    public static final int LENGTH_ENCODED = 0;
+
+    /**
+     * Type without data in binary rows.
+     */
+    public static final int NO_DATA = -1;
+
+    private final MariaDbType[] types;
+    private final int[] dataLengths;
+    private final int[] nullBitOffsets;
+    private final byte[] nullBitMasks;
+    private final int[] fixedOffsets;
+    private final int nullBitmapLength;
+
+    /**
+     * Compute decoding plan of columns.
+     * @param columnInformation columns information
+     */
+    public BinaryRowDecoder(ColumnInformation[] columnInformation) {
+        int columnCount = columnInformation.length;
+        types = new MariaDbType[columnCount];
+        dataLengths = new int[columnCount];
+        nullBitOffsets = new int[columnCount];
+        nullBitMasks = new byte[columnCount];
+        //binary row null bitmap has 2 bits offset
+        nullBitmapLength = (columnCount + 9) / 8;
+
+        boolean fixedWidth = true;
+        for (int i = 0; i < columnCount; i++) {
+            types[i] = columnInformation[i].getType();
+            dataLengths[i] = dataLength(types[i]);
+            nullBitOffsets[i] = (i + 2) / 8;
+            nullBitMasks[i] = (byte) (1 << ((i + 2) % 8));
+            if (dataLengths[i] <= 0) {
+                fixedWidth = false;
+            }
+        }
+
+        if (fixedWidth) {
+            fixedOffsets = new int[columnCount];
+            int offset = 0;
+            for (int i = 0; i < columnCount; i++) {
+                fixedOffsets[i] = offset;
+                offset += dataLengths[i];
+            }
+        } else {
+            fixedOffsets = null;
+        }
+    }
+
+    private static int dataLength(MariaDbType type) {
+        switch (type) {
+            case BIGINT:
+            case DOUBLE:
+                return 8;
+            case INTEGER:
+            case MEDIUMINT:
+            case FLOAT:
+                return 4;
+            case SMALLINT:
+            case YEAR:
+                return 2;
+            case TINYINT:
+                return 1;
+            case VARCHAR:
+            case BIT:
+            case ENUM:
+            case SET:
+            case TINYBLOB:
+            case MEDIUMBLOB:
+            case LONGBLOB:
+            case BLOB:
+            case VARSTRING:
+            case STRING:
+            case GEOMETRY:
+            case OLDDECIMAL:
+            case DECIMAL:
+            case TIME:
+            case DATE:
+            case DATETIME:
+            case TIMESTAMP:
+                return LENGTH_ENCODED;
+            default:
+                return NO_DATA;
+        }
+    }
+
+    /**
+     * Indicate if this plan can decode rows of these columns (same column types).
+     * @param columnInformation columns information
+     * @return true if columns have the same types
+     */
+    public boolean isCompatible(ColumnInformation[] columnInformation) {
+        if (columnInformation.length != types.length) {
+            return false;
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (columnInformation[i].getType() != types[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Data length of each column : a fixed length, LENGTH_ENCODED or NO_DATA.
+     * @return data lengths
+     */
+    public int[] getDataLengths() {
+        return dataLengths;
+    }
+
+    /**
+     * Offset in null bitmap of the NULL bit of each column.
+     * @return null bitmap offsets
+     */
+    public int[] getNullBitOffsets() {
+        return nullBitOffsets;
+    }
+
+    /**
+     * Mask of the NULL bit of each column.
+     * @return null bit masks
+     */
+    public byte[] getNullBitMasks() {
+        return nullBitMasks;
+    }
+
+    /**
+     * Data offsets of rows without NULL value, relative to the end of the null bitmap.
+     * @return data offsets, or null if some columns don't have a fixed width
+     */
+    public int[] getFixedOffsets() {
+        return fixedOffsets;
+    }
+
+    public int getNullBitmapLength() {
+        return nullBitmapLength;
+    }
+}
@@ -52,18 +52,26 @@ package org.mariadb.jdbc.internal.packet.result;
 import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.queryresults.ValueObject;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
-import org.mariadb.jdbc.internal.util.buffer.Reader;
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 import org.mariadb.jdbc.internal.queryresults.MariaDbValueObject;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 
 public class BinaryRowPacket implements RowPacket {
     private final ColumnInformation[] columnInformation;
     private final Options options;
     private final int columnInformationLength;
+    private final int[] positions;
+    private final int[] dataLengths;
+    private final int[] nullBitOffsets;
+    private final byte[] nullBitMasks;
+    private final int[] fixedOffsets;
+    private final int nullBitmapLength;
+    private byte[] buf;
+    private int limit;
 
     /**
      * Constructor.
@@ -72,126 +80,149 @@ public class BinaryRowPacket implements RowPacket {
      * @param columnInformationLength number of columns
      */
     public BinaryRowPacket(ColumnInformation[] columnInformation, Options options, int columnInformationLength) {
-        this.columnInformation = columnInformation;
-        this.options = options;
-        this.columnInformationLength = columnInformationLength;
+        this(columnInformation, options, columnInformationLength, new BinaryRowDecoder(columnInformation));
     }
 
     /**
-     * Fetch stream to retrieve data. Data length is unknown.
-     * @param reader reader
-     * @param packetFetcher packetFetcher
-     * @throws IOException if a connection error occur
+     * Constructor with an already computed decoding plan.
+     * @param columnInformation column information.
+     * @param options options
+     * @param columnInformationLength number of columns
+     * @param decoder decoding plan of these columns
      */
-    public void appendPacketIfNeeded(Reader reader, ReadPacketFetcher packetFetcher) throws IOException {
-        long encLength = reader.getSilentLengthEncodedBinary();
-        long remaining = reader.getRemainingSize();
-        while (encLength > remaining) {
-            reader.appendPacket(packetFetcher.getRawPacket());
-            encLength = reader.getSilentLengthEncodedBinary();
-            remaining = reader.getRemainingSize();
-        }
+    public BinaryRowPacket(ColumnInformation[] columnInformation, Options options, int columnInformationLength,
+                           BinaryRowDecoder decoder) {
+        this.columnInformation = columnInformation;
+        this.options = options;
+        this.columnInformationLength = columnInformationLength;
+        this.positions = new int[columnInformationLength * 2];
+        this.dataLengths = decoder.getDataLengths();
+        this.nullBitOffsets = decoder.getNullBitOffsets();
+        this.nullBitMasks = decoder.getNullBitMasks();
+        this.fixedOffsets = decoder.getFixedOffsets();
+        this.nullBitmapLength = decoder.getNullBitmapLength();
     }
 
     /**
-     * Fetch stream to retrieve data. Data length is known.
-     * @param reader reader
+     * Get next row data.
      * @param packetFetcher packetFetcher
-     * @param encLength data binary length
-     * @throws IOException if a connection error occur
+     * @param buffer current buffer
+     * @return read data
+     * @throws IOException if any connection error occur
      */
-    public void appendPacketIfNeeded(Reader reader, ReadPacketFetcher packetFetcher, long encLength) throws IOException {
-        long remaining = reader.getRemainingSize();
-        while (encLength > remaining) {
-            reader.appendPacket(packetFetcher.getRawPacket(), encLength);
-            encLength = reader.getSilentLengthEncodedBinary();
+    public ValueObject[] getRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer) throws IOException {
+        fetchRow(packetFetcher, buffer);
+        ValueObject[] valueObjects = new ValueObject[columnInformationLength];
+        for (int i = 0; i < columnInformationLength; i++) {
+            int pos = positions[2 * i];
+            int valueLen = positions[2 * i + 1];
+            byte[] data = (valueLen == -1) ? null : Arrays.copyOfRange(buf, pos, pos + valueLen);
+            valueObjects[i] = new MariaDbValueObject(data, columnInformation[i], true, options);
         }
+        return valueObjects;
     }
 
     /**
-     * Get next row data.
+     * Get next row data without copying data. (to fetch forward only Resulset.next() datas)
      * @param packetFetcher packetFetcher
      * @param buffer current buffer
-     * @return read data
      * @throws IOException if any connection error occur
      */
-    public ValueObject[] getRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer) throws IOException {
-        ValueObject[] valueObjects = new ValueObject[columnInformationLength];
-        Reader reader = new Reader(buffer);
-        reader.skipByte(); //stream header
-        int nullCount = (columnInformationLength + 9) / 8;
-        byte[] nullBitsBuffer = reader.readRawBytes(nullCount);
+    public void fetchRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer) throws IOException {
+        buf = buffer.array();
+        limit = buffer.limit();
+        int pos = buffer.position() + 1; //stream header
+        final int nullBitsPosition = pos;
+        pos += nullBitmapLength;
+
+        if (fixedOffsets != null && noNullValue(nullBitsPosition)) {
+            //fixed width row without NULL value : data offsets are known
+            for (int i = 0; i < columnInformationLength; i++) {
+                positions[2 * i] = pos + fixedOffsets[i];
+                positions[2 * i + 1] = dataLengths[i];
+            }
+            return;
+        }
 
         for (int i = 0; i < columnInformationLength; i++) {
-            if ((nullBitsBuffer[(i + 2) / 8] & (1 << ((i + 2) % 8))) > 0) {
+            if ((buf[nullBitsPosition + nullBitOffsets[i]] & nullBitMasks[i]) != 0) {
                 //field is null
-                valueObjects[i] = new MariaDbValueObject(null, columnInformation[i], true, options);
-            } else {
-                switch (columnInformation[i].getType()) {
-                    case VARCHAR:
-                    case BIT:
-                    case ENUM:
-                    case SET:
-                    case TINYBLOB:
-                    case MEDIUMBLOB:
-                    case LONGBLOB:
-                    case BLOB:
-                    case VARSTRING:
-                    case STRING:
-                    case GEOMETRY:
-                    case OLDDECIMAL:
-                    case DECIMAL:
-                        appendPacketIfNeeded(reader, packetFetcher);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytes(), columnInformation[i], true, options);
-                        break;
-
-                    case BIGINT:
-                        appendPacketIfNeeded(reader, packetFetcher, 8);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(8), columnInformation[i], true, options);
-                        break;
-
-                    case INTEGER:
-                    case MEDIUMINT:
-                        appendPacketIfNeeded(reader, packetFetcher, 4);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(4), columnInformation[i], true, options);
-                        break;
-
-                    case SMALLINT:
-                    case YEAR:
-                        appendPacketIfNeeded(reader, packetFetcher, 2);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(2), columnInformation[i], true, options);
-                        break;
-
-                    case TINYINT:
-                        appendPacketIfNeeded(reader, packetFetcher, 1);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(1), columnInformation[i], true, options);
+                positions[2 * i] = pos;
+                positions[2 * i + 1] = -1;
+                continue;
+            }
+            int valueLen = dataLengths[i];
+            if (valueLen == BinaryRowDecoder.LENGTH_ENCODED) {
+                ensureAvailable(packetFetcher, pos, 1);
+                valueLen = buf[pos++] & 0xff;
+                switch (valueLen) {
+                    case 251:
+                        valueLen = -1;
                         break;
-
-                    case DOUBLE:
-                        appendPacketIfNeeded(reader, packetFetcher, 8);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(8), columnInformation[i], true, options);
+                    case 252:
+                        ensureAvailable(packetFetcher, pos, 2);
+                        valueLen = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8);
+                        pos += 2;
                         break;
-
-                    case FLOAT:
-                        appendPacketIfNeeded(reader, packetFetcher, 4);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(4), columnInformation[i], true, options);
+                    case 253:
+                        ensureAvailable(packetFetcher, pos, 3);
+                        valueLen = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8) + ((buf[pos + 2] & 0xff) << 16);
+                        pos += 3;
                         break;
-
-                    case TIME:
-                    case DATE:
-                    case DATETIME:
-                    case TIMESTAMP:
-                        appendPacketIfNeeded(reader, packetFetcher);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytes(), columnInformation[i], true, options);
+                    case 254:
+                        //data length cannot exceed an array length
+                        ensureAvailable(packetFetcher, pos, 8);
+                        valueLen = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8) + ((buf[pos + 2] & 0xff) << 16)
+                                + ((buf[pos + 3] & 0xff) << 24);
+                        pos += 8;
                         break;
                     default:
-                        appendPacketIfNeeded(reader, packetFetcher);
-                        valueObjects[i] = new MariaDbValueObject(null, columnInformation[i], true, options);
                         break;
                 }
             }
+            positions[2 * i] = pos;
+            positions[2 * i + 1] = valueLen;
+            if (valueLen > 0) {
+                ensureAvailable(packetFetcher, pos, valueLen);
+                pos += valueLen;
+            }
         }
-        return valueObjects;
+    }
+
+    private boolean noNullValue(int nullBitsPosition) {
+        for (int i = 0; i < nullBitmapLength; i++) {
+            if (buf[nullBitsPosition + i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Row data can be split in many packets (if data size &gt; 16M). Append next packets to row buffer if needed.
+     * @param packetFetcher packetFetcher
+     * @param pos current position
+     * @param dataLength data length that must be available
+     * @throws IOException if any connection error occur
+     */
+    private void ensureAvailable(ReadPacketFetcher packetFetcher, int pos, int dataLength) throws IOException {
+        while (limit - pos < dataLength) {
+            ByteBuffer nextBuffer = packetFetcher.getRawPacket().getByteBuffer();
+            int nextLength = nextBuffer.remaining();
+            byte[] newBuf = new byte[limit + nextLength];
+            System.arraycopy(buf, 0, newBuf, 0, limit);
+            nextBuffer.get(newBuf, limit, nextLength);
+            buf = newBuf;
+            limit += nextLength;
+        }
+    }
+
+    public byte[] getBuffer() {
+        return buf;
+    }
+
+    public int[] getPositions() {
+        return positions;
     }
 
 }
\ No newline at end of file
@@ -49,15 +49,23 @@ ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSI
 OF SUCH DAMAGE.
 */
 
+import org.mariadb.jdbc.internal.util.constant.ServerStatus;
+
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
 
 public class OkPacket extends AbstractResultPacket {
+    private static final int SESSION_TRACK_SYSTEM_VARIABLES = 0;
+    private static final int SESSION_TRACK_SCHEMA = 1;
 
     private final long affectedRows;
     private final long insertId;
     private final short serverStatus;
     private final short warnings;
     private final String message;
+    private String sessionSchema;
+    private Map<String, String> sessionVariables;
 
     /**
      * Read Ok stream result.
@@ -71,6 +79,36 @@ public class OkPacket extends AbstractResultPacket {
         serverStatus = byteBuffer.getShort();
         warnings = byteBuffer.getShort();
         message = getStringLengthEncodedBytes();
+        if ((serverStatus & ServerStatus.SESSION_STATE_CHANGED) != 0 && byteBuffer.remaining() > 0) {
+            readSessionStateChanges();
+        }
+    }
+
+    /**
+     * Read session state change information (only sent when CLIENT_SESSION_TRACK capability is set).
+     * Only system variable and schema changes are kept, other change types are skipped.
+     */
+    private void readSessionStateChanges() {
+        final int end = byteBuffer.position() + (int) getLengthEncodedBinary();
+        while (byteBuffer.position() < end) {
+            final int type = byteBuffer.get() & 0xff;
+            final int dataEnd = (int) getLengthEncodedBinary() + byteBuffer.position();
+            switch (type) {
+                case SESSION_TRACK_SYSTEM_VARIABLES:
+                    if (sessionVariables == null) {
+                        sessionVariables = new HashMap<>();
+                    }
+                    final String name = getStringLengthEncodedBytes();
+                    sessionVariables.put(name, getStringLengthEncodedBytes());
+                    break;
+                case SESSION_TRACK_SCHEMA:
+                    sessionSchema = getStringLengthEncodedBytes();
+                    break;
+                default:
+                    //other state change are not tracked
+            }
+            byteBuffer.position(dataEnd);
+        }
     }
 
     public ResultType getResultType() {
@@ -110,4 +148,20 @@ public class OkPacket extends AbstractResultPacket {
     public String getMessage() {
         return message;
     }
+
+    /**
+     * Current schema if changed by the command (session tracking only).
+     * @return new schema, or null if schema has not changed
+     */
+    public String getSessionSchema() {
+        return sessionSchema;
+    }
+
+    /**
+     * System variables changed by the command (session tracking only).
+     * @return changed variables name/value, or null if no tracked variable has changed
+     */
+    public Map<String, String> getSessionVariables() {
+        return sessionVariables;
+    }
 }
@@ -57,6 +57,7 @@ import java.nio.ByteBuffer;
 
 public class ResultSetPacket extends AbstractResultPacket {
     private final long fieldCount;
+    private final boolean metadataFollows;
 
     /**
      * Initialize a ResultSetPacket : a resultset will have to be create.
@@ -72,9 +73,14 @@ public class ResultSetPacket extends AbstractResultPacket {
             // Should never get there, it is LocalInfilePacket, not ResultSetPacket
             throw new AssertionError("field count is -1 in ResultSetPacket.");
         }
-        if (reader.getRemainingSize() != 0) {
+        if (reader.getRemainingSize() == 1) {
+            //prepared statement execution with MARIADB_CLIENT_CACHE_METADATA capability
+            metadataFollows = reader.readByte() != 0;
+        } else if (reader.getRemainingSize() != 0) {
             throw new IOException("invalid stream contents ,expected result set stream, actual stream hexdump = "
                     + MasterProtocol.hexdump(byteBuffer, 0));
+        } else {
+            metadataFollows = true;
         }
     }
 
@@ -85,4 +91,13 @@ public class ResultSetPacket extends AbstractResultPacket {
     public long getFieldCount() {
         return fieldCount;
     }
+
+    /**
+     * Indicate if column definitions follow. If not, server has skipped them because they didn't change
+     * since last execution of the prepared statement.
+     * @return true if column definition packets follow
+     */
+    public boolean isMetadataFollows() {
+        return metadataFollows;
+    }
 }
@@ -57,4 +57,26 @@ import java.nio.ByteBuffer;
 
 public interface RowPacket {
     ValueObject[] getRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer) throws IOException;
+
+    /**
+     * Read row without copying data : only position and length of each column in buffer are registered.
+     * Buffer is reused for next row, so data is valid only until next call.
+     * @param packetFetcher packetFetcher
+     * @param buffer current buffer
+     * @throws IOException if any connection error occur
+     */
+    void fetchRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer) throws IOException;
+
+    /**
+     * Buffer containing current row data (set by fetchRow).
+     * @return row buffer
+     */
+    byte[] getBuffer();
+
+    /**
+     * Column data positions in row buffer. For each column i, position is at index 2 * i and data length at
+     * index 2 * i + 1 (length -1 for NULL data).
+     * @return positions array
+     */
+    int[] getPositions();
 }
@@ -64,6 +64,9 @@ public class TextRowPacket implements RowPacket {
     private final ColumnInformation[] columnInformation;
     private final Options options;
     private final int columnInformationLength;
+    private final int[] positions;
+    private byte[] buf;
+    private int limit;
 
     /**
      * Constructor.
@@ -75,6 +78,7 @@ public class TextRowPacket implements RowPacket {
         this.columnInformationLength = columnInformationLength;
         this.columnInformation = columnInformation;
         this.options = options;
+        this.positions = new int[columnInformationLength * 2];
     }
 
     /**
@@ -104,4 +108,77 @@ public class TextRowPacket implements RowPacket {
         return valueObjects;
     }
 
+    /**
+     * Read text row stream without copying data. (to fetch forward only Resulset.next() datas)
+     * @param packetFetcher packetFetcher
+     * @param buffer current buffer
+     * @throws IOException if any connection error occur
+     */
+    public void fetchRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer) throws IOException {
+        buf = buffer.array();
+        limit = buffer.limit();
+        int pos = buffer.position();
+        for (int i = 0; i < columnInformationLength; i++) {
+            ensureAvailable(packetFetcher, pos, 1);
+            int valueLen = buf[pos++] & 0xff;
+            switch (valueLen) {
+                case 251:
+                    valueLen = -1;
+                    break;
+                case 252:
+                    ensureAvailable(packetFetcher, pos, 2);
+                    valueLen = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8);
+                    pos += 2;
+                    break;
+                case 253:
+                    ensureAvailable(packetFetcher, pos, 3);
+                    valueLen = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8) + ((buf[pos + 2] & 0xff) << 16);
+                    pos += 3;
+                    break;
+                case 254:
+                    //data length cannot exceed an array length
+                    ensureAvailable(packetFetcher, pos, 8);
+                    valueLen = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8) + ((buf[pos + 2] & 0xff) << 16)
+                            + ((buf[pos + 3] & 0xff) << 24);
+                    pos += 8;
+                    break;
+                default:
+                    break;
+            }
+            positions[2 * i] = pos;
+            positions[2 * i + 1] = valueLen;
+            if (valueLen > 0) {
+                ensureAvailable(packetFetcher, pos, valueLen);
+                pos += valueLen;
+            }
+        }
+    }
+
+    /**
+     * Row data can be split in many packets (if data size &gt; 16M). Append next packets to row buffer if needed.
+     * @param packetFetcher packetFetcher
+     * @param pos current position
+     * @param dataLength data length that must be available
+     * @throws IOException if any connection error occur
+     */
+    private void ensureAvailable(ReadPacketFetcher packetFetcher, int pos, int dataLength) throws IOException {
+        while (limit - pos < dataLength) {
+            ByteBuffer nextBuffer = packetFetcher.getRawPacket().getByteBuffer();
+            int nextLength = nextBuffer.remaining();
+            byte[] newBuf = new byte[limit + nextLength];
+            System.arraycopy(buf, 0, newBuf, 0, limit);
+            nextBuffer.get(newBuf, limit, nextLength);
+            buf = newBuf;
+            limit += nextLength;
+        }
+    }
+
+    public byte[] getBuffer() {
+        return buf;
+    }
+
+    public int[] getPositions() {
+        return positions;
+    }
+
 }
\ No newline at end of file
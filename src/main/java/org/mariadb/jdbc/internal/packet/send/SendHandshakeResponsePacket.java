@@ -85,6 +85,7 @@ public class SendHandshakeResponsePacket implements InterfaceSendPacket {
     private final String password;
     private final byte[] seed;
     private final int clientCapabilities;
+    private final int mariaDbCapabilities;
     private final byte serverLanguage;
     private final String database;
 
@@ -94,6 +95,7 @@ public class SendHandshakeResponsePacket implements InterfaceSendPacket {
      * @param password user password
      * @param database initial database connection
      * @param clientCapabilities capabilities
+     * @param mariaDbCapabilities MariaDB extended capabilities
      * @param serverLanguage serverlanguage
      * @param seed seed
      * @param packetSeq stream sequence
@@ -102,6 +104,7 @@ public class SendHandshakeResponsePacket implements InterfaceSendPacket {
                                        final String password,
                                        final String database,
                                        final int clientCapabilities,
+                                       final int mariaDbCapabilities,
                                        final byte serverLanguage,
                                        final byte[] seed, byte packetSeq) {
         this.packetSeq = packetSeq;
@@ -109,6 +112,7 @@ public class SendHandshakeResponsePacket implements InterfaceSendPacket {
         this.password = password;
         this.seed = seed;
         this.clientCapabilities = clientCapabilities;
+        this.mariaDbCapabilities = mariaDbCapabilities;
         this.serverLanguage = serverLanguage;
         this.database = database;
     }
@@ -132,7 +136,8 @@ public class SendHandshakeResponsePacket implements InterfaceSendPacket {
         writeBuffer.writeInt(clientCapabilities)
                 .writeInt(1024 * 1024 * 1024)
                 .writeByte(serverLanguage) //1
-                .writeBytes((byte) 0, 23)    //23
+                .writeBytes((byte) 0, 19)    //19
+                .writeInt(mariaDbCapabilities) //4
                 .writeString(username)     //strlen username
                 .writeByte((byte) 0)        //1
                 .writeByte((byte) scrambledPassword.length)
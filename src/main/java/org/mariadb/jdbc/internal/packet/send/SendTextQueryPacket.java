@@ -98,7 +98,8 @@ public class SendTextQueryPacket implements InterfaceSendPacket {
      */
     public int send(final OutputStream stream) throws IOException, QueryException {
         PacketOutputStream pos = (PacketOutputStream) stream;
-        pos.startPacket(0);
+        //query is only written sequentially : full packets can be sent before end, so big parameters are streamed
+        pos.startPacket(0, true, true);
         pos.write(0x03);
         int queryNumberSend = 1;
         if (query != null) {
@@ -87,16 +87,31 @@ import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class AbstractConnectProtocol implements Protocol {
+    private static final int MAX_CACHED_SERVER_DATA = 1024;
+    private static final long SERVER_DATA_TTL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Server variables by server (host, port, version, user and session variables), so that reconnection to a known
+     * server don't have to query them.
+     * Variables can be changed on server (SET GLOBAL), so entries expire, and are removed when a connection to this
+     * host fails.
+     */
+    private static final ConcurrentHashMap<String, CachedServerData> serverDataCache = new ConcurrentHashMap<>();
+
     private final String username;
     private final String password;
     private boolean hostFailed;
@@ -119,6 +134,15 @@ public abstract class AbstractConnectProtocol implements Protocol {
     protected boolean connected = false;
     protected boolean explicitClosed = false;
     protected String database;
+    protected int transactionIsolationLevel = 0;
+    protected boolean sessionTracking = false;
+    protected Boolean deferredAutocommit;
+    protected String deferredIsolation;
+    protected boolean deferredMaxRows;
+    protected int statementTimeout;
+    protected boolean deferredStatementTimeout;
+    protected List<String> sentSessionCommands;
+    protected QueryException sessionCommandException;
     protected long serverThreadId;
     protected MariaDbCharset charset;
     protected PrepareStatementCache prepareStatementCache;
@@ -126,6 +150,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
     public boolean moreResults = false;
     public boolean hasWarnings = false;
     public StreamingSelectResult activeResult = null;
+    protected AsyncQuery<?> pendingAsyncQuery = null;
     public int dataTypeMappingFlags;
     public short serverStatus;
 
@@ -143,7 +168,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
         this.username = (urlParser.getUsername() == null ? "" : urlParser.getUsername());
         this.password = (urlParser.getPassword() == null ? "" : urlParser.getPassword());
         if (urlParser.getOptions().cachePrepStmts) {
-            prepareStatementCache = PrepareStatementCache.newInstance(urlParser.getOptions().prepStmtCacheSize);
+            prepareStatementCache = PrepareStatementCache.newInstance(urlParser.getOptions().prepStmtCacheSize, this);
         }
         setDataTypeMappingFlags();
     }
@@ -169,6 +194,18 @@ public abstract class AbstractConnectProtocol implements Protocol {
         if (lock != null) {
             lock.lock();
         }
+        if (pendingAsyncQuery != null) {
+            /* asynchronous query result will not be read */
+            AsyncQuery<?> asyncQuery = pendingAsyncQuery;
+            pendingAsyncQuery = null;
+            try {
+                AsyncQueryEngine.getInstance().unregister(asyncQuery);
+            } catch (IOException e) {
+                /* eat exception */
+            }
+            asyncQuery.fail(new QueryException("Connection closed before asynchronous query result was read", -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState()));
+        }
         try {
             /* If a streaming result set is open, close it.*/
             skip();
@@ -315,18 +352,25 @@ public abstract class AbstractConnectProtocol implements Protocol {
             socket.setSoTimeout(urlParser.getOptions().socketTimeout);
         }
 
+        // session commands deferred on previous connection must not be sent to new one
+        deferredAutocommit = null;
+        deferredIsolation = null;
+        deferredMaxRows = false;
+        statementTimeout = 0;
+        deferredStatementTimeout = false;
+        sentSessionCommands = null;
+        sessionCommandException = null;
+
         handleConnectionPhases();
 
         if (urlParser.getOptions().useCompression) {
-            writer.setUseCompression(true);
-            packetFetcher = new ReadPacketFetcher(new DecompressInputStream(socket.getInputStream()));
+            writer.setUseCompression(urlParser.getOptions().compressionLevel, urlParser.getOptions().compressionThreshold);
+            packetFetcher = new ReadPacketFetcher(new DecompressInputStream(
+                    new BufferedInputStream(socket.getInputStream(), 32768)));
         }
 
-        setSessionOptions();
-        loadServerData();
+        initializeSession();
         writer.setMaxAllowedPacket(Integer.parseInt(serverData.get("max_allowed_packet")));
-
-        createDatabaseIfNotExist();
         loadCalendar();
 
 
@@ -346,14 +390,177 @@ public abstract class AbstractConnectProtocol implements Protocol {
         return !this.connected;
     }
 
-    private void setSessionOptions()  throws QueryException {
-        // In JDBC, connection must start in autocommit mode.
-        if ((serverStatus & ServerStatus.AUTOCOMMIT) == 0) {
-            executeQuery(new MariaDbQuery("set autocommit=1"));
+    /**
+     * Initialize session after authentication : verify master status, set session options, load server variables and
+     * create database if needed.
+     * Server variables are not available in handshake, and session tracking only report changed values, so they
+     * are read from server once, then cached for next connections to the same server.
+     * Commands are sent in one write and their results read afterward, so initialization cost at most one round trip.
+     *
+     * @throws QueryException if a command fails, or if a connection error occur
+     * @throws IOException if a connection error occur
+     */
+    private void initializeSession() throws QueryException, IOException {
+        String masterCheckQuery = getMasterCheckQuery();
+        boolean createDatabase = false;
+        if (urlParser.getOptions().createDatabaseIfNotExist) {
+            //master status is needed before creating database
+            createDatabase = checkIfMaster();
+            masterCheckQuery = null;
+        }
+        String serverDataKey = currentHost.host + ":" + currentHost.port + "/" + version + "/" + username + "/"
+                + urlParser.getOptions().sessionVariables;
+        Map<String, String> cachedServerData = getCachedServerData(serverDataKey);
+
+        List<String> commands = new ArrayList<>(5);
+        if (masterCheckQuery != null) {
+            commands.add(masterCheckQuery);
+        }
+        String sessionOptions = getSessionOptions((serverStatus & ServerStatus.AUTOCOMMIT) == 0);
+        if (sessionOptions != null) {
+            commands.add("set session " + sessionOptions);
+        }
+        String serverDataQuery = null;
+        if (cachedServerData == null) {
+            serverDataQuery = "SELECT @@max_allowed_packet, @@system_time_zone, @@time_zone, @@" + getTxIsolationVariable();
+            commands.add(serverDataQuery);
+        }
+        if (createDatabase) {
+            // Try to create the database if it does not exist
+            String quotedDb = MariaDbConnection.quoteIdentifier(this.database);
+            commands.add("CREATE DATABASE IF NOT EXISTS " + quotedDb);
+            commands.add("USE " + quotedDb);
+        }
+
+        if (!commands.isEmpty()) {
+            writer.setHoldFlush(true);
+            try {
+                for (String command : commands) {
+                    writer.startPacket(0);
+                    writer.write(0x03);
+                    new MariaDbQuery(command).writeTo(writer);
+                    writer.finishPacket();
+                }
+            } finally {
+                writer.setHoldFlush(false);
+            }
+
+            //all results are read, even if a command fails, so that connection stay in a consistent state
+            QueryException exception = null;
+            for (String command : commands) {
+                try {
+                    if (command == masterCheckQuery) {
+                        readMasterCheckResult(readSingleInternalQueryResult());
+                    } else if (command == serverDataQuery) {
+                        cachedServerData = readServerData();
+                        putCachedServerData(serverDataKey, cachedServerData);
+                    } else {
+                        AbstractResultPacket resultPacket = ReadResultPacketFactory.createResultPacket(packetFetcher);
+                        if (resultPacket.getResultType() == AbstractResultPacket.ResultType.OK) {
+                            serverStatus = ((OkPacket) resultPacket).getServerStatus();
+                        } else if (resultPacket.getResultType() == AbstractResultPacket.ResultType.ERROR) {
+                            ErrorPacket ep = (ErrorPacket) resultPacket;
+                            throw new QueryException(ep.getMessage(), ep.getErrorNumber(), ep.getSqlState());
+                        } else {
+                            throw new QueryException("Unexpected packet type " + resultPacket.getResultType() + " for '" + command + "'",
+                                    -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState());
+                        }
+                    }
+                } catch (QueryException queryException) {
+                    //error packet has been read : next results can still be read
+                    if (queryException.getSqlState() != null && queryException.getSqlState().startsWith("08")) {
+                        throw queryException;
+                    }
+                    if (exception == null) {
+                        exception = queryException;
+                    }
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+
+        serverData = cachedServerData;
+        transactionIsolationLevel = getDefaultTransactionIsolation();
+    }
+
+    /**
+     * Session options to set after authentication.
+     * @param setAutocommit must autocommit be set (In JDBC, connection must start in autocommit mode)
+     * @return session options, or null if none
+     */
+    protected String getSessionOptions(boolean setAutocommit) {
+        StringBuilder sessionOption = new StringBuilder();
+        if (setAutocommit) {
+            sessionOption.append("autocommit=1");
+        }
+        if (sessionTracking) {
+            // ask server to report changes of cached session state in OK packets
+            if (sessionOption.length() > 0) {
+                sessionOption.append(", ");
+            }
+            sessionOption.append("session_track_schema=1, session_track_system_variables='autocommit,")
+                    .append(getTxIsolationVariable())
+                    .append(",sql_select_limit'");
         }
         if (urlParser.getOptions().sessionVariables != null) {
-            executeQuery(new MariaDbQuery("set session " + urlParser.getOptions().sessionVariables));
+            if (sessionOption.length() > 0) {
+                sessionOption.append(", ");
+            }
+            sessionOption.append(urlParser.getOptions().sessionVariables);
+        }
+        return (sessionOption.length() > 0) ? sessionOption.toString() : null;
+    }
+
+    /**
+     * Transaction isolation level of a new session, as read when connecting.
+     * @return JDBC transaction isolation level, or 0 if unknown
+     */
+    protected int getDefaultTransactionIsolation() {
+        return parseTransactionIsolation(serverData.get(getTxIsolationVariable()));
+    }
+
+    /**
+     * Name of the transaction isolation system variable (tx_isolation has been removed in MySQL 8.0).
+     * @return variable name
+     */
+    private String getTxIsolationVariable() {
+        if (!version.contains("MariaDB") && versionGreaterOrEqual(8, 0, 3)) {
+            return "transaction_isolation";
+        }
+        return "tx_isolation";
+    }
+
+    /**
+     * Convert transaction isolation system variable value to JDBC level.
+     * @param value system variable value (like "REPEATABLE-READ")
+     * @return JDBC transaction isolation level, or 0 if unknown
+     */
+    protected static int parseTransactionIsolation(String value) {
+        if ("REPEATABLE-READ".equals(value)) {
+            return Connection.TRANSACTION_REPEATABLE_READ;
         }
+        if ("READ-UNCOMMITTED".equals(value)) {
+            return Connection.TRANSACTION_READ_UNCOMMITTED;
+        }
+        if ("READ-COMMITTED".equals(value)) {
+            return Connection.TRANSACTION_READ_COMMITTED;
+        }
+        if ("SERIALIZABLE".equals(value)) {
+            return Connection.TRANSACTION_SERIALIZABLE;
+        }
+        return 0;
+    }
+
+    /**
+     * Indicate if cached session state (transaction isolation, catalog) can be trusted without querying server.
+     * That is the case when server report state changes (CLIENT_SESSION_TRACK), or when option
+     * useLocalSessionState is set.
+     * @return true if cached session state can be used
+     */
+    public boolean isSessionStateTracked() {
+        return sessionTracking || urlParser.getOptions().useLocalSessionState;
     }
 
     private void handleConnectionPhases() throws QueryException {
@@ -361,7 +568,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
         try {
             reader = new BufferedInputStream(socket.getInputStream(), 32768);
             packetFetcher = new ReadPacketFetcher(reader);
-            writer = new PacketOutputStream(socket.getOutputStream());
+            writer = new PacketOutputStream(new BufferedOutputStream(socket.getOutputStream()));
 
             final ReadInitialConnectPacket greetingPacket = new ReadInitialConnectPacket(packetFetcher);
             this.serverThreadId = greetingPacket.getServerThreadId();
@@ -370,6 +577,16 @@ public abstract class AbstractConnectProtocol implements Protocol {
             this.version = greetingPacket.getServerVersion();
             parseVersion();
             int clientCapabilities = initializeClientCapabilities();
+            sessionTracking = (greetingPacket.getServerCapabilities() & MariaDbServerCapabilities.CLIENT_SESSION_TRACK) != 0;
+            if (sessionTracking) {
+                clientCapabilities |= MariaDbServerCapabilities.CLIENT_SESSION_TRACK;
+            }
+            int mariaDbCapabilities = 0;
+            if ((greetingPacket.getServerMariaDbCapabilities() & MariaDbServerCapabilities.MARIADB_CLIENT_CACHE_METADATA) != 0) {
+                //server will skip result set metadata of prepared statements when unchanged since last execution
+                mariaDbCapabilities |= MariaDbServerCapabilities.MARIADB_CLIENT_CACHE_METADATA;
+                clientCapabilities &= ~MariaDbServerCapabilities.LONG_PASSWORD;
+            }
 
             byte packetSeq = 1;
             if (urlParser.getOptions().useSsl && (greetingPacket.getServerCapabilities() & MariaDbServerCapabilities.SSL) != 0) {
@@ -385,7 +602,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
                 sslSocket.setUseClientMode(true);
                 sslSocket.startHandshake();
                 socket = sslSocket;
-                writer = new PacketOutputStream(socket.getOutputStream());
+                writer = new PacketOutputStream(new BufferedOutputStream(socket.getOutputStream()));
                 reader = new BufferedInputStream(socket.getInputStream(), 32768);
                 packetFetcher = new ReadPacketFetcher(reader);
 
@@ -394,7 +611,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
                 throw new QueryException("Trying to connect with ssl, but ssl not enabled in the server");
             }
 
-            authentication(clientCapabilities, greetingPacket.getSeed(), packetSeq);
+            authentication(clientCapabilities, mariaDbCapabilities, greetingPacket.getSeed(), packetSeq);
 
         } catch (IOException e) {
             if (reader != null) {
@@ -409,11 +626,13 @@ public abstract class AbstractConnectProtocol implements Protocol {
         }
     }
 
-    private void authentication(int clientCapabilities, byte[] seed, byte packetSeq) throws QueryException, IOException {
+    private void authentication(int clientCapabilities, int mariaDbCapabilities, byte[] seed, byte packetSeq)
+            throws QueryException, IOException {
         final SendHandshakeResponsePacket cap = new SendHandshakeResponsePacket(this.username,
                 this.password,
                 database,
                 clientCapabilities,
+                mariaDbCapabilities,
                 decideLanguage(),
                 seed,
                 packetSeq);
@@ -445,6 +664,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
                         | MariaDbServerCapabilities.SECURE_CONNECTION
                         | MariaDbServerCapabilities.LOCAL_FILES
                         | MariaDbServerCapabilities.MULTI_RESULTS
+                        | MariaDbServerCapabilities.PS_MULTI_RESULTS
                         | MariaDbServerCapabilities.FOUND_ROWS;
 
 
@@ -467,19 +687,6 @@ public abstract class AbstractConnectProtocol implements Protocol {
         return capabilities;
     }
 
-    /**
-     * If createDB is true, then just try to create the database and to use it.
-     * @throws QueryException if connection failed
-     */
-    private void createDatabaseIfNotExist() throws QueryException {
-        if (checkIfMaster() && urlParser.getOptions().createDatabaseIfNotExist) {
-            // Try to create the database if it does not exist
-            String quotedDb = MariaDbConnection.quoteIdentifier(this.database);
-            executeQuery(new MariaDbQuery("CREATE DATABASE IF NOT EXISTS " + quotedDb));
-            executeQuery(new MariaDbQuery("USE " + quotedDb));
-        }
-    }
-
     private void loadCalendar() throws QueryException {
         String timeZone = null;
         if (urlParser.getOptions().serverTimezone != null) {
@@ -501,6 +708,8 @@ public abstract class AbstractConnectProtocol implements Protocol {
         try {
             TimeZone tz = Utils.getTimeZone(timeZone);
             cal = Calendar.getInstance(tz);
+            //prepare session time zone offset table used to encode/decode temporal values
+            TemporalCodec.getInstance(cal);
         } catch (SQLException e) {
             cal = null;
             if (!urlParser.getOptions().useLegacyDatetimeCode) {
@@ -518,18 +727,22 @@ public abstract class AbstractConnectProtocol implements Protocol {
 
     }
 
-    private void loadServerData() throws QueryException, IOException {
-        serverData = new TreeMap<>();
+    /**
+     * Read result of server variables query.
+     * @return server variables
+     * @throws QueryException if query failed
+     * @throws IOException if a connection error occur
+     */
+    private Map<String, String> readServerData() throws QueryException, IOException {
+        Map<String, String> data = new TreeMap<>();
         SelectQueryResult qr = null;
         try {
-            qr = executeSingleInternalQuery(new MariaDbQuery("SELECT "
-                    + "@@max_allowed_packet, "
-                    + "@@system_time_zone, "
-                    + "@@time_zone"));
+            qr = readSingleInternalQueryResult();
             if (qr.next()) {
-                serverData.put("max_allowed_packet", qr.getValueObject(0).getString());
-                serverData.put("system_time_zone", qr.getValueObject(1).getString());
-                serverData.put("time_zone", qr.getValueObject(2).getString());
+                data.put("max_allowed_packet", qr.getValueObject(0).getString());
+                data.put("system_time_zone", qr.getValueObject(1).getString());
+                data.put("time_zone", qr.getValueObject(2).getString());
+                data.put(getTxIsolationVariable(), qr.getValueObject(3).getString());
             }
         } catch (SQLException sqle) {
             throw new QueryException("could not load system variables", -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), sqle);
@@ -538,6 +751,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
                 qr.close();
             }
         }
+        return Collections.unmodifiableMap(data);
     }
 
     public String getServerData(String code) {
@@ -548,6 +762,84 @@ public abstract class AbstractConnectProtocol implements Protocol {
         return isMasterConnection();
     }
 
+    /**
+     * Query to send with session initialization to know if server is a master, for implementations where this is
+     * only known by asking server.
+     *
+     * @return master check query, or null if not needed
+     */
+    protected String getMasterCheckQuery() {
+        return null;
+    }
+
+    /**
+     * Set master status from result of master check query.
+     *
+     * @param queryResult result of getMasterCheckQuery()
+     * @throws QueryException if result cannot be read
+     */
+    protected void readMasterCheckResult(SelectQueryResult queryResult) throws QueryException {
+        queryResult.close();
+    }
+
+    private static Map<String, String> getCachedServerData(String serverDataKey) {
+        CachedServerData cachedServerData = serverDataCache.get(serverDataKey);
+        if (cachedServerData == null) {
+            return null;
+        }
+        if (System.nanoTime() - cachedServerData.creationNanos > SERVER_DATA_TTL_NANOS) {
+            serverDataCache.remove(serverDataKey, cachedServerData);
+            return null;
+        }
+        return cachedServerData.data;
+    }
+
+    private static void putCachedServerData(String serverDataKey, Map<String, String> data) {
+        if (serverDataCache.size() >= MAX_CACHED_SERVER_DATA) {
+            long now = System.nanoTime();
+            Iterator<CachedServerData> iterator = serverDataCache.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().creationNanos > SERVER_DATA_TTL_NANOS) {
+                    iterator.remove();
+                }
+            }
+            //no expired entry : evict any
+            iterator = serverDataCache.values().iterator();
+            while (serverDataCache.size() >= MAX_CACHED_SERVER_DATA && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        serverDataCache.put(serverDataKey, new CachedServerData(data));
+    }
+
+    /**
+     * Remove cached server variables of a host, so next connection will read them again.
+     *
+     * @param hostAddress host
+     */
+    public static void invalidateServerData(HostAddress hostAddress) {
+        if (hostAddress == null) {
+            return;
+        }
+        String prefix = hostAddress.host + ":" + hostAddress.port + "/";
+        Iterator<String> iterator = serverDataCache.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class CachedServerData {
+        private final Map<String, String> data;
+        private final long creationNanos = System.nanoTime();
+
+        CachedServerData(Map<String, String> data) {
+            this.data = data;
+        }
+    }
+
     private boolean isServerLanguageUtf8mb4(byte serverLanguage) {
         Byte[] utf8mb4Languages = {
                 (byte) 45, (byte) 46, (byte) 224, (byte) 225, (byte) 226, (byte) 227, (byte) 228,
@@ -587,6 +879,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
 
     public void setHostFailedWithoutProxy() {
         hostFailed = true;
+        invalidateServerData(currentHost);
         close();
     }
 
@@ -694,13 +987,14 @@ public abstract class AbstractConnectProtocol implements Protocol {
     }
 
 
-    private SelectQueryResult executeSingleInternalQuery(Query query) throws QueryException {
+    private SelectQueryResult readSingleInternalQueryResult() throws QueryException {
         try {
-            writer.startPacket(0);
-            writer.write(0x03);
-            query.writeTo(writer);
-            writer.finishPacket();
-            ResultSetPacket resultSetPacket = (ResultSetPacket) ReadResultPacketFactory.createResultPacket(packetFetcher);
+            AbstractResultPacket resultPacket = ReadResultPacketFactory.createResultPacket(packetFetcher);
+            if (resultPacket.getResultType() == AbstractResultPacket.ResultType.ERROR) {
+                ErrorPacket ep = (ErrorPacket) resultPacket;
+                throw new QueryException(ep.getMessage(), ep.getErrorNumber(), ep.getSqlState());
+            }
+            ResultSetPacket resultSetPacket = (ResultSetPacket) resultPacket;
             try {
                 long fieldCount = resultSetPacket.getFieldCount();
                 ColumnInformation[] ci = new ColumnInformation[(int) fieldCount];
@@ -721,7 +1015,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
                         ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
             }
         } catch (IOException e) {
-            throw new QueryException("Could not send query: " + e.getMessage(), -1,
+            throw new QueryException("Could not read result set: " + e.getMessage(), -1,
                     ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
         }
     }
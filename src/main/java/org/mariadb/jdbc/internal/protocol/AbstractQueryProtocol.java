@@ -1,6 +1,8 @@
 package org.mariadb.jdbc.internal.protocol;
 
+import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.failover.tools.HostStatistics;
 import org.mariadb.jdbc.internal.packet.result.*;
 import org.mariadb.jdbc.internal.packet.send.*;
 import org.mariadb.jdbc.internal.queryresults.*;
@@ -29,7 +31,10 @@ import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
 /*
@@ -83,9 +88,9 @@ OF SUCH DAMAGE.
 
 public class AbstractQueryProtocol extends AbstractConnectProtocol implements Protocol {
 
-    private int transactionIsolationLevel = 0;
     private InputStream localInfileInputStream;
     private int maxRows;  /* max rows returned by a statement */
+    private boolean binaryResults; /* are results of current command using binary protocol */
 
     /**
      * Get a protocol instance.
@@ -134,11 +139,29 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
 
     @Override
     public PrepareResult prepare(String sql) throws QueryException {
+        return prepare(sql, true);
+    }
+
+    /**
+     * Prepare a statement.
+     * Statements that must not be shared with other statements of this connection (like statements used for cursor
+     * fetch, since server cursor belongs to the statement id) are neither taken from nor put in prepare cache.
+     *
+     * @param sql sql query
+     * @param cacheable can prepare result be shared using prepare cache
+     * @return prepare result
+     * @throws QueryException if prepare fails
+     */
+    @Override
+    public PrepareResult prepare(String sql, boolean cacheable) throws QueryException {
+        completePendingAsyncQuery();
+        flushSessionCommands();
         try {
-            if (urlParser.getOptions().cachePrepStmts && prepareStatementCache.containsKey(sql)) {
-                PrepareResult pr = prepareStatementCache.get(sql);
-                pr.addUse();
-                return pr;
+            if (cacheable && urlParser.getOptions().cachePrepStmts && sql != null) {
+                PrepareResult pr = prepareStatementCache.acquire(sql);
+                if (pr != null) {
+                    return pr;
+                }
             }
 
             SendPrepareStatementPacket sendPrepareStatementPacket = new SendPrepareStatementPacket(sql);
@@ -166,20 +189,21 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
                 ColumnInformation[] params = new ColumnInformation[numParams];
                 if (numParams > 0) {
                     for (int i = 0; i < numParams; i++) {
-                        params[i] = new ColumnInformation(packetFetcher.getRawPacket().getByteBuffer());
+                        params[i] = new ColumnInformation(packetFetcher.getReusableBuffer());
                     }
                     readEofPacket();
                 }
                 ColumnInformation[] columns = new ColumnInformation[numColumns];
                 if (numColumns > 0) {
                     for (int i = 0; i < numColumns; i++) {
-                        columns[i] = new ColumnInformation(packetFetcher.getRawPacket().getByteBuffer());
+                        columns[i] = new ColumnInformation(packetFetcher.getReusableBuffer());
                     }
                     readEofPacket();
                 }
                 PrepareResult prepareResult = new PrepareResult(statementId, columns, params);
-                if (urlParser.getOptions().cachePrepStmts && sql != null && sql.length() < urlParser.getOptions().prepStmtCacheSqlLimit) {
-                    prepareStatementCache.putIfNone(sql, prepareResult);
+                if (cacheable && urlParser.getOptions().cachePrepStmts && sql != null
+                        && sql.length() < urlParser.getOptions().prepStmtCacheSqlLimit) {
+                    prepareStatementCache.put(sql, prepareResult);
                 }
 //                if (log.isDebugEnabled()) log.debug("prepare statementId : " + prepareResult.statementId);
                 return prepareResult;
@@ -197,6 +221,8 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     public void closePreparedStatement(int statementId) throws QueryException {
         lock.lock();
         try {
+            completePendingAsyncQuery();
+            flushSessionCommands();
             writer.startPacket(0);
             writer.write(0x19); /*COM_STMT_CLOSE*/
             writer.write(statementId);
@@ -214,6 +240,9 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     public boolean getAutocommit() {
         lock.lock();
         try {
+            if (deferredAutocommit != null) {
+                return deferredAutocommit;
+            }
             return ((serverStatus & ServerStatus.AUTOCOMMIT) != 0);
         } finally {
             lock.unlock();
@@ -221,6 +250,29 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
 
     }
 
+    /**
+     * Set autocommit mode.
+     * Command is sent with the next query, except when a transaction is in progress, since changing autocommit mode then
+     * commits current transaction.
+     *
+     * @param autoCommit autocommit mode
+     * @throws QueryException if command fails
+     */
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws QueryException {
+        lock.lock();
+        try {
+            if (inTransaction()) {
+                deferredAutocommit = null;
+                executeQuery(new MariaDbQuery("set autocommit=" + ((autoCommit) ? "1" : "0")));
+                return;
+            }
+            deferredAutocommit = (autoCommit == ((serverStatus & ServerStatus.AUTOCOMMIT) != 0)) ? null : autoCommit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
     public boolean inTransaction() {
         lock.lock();
@@ -262,14 +314,19 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
      * create a CachedSelectResult - precondition is that a result set packet has been read
      *
      * @param packet the result set packet from the server
+     * @param streaming is streaming result
+     * @param binaryProtocol is binary protocol
+     * @param prepareResult prepare result if result of a server prepared statement, null otherwise
      * @return a CachedSelectResult
      * @throws java.io.IOException when something goes wrong while reading/writing from the server
      */
-    private SelectQueryResult createQueryResult(final ResultSetPacket packet, boolean streaming, boolean binaryProtocol)
-            throws IOException, QueryException {
+    private SelectQueryResult createQueryResult(final ResultSetPacket packet, boolean streaming, boolean binaryProtocol,
+                                                PrepareResult prepareResult) throws IOException, QueryException {
 
-        StreamingSelectResult streamingResult = StreamingSelectResult.createStreamingSelectResult(packet, packetFetcher, this, binaryProtocol);
+        StreamingSelectResult streamingResult = StreamingSelectResult.createStreamingSelectResult(packet, packetFetcher, this, binaryProtocol,
+                prepareResult);
         if (streaming) {
+            streamingResult.readRowsInPlace();
             return streamingResult;
         }
 
@@ -278,9 +335,14 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
 
     @Override
     public void setCatalog(final String database) throws QueryException {
+        if (isSessionStateTracked() && database.equals(this.database)) {
+            return;
+        }
         lock.lock();
         final SendChangeDbPacket packet = new SendChangeDbPacket(database);
         try {
+            completePendingAsyncQuery();
+            flushSessionCommands();
             packet.send(writer);
             final ByteBuffer byteBuffer = packetFetcher.getReusableBuffer();
             if (byteBuffer.get(0) == ReadResultPacketFactory.ERROR) {
@@ -304,10 +366,14 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     public boolean ping() throws QueryException {
         lock.lock();
         try {
+            completePendingAsyncQuery();
+            flushSessionCommands();
             final SendPingPacket pingPacket = new SendPingPacket();
             try {
+                long start = System.nanoTime();
                 pingPacket.send(writer);
                 ByteBuffer byteBuffer = packetFetcher.getReusableBuffer();
+                HostStatistics.get(getHostAddress()).addLatency(System.nanoTime() - start);
                 return byteBuffer.get(0) == ReadResultPacketFactory.OK;
             } catch (IOException e) {
                 throw new QueryException("Could not ping: " + e.getMessage(), -1,
@@ -318,6 +384,123 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         }
     }
 
+    /**
+     * Reset session state with COM_RESET_CONNECTION, then set session options again, in one round trip.
+     * Server releases prepared statements, user variables and temporary tables, and restores session variables to
+     * their initial values. Current database is kept.
+     *
+     * @return true if session has been reset, false if server doesn't support COM_RESET_CONNECTION
+     * @throws QueryException if reset fails or if a connection error occur
+     */
+    @Override
+    public boolean resetConnection() throws QueryException {
+        if (getServerVersion().contains("MariaDB") ? !versionGreaterOrEqual(10, 2, 4) : !versionGreaterOrEqual(5, 7, 3)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            closeIfActiveResult();
+            //session commands not sent yet are useless after reset
+            deferredAutocommit = null;
+            deferredIsolation = null;
+            deferredMaxRows = false;
+            deferredStatementTimeout = false;
+            //server restores max_statement_time to its global value
+            statementTimeout = 0;
+            String[] commands = {"COM_RESET_CONNECTION", "set session " + getSessionOptions(true)};
+            try {
+                writer.setHoldFlush(true);
+                try {
+                    writer.startPacket(0);
+                    writer.write(0x1f); /*COM_RESET_CONNECTION*/
+                    writer.finishPacket();
+                    new SendTextQueryPacket(new MariaDbQuery(commands[1])).send(writer);
+                } finally {
+                    writer.setHoldFlush(false);
+                }
+
+                QueryException exception = null;
+                for (String command : commands) {
+                    AbstractResultPacket resultPacket = ReadResultPacketFactory.createResultPacket(packetFetcher);
+                    if (resultPacket.getResultType() == AbstractResultPacket.ResultType.OK) {
+                        serverStatus = ((OkPacket) resultPacket).getServerStatus();
+                    } else if (resultPacket.getResultType() == AbstractResultPacket.ResultType.ERROR) {
+                        ErrorPacket ep = (ErrorPacket) resultPacket;
+                        if (exception == null) {
+                            exception = new QueryException("Error executing '" + command + "': " + ep.getMessage(),
+                                    ep.getErrorNumber(), ep.getSqlState());
+                        }
+                    } else {
+                        throw new QueryException("Unexpected packet type " + resultPacket.getResultType() + " for '" + command + "'",
+                                -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState());
+                    }
+                }
+                if (exception != null) {
+                    throw exception;
+                }
+            } catch (IOException e) {
+                throw new QueryException("Could not reset connection: " + e.getMessage(), -1,
+                        ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+            }
+
+            //server statements have been released by server
+            if (prepareStatementCache != null) {
+                prepareStatementCache.clear();
+            }
+            transactionIsolationLevel = getDefaultTransactionIsolation();
+            maxRows = 0;
+            hasWarnings = false;
+            sessionCommandException = null;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get replication lag of this replica, using "SHOW SLAVE STATUS".
+     *
+     * @return seconds behind master, HostStatistics.UNKNOWN if not a replica,
+     *         or HostStatistics.REPLICATION_STOPPED if replication is not running
+     * @throws QueryException if connection error occur
+     */
+    @Override
+    public long getReplicationLag() throws QueryException {
+        lock.lock();
+        try {
+            AbstractQueryResult queryResult = executeQuery(new MariaDbQuery("SHOW SLAVE STATUS"));
+            if (queryResult instanceof SelectQueryResult) {
+                SelectQueryResult selectResult = (SelectQueryResult) queryResult;
+                try {
+                    ColumnInformation[] columns = selectResult.getColumnInformation();
+                    int lagIndex = -1;
+                    for (int i = 0; i < columns.length; i++) {
+                        if ("Seconds_Behind_Master".equalsIgnoreCase(columns[i].getName())) {
+                            lagIndex = i;
+                        }
+                    }
+                    long lag = HostStatistics.UNKNOWN;
+                    //multi-source replication : one row per master, keep the biggest lag
+                    while (selectResult.next()) {
+                        if (lagIndex != -1) {
+                            ValueObject value = selectResult.getValueObject(lagIndex);
+                            lag = Math.max(lag, value.isNull() ? HostStatistics.REPLICATION_STOPPED : value.getLong());
+                        }
+                    }
+                    return lag;
+                } catch (SQLException | IOException e) {
+                    throw new QueryException("could not read replication status on " + getHostAddress()
+                            + " : " + e.getMessage(), -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+                } finally {
+                    selectResult.close();
+                }
+            }
+            return HostStatistics.UNKNOWN;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
     public AbstractQueryResult executeQuery(Query query) throws QueryException {
         return executeQuery(query, false);
@@ -384,7 +567,10 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     }
 
     private int sendQuery(SendTextQueryPacket packet)  throws QueryException {
+        completePendingAsyncQuery();
+        boolean holdFlush = false;
         try {
+            holdFlush = sendSessionCommands();
             return packet.send(writer);
         } catch (MaxAllowedPacketException e) {
             if (e.isMustReconnect()) {
@@ -393,6 +579,8 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
             throw new QueryException("Could not send query: " + e.getMessage(), -1, ExceptionMapper.SqlStates.INTERRUPTED_EXCEPTION.getSqlState(), e);
         } catch (IOException e) {
             throw new QueryException("Could not send query: " + e.getMessage(), -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        } finally {
+            releaseFlush(holdFlush);
         }
     }
 
@@ -411,6 +599,17 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
 
     @Override
     public AbstractQueryResult getResult(Object queriesObj, boolean streaming, boolean binaryProtocol) throws QueryException {
+        return getResult(queriesObj, streaming, binaryProtocol, null, 0);
+    }
+
+    private AbstractQueryResult getResult(Object queriesObj, boolean streaming, boolean binaryProtocol, PrepareResult prepareResult,
+                                          int cursorFetchSize) throws QueryException {
+        if (sentSessionCommands != null) {
+            //command sent after session commands has been executed anyway : its result is returned,
+            //session command error is reported as a warning.
+            sessionCommandException = readSessionCommandResults();
+        }
+        binaryResults = binaryProtocol;
         RawPacket rawPacket = null;
         AbstractResultPacket resultPacket;
         try {
@@ -482,6 +681,9 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
             case OK:
                 final OkPacket okpacket = (OkPacket) resultPacket;
                 serverStatus = okpacket.getServerStatus();
+                if ((serverStatus & ServerStatus.SESSION_STATE_CHANGED) != 0) {
+                    updateSessionState(okpacket);
+                }
                 this.moreResults = ((serverStatus & ServerStatus.MORE_RESULTS_EXISTS) != 0);
                 this.hasWarnings = (okpacket.getWarnings() > 0);
                 final AbstractQueryResult updateResult = new UpdateResult(okpacket.getAffectedRows(),
@@ -493,7 +695,11 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
                 this.hasWarnings = false;
                 ResultSetPacket resultSetPacket = (ResultSetPacket) resultPacket;
                 try {
-                    return this.createQueryResult(resultSetPacket, streaming, binaryProtocol);
+                    if (cursorFetchSize > 0) {
+                        return CursorSelectResult.createCursorSelectResult(resultSetPacket, packetFetcher, this, prepareResult,
+                                cursorFetchSize);
+                    }
+                    return this.createQueryResult(resultSetPacket, streaming, binaryProtocol, prepareResult);
                 } catch (IOException e) {
 
                     throw new QueryException("Could not read result set: " + e.getMessage(),
@@ -526,7 +732,10 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
 
         this.moreResults = false;
         final SendTextQueryPacket packet = new SendTextQueryPacket(queries, isRewritable, rewriteOffset);
+        completePendingAsyncQuery();
+        boolean holdFlush = false;
         try {
+            holdFlush = sendSessionCommands();
             packet.send(writer);
         } catch (MaxAllowedPacketException e) {
             if (e.isMustReconnect()) {
@@ -537,6 +746,8 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         } catch (IOException e) {
             throw new QueryException("Could not send query: " + e.getMessage(), -1,
                     ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        } finally {
+            releaseFlush(holdFlush);
         }
 
         try {
@@ -564,20 +775,52 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
                                                     MariaDbType[] parameterTypeHeader, boolean isStreaming) throws QueryException {
         this.moreResults = false;
         try {
-            int parameterCount = parameters.length;
-            //send binary data in a separate stream
-            for (int i = 0; i < parameterCount; i++) {
-                if (parameters[i].isLongData()) {
-                    SendPrepareParameterPacket sendPrepareParameterPacket = new SendPrepareParameterPacket(i, (LongDataParameterHolder) parameters[i],
-                            prepareResult.statementId, charset);
-                    sendPrepareParameterPacket.send(writer);
-                }
+            sendExecutePrepare(parameters, prepareResult, parameterTypeHeader);
+        } catch (MaxAllowedPacketException e) {
+            if (e.isMustReconnect()) {
+                connect();
             }
-            //send execute query
-            SendExecutePrepareStatementPacket packet = new SendExecutePrepareStatementPacket(prepareResult.statementId, parameters,
-                    parameterCount, parameterTypeHeader);
-            packet.send(writer);
+            throw new QueryException("Could not send query: " + e.getMessage(), -1,
+                    ExceptionMapper.SqlStates.INTERRUPTED_EXCEPTION.getSqlState(), e);
+        } catch (IOException e) {
+            throw new QueryException("Could not send query: " + e.getMessage(), -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        }
 
+        try {
+            return getResult(sql, isStreaming, true, prepareResult, 0);
+        } catch (QueryException qex) {
+            if (qex.getCause() instanceof SocketTimeoutException) {
+                throw new QueryException("Connection timed out", -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), qex);
+            } else {
+                throw qex;
+            }
+        }
+    }
+
+    /**
+     * Execute a prepared statement with a read only server cursor.
+     * Server send only column information, rows are then fetched by "fetchSize" rows when needed (COM_STMT_FETCH), so
+     * connection is not locked until the end of the result set.
+     *
+     * @param sql sql query
+     * @param parameters parameters
+     * @param prepareResult prepare result
+     * @param parameterTypeHeader parameters type header
+     * @param fetchSize number of rows to fetch for each round trip
+     * @return result
+     * @throws QueryException if any error occur
+     */
+    @Override
+    public AbstractQueryResult executePreparedQueryWithCursor(String sql, ParameterHolder[] parameters, PrepareResult prepareResult,
+                                                              MariaDbType[] parameterTypeHeader, int fetchSize) throws QueryException {
+        this.moreResults = false;
+        completePendingAsyncQuery();
+        flushSessionCommands();
+        //new execution closes server cursor of previous one
+        prepareResult.setCursorOwner(null);
+        try {
+            sendExecutePrepare(parameters, prepareResult, parameterTypeHeader, SendExecutePrepareStatementPacket.CURSOR_TYPE_READ_ONLY);
         } catch (MaxAllowedPacketException e) {
             if (e.isMustReconnect()) {
                 connect();
@@ -590,7 +833,7 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         }
 
         try {
-            return getResult(sql, isStreaming, true);
+            return getResult(sql, false, true, prepareResult, fetchSize);
         } catch (QueryException qex) {
             if (qex.getCause() instanceof SocketTimeoutException) {
                 throw new QueryException("Connection timed out", -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), qex);
@@ -600,21 +843,165 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         }
     }
 
+    /**
+     * Fetch next rows of a server cursor.
+     * @param cursorResult cursor result set
+     * @throws QueryException if any error occur
+     */
+    public void cursorFetch(CursorSelectResult cursorResult) throws QueryException {
+        lock.lock();
+        try {
+            closeIfActiveResult();
+            new SendFetchCursorPacket(cursorResult.getStatementId(), cursorResult.getFetchSize()).send(writer);
+            cursorResult.readFetchedRows(packetFetcher);
+        } catch (IOException e) {
+            throw new QueryException("Could not fetch cursor rows: " + e.getMessage(), -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close server cursor before all rows have been fetched (COM_STMT_RESET).
+     * @param statementId prepared statement id
+     */
+    public void closeCursor(int statementId) {
+        lock.lock();
+        try {
+            if (isConnected()) {
+                closeIfActiveResult();
+                new SendResetPrepareStatementPacket(statementId).send(writer);
+                ReadResultPacketFactory.createResultPacket(packetFetcher);
+            }
+        } catch (IOException e) {
+            //eat exception
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Execute a prepared statement once for each parameter set, without waiting for a result before sending the next
+     * COM_STMT_EXECUTE.
+     * Up to "useBatchMultiSendNumber" executions are sent before the first result is read, results are then read in order
+     * while remaining executions are sent.
+     * If an execution fails, no more executions are sent, but results of executions already sent are still read.
+     *
+     * @param sql sql query
+     * @param parametersList parameter sets, one per execution
+     * @param prepareResult prepare result
+     * @param parameterTypeHeader parameters header
+     * @param results list filled with one element per execution sent to server, in order. Elements are
+     *                AbstractQueryResult or QueryException if that execution failed. On connection error, list contains
+     *                results of executions read before the error.
+     * @throws QueryException if a connection error occur
+     */
+    @Override
+    public void executePreparedBatch(String sql, List<ParameterHolder[]> parametersList, PrepareResult prepareResult,
+                                     MariaDbType[] parameterTypeHeader, List<Object> results) throws QueryException {
+        this.moreResults = false;
+        int total = parametersList.size();
+        int maxInFlight = Math.max(1, urlParser.getOptions().useBatchMultiSendNumber);
+        QueryException sendException = null;
+        boolean mustReconnect = false;
+        int sent = 0;
+
+        for (;;) {
+            while (sendException == null && sent < total && sent - results.size() < maxInFlight) {
+                try {
+                    sendExecutePrepare(parametersList.get(sent), prepareResult, parameterTypeHeader);
+                    sent++;
+                } catch (MaxAllowedPacketException e) {
+                    //packet size is checked before anything is written, so already sent executions can still be read
+                    mustReconnect = e.isMustReconnect();
+                    sendException = new QueryException("Could not send query: " + e.getMessage(), -1,
+                            ExceptionMapper.SqlStates.INTERRUPTED_EXCEPTION.getSqlState(), e);
+                } catch (IOException e) {
+                    throw new QueryException("Could not send query: " + e.getMessage(), -1,
+                            ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+                }
+            }
+
+            if (results.size() == sent) {
+                break;
+            }
+
+            try {
+                AbstractQueryResult queryResult = getResult(sql, false, true, prepareResult, 0);
+                //a batch execution only report the first result of each execution
+                while (moreResults) {
+                    AbstractQueryResult additionalResult = getMoreResults(false);
+                    if (additionalResult != null) {
+                        additionalResult.close();
+                    }
+                }
+                results.add(queryResult);
+            } catch (QueryException qex) {
+                if (qex.getCause() instanceof SocketTimeoutException) {
+                    throw new QueryException("Connection timed out", -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), qex);
+                }
+                if (qex.getSqlState() != null && qex.getSqlState().startsWith("08")) {
+                    throw qex;
+                }
+                results.add(qex);
+                if (sendException == null) {
+                    //stop sending new executions, but read results of those already sent
+                    total = sent;
+                }
+            }
+        }
+
+        if (sendException != null) {
+            results.add(sendException);
+            if (mustReconnect) {
+                connect();
+            }
+        }
+    }
+
+    private void sendExecutePrepare(ParameterHolder[] parameters, PrepareResult prepareResult, MariaDbType[] parameterTypeHeader)
+            throws IOException {
+        sendExecutePrepare(parameters, prepareResult, parameterTypeHeader, SendExecutePrepareStatementPacket.CURSOR_TYPE_NO_CURSOR);
+    }
+
+    private void sendExecutePrepare(ParameterHolder[] parameters, PrepareResult prepareResult, MariaDbType[] parameterTypeHeader,
+                                    byte cursorType) throws IOException {
+        completePendingAsyncQuery();
+        boolean holdFlush = sendSessionCommands();
+        try {
+            int parameterCount = parameters.length;
+            //send binary data in a separate stream
+            for (int i = 0; i < parameterCount; i++) {
+                if (parameters[i].isLongData()) {
+                    SendPrepareParameterPacket sendPrepareParameterPacket = new SendPrepareParameterPacket(i,
+                            (LongDataParameterHolder) parameters[i], prepareResult.statementId, charset);
+                    sendPrepareParameterPacket.send(writer);
+                }
+            }
+            //send execute query
+            SendExecutePrepareStatementPacket packet = new SendExecutePrepareStatementPacket(prepareResult.statementId, parameters,
+                    parameterCount, parameterTypeHeader, cursorType);
+            packet.send(writer);
+        } finally {
+            if (holdFlush) {
+                writer.setHoldFlush(false);
+            }
+        }
+    }
+
     @Override
-    public void releasePrepareStatement(String sql, int statementId) throws QueryException {
+    public void releasePrepareStatement(PrepareResult prepareResult) throws QueryException {
 //        if (log.isDebugEnabled()) log.debug("Closing prepared statement "+statementId);
         lock.lock();
         try {
-            if (urlParser.getOptions().cachePrepStmts && prepareStatementCache.containsKey(sql)) {
-                PrepareResult pr = prepareStatementCache.get(sql);
-                pr.removeUse();
-                if (!pr.hasToBeClose()) {
-//                        log.debug("closing aborded, prepared statement used in another statement");
-                    return;
-                }
-                prepareStatementCache.remove(sql);
+            if (!prepareResult.removeUse()) {
+//                        log.debug("closing aborded, prepared statement used in another statement or cached");
+                return;
             }
-            final SendClosePrepareStatementPacket packet = new SendClosePrepareStatementPacket(statementId);
+            completePendingAsyncQuery();
+            flushSessionCommands();
+            final SendClosePrepareStatementPacket packet = new SendClosePrepareStatementPacket(prepareResult.statementId);
             try {
                 packet.send(writer);
             } catch (IOException e) {
@@ -626,6 +1013,185 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         }
     }
 
+    /**
+     * Send a text query without waiting for its result.
+     * Result will be read by the asynchronous engine when data is available, or by the next command
+     * sent on this connection if it comes first.
+     *
+     * @param query query to send
+     * @param asyncQuery task that will read the query result
+     * @throws QueryException if query cannot be sent
+     */
+    @Override
+    public void executeQueryAsync(Query query, AsyncQuery<?> asyncQuery) throws QueryException {
+        query.validate();
+        this.moreResults = false;
+        sendQuery(new SendTextQueryPacket(query));
+        asyncQuery.protocol = this;
+        asyncQuery.channel = socket.getChannel();
+        pendingAsyncQuery = asyncQuery;
+        try {
+            AsyncQueryEngine.getInstance().waitForResult(asyncQuery);
+        } catch (IOException e) {
+            //engine cannot be started : result will be read by next command.
+            asyncQuery.channel = null;
+            asyncQuery.registrationDone();
+        }
+    }
+
+    /**
+     * Read result of an asynchronous query. Lock must be hold by current thread.
+     *
+     * @param asyncQuery asynchronous query
+     */
+    public void completeAsyncQuery(AsyncQuery<?> asyncQuery) {
+        if (pendingAsyncQuery == asyncQuery) {
+            pendingAsyncQuery = null;
+        }
+        if (asyncQuery.isDone()) {
+            return;
+        }
+        try {
+            AsyncQueryEngine.getInstance().unregister(asyncQuery);
+        } catch (IOException e) {
+            asyncQuery.fail(e);
+            return;
+        }
+        asyncQuery.run();
+    }
+
+    private void completePendingAsyncQuery() {
+        if (pendingAsyncQuery != null) {
+            completeAsyncQuery(pendingAsyncQuery);
+        }
+    }
+
+    /**
+     * Write deferred session commands (autocommit, transaction isolation, max rows, statement timeout), so they are sent to server in the
+     * same write as the next command. Socket flush is then hold until next command has been written.
+     * Results of those commands will be read before next command result.
+     *
+     * @return true if session commands have been written, meaning flush must be released after next command
+     * @throws IOException if a connection error occur
+     */
+    private boolean sendSessionCommands() throws IOException {
+        //error of session commands sent with previous command is not reported anymore
+        sessionCommandException = null;
+        if (deferredAutocommit == null && deferredIsolation == null && !deferredMaxRows && !deferredStatementTimeout) {
+            return false;
+        }
+        List<String> commands = new ArrayList<>(4);
+        if (deferredAutocommit != null) {
+            commands.add("set autocommit=" + ((deferredAutocommit) ? "1" : "0"));
+            deferredAutocommit = null;
+        }
+        if (deferredIsolation != null) {
+            commands.add(deferredIsolation);
+            deferredIsolation = null;
+        }
+        if (deferredMaxRows) {
+            commands.add((maxRows == 0) ? "set @@SQL_SELECT_LIMIT=DEFAULT" : "set @@SQL_SELECT_LIMIT=" + maxRows);
+            deferredMaxRows = false;
+        }
+        if (deferredStatementTimeout) {
+            //no statement timeout : restore server value, not disable it
+            commands.add((statementTimeout == 0) ? "set max_statement_time=DEFAULT"
+                    : "set max_statement_time=" + statementTimeout);
+            deferredStatementTimeout = false;
+        }
+
+        writer.setHoldFlush(true);
+        if (sentSessionCommands == null) {
+            sentSessionCommands = commands;
+        } else {
+            sentSessionCommands.addAll(commands);
+        }
+        try {
+            for (String command : commands) {
+                new SendTextQueryPacket(new MariaDbQuery(command)).send(writer);
+            }
+        } catch (QueryException qe) {
+            //cannot occur, session commands are not rewritten
+            throw new IOException(qe.getMessage(), qe);
+        }
+        return true;
+    }
+
+    private void releaseFlush(boolean holdFlush) throws QueryException {
+        if (holdFlush) {
+            try {
+                writer.setHoldFlush(false);
+            } catch (IOException e) {
+                throw new QueryException("Could not send query: " + e.getMessage(), -1,
+                        ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+            }
+        }
+    }
+
+    /**
+     * Send deferred session commands and read their results immediately.
+     * Used before commands whose results are not read by getResult().
+     *
+     * @throws QueryException if a session command fails
+     */
+    private void flushSessionCommands() throws QueryException {
+        try {
+            releaseFlush(sendSessionCommands());
+        } catch (IOException e) {
+            throw new QueryException("Could not send query: " + e.getMessage(), -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        }
+        if (sentSessionCommands != null) {
+            QueryException sessionException = readSessionCommandResults();
+            if (sessionException != null) {
+                throw sessionException;
+            }
+        }
+    }
+
+    /**
+     * Read results of session commands sent with last command.
+     * All results are read even if a command fails, so that connection stay in a consistent state.
+     *
+     * @return exception for the first failing command, or null if all commands succeed
+     * @throws QueryException if a connection error occur
+     */
+    private QueryException readSessionCommandResults() throws QueryException {
+        List<String> commands = sentSessionCommands;
+        sentSessionCommands = null;
+        QueryException sessionException = null;
+        for (String command : commands) {
+            AbstractResultPacket resultPacket;
+            try {
+                resultPacket = ReadResultPacketFactory.createResultPacket(packetFetcher);
+            } catch (IOException e) {
+                throw new QueryException("Could not read result of '" + command + "': " + e.getMessage(), -1,
+                        ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+            }
+            if (resultPacket.getResultType() == AbstractResultPacket.ResultType.OK) {
+                OkPacket okPacket = (OkPacket) resultPacket;
+                serverStatus = okPacket.getServerStatus();
+                if ((serverStatus & ServerStatus.SESSION_STATE_CHANGED) != 0) {
+                    updateSessionState(okPacket);
+                }
+            } else if (resultPacket.getResultType() == AbstractResultPacket.ResultType.ERROR) {
+                ErrorPacket ep = (ErrorPacket) resultPacket;
+                if (command.startsWith("SET SESSION TRANSACTION")) {
+                    //cached isolation level is not reliable anymore
+                    transactionIsolationLevel = 0;
+                }
+                if (sessionException == null) {
+                    sessionException = new QueryException("Error executing '" + command + "': " + ep.getMessage(),
+                            ep.getErrorNumber(), ep.getSqlState());
+                }
+            } else {
+                throw new QueryException("Unexpected packet type " + resultPacket.getResultType() + " for '" + command + "'", -1,
+                        ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState());
+            }
+        }
+        return sessionException;
+    }
+
     /**
      * Cancels the current query - clones the current protocol and executes a query using the new connection.
      *
@@ -634,12 +1200,9 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
      */
     @Override
     public void cancelCurrentQuery() throws QueryException, IOException {
-        MasterProtocol copiedProtocol = new MasterProtocol(urlParser, new ReentrantLock());
-        copiedProtocol.setHostAddress(getHostAddress());
-        copiedProtocol.connect();
         //no lock, because there is already a query running that possessed the lock.
-        copiedProtocol.executeQuery(new MariaDbQuery("KILL QUERY " + serverThreadId));
-        copiedProtocol.close();
+        HostAddress hostAddress = getHostAddress();
+        KillConnectionManager.get(urlParser, hostAddress).killQuery(urlParser, hostAddress, serverThreadId);
     }
 
     @Override
@@ -647,20 +1210,40 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         if (!moreResults) {
             return null;
         }
-        return getResult(null, streaming, (activeResult != null) ? activeResult.isBinaryProtocol() : false);
+        return getResult(null, streaming, binaryResults);
     }
 
     @Override
     public boolean hasUnreadData() {
         lock.lock();
         try {
-            return (activeResult != null);
+            return (activeResult != null || pendingAsyncQuery != null || sentSessionCommands != null);
         } finally {
             lock.unlock();
         }
 
     }
 
+    /**
+     * Indicate if session commands are waiting to be sent with next command.
+     *
+     * @return true if session commands have not been sent yet
+     */
+    @Override
+    public boolean hasDeferredSessionCommands() {
+        return deferredAutocommit != null || deferredIsolation != null || deferredMaxRows || deferredStatementTimeout;
+    }
+
+    /**
+     * Error of a session command sent with last command. Last command has been executed nevertheless.
+     *
+     * @return session command error, or null if session commands succeed or none were sent with last command
+     */
+    @Override
+    public QueryException getSessionCommandException() {
+        return sessionCommandException;
+    }
+
     /**
      * Set max row retuen by a statement.
      *
@@ -679,15 +1262,35 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     @Override
     public void setMaxRows(int max) throws QueryException {
         if (maxRows != max) {
-            if (max == 0) {
-                executeQuery(new MariaDbQuery("set @@SQL_SELECT_LIMIT=DEFAULT"));
-            } else {
-                executeQuery(new MariaDbQuery("set @@SQL_SELECT_LIMIT=" + max));
-            }
+            //command will be sent with next query
             maxRows = max;
+            deferredMaxRows = true;
+        }
+    }
+
+
+    /**
+     * Set server side timeout of next statements (MariaDB max_statement_time, since 10.1.1).
+     * Like max rows, command is only sent with next query, and only if timeout differs from current one.
+     *
+     * @param seconds timeout in seconds, 0 meaning server default max_statement_time
+     * @return true if server will enforce timeout, false if server doesn't support statement timeout
+     */
+    @Override
+    public boolean setStatementTimeout(int seconds) {
+        if (!getServerVersion().contains("MariaDB") || !versionGreaterOrEqual(10, 1, 1)) {
+            return false;
+        }
+        if (statementTimeout != seconds) {
+            statementTimeout = seconds;
+            deferredStatementTimeout = true;
         }
+        return true;
     }
 
+    public int getStatementTimeout() {
+        return statementTimeout;
+    }
 
     @Override
     public void setLocalInfileInputStream(InputStream inputStream) {
@@ -722,6 +1325,18 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         }
     }
 
+    /**
+     * Sets the socket read timeout, without changing option "socketTimeout" used by new connections.
+     * Used to bound internal verifications.
+     *
+     * @param timeout the timeout, in milliseconds
+     * @throws SocketException if there is an error in the underlying protocol, such as a TCP error.
+     */
+    @Override
+    public void setSocketTimeout(int timeout) throws SocketException {
+        this.socket.setSoTimeout(timeout);
+    }
+
     /**
      * Set transaction isolation.
      *
@@ -729,6 +1344,9 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
      * @throws QueryException if transaction level is unknown
      */
     public void setTransactionIsolation(final int level) throws QueryException {
+        if (isSessionStateTracked() && level == transactionIsolationLevel) {
+            return;
+        }
         lock.lock();
         try {
             String query = "SET SESSION TRANSACTION ISOLATION LEVEL";
@@ -748,7 +1366,8 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
                 default:
                     throw new QueryException("Unsupported transaction isolation level");
             }
-            executeQuery(new MariaDbQuery(query));
+            //command will be sent with next query
+            deferredIsolation = query;
             transactionIsolationLevel = level;
         } finally {
             lock.unlock();
@@ -759,10 +1378,46 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         return transactionIsolationLevel;
     }
 
+    /**
+     * Update cached session state according to server session state change information.
+     *
+     * @param okPacket OK packet with SESSION_STATE_CHANGED status flag
+     */
+    private void updateSessionState(OkPacket okPacket) {
+        if (okPacket.getSessionSchema() != null) {
+            database = okPacket.getSessionSchema();
+        }
+        if (okPacket.getSessionVariables() != null) {
+            for (Map.Entry<String, String> entry : okPacket.getSessionVariables().entrySet()) {
+                switch (entry.getKey()) {
+                    case "tx_isolation":
+                    case "transaction_isolation":
+                        int level = parseTransactionIsolation(entry.getValue());
+                        if (level != 0) {
+                            transactionIsolationLevel = level;
+                        }
+                        break;
+                    case "sql_select_limit":
+                        try {
+                            long limit = Long.parseLong(entry.getValue());
+                            maxRows = (limit > 0 && limit <= Integer.MAX_VALUE) ? (int) limit : 0;
+                        } catch (NumberFormatException nfe) {
+                            //default value is 2^64-1
+                            maxRows = 0;
+                        }
+                        break;
+                    default:
+                        //other variables are not cached
+                }
+            }
+        }
+    }
+
     /**
      * Close active result.
      */
     public void closeIfActiveResult() {
+        completePendingAsyncQuery();
         if (activeResult != null) {
             activeResult.close();
         }
@@ -0,0 +1,152 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.protocol;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Query send to server, whose result is read when server response is available.
+ * The result reader is executed only once, with connection lock, either by an AsyncQueryEngine worker when socket
+ * has data to read, or by the connection when another command has to be executed on the connection.
+ *
+ * @param <T> result type
+ */
+public class AsyncQuery<T> extends FutureTask<T> {
+    AbstractQueryProtocol protocol;
+    SocketChannel channel;
+    volatile SelectionKey key;
+    private final CountDownLatch registration = new CountDownLatch(1);
+    private final CountDownLatch unregistration = new CountDownLatch(1);
+
+    /**
+     * Constructor.
+     * @param resultReader result reader, that will be executed with connection lock when server response is available.
+     */
+    public AsyncQuery(Callable<T> resultReader) {
+        super(resultReader);
+    }
+
+    /**
+     * Protocol the query has been sent on. Result must be read from this protocol, not from the failover proxy :
+     * after a failover, proxy would read from a new connection on which query has never been sent.
+     *
+     * @return protocol
+     */
+    public Protocol getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Indicate that the engine has registered (or will never register) the channel.
+     */
+    void registrationDone() {
+        registration.countDown();
+    }
+
+    /**
+     * Wait until the engine has handled channel registration.
+     */
+    void awaitRegistration() {
+        awaitUninterruptibly(registration);
+    }
+
+    /**
+     * Indicate that the engine has deregistered the channel from its selector.
+     */
+    void unregistrationDone() {
+        unregistration.countDown();
+    }
+
+    /**
+     * Wait until the engine has deregistered the channel from its selector.
+     */
+    void awaitUnregistration() {
+        awaitUninterruptibly(unregistration);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Asynchronous query cannot be cancelled : server response has to be read for the connection to stay usable.
+     * @param mayInterruptIfRunning not used
+     * @return always false
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    /**
+     * Set query in error (result will never be read).
+     * @param throwable error
+     */
+    void fail(Throwable throwable) {
+        setException(throwable);
+    }
+
+}
@@ -0,0 +1,271 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.protocol;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JVM-wide engine waiting for asynchronous query results.
+ *
+ * <p>When a query is executed asynchronously, the query is send to server, then the socket channel is registered to
+ * a selector : no thread is blocked while the server is executing the query. When response is available, channel is
+ * unregistered and set back to blocking mode, and a worker thread read the result using the usual packet classes.</p>
+ *
+ * <p>Sockets without channel (SSL, named pipe, unix socket, custom socket factory) cannot be registered to a selector.
+ * For those, result is read by a worker thread that wait for the response.</p>
+ */
+public final class AsyncQueryEngine implements Runnable {
+    private static volatile AsyncQueryEngine instance;
+
+    private final Selector selector;
+    private final Queue<AsyncQuery<?>> registrations = new ConcurrentLinkedQueue<>();
+    private final Queue<AsyncQuery<?>> unregistrations = new ConcurrentLinkedQueue<>();
+    private final ExecutorService workers;
+
+    private AsyncQueryEngine() throws IOException {
+        selector = Selector.open();
+        workers = Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "MariaDB-async-reader-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        Thread selectorThread = new Thread(this, "MariaDB-async-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    /**
+     * Get engine instance (created on first use).
+     * @return engine
+     * @throws IOException if selector cannot be opened
+     */
+    public static AsyncQueryEngine getInstance() throws IOException {
+        AsyncQueryEngine result = instance;
+        if (result == null) {
+            synchronized (AsyncQueryEngine.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new AsyncQueryEngine();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wait for server response of a query that has been send.
+     * @param asyncQuery query
+     */
+    void waitForResult(AsyncQuery<?> asyncQuery) {
+        if (asyncQuery.channel == null) {
+            asyncQuery.registrationDone();
+            workers.execute(new ReadTask(asyncQuery));
+            return;
+        }
+        registrations.offer(asyncQuery);
+        selector.wakeup();
+    }
+
+    /**
+     * Ensure that query channel is not registered anymore to the selector, and set it back to blocking mode, so
+     * socket streams can be used.
+     * @param asyncQuery query
+     * @throws IOException if channel blocking mode cannot be changed
+     */
+    void unregister(AsyncQuery<?> asyncQuery) throws IOException {
+        if (asyncQuery.channel == null) {
+            return;
+        }
+        asyncQuery.awaitRegistration();
+        SelectionKey key = asyncQuery.key;
+        if (key != null) {
+            asyncQuery.key = null;
+            if (asyncQuery.channel.isRegistered()) {
+                //channel is deregistered by selector thread on next selection operation
+                key.cancel();
+                unregistrations.offer(asyncQuery);
+                selector.wakeup();
+                if (selector.isOpen()) {
+                    asyncQuery.awaitUnregistration();
+                }
+            }
+        }
+        if (asyncQuery.channel.isOpen()) {
+            asyncQuery.channel.configureBlocking(true);
+        }
+    }
+
+    @Override
+    public void run() {
+        List<AsyncQuery<?>> readyQueries = new ArrayList<>();
+        try {
+            while (true) {
+                selector.select();
+                registerPending();
+                unregisterPending();
+
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    key.cancel();
+                    readyQueries.add((AsyncQuery<?>) key.attachment());
+                }
+
+                if (!readyQueries.isEmpty()) {
+                    //unregister cancelled keys before giving channels to workers
+                    selector.selectNow();
+                    for (AsyncQuery<?> asyncQuery : readyQueries) {
+                        workers.execute(new ReadTask(asyncQuery));
+                    }
+                    readyQueries.clear();
+                }
+            }
+        } catch (ClosedSelectorException | IOException e) {
+            //selector failure : a new engine will be created on next use, pending results are read by workers.
+            synchronized (AsyncQueryEngine.class) {
+                if (instance == this) {
+                    instance = null;
+                }
+            }
+            try {
+                //closing selector deregister all channels
+                selector.close();
+            } catch (IOException ioe) {
+                //eat exception
+            }
+            AsyncQuery<?> asyncQuery;
+            while ((asyncQuery = registrations.poll()) != null) {
+                asyncQuery.registrationDone();
+                workers.execute(new ReadTask(asyncQuery));
+            }
+            while ((asyncQuery = unregistrations.poll()) != null) {
+                asyncQuery.unregistrationDone();
+            }
+        }
+    }
+
+    /**
+     * Deregister cancelled channels and release threads waiting for it.
+     * @throws IOException if selection fails
+     */
+    private void unregisterPending() throws IOException {
+        if (unregistrations.isEmpty()) {
+            return;
+        }
+        List<AsyncQuery<?>> cancelledQueries = new ArrayList<>();
+        AsyncQuery<?> asyncQuery;
+        while ((asyncQuery = unregistrations.poll()) != null) {
+            cancelledQueries.add(asyncQuery);
+        }
+        try {
+            //keys cancelled before this selection are deregistered. Ready keys are added to selected keys
+            selector.selectNow();
+        } finally {
+            for (AsyncQuery<?> cancelledQuery : cancelledQueries) {
+                cancelledQuery.unregistrationDone();
+            }
+        }
+    }
+
+    private void registerPending() {
+        AsyncQuery<?> asyncQuery;
+        while ((asyncQuery = registrations.poll()) != null) {
+            try {
+                if (!asyncQuery.isDone()) {
+                    asyncQuery.channel.configureBlocking(false);
+                    asyncQuery.key = asyncQuery.channel.register(selector, SelectionKey.OP_READ, asyncQuery);
+                }
+            } catch (IOException e) {
+                //channel closed : reading result will throw the connection error
+                workers.execute(new ReadTask(asyncQuery));
+            } finally {
+                asyncQuery.registrationDone();
+            }
+        }
+    }
+
+    private static class ReadTask implements Runnable {
+        private final AsyncQuery<?> asyncQuery;
+
+        ReadTask(AsyncQuery<?> asyncQuery) {
+            this.asyncQuery = asyncQuery;
+        }
+
+        @Override
+        public void run() {
+            AbstractQueryProtocol protocol = asyncQuery.protocol;
+            protocol.lock.lock();
+            try {
+                protocol.completeAsyncQuery(asyncQuery);
+            } finally {
+                protocol.lock.unlock();
+            }
+        }
+    }
+}
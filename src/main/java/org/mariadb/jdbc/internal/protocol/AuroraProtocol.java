@@ -55,6 +55,7 @@ import org.mariadb.jdbc.internal.failover.FailoverProxy;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.query.MariaDbQuery;
+import org.mariadb.jdbc.internal.queryresults.AbstractQueryResult;
 import org.mariadb.jdbc.internal.queryresults.SelectQueryResult;
 import org.mariadb.jdbc.internal.failover.impl.AuroraListener;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
@@ -267,16 +268,34 @@ public class AuroraProtocol extends MastersSlavesProtocol {
     public boolean checkIfMaster() throws QueryException {
         proxy.lock.lock();
         try {
-            SelectQueryResult queryResult = (SelectQueryResult) executeQuery(new MariaDbQuery("show global variables like 'innodb_read_only'"));
-            if (queryResult != null) {
-                queryResult.next();
-                this.masterConnection = "OFF".equals(queryResult.getValueObject(1).getString());
+            AbstractQueryResult queryResult = executeQuery(new MariaDbQuery(getMasterCheckQuery()));
+            if (queryResult instanceof SelectQueryResult) {
+                readMasterCheckResult((SelectQueryResult) queryResult);
             } else {
                 this.masterConnection = false;
+                this.readOnly = true;
             }
-            this.readOnly = !this.masterConnection;
             return this.masterConnection;
+        } finally {
+            proxy.lock.unlock();
+        }
+    }
 
+    /**
+     * Master status is verified on each connection, with session initialization.
+     *
+     * @return master check query
+     */
+    @Override
+    protected String getMasterCheckQuery() {
+        return "show global variables like 'innodb_read_only'";
+    }
+
+    @Override
+    protected void readMasterCheckResult(SelectQueryResult queryResult) throws QueryException {
+        try {
+            this.masterConnection = queryResult.next() && "OFF".equals(queryResult.getValueObject(1).getString());
+            this.readOnly = !this.masterConnection;
         } catch (SQLException sqle) {
             throw new QueryException("could not check the 'innodb_read_only' variable status on " + this.getHostAddress()
                     + " : " + sqle.getMessage(), -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), sqle);
@@ -284,7 +303,7 @@ public class AuroraProtocol extends MastersSlavesProtocol {
             throw new QueryException("could not check the 'innodb_read_only' variable status on " + this.getHostAddress()
                     + " : " + ioe.getMessage(), -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), ioe);
         } finally {
-            proxy.lock.unlock();
+            queryResult.close();
         }
     }
 
@@ -0,0 +1,212 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.protocol;
+
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.query.MariaDbQuery;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.scheduler.HashedWheelTimer;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Connections used to send "KILL QUERY", shared by all connections to the same host with the same user.
+ *
+ * <p>Cancelling a query needs another connection to the server that runs it. Instead of a connect / kill / close
+ * cycle for each cancellation, a few connections are kept open per host, and closed when unused for
+ * IDLE_TIMEOUT.</p>
+ */
+public class KillConnectionManager {
+    private static final int MAX_IDLE_CONNECTIONS = 2;
+    private static final long IDLE_TIMEOUT = 60_000;
+    private static final ConcurrentMap<String, KillConnectionManager> managers = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedDeque<IdleConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private final Runnable eviction = new Runnable() {
+        @Override
+        public void run() {
+            evictIdleConnections();
+        }
+    };
+
+    /**
+     * Get manager for a host and the user of connection string.
+     *
+     * @param urlParser connection string information
+     * @param hostAddress host that runs the query to kill
+     * @return manager
+     */
+    public static KillConnectionManager get(UrlParser urlParser, HostAddress hostAddress) {
+        String key = hostAddress.host + ":" + hostAddress.port + "/" + urlParser.getUsername();
+        KillConnectionManager manager = managers.get(key);
+        if (manager == null) {
+            manager = new KillConnectionManager();
+            KillConnectionManager previous = managers.putIfAbsent(key, manager);
+            if (previous != null) {
+                manager = previous;
+            }
+        }
+        return manager;
+    }
+
+    /**
+     * Close idle kill connections of all hosts (driver unloading).
+     */
+    public static void closeAll() {
+        Iterator<KillConnectionManager> iterator = managers.values().iterator();
+        while (iterator.hasNext()) {
+            KillConnectionManager manager = iterator.next();
+            iterator.remove();
+            IdleConnection idle;
+            while ((idle = manager.idleConnections.pollFirst()) != null) {
+                manager.idleCount.decrementAndGet();
+                idle.protocol.close();
+            }
+        }
+    }
+
+    /**
+     * Kill current query of a connection. An idle kill connection is used if available, a new one is created
+     * otherwise.
+     *
+     * @param urlParser connection string information, used if a new connection must be created
+     * @param hostAddress host that runs the query
+     * @param threadId server thread id of connection that runs the query
+     * @throws QueryException if no connection can be established, or if the kill fails
+     */
+    public void killQuery(UrlParser urlParser, HostAddress hostAddress, long threadId) throws QueryException {
+        MariaDbQuery query = new MariaDbQuery("KILL QUERY " + threadId);
+        IdleConnection idle;
+        while ((idle = idleConnections.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            try {
+                idle.protocol.executeQuery(query);
+                release(idle.protocol);
+                return;
+            } catch (QueryException e) {
+                if (!isConnectionError(e)) {
+                    release(idle.protocol);
+                    throw e;
+                }
+                //connection closed by server since last use (wait_timeout) : try next one
+                idle.protocol.close();
+            }
+        }
+
+        MasterProtocol protocol = new MasterProtocol(urlParser, new ReentrantLock());
+        protocol.setHostAddress(hostAddress);
+        protocol.connect();
+        try {
+            protocol.executeQuery(query);
+        } catch (QueryException e) {
+            if (isConnectionError(e)) {
+                protocol.close();
+            } else {
+                release(protocol);
+            }
+            throw e;
+        }
+        release(protocol);
+    }
+
+    private boolean isConnectionError(QueryException exception) {
+        return exception.getSqlState() != null && exception.getSqlState().startsWith("08");
+    }
+
+    private void release(Protocol protocol) {
+        if (idleCount.incrementAndGet() > MAX_IDLE_CONNECTIONS) {
+            idleCount.decrementAndGet();
+            protocol.close();
+            return;
+        }
+        idleConnections.offerFirst(new IdleConnection(protocol));
+        if (evictionScheduled.compareAndSet(false, true)) {
+            HashedWheelTimer.getDefault().schedule(eviction, IDLE_TIMEOUT);
+        }
+    }
+
+    /**
+     * Close connections unused since IDLE_TIMEOUT. Least recently used connections are at the end of the deque.
+     */
+    private void evictIdleConnections() {
+        long limit = System.nanoTime() - IDLE_TIMEOUT * 1_000_000;
+        IdleConnection idle;
+        while ((idle = idleConnections.peekLast()) != null && idle.lastUsed - limit <= 0) {
+            if (idleConnections.removeLastOccurrence(idle)) {
+                idleCount.decrementAndGet();
+                idle.protocol.close();
+            }
+        }
+        evictionScheduled.set(false);
+        if (!idleConnections.isEmpty() && evictionScheduled.compareAndSet(false, true)) {
+            HashedWheelTimer.getDefault().schedule(eviction, IDLE_TIMEOUT);
+        }
+    }
+
+    private static class IdleConnection {
+        private final Protocol protocol;
+        private final long lastUsed;
+
+        IdleConnection(Protocol protocol) {
+            this.protocol = protocol;
+            this.lastUsed = System.nanoTime();
+        }
+    }
+}
@@ -53,6 +53,7 @@ import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.failover.FailoverProxy;
 import org.mariadb.jdbc.internal.failover.impl.MastersSlavesListener;
+import org.mariadb.jdbc.internal.failover.tools.HostStatistics;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.threadly.util.Clock;
@@ -71,6 +72,25 @@ public class MastersSlavesProtocol extends MasterProtocol {
         super(url, lock);
     }
 
+    /**
+     * Sample replication lag of a new replica connection if option "maxReplicationLag" is set.
+     *
+     * @param listener current listener
+     * @param protocol new replica connection
+     * @return true if replica lag more than "maxReplicationLag" seconds, or if replication is stopped.
+     *         Lag that cannot be read is unknown, not lagging.
+     * @throws QueryException if connection error occur
+     */
+    private static boolean isLagging(MastersSlavesListener listener, MastersSlavesProtocol protocol) throws QueryException {
+        int maxReplicationLag = listener.getUrlParser().getOptions().maxReplicationLag;
+        if (maxReplicationLag > 0) {
+            HostStatistics hostStatistics = HostStatistics.get(protocol.getHostAddress());
+            hostStatistics.sampleReplicationLag(protocol);
+            return hostStatistics.isLagging(maxReplicationLag);
+        }
+        return false;
+    }
+
     /**
      * loop until found the failed connection.
      *
@@ -113,7 +133,10 @@ public class MastersSlavesProtocol extends MasterProtocol {
                         return;
                     }
                 } else if (searchFilter.isSearchForSlave() && !protocol.isMasterConnection()) {
-                    if (foundSecondary(listener, protocol, searchFilter)) {
+                    if (!loopAddresses.isEmpty() && isLagging(listener, protocol)) {
+                        //other hosts remain : don't use a stale replica
+                        protocol.close();
+                    } else if (foundSecondary(listener, protocol, searchFilter)) {
                         return;
                     }
                 } else {
@@ -123,6 +146,10 @@ public class MastersSlavesProtocol extends MasterProtocol {
             } catch (QueryException e) {
                 lastQueryException = e;
                 blacklist.put(protocol.getHostAddress(), Clock.accurateForwardProgressingMillis());
+                if (protocol.isConnected()) {
+                    //connection established, but rejected after
+                    protocol.close();
+                }
             }
 
             if (!searchFilter.isSearchForMaster() && !searchFilter.isSearchForSlave()) {
@@ -70,10 +70,14 @@ import java.util.List;
 public interface Protocol {
     PrepareResult prepare(String sql) throws QueryException;
 
+    PrepareResult prepare(String sql, boolean cacheable) throws QueryException;
+
     void closePreparedStatement(int statementId) throws QueryException;
 
     boolean getAutocommit();
 
+    void setAutoCommit(boolean autoCommit) throws QueryException;
+
     boolean noBackslashEscapes();
 
     void connect() throws QueryException;
@@ -128,12 +132,18 @@ public interface Protocol {
 
     boolean ping() throws QueryException;
 
+    boolean resetConnection() throws QueryException;
+
+    long getReplicationLag() throws QueryException;
+
     AbstractQueryResult executeQuery(Query query) throws QueryException;
 
     AbstractQueryResult executeQuery(final List<Query> queries, boolean streaming, boolean isRewritable, int rewriteOffset) throws QueryException;
 
     AbstractQueryResult executeQuery(Query query, boolean streaming) throws QueryException;
 
+    void executeQueryAsync(Query query, AsyncQuery<?> asyncQuery) throws QueryException;
+
     AbstractQueryResult getResult(Object queryObj, boolean streaming, boolean binaryProtocol) throws QueryException;
 
     void cancelCurrentQuery() throws QueryException, IOException;
@@ -142,6 +152,10 @@ public interface Protocol {
 
     boolean hasUnreadData();
 
+    boolean hasDeferredSessionCommands();
+
+    QueryException getSessionCommandException();
+
     boolean checkIfMaster() throws QueryException;
 
     boolean hasWarnings();
@@ -154,6 +168,10 @@ public interface Protocol {
 
     void setMaxRows(int max) throws QueryException;
 
+    boolean setStatementTimeout(int seconds);
+
+    int getStatementTimeout();
+
     int getMajorServerVersion();
 
     int getMinorServerVersion();
@@ -166,6 +184,8 @@ public interface Protocol {
 
     void setTimeout(int timeout) throws SocketException;
 
+    void setSocketTimeout(int timeout) throws SocketException;
+
     boolean getPinGlobalTxToPhysicalConnection();
 
     long getServerThreadId();
@@ -174,6 +194,8 @@ public interface Protocol {
 
     int getTransactionIsolationLevel();
 
+    boolean isSessionStateTracked();
+
     boolean isExplicitClosed();
 
     void closeIfActiveResult();
@@ -187,7 +209,13 @@ public interface Protocol {
     AbstractQueryResult executePreparedQuery(String sql, ParameterHolder[] parameters, PrepareResult prepareResult, MariaDbType[] parameterTypeHeader,
                                      boolean isStreaming) throws QueryException;
 
-    void releasePrepareStatement(String sql, int statementId) throws QueryException;
+    void executePreparedBatch(String sql, List<ParameterHolder[]> parametersList, PrepareResult prepareResult,
+                              MariaDbType[] parameterTypeHeader, List<Object> results) throws QueryException;
+
+    AbstractQueryResult executePreparedQueryWithCursor(String sql, ParameterHolder[] parameters, PrepareResult prepareResult,
+                                                       MariaDbType[] parameterTypeHeader, int fetchSize) throws QueryException;
+
+    void releasePrepareStatement(PrepareResult prepareResult) throws QueryException;
 
     AbstractQueryResult executePreparedQueryAfterFailover(String sql, ParameterHolder[] parameters, PrepareResult oldPrepareResult,
                                                   MariaDbType[] parameterTypeHeader, boolean isStreaming) throws QueryException; //used
@@ -56,7 +56,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.mariadb.jdbc.internal.util.Utils.createQueryParts;
 
@@ -89,6 +91,16 @@ import static org.mariadb.jdbc.internal.util.Utils.createQueryParts;
  */
 public class MariaDbClientParameterizeQuery implements ParameterizeQuery {
 
+    private static final int MAX_CACHED_QUERIES = 2048;
+    private static final int MAX_CACHED_QUERY_LENGTH = 8192;
+
+    /**
+     * JVM-wide cache of parsed queries. Cached queries are used as templates : query parts are immutable and
+     * shared by all clones, only parameters are specific to each clone.
+     */
+    private static final ConcurrentHashMap<QueryKey, MariaDbClientParameterizeQuery> parsedQueryCache =
+            new ConcurrentHashMap<>(256, 0.75f, 16);
+
     private ParameterHolder[] parameters;
     private int paramCount;
     private byte[][] queryPartsArray;
@@ -155,16 +167,41 @@ public class MariaDbClientParameterizeQuery implements ParameterizeQuery {
 
     }
 
+    /**
+     * Get parameterize query for this sql. Query parsing result is cached (JVM-wide), so same query won't be
+     * parsed again, even from another connection.
+     * @param query query string
+     * @param noBackslashEscapes must backSlash be escaped
+     * @param rewriteOffset first common part index
+     * @return a new parameterize query, with no parameter set.
+     */
+    public static MariaDbClientParameterizeQuery newInstance(String query, boolean noBackslashEscapes, int rewriteOffset) {
+        if (query.length() > MAX_CACHED_QUERY_LENGTH) {
+            return new MariaDbClientParameterizeQuery(query, noBackslashEscapes, rewriteOffset);
+        }
+        QueryKey key = new QueryKey(query, noBackslashEscapes, rewriteOffset);
+        MariaDbClientParameterizeQuery template = parsedQueryCache.get(key);
+        if (template == null) {
+            template = new MariaDbClientParameterizeQuery(query, noBackslashEscapes, rewriteOffset);
+            if (parsedQueryCache.size() >= MAX_CACHED_QUERIES) {
+                //cache full : remove an arbitrary entry. Frequently used queries will be quickly cached again.
+                Iterator<QueryKey> iterator = parsedQueryCache.keySet().iterator();
+                if (iterator.hasNext()) {
+                    parsedQueryCache.remove(iterator.next());
+                }
+            }
+            parsedQueryCache.putIfAbsent(key, template);
+        }
+        return template.cloneQuery();
+    }
+
     /**
      * Clone query to avoid recreating parts.
      * @return a clone version.
      */
     public MariaDbClientParameterizeQuery cloneQuery() {
         MariaDbClientParameterizeQuery clientQuery = new MariaDbClientParameterizeQuery();
-        clientQuery.parameters = new ParameterHolder[parameters.length];
-        for (int i = 0; i < parameters.length; i++) {
-            clientQuery.parameters[i] = parameters[i];
-        }
+        clientQuery.parameters = parameters.clone();
         clientQuery.paramCount = paramCount;
         clientQuery.queryPartsArray = queryPartsArray;
         clientQuery.rewriteFirstPart = rewriteFirstPart;
@@ -359,5 +396,38 @@ public class MariaDbClientParameterizeQuery implements ParameterizeQuery {
         return sb.toString();
     }
 
+    private static final class QueryKey {
+        private final String sql;
+        private final boolean noBackslashEscapes;
+        private final int rewriteOffset;
+        private final int hashCode;
+
+        QueryKey(String sql, boolean noBackslashEscapes, int rewriteOffset) {
+            this.sql = sql;
+            this.noBackslashEscapes = noBackslashEscapes;
+            this.rewriteOffset = rewriteOffset;
+            this.hashCode = 31 * (31 * sql.hashCode() + (noBackslashEscapes ? 1 : 0)) + rewriteOffset;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey other = (QueryKey) obj;
+            return hashCode == other.hashCode
+                    && noBackslashEscapes == other.noBackslashEscapes
+                    && rewriteOffset == other.rewriteOffset
+                    && sql.equals(other.sql);
+        }
+    }
 
-}
\ No newline at end of file
+}
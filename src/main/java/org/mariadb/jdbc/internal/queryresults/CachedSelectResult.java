@@ -48,34 +48,144 @@ ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSI
 OF SUCH DAMAGE.
 */
 
+import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-
-
+import java.util.Arrays;
+
+/**
+ * Result set with all rows in memory.
+ * Data are stored in a compact columnar form : all values are copied in byte array chunks, and for each column,
+ * value position (chunk index and offset) and length are stored in arrays, with a null bitmap.
+ * Chunks are never copied when growing, and a value larger than chunk size get its own chunk.
+ * Value objects are reused : one per column, pointing to the current row data.
+ */
 public class CachedSelectResult extends SelectQueryResult {
+    private static final int INITIAL_ROW_CAPACITY = 10;
+    private static final int INITIAL_CHUNK_SIZE = 1024;
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024;
 
     protected short warningCount;
-    private List<ValueObject[]> resultSet;
+    private final MariaDbValueObject[] values;
+    private byte[][] chunks;
+    private int chunkCount;
+    private byte[] chunk;
+    private int chunkIndex;
+    private int chunkLength;
+    private long[][] valuePositions;
+    private int[][] valueLengths;
+    private long[][] nullBitmaps;
+    private int rowCapacity;
+    private int rowCount;
+    private int columnPointer;
     private int rowPointer;
 
 
     /**
-     * Initialisation.
+     * Initialisation. Rows are then added using addValue().
      * @param ci column informations
-     * @param result first valueObject
+     * @param binaryEncoded are values binary encoded (binary protocol)
+     * @param options session options
      * @param warningCount warning count
      */
-    public CachedSelectResult(ColumnInformation[] ci, List<ValueObject[]> result, short warningCount) {
+    public CachedSelectResult(ColumnInformation[] ci, boolean binaryEncoded, Options options, short warningCount) {
         this.columnInformation = ci;
-        this.resultSet = result;
+        this.columnInformationLength = ci.length;
         this.warningCount = warningCount;
+        this.values = new MariaDbValueObject[columnInformationLength];
+        for (int i = 0; i < columnInformationLength; i++) {
+            values[i] = new MariaDbValueObject(null, ci[i], binaryEncoded, options);
+        }
+        this.chunks = new byte[4][];
+        this.chunk = new byte[0];
+        //empty chunk for empty values
+        this.chunkIndex = addChunk(chunk);
+        this.valuePositions = new long[columnInformationLength][0];
+        this.valueLengths = new int[columnInformationLength][0];
+        this.nullBitmaps = new long[columnInformationLength][0];
         rowPointer = -1;
     }
 
+    /**
+     * Add next value. Values are added row by row, column after column.
+     * Data are copied, so buffer can be reused afterward.
+     * @param buffer buffer containing value
+     * @param offset value offset in buffer
+     * @param length value length, -1 for NULL value
+     */
+    public void addValue(byte[] buffer, int offset, int length) {
+        if (columnPointer == 0 && rowCount == rowCapacity) {
+            growRowCapacity();
+        }
+        if (length == -1) {
+            nullBitmaps[columnPointer][rowCount >>> 6] |= 1L << rowCount;
+        } else if (length > chunk.length - chunkLength && length > nextChunkSize()) {
+            //large value get its own chunk, current chunk is still used for next values
+            byte[] valueChunk = new byte[length];
+            System.arraycopy(buffer, offset, valueChunk, 0, length);
+            valuePositions[columnPointer][rowCount] = (long) addChunk(valueChunk) << 32;
+            valueLengths[columnPointer][rowCount] = length;
+        } else {
+            if (length > chunk.length - chunkLength) {
+                chunk = new byte[nextChunkSize()];
+                chunkIndex = addChunk(chunk);
+                chunkLength = 0;
+            }
+            System.arraycopy(buffer, offset, chunk, chunkLength, length);
+            valuePositions[columnPointer][rowCount] = ((long) chunkIndex << 32) | chunkLength;
+            valueLengths[columnPointer][rowCount] = length;
+            chunkLength += length;
+        }
+        if (++columnPointer == columnInformationLength) {
+            columnPointer = 0;
+            rowCount++;
+        }
+    }
+
+    private void growRowCapacity() {
+        rowCapacity = (rowCapacity == 0) ? INITIAL_ROW_CAPACITY : rowCapacity + (rowCapacity >> 1);
+        int bitmapLength = (rowCapacity + 63) >>> 6;
+        for (int i = 0; i < columnInformationLength; i++) {
+            valuePositions[i] = Arrays.copyOf(valuePositions[i], rowCapacity);
+            valueLengths[i] = Arrays.copyOf(valueLengths[i], rowCapacity);
+            nullBitmaps[i] = Arrays.copyOf(nullBitmaps[i], bitmapLength);
+        }
+    }
+
+    /**
+     * Chunk size double with each chunk, up to MAX_CHUNK_SIZE, so small results stay small.
+     * @return size of next chunk
+     */
+    private int nextChunkSize() {
+        return (chunk.length == 0) ? INITIAL_CHUNK_SIZE : Math.min(MAX_CHUNK_SIZE, chunk.length << 1);
+    }
+
+    private int addChunk(byte[] newChunk) {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount << 1);
+        }
+        chunks[chunkCount] = newChunk;
+        return chunkCount++;
+    }
+
+    /**
+     * Release unused row capacity once all rows are loaded.
+     * Data chunks are kept as is : only last chunk may be partially used.
+     */
+    private void trimToSize() {
+        if (rowCount < rowCapacity) {
+            rowCapacity = rowCount;
+            int bitmapLength = (rowCapacity + 63) >>> 6;
+            for (int i = 0; i < columnInformationLength; i++) {
+                valuePositions[i] = Arrays.copyOf(valuePositions[i], rowCapacity);
+                valueLengths[i] = Arrays.copyOf(valueLengths[i], rowCapacity);
+                nullBitmaps[i] = Arrays.copyOf(nullBitmaps[i], bitmapLength);
+            }
+        }
+    }
+
     /**
      * When using rewrite statement, there can be many insert/update command send to database, according to max_allowed_packet size.
      * the result will be aggregate with this method to give only one result stream to client.
@@ -96,19 +206,23 @@ public class CachedSelectResult extends SelectQueryResult {
      * @throws QueryException if receiving an database error stream
      */
     public static CachedSelectResult createCachedSelectResult(StreamingSelectResult streamingResult) throws IOException, QueryException {
-        final List<ValueObject[]> valueObjects = new ArrayList<>();
-
+        //rows are copied directly from packet buffer
+        streamingResult.readRowsInPlace();
+        CachedSelectResult qr = new CachedSelectResult(streamingResult.columnInformation, streamingResult.isBinaryProtocol(),
+                streamingResult.getOptions(), (short) 0);
         while (streamingResult.next()) {
-            valueObjects.add(streamingResult.values);
+            streamingResult.appendCurrentRow(qr);
         }
-        CachedSelectResult qr = new CachedSelectResult(streamingResult.columnInformation, valueObjects, streamingResult.warningCount);
+        qr.trimToSize();
+        qr.warningCount = streamingResult.warningCount;
+        qr.outputParameterResult = streamingResult.outputParameterResult;
         streamingResult.close();
         return qr;
     }
 
     public boolean next() throws IOException, QueryException {
         rowPointer++;
-        return rowPointer < resultSet.size();
+        return rowPointer < rowCount;
     }
 
 
@@ -134,18 +248,24 @@ public class CachedSelectResult extends SelectQueryResult {
         if (this.rowPointer < 0) {
             throw new NoSuchColumnException("Current position is before the first row");
         }
-        if (this.rowPointer >= resultSet.size()) {
+        if (this.rowPointer >= rowCount) {
             throw new NoSuchColumnException("Current position is after the last row");
         }
-        ValueObject[] row = resultSet.get(this.rowPointer);
-        if (position < 0 || position >= row.length) {
+        if (position < 0 || position >= columnInformationLength) {
             throw new NoSuchColumnException("No such column: " + position);
         }
-        return row[position];
+        MariaDbValueObject value = values[position];
+        if ((nullBitmaps[position][rowPointer >>> 6] & (1L << rowPointer)) != 0) {
+            value.setRawBytes(null, 0, -1);
+        } else {
+            long valuePosition = valuePositions[position][rowPointer];
+            value.setRawBytes(chunks[(int) (valuePosition >>> 32)], (int) valuePosition, valueLengths[position][rowPointer]);
+        }
+        return value;
     }
 
     public int getRows() {
-        return resultSet.size();
+        return rowCount;
     }
 
     public void moveRowPointerTo(final int pointerPosition) {
@@ -166,7 +286,7 @@ public class CachedSelectResult extends SelectQueryResult {
      * @return true if pointer is before first row.
      */
     public boolean isBeforeFirst() {
-        if (resultSet.size() == 0) {
+        if (rowCount == 0) {
             return false;
         }
         return getRowPointer() == -1;
@@ -177,9 +297,9 @@ public class CachedSelectResult extends SelectQueryResult {
      * @return true if pointer is after last row
      */
     public boolean isAfterLast() {
-        if (resultSet.size() == 0) {
+        if (rowCount == 0) {
             return false;
         }
-        return rowPointer >= resultSet.size();
+        return rowPointer >= rowCount;
     }
 }
@@ -3,19 +3,36 @@ package org.mariadb.jdbc.internal.queryresults;
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
-
 
+/**
+ * Column index by name, case insensitive.
+ * Index is built once on first lookup, and can be shared by result sets having the same columns (results of the same
+ * prepared statement). Lookups don't allocate : names are hashed and compared ignoring case.
+ */
 public class ColumnNameMap {
-    Map<String, Integer> map;
-    Map<String, Integer> labelMap;
-    ColumnInformation[] columnInfo;
+    private final ColumnInformation[] columnInfo;
+    private volatile String[] labels;
+    private boolean[] firstLabels;
+    private String[] labelKeys;
+    private int[] labelIndexes;
+    private String[] nameKeys;
+    private int[] nameIndexes;
+    //index of last found column : ORM generally read columns by name in column order
+    private int lastIndex = -1;
 
     public ColumnNameMap(ColumnInformation[] columnInformations) {
         this.columnInfo = columnInformations;
     }
 
+    /**
+     * Indicate if this map has been built for these columns.
+     * @param columnInformations columns
+     * @return true if same columns
+     */
+    public boolean isSameColumns(ColumnInformation[] columnInformations) {
+        return columnInfo == columnInformations;
+    }
+
     /**
      * Get column index by name.
      * @param name column name
@@ -23,68 +40,108 @@ public class ColumnNameMap {
      * @throws SQLException if no column info exists, or column is unknown
      */
     public int getIndex(String name) throws SQLException {
-        if (columnInfo == null) {
+        if (columnInfo == null || name == null) {
             throw new SQLException("No such column :" + name);
         }
+        if (labels == null) {
+            buildIndex();
+        }
+
+        int last = lastIndex;
+        if (last + 1 < labels.length && firstLabels[last + 1] && labels[last + 1].equalsIgnoreCase(name)) {
+            lastIndex = last + 1;
+            return last + 1;
+        }
+        if (last >= 0 && last < labels.length && firstLabels[last] && labels[last].equalsIgnoreCase(name)) {
+            return last;
+        }
+
         // The specs in JDBC 4.0 specify that ResultSet.findColumn and
-        // ResultSet.getXXX(String name) should use column alias (AS in the query). If label is not found, we use 
+        // ResultSet.getXXX(String name) should use column alias (AS in the query). If label is not found, we use
         // original table name.
-        Integer res = getLabelIndex(name);
-
+        int res = find(labelKeys, labelIndexes, name);
+        if (res == -1) {
+            res = find(nameKeys, nameIndexes, name);
+            if (res == -1) {
+                throw new SQLException("No such column :" + name);
+            }
+        }
+        lastIndex = res;
+        return res;
+    }
 
-        if (res != null) {
-            return res;
+    private synchronized void buildIndex() {
+        if (labels != null) {
+            return;
         }
-        if (map == null) {
-            map = new HashMap<String, Integer>();
-            int counter = 0;
-            for (ColumnInformation ci : columnInfo) {
-                String columnName = ci.getOriginalName().toLowerCase();
-                if (columnName.equals("")) {
-                    // for name-less columns (there CAN be some), use their alias
-                    columnName = ci.getName().toLowerCase();
-                }
-                map.put(columnName, counter);
-                String tableName = ci.getTable().toLowerCase();
-                if (!tableName.equals("")) {
-                    map.put(tableName + "." + columnName, counter);
-                }
-                counter++;
+        int columnCount = columnInfo.length;
+        String[] labelArray = new String[columnCount];
+        boolean[] firstLabelArray = new boolean[columnCount];
+        int tableSize = Integer.highestOneBit(Math.max(columnCount, 1) * 4) * 2;
+        labelKeys = new String[tableSize];
+        labelIndexes = new int[tableSize];
+        nameKeys = new String[tableSize];
+        nameIndexes = new int[tableSize];
+
+        for (int i = 0; i < columnCount; i++) {
+            ColumnInformation ci = columnInfo[i];
+            String columnAlias = ci.getName();
+            labelArray[i] = columnAlias;
+            //first column with a label is returned
+            firstLabelArray[i] = put(labelKeys, labelIndexes, columnAlias, i, false);
+
+            String columnName = ci.getOriginalName();
+            if (columnName.isEmpty()) {
+                // for name-less columns (there CAN be some), use their alias
+                columnName = columnAlias;
             }
-        }
-        res = map.get(name.toLowerCase());
+            //last column with an original name is returned
+            put(nameKeys, nameIndexes, columnName, i, true);
 
-        if (res == null) {
-            throw new SQLException("No such column :" + name);
+            String tableName = ci.getTable();
+            if (tableName != null && !tableName.isEmpty()) {
+                put(labelKeys, labelIndexes, tableName + "." + columnAlias, i, false);
+                put(nameKeys, nameIndexes, tableName + "." + columnName, i, true);
+            }
         }
-        return res;
+        firstLabels = firstLabelArray;
+        labels = labelArray;
     }
 
-    private int getLabelIndex(String name) throws SQLException {
-        if (labelMap == null) {
-            labelMap = new HashMap<String, Integer>();
-            int counter = 0;
-            for (ColumnInformation ci : columnInfo) {
-                String columnAlias = ci.getName().toLowerCase();
-                if (!labelMap.containsKey(columnAlias)) {
-                    labelMap.put(columnAlias, counter);
-                }
+    private static int hash(String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return hash ^ (hash >>> 16);
+    }
 
-                if (ci.getTable() != null) {
-                    String tableName = ci.getTable().toLowerCase();
-                    if (!tableName.equals("")) {
-                        if (!labelMap.containsKey(tableName + "." + columnAlias)) {
-                            labelMap.put(tableName + "." + columnAlias, counter);
-                        }
-                    }
+    private static boolean put(String[] keys, int[] indexes, String key, int index, boolean replace) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equalsIgnoreCase(key)) {
+                if (replace) {
+                    indexes[slot] = index;
                 }
-                counter++;
+                return false;
             }
+            slot = (slot + 1) & mask;
         }
-        Integer res = labelMap.get(name.toLowerCase());
-        if (res == null) {
-            throw new SQLException("No such column :" + name);
+        keys[slot] = key;
+        indexes[slot] = index;
+        return true;
+    }
+
+    private static int find(String[] keys, int[] indexes, String key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equalsIgnoreCase(key)) {
+                return indexes[slot];
+            }
+            slot = (slot + 1) & mask;
         }
-        return res;
+        return -1;
     }
 }
@@ -0,0 +1,268 @@
+package org.mariadb.jdbc.internal.queryresults;
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.packet.read.ReadResultPacketFactory;
+import org.mariadb.jdbc.internal.packet.result.BinaryRowPacket;
+import org.mariadb.jdbc.internal.packet.result.EndOfFilePacket;
+import org.mariadb.jdbc.internal.packet.result.ErrorPacket;
+import org.mariadb.jdbc.internal.packet.result.ResultSetPacket;
+import org.mariadb.jdbc.internal.protocol.AbstractQueryProtocol;
+import org.mariadb.jdbc.internal.protocol.MasterProtocol;
+import org.mariadb.jdbc.internal.util.buffer.ReadUtil;
+import org.mariadb.jdbc.internal.util.constant.ServerStatus;
+import org.mariadb.jdbc.internal.util.dao.PrepareResult;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result set of a server side cursor (prepared statement executed with CURSOR_TYPE_READ_ONLY).
+ * Rows are fetched by "fetchSize" rows (COM_STMT_FETCH) when needed, so only "fetchSize" rows are in memory.
+ * Connection is not locked between fetches : other statements can be executed.
+ */
+public class CursorSelectResult extends SelectQueryResult {
+    private AbstractQueryProtocol protocol;
+    private final PrepareResult prepareResult;
+    private final int statementId;
+    private final int fetchSize;
+    private final BinaryRowPacket rowPacket;
+    private final List<ValueObject[]> rows;
+    private int rowPointer;
+    private int fetchedRows;
+    private boolean lastRowSent;
+    private boolean isEof;
+
+    /**
+     * Create cursor result set.
+     * @param info column information
+     * @param protocol protocol
+     * @param prepareResult prepared statement
+     * @param fetchSize number of rows to fetch for each COM_STMT_FETCH
+     */
+    public CursorSelectResult(ColumnInformation[] info, AbstractQueryProtocol protocol, PrepareResult prepareResult, int fetchSize) {
+        this.columnInformation = info;
+        this.columnInformationLength = info.length;
+        this.protocol = protocol;
+        this.prepareResult = prepareResult;
+        this.statementId = prepareResult.statementId;
+        this.fetchSize = fetchSize;
+        this.rowPacket = new BinaryRowPacket(columnInformation, protocol.getOptions(), columnInformationLength,
+                prepareResult.getRowDecoder(columnInformation));
+        this.rows = new ArrayList<>(fetchSize);
+        this.rowPointer = -1;
+        prepareResult.setCursorOwner(this);
+    }
+
+    /**
+     * Create result set after a prepared statement execution with CURSOR_TYPE_READ_ONLY.
+     * If server did open a cursor, no row has been send, rows will be fetched when needed.
+     * If not (server can refuse to create a cursor), rows follow column information like any binary result set.
+     *
+     * @param packet        the result set stream from the server
+     * @param packetFetcher packetfetcher
+     * @param protocol      the current connection protocol class
+     * @param prepareResult prepared statement
+     * @param fetchSize     fetch size
+     * @return a CursorSelectResult, or a CachedSelectResult if server didn't create a cursor
+     * @throws IOException    when something goes wrong while reading/writing from the server
+     * @throws QueryException if there is an actual active result set on the current connection
+     */
+    public static SelectQueryResult createCursorSelectResult(ResultSetPacket packet, ReadPacketFetcher packetFetcher,
+                                                             AbstractQueryProtocol protocol, PrepareResult prepareResult,
+                                                             int fetchSize) throws IOException, QueryException {
+        if (protocol.activeResult != null) {
+            throw new QueryException("There is an active result set on the current connection, "
+                    + "which must be closed prior to opening a new one");
+        }
+        ColumnInformation[] ci = StreamingSelectResult.readColumnInformation(packet, packetFetcher, prepareResult);
+        ByteBuffer bufferEof = packetFetcher.getReusableBuffer();
+        if (!ReadUtil.eofIsNext(bufferEof)) {
+            throw new QueryException("Packets out of order when reading field packets, expected was EOF stream. "
+                    + "Packet contents (hex) = " + MasterProtocol.hexdump(bufferEof, 0));
+        }
+        EndOfFilePacket endOfFilePacket = (EndOfFilePacket) ReadResultPacketFactory.createResultPacket(bufferEof);
+        if ((endOfFilePacket.getStatusFlags() & ServerStatus.CURSOR_EXISTS) == 0) {
+            return CachedSelectResult.createCachedSelectResult(new StreamingSelectResult(ci, protocol, packetFetcher, true,
+                    prepareResult.getRowDecoder(ci)));
+        }
+        return new CursorSelectResult(ci, protocol, prepareResult, fetchSize);
+    }
+
+    @Override
+    public void addResult(AbstractQueryResult other) {
+
+    }
+
+    @Override
+    public boolean next() throws IOException, QueryException {
+        if (isEof) {
+            return false;
+        }
+        if (rowPointer + 1 < rows.size()) {
+            rowPointer++;
+            return true;
+        }
+        rows.clear();
+        rowPointer = -1;
+        if (!lastRowSent) {
+            if (!prepareResult.isCursorOwner(this)) {
+                throw new QueryException("Server cursor has been closed by a new execution of the statement");
+            }
+            protocol.cursorFetch(this);
+        }
+        if (rows.isEmpty()) {
+            isEof = true;
+            return false;
+        }
+        rowPointer = 0;
+        return true;
+    }
+
+    /**
+     * Read rows send by server after a COM_STMT_FETCH, until EOF packet.
+     * @param packetFetcher packet fetcher
+     * @throws IOException if any connection error occur
+     * @throws QueryException if server return an error
+     */
+    public void readFetchedRows(ReadPacketFetcher packetFetcher) throws IOException, QueryException {
+        while (true) {
+            ByteBuffer buffer = packetFetcher.getReusableBuffer();
+            byte initialByte = buffer.get(0);
+
+            //is error Packet
+            if (initialByte == (byte) 0xff) {
+                lastRowSent = true;
+                ErrorPacket errorPacket = (ErrorPacket) ReadResultPacketFactory.createResultPacket(buffer);
+                throw new QueryException(errorPacket.getMessage(), errorPacket.getErrorNumber(), errorPacket.getSqlState());
+            }
+
+            //is EOF stream
+            if (initialByte == (byte) 0xfe && buffer.limit() < 9) {
+                final EndOfFilePacket endOfFilePacket = (EndOfFilePacket) ReadResultPacketFactory.createResultPacket(buffer);
+                warningCount = endOfFilePacket.getWarningCount();
+                lastRowSent = ((endOfFilePacket.getStatusFlags() & ServerStatus.LAST_ROW_SENT) != 0)
+                        || ((endOfFilePacket.getStatusFlags() & ServerStatus.CURSOR_EXISTS) == 0);
+                return;
+            }
+
+            rows.add(rowPacket.getRow(packetFetcher, buffer));
+            fetchedRows++;
+        }
+    }
+
+    /**
+     * Close resultset. If all rows have not been fetched, server cursor is closed.
+     */
+    public void close() {
+        super.close();
+        if (protocol != null) {
+            //cursor may already be closed by a new execution or by closing the statement
+            if (prepareResult.isCursorOwner(this)) {
+                if (!lastRowSent && !prepareResult.hasToBeClose()) {
+                    protocol.closeCursor(statementId);
+                }
+                prepareResult.setCursorOwner(null);
+            }
+            rows.clear();
+            protocol = null;
+        }
+    }
+
+    /**
+     * Gets the value at position i in the result set. i starts at zero.
+     *
+     * @param index index, starts at 0
+     * @return the value
+     */
+    @Override
+    public ValueObject getValueObject(int index) throws NoSuchColumnException {
+        if (rowPointer < 0 || rowPointer >= rows.size()) {
+            throw new NoSuchColumnException("No current row");
+        }
+        if (index < 0 || index >= columnInformationLength) {
+            throw new NoSuchColumnException("No such column: " + index);
+        }
+        return rows.get(rowPointer)[index];
+    }
+
+    public int getRows() {
+        return -1;
+    }
+
+    /**
+     * Gets the current row number.
+     * @return current row number, starting at 0
+     */
+    public int getRowPointer() {
+        return fetchedRows - rows.size() + rowPointer;
+    }
+
+    public boolean isBeforeFirst() {
+        return fetchedRows == 0 && rowPointer == -1 && !isEof;
+    }
+
+    public boolean isAfterLast() {
+        return isEof;
+    }
+
+    public int getStatementId() {
+        return statementId;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+}
@@ -53,6 +53,8 @@ import org.mariadb.jdbc.MariaDbBlob;
 import org.mariadb.jdbc.MariaDbClob;
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.TemporalCodec;
+import org.mariadb.jdbc.internal.util.buffer.AsciiParser;
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 
 import java.io.ByteArrayInputStream;
@@ -63,18 +65,24 @@ import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.regex.Pattern;
 
 /**
  * Contains the raw value returned from the server.
- * Is immutable
+ * Value either own its raw data, or point to a part of a reusable row buffer (forward only streaming result set) :
+ * in this case, value is only valid until next row is read.
  */
 @SuppressWarnings("deprecation")
 public class MariaDbValueObject implements ValueObject {
 
     private static final Pattern isIntegerRegex = Pattern.compile("^-?\\d+\\.0+$");
-    private final byte[] rawBytes;
+    private static final byte[] ZERO_DATE = "0000-00-00".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ZERO_TIMESTAMP = "0000-00-00 00:00:00".getBytes(StandardCharsets.UTF_8);
+    private byte[] rawBytes;
+    private int offset;
+    private int length;
     private final MariaDbType dataType;
     private final boolean isBinaryEncoded;
     private final ColumnInformation columnInfo;
@@ -87,11 +95,7 @@ public class MariaDbValueObject implements ValueObject {
      * @param options session options
      */
     public MariaDbValueObject(byte[] rawBytes, ColumnInformation columnInfo, Options options) {
-        this.dataType = columnInfo.getType();
-        this.rawBytes = rawBytes;
-        this.isBinaryEncoded = false;
-        this.columnInfo = columnInfo;
-        this.options = options;
+        this(rawBytes, columnInfo, false, options);
     }
 
     /**
@@ -104,11 +108,29 @@ public class MariaDbValueObject implements ValueObject {
     public MariaDbValueObject(byte[] rawBytes, ColumnInformation columnInfo, boolean isBinaryEncoded, Options options) {
         this.dataType = columnInfo.getType();
         this.rawBytes = rawBytes;
+        this.length = (rawBytes == null) ? 0 : rawBytes.length;
         this.isBinaryEncoded = isBinaryEncoded;
         this.columnInfo = columnInfo;
         this.options = options;
     }
 
+    /**
+     * Point value to a part of a row buffer, without copying data.
+     * @param buffer row buffer
+     * @param offset value offset in buffer
+     * @param length value length, -1 for NULL value
+     */
+    public void setRawBytes(byte[] buffer, int offset, int length) {
+        if (length == -1) {
+            this.rawBytes = null;
+            this.offset = 0;
+            this.length = 0;
+        } else {
+            this.rawBytes = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
 
     public String getString() throws SQLException {
         return getString(null);
@@ -127,12 +149,12 @@ public class MariaDbValueObject implements ValueObject {
         switch (columnInfo.getType()) {
             case BIT:
                 if (options.tinyInt1isBit && columnInfo.getLength() == 1) {
-                    return (rawBytes[0] == 0) ? "0" : "1";
+                    return (rawBytes[offset + 0] == 0) ? "0" : "1";
                 }
                 break;
             case TINYINT:
                 if (options.tinyInt1isBit && columnInfo.getLength() == 1) {
-                    return (rawBytes[0] == 0) ? "0" : "1";
+                    return (rawBytes[offset + 0] == 0) ? "0" : "1";
                 }
                 if (this.isBinaryEncoded) {
                     return String.valueOf(getTinyInt());
@@ -197,78 +219,56 @@ public class MariaDbValueObject implements ValueObject {
             case MEDIUMBLOB:
             case TINYBLOB:
             case GEOMETRY:
-                return new String(getBytes());
+                return new String(rawBytes, offset, length);
             case NULL:
                 return null;
             case OLDDECIMAL:
                 return getBigDecimal().toString();
             default:
-                return new String(rawBytes, StandardCharsets.UTF_8);
+                return new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         }
-        return new String(rawBytes, StandardCharsets.UTF_8);
+        return new String(rawBytes, offset, length, StandardCharsets.UTF_8);
     }
 
     private String getTimeString() {
-        if (rawBytes == null || rawBytes.length == 0) {
+        if (rawBytes == null || length == 0) {
             return null;
         }
-        String rawValue = new String(rawBytes, StandardCharsets.UTF_8);
-        if ( "0000-00-00".equals(rawValue)) {
+        if (isRawValue(ZERO_DATE)) {
             return null;
         }
         if (!this.isBinaryEncoded) {
-            if (!options.useLegacyDatetimeCode && rawValue.indexOf(".") > 0) {
-                return rawValue.substring(0, rawValue.indexOf("."));
+            if (!options.useLegacyDatetimeCode) {
+                int dotIndex = indexOf('.', offset, offset + length);
+                if (dotIndex > offset) {
+                    return new String(rawBytes, offset, dotIndex - offset, StandardCharsets.UTF_8);
+                }
             }
-            return rawValue;
-        }
-        int day = ((rawBytes[1] & 0xff)
-                | ((rawBytes[2] & 0xff) << 8)
-                | ((rawBytes[3] & 0xff) << 16)
-                | ((rawBytes[4] & 0xff) << 24));
-        int hour = rawBytes[5];
-        int timeHour = hour + day * 24;
-
-        String hourString;
-        if (timeHour < 10) {
-            hourString = "0" + timeHour;
-        } else {
-            hourString = Integer.toString(timeHour);
-        }
-
-        String minuteString;
-        int minutes = rawBytes[6];
-        if (minutes < 10) {
-            minuteString = "0" + minutes;
-        } else {
-            minuteString = Integer.toString(minutes);
-        }
-
-        String secondString;
-        int seconds = rawBytes[7];
-        if (seconds < 10) {
-            secondString = "0" + seconds;
-        } else {
-            secondString = Integer.toString(seconds);
+            return new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         }
-
-        int microseconds = 0;
-        if (rawBytes.length > 8) {
-            microseconds = ((rawBytes[8] & 0xff)
-                    | (rawBytes[9] & 0xff) << 8
-                    | (rawBytes[10] & 0xff) << 16
-                    | (rawBytes[11] & 0xff) << 24);
+        int day = ((rawBytes[offset + 1] & 0xff)
+                | ((rawBytes[offset + 2] & 0xff) << 8)
+                | ((rawBytes[offset + 3] & 0xff) << 16)
+                | ((rawBytes[offset + 4] & 0xff) << 24));
+        int timeHour = rawBytes[offset + 5] + day * 24;
+        boolean negative = (rawBytes[offset + 0] == 0x01);
+
+        StringBuilder sb = new StringBuilder(10);
+        if (negative) {
+            sb.append('-');
         }
-
-        String microsecondString = Integer.toString(microseconds);
-        while (microsecondString.length() < 6) {
-            microsecondString = "0" + microsecondString;
+        if (timeHour < 10) {
+            sb.append('0');
         }
-        boolean negative = (rawBytes[0] == 0x01);
-        return (negative ? "-" : "") + (hourString + ":" + minuteString + ":" + secondString);
+        sb.append(timeHour);
+        appendTwoDigits(sb.append(':'), rawBytes[offset + 6]);
+        appendTwoDigits(sb.append(':'), rawBytes[offset + 7]);
+        return sb.toString();
     }
 
-
+    private static void appendTwoDigits(StringBuilder sb, int value) {
+        sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
 
     /**
      * Get byte from raw data.
@@ -280,14 +280,14 @@ public class MariaDbValueObject implements ValueObject {
         }
         if (!this.isBinaryEncoded) {
             if (dataType == MariaDbType.BIT) {
-                return rawBytes[0];
+                return rawBytes[offset + 0];
             }
             return parseByte();
         } else {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset + 0];
                 case TINYINT:
                     value = getTinyInt();
                     break;
@@ -324,15 +324,15 @@ public class MariaDbValueObject implements ValueObject {
     }
 
     private int getTinyInt() throws SQLException {
-        int value = rawBytes[0];
+        int value = rawBytes[offset + 0];
         if (!columnInfo.isSigned()) {
-            value = (rawBytes[0] & 0xff);
+            value = (rawBytes[offset + 0] & 0xff);
         }
         return value;
     }
 
     private int getSmallInt() throws SQLException {
-        int value = ((rawBytes[0] & 0xff) | ((rawBytes[1] & 0xff) << 8));
+        int value = ((rawBytes[offset + 0] & 0xff) | ((rawBytes[offset + 1] & 0xff) << 8));
         if (!columnInfo.isSigned()) {
             value = value & 0xffff;
         }
@@ -340,10 +340,10 @@ public class MariaDbValueObject implements ValueObject {
     }
 
     private long getMediumInt() throws SQLException {
-        long value = ((rawBytes[0] & 0xff)
-                | (rawBytes[1] & 0xff) << 8
-                | (rawBytes[2] & 0xff) << 16
-                | (rawBytes[3] & 0xff) << 24);
+        long value = ((rawBytes[offset + 0] & 0xff)
+                | (rawBytes[offset + 1] & 0xff) << 8
+                | (rawBytes[offset + 2] & 0xff) << 16
+                | (rawBytes[offset + 3] & 0xff) << 24);
         if (!columnInfo.isSigned()) {
             value = value & 0xffffffffL ;
         }
@@ -352,7 +352,17 @@ public class MariaDbValueObject implements ValueObject {
 
 
     private byte parseByte() throws SQLException {
-        String value = new String(rawBytes, StandardCharsets.UTF_8);
+        if (dataType != MariaDbType.FLOAT && dataType != MariaDbType.DOUBLE) {
+            try {
+                long value = AsciiParser.parseLong(rawBytes, offset, length);
+                if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                    return (byte) value;
+                }
+            } catch (NumberFormatException nfe) {
+                //not an integer value, error will be thrown below
+            }
+        }
+        String value = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         try {
             switch (dataType) {
                 case FLOAT:
@@ -403,13 +413,13 @@ public class MariaDbValueObject implements ValueObject {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset + 0];
                 case TINYINT:
                     value = getTinyInt();
                     break;
                 case SMALLINT:
                 case YEAR:
-                    value = ((rawBytes[0] & 0xff) | ((rawBytes[1] & 0xff) << 8));
+                    value = ((rawBytes[offset + 0] & 0xff) | ((rawBytes[offset + 1] & 0xff) << 8));
                     if (columnInfo.isSigned()) {
                         return (short) value;
                     }
@@ -437,7 +447,17 @@ public class MariaDbValueObject implements ValueObject {
     }
 
     private short parseShort() throws SQLException {
-        String value = new String(rawBytes, StandardCharsets.UTF_8);
+        if (dataType != MariaDbType.FLOAT && dataType != MariaDbType.DOUBLE) {
+            try {
+                long value = AsciiParser.parseLong(rawBytes, offset, length);
+                if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                    return (short) value;
+                }
+            } catch (NumberFormatException nfe) {
+                //not an integer value, error will be thrown below
+            }
+        }
+        String value = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         try {
             switch (dataType) {
                 case FLOAT:
@@ -487,7 +507,7 @@ public class MariaDbValueObject implements ValueObject {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset + 0];
                 case TINYINT:
                     value = getTinyInt();
                     break;
@@ -497,10 +517,10 @@ public class MariaDbValueObject implements ValueObject {
                     break;
                 case INTEGER:
                 case MEDIUMINT:
-                    value = ((rawBytes[0] & 0xff)
-                            | (rawBytes[1] & 0xff) << 8
-                            | (rawBytes[2] & 0xff) << 16
-                            | (rawBytes[3] & 0xff) << 24);
+                    value = ((rawBytes[offset + 0] & 0xff)
+                            | (rawBytes[offset + 1] & 0xff) << 8
+                            | (rawBytes[offset + 2] & 0xff) << 16
+                            | (rawBytes[offset + 3] & 0xff) << 24);
                     if (columnInfo.isSigned()) {
                         return (int) value;
                     } else if (value < 0) {
@@ -525,7 +545,17 @@ public class MariaDbValueObject implements ValueObject {
     }
 
     private int parseInt() throws SQLException {
-        String value = new String(rawBytes, StandardCharsets.UTF_8);
+        if (dataType != MariaDbType.FLOAT && dataType != MariaDbType.DOUBLE) {
+            try {
+                long value = AsciiParser.parseLong(rawBytes, offset, length);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    return (int) value;
+                }
+            } catch (NumberFormatException nfe) {
+                //not an integer value, error will be thrown below
+            }
+        }
+        String value = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         try {
             switch (dataType) {
                 case FLOAT:
@@ -575,7 +605,7 @@ public class MariaDbValueObject implements ValueObject {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset + 0];
                 case TINYINT:
                     value = getTinyInt();
                     break;
@@ -588,14 +618,14 @@ public class MariaDbValueObject implements ValueObject {
                     value = getMediumInt();
                     break;
                 case BIGINT:
-                    value = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56));
+                    value = ((rawBytes[offset + 0] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56));
                     if (columnInfo.isSigned()) {
                         return value;
                     }
@@ -632,7 +662,14 @@ public class MariaDbValueObject implements ValueObject {
     }
 
     private long parseLong() throws SQLException {
-        String value = new String(rawBytes, StandardCharsets.UTF_8);
+        if (dataType != MariaDbType.FLOAT && dataType != MariaDbType.DOUBLE) {
+            try {
+                return AsciiParser.parseLong(rawBytes, offset, length);
+            } catch (NumberFormatException nfe) {
+                //not an integer value, error will be thrown below
+            }
+        }
+        String value = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         try {
             switch (dataType) {
                 case FLOAT:
@@ -678,12 +715,12 @@ public class MariaDbValueObject implements ValueObject {
             return 0;
         }
         if (!this.isBinaryEncoded) {
-            return Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+            return Float.valueOf(new String(rawBytes, offset, length, StandardCharsets.UTF_8));
         } else {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset + 0];
                 case TINYINT:
                     value = getTinyInt();
                     break;
@@ -696,14 +733,14 @@ public class MariaDbValueObject implements ValueObject {
                     value = getMediumInt();
                     break;
                 case BIGINT:
-                    value = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56));
+                    value = ((rawBytes[offset + 0] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56));
                     if (columnInfo.isSigned()) {
                         return value;
                     }
@@ -713,15 +750,15 @@ public class MariaDbValueObject implements ValueObject {
                             (byte) (value >> 0)});
                     return unsignedValue.floatValue();
                 case FLOAT:
-                    int valueFloat = ((rawBytes[0] & 0xff)
-                            | (rawBytes[1] & 0xff) << 8
-                            | (rawBytes[2] & 0xff) << 16
-                            | (rawBytes[3] & 0xff) << 24);
+                    int valueFloat = ((rawBytes[offset + 0] & 0xff)
+                            | (rawBytes[offset + 1] & 0xff) << 8
+                            | (rawBytes[offset + 2] & 0xff) << 16
+                            | (rawBytes[offset + 3] & 0xff) << 24);
                     return Float.intBitsToFloat(valueFloat);
                 case DOUBLE:
                     return (float) getDouble();
                 default:
-                    return Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+                    return Float.valueOf(new String(rawBytes, offset, length, StandardCharsets.UTF_8));
             }
             return Float.valueOf(String.valueOf(value));
         }
@@ -736,11 +773,11 @@ public class MariaDbValueObject implements ValueObject {
             return 0;
         }
         if (!this.isBinaryEncoded) {
-            return Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+            return AsciiParser.parseDouble(rawBytes, offset, length);
         } else {
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset + 0];
                 case TINYINT:
                     return getTinyInt();
                 case SMALLINT:
@@ -750,14 +787,14 @@ public class MariaDbValueObject implements ValueObject {
                 case MEDIUMINT:
                     return getMediumInt();
                 case BIGINT:
-                    long valueLong = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56)
+                    long valueLong = ((rawBytes[offset + 0] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56)
                     );
                     if (columnInfo.isSigned()) {
                         return valueLong;
@@ -770,17 +807,17 @@ public class MariaDbValueObject implements ValueObject {
                 case FLOAT:
                     return getFloat();
                 case DOUBLE:
-                    long valueDouble = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56));
+                    long valueDouble = ((rawBytes[offset + 0] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56));
                     return Double.longBitsToDouble(valueDouble);
                 default:
-                    return Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+                    return AsciiParser.parseDouble(rawBytes, offset, length);
             }
         }
     }
@@ -794,11 +831,11 @@ public class MariaDbValueObject implements ValueObject {
             return null;
         }
         if (!this.isBinaryEncoded) {
-            return new BigDecimal(new String(rawBytes, StandardCharsets.UTF_8));
+            return AsciiParser.parseBigDecimal(rawBytes, offset, length);
         } else {
             switch (dataType) {
                 case BIT:
-                    return BigDecimal.valueOf((long) rawBytes[0]);
+                    return BigDecimal.valueOf((long) rawBytes[offset + 0]);
                 case TINYINT:
                     return BigDecimal.valueOf((long) getTinyInt());
                 case SMALLINT:
@@ -808,14 +845,14 @@ public class MariaDbValueObject implements ValueObject {
                 case MEDIUMINT:
                     return BigDecimal.valueOf(getMediumInt());
                 case BIGINT:
-                    long value = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56)
+                    long value = ((rawBytes[offset + 0] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56)
                     );
                     if (columnInfo.isSigned()) {
                         return new BigDecimal(String.valueOf(BigInteger.valueOf(value))).setScale(columnInfo.getDecimals());
@@ -830,14 +867,21 @@ public class MariaDbValueObject implements ValueObject {
                 case DOUBLE:
                     return BigDecimal.valueOf(getDouble());
                 default:
-                    return new BigDecimal(new String(rawBytes, StandardCharsets.UTF_8));
+                    return AsciiParser.parseBigDecimal(rawBytes, offset, length);
             }
         }
 
     }
 
+    /**
+     * Get raw data. Data are copied if value point to a row buffer.
+     * @return raw data
+     */
     public byte[] getBytes() {
-        return rawBytes;
+        if (rawBytes == null || (offset == 0 && length == rawBytes.length)) {
+            return rawBytes;
+        }
+        return Arrays.copyOfRange(rawBytes, offset, offset + length);
     }
 
     /**
@@ -849,33 +893,33 @@ public class MariaDbValueObject implements ValueObject {
             return null;
         }
         if (!this.isBinaryEncoded) {
-            return new BigInteger(new String(rawBytes, StandardCharsets.UTF_8));
+            return new BigInteger(new String(rawBytes, offset, length, StandardCharsets.UTF_8));
         } else {
             switch (dataType) {
                 case BIT:
-                    return BigInteger.valueOf((long) rawBytes[0]);
+                    return BigInteger.valueOf((long) rawBytes[offset + 0]);
                 case TINYINT:
-                    return BigInteger.valueOf((long) (columnInfo.isSigned() ? getByte() : (rawBytes[0] & 0xff)));
+                    return BigInteger.valueOf((long) (columnInfo.isSigned() ? getByte() : (rawBytes[offset + 0] & 0xff)));
                 case SMALLINT:
                 case YEAR:
-                    short valueShort = (short) ((rawBytes[0] & 0xff) | ((rawBytes[1] & 0xff) << 8));
+                    short valueShort = (short) ((rawBytes[offset + 0] & 0xff) | ((rawBytes[offset + 1] & 0xff) << 8));
                     return BigInteger.valueOf((long) (columnInfo.isSigned() ? valueShort : (valueShort & 0xffff)));
                 case INTEGER:
                 case MEDIUMINT:
-                    int valueInt = ((rawBytes[0] & 0xff)
-                            | (rawBytes[1] & 0xff) << 8
-                            | (rawBytes[2] & 0xff) << 16
-                            | (rawBytes[3] & 0xff) << 24);
+                    int valueInt = ((rawBytes[offset + 0] & 0xff)
+                            | (rawBytes[offset + 1] & 0xff) << 8
+                            | (rawBytes[offset + 2] & 0xff) << 16
+                            | (rawBytes[offset + 3] & 0xff) << 24);
                     return BigInteger.valueOf(((columnInfo.isSigned()) ? valueInt : (valueInt >= 0) ? valueInt : valueInt & 0xffffffffL));
                 case BIGINT:
-                    long value = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56)
+                    long value = ((rawBytes[offset + 0] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56)
                     );
                     if (columnInfo.isSigned()) {
                         return BigInteger.valueOf(value);
@@ -890,7 +934,7 @@ public class MariaDbValueObject implements ValueObject {
                 case DOUBLE:
                     return BigInteger.valueOf((long) getDouble());
                 default:
-                    return new BigInteger(new String(rawBytes, StandardCharsets.UTF_8));
+                    return new BigInteger(new String(rawBytes, offset, length, StandardCharsets.UTF_8));
             }
         }
 
@@ -908,14 +952,10 @@ public class MariaDbValueObject implements ValueObject {
         }
 
         if (!this.isBinaryEncoded) {
-            String rawValue = new String(rawBytes, StandardCharsets.UTF_8);
-            String zeroDate = "0000-00-00";
-
-            if (rawValue.equals(zeroDate)) {
+            if (isRawValue(ZERO_DATE)) {
                 return null;
             }
 
-            SimpleDateFormat sdf;
             switch (dataType) {
                 case TIMESTAMP:
                 case DATETIME:
@@ -923,14 +963,21 @@ public class MariaDbValueObject implements ValueObject {
                 case TIME:
                     return new Date(getTime(cal).getTime());
                 case DATE:
-                    return new Date(
-                            Integer.parseInt(rawValue.substring(0, 4)) - 1900,
-                            Integer.parseInt(rawValue.substring(5, 7)) - 1,
-                            Integer.parseInt(rawValue.substring(8, 10))
-                    );
+                    try {
+                        if (length < 10) {
+                            throw new NumberFormatException();
+                        }
+                        return new Date(TemporalCodec.getDefault().toEpochMillis(
+                                AsciiParser.parseDigits(rawBytes, offset, 4),
+                                AsciiParser.parseDigits(rawBytes, offset + 5, 2),
+                                AsciiParser.parseDigits(rawBytes, offset + 8, 2), 0, 0, 0, 0));
+                    } catch (NumberFormatException n) {
+                        throw new ParseException("Value \"" + new String(rawBytes, offset, length, StandardCharsets.UTF_8)
+                                + "\" cannot be parse as Date", 0);
+                    }
                 case YEAR:
-                    int year = Integer.parseInt(rawValue);
-                    if (rawBytes.length == 2 && columnInfo.getLength() == 2) {
+                    int year = (int) AsciiParser.parseLong(rawBytes, offset, length);
+                    if (length == 2 && columnInfo.getLength() == 2) {
                         if (year <= 69) {
                             year += 2000;
                         } else {
@@ -938,15 +985,26 @@ public class MariaDbValueObject implements ValueObject {
                         }
                     }
 
-                    return new Date(year - 1900, 0, 1);
+                    return new Date(TemporalCodec.getDefault().toEpochMillis(year, 1, 1, 0, 0, 0, 0));
                 default:
-                    sdf = new SimpleDateFormat("yyyy-MM-dd");
+                    if (length >= 10 && rawBytes[offset + 4] == '-' && rawBytes[offset + 7] == '-') {
+                        try {
+                            return new Date(TemporalCodec.getInstance(cal).toEpochMillis(
+                                    AsciiParser.parseDigits(rawBytes, offset, 4),
+                                    AsciiParser.parseDigits(rawBytes, offset + 5, 2),
+                                    AsciiParser.parseDigits(rawBytes, offset + 8, 2), 0, 0, 0, 0));
+                        } catch (NumberFormatException n) {
+                            //parse using SimpleDateFormat
+                        }
+                    }
+                    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
                     if (cal != null) {
                         sdf.setCalendar(cal);
                     }
+                    String rawValue = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
+                    java.util.Date utilDate = sdf.parse(rawValue);
+                    return new Date(utilDate.getTime());
             }
-            java.util.Date utilDate = sdf.parse(rawValue);
-            return new Date(utilDate.getTime());
         } else {
             return binaryDate(cal);
         }
@@ -962,9 +1020,7 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        String raw = new String(rawBytes, StandardCharsets.UTF_8);
-        String zeroDate = "0000-00-00";
-        if (raw.equals(zeroDate)) {
+        if (isRawValue(ZERO_DATE)) {
             return null;
         }
 
@@ -972,35 +1028,28 @@ public class MariaDbValueObject implements ValueObject {
             if (dataType == MariaDbType.TIMESTAMP || dataType == MariaDbType.DATETIME) {
                 return new Time(getTimestamp(cal).getTime());
             } else if (dataType == MariaDbType.DATE) {
-                Calendar zeroCal = Calendar.getInstance();
-                zeroCal.set(1970, 0, 1, 0, 0, 0);
-                zeroCal.set(Calendar.MILLISECOND, 0);
-                return new Time(zeroCal.getTimeInMillis());
+                return new Time(TemporalCodec.getDefault().toEpochMillis(1970, 1, 1, 0, 0, 0, 0));
             } else {
-                if (!options.useLegacyDatetimeCode && (raw.startsWith("-") || raw.split(":").length != 3 || raw.indexOf(":") > 3)) {
-                    throw new ParseException("Time format \"" + raw + "\" incorrect, must be HH:mm:ss", 0);
-                }
-                boolean negate = raw.startsWith("-");
-                if (negate) {
-                    raw = raw.substring(1);
+                final int end = offset + length;
+                boolean negate = length > 0 && rawBytes[offset] == '-';
+                int start = negate ? offset + 1 : offset;
+                int firstColon = indexOf(':', start, end);
+                int secondColon = (firstColon == -1) ? -1 : indexOf(':', firstColon + 1, end);
+                boolean validFormat = secondColon != -1 && indexOf(':', secondColon + 1, end) == -1 && end - secondColon > 2;
+                if (!options.useLegacyDatetimeCode && (negate || !validFormat || firstColon - offset > 3)) {
+                    throw new ParseException("Time format \"" + new String(rawBytes, offset, length, StandardCharsets.UTF_8)
+                            + "\" incorrect, must be HH:mm:ss", 0);
                 }
-                String[] rawPart = raw.split(":");
-                if (rawPart.length == 3) {
-                    int hour = Integer.parseInt(rawPart[0]);
-                    int minutes = Integer.parseInt(rawPart[1]);
-                    int seconds = Integer.parseInt(rawPart[2].substring(0, 2));
-                    Calendar calendar = Calendar.getInstance();
-                    if (options.useLegacyDatetimeCode) {
-                        calendar.setLenient(true);
-                    }
-                    calendar.clear();
-                    calendar.set(1970, 0, 1, (negate ? -1 : 1) * hour, minutes, seconds);
-                    int nanoseconds = extractNanos(raw);
-                    calendar.set(Calendar.MILLISECOND, nanoseconds / 1000000);
-
-                    return new Time(calendar.getTimeInMillis());
+                if (validFormat) {
+                    int hour = AsciiParser.parseDigits(rawBytes, start, firstColon - start);
+                    int minutes = AsciiParser.parseDigits(rawBytes, firstColon + 1, secondColon - firstColon - 1);
+                    int seconds = AsciiParser.parseDigits(rawBytes, secondColon + 1, 2);
+                    int nanoseconds = extractNanos();
+                    return new Time(TemporalCodec.getDefault().toEpochMillis(1970, 1, 1, (negate ? -1 : 1) * hour,
+                            minutes, seconds, nanoseconds / 1000000));
                 } else {
-                    throw new ParseException(raw + " cannot be parse as time. time must have \"99:99:99\" format", 0);
+                    throw new ParseException(new String(rawBytes, start, end - start, StandardCharsets.UTF_8)
+                            + " cannot be parse as time. time must have \"99:99:99\" format", 0);
                 }
             }
         } else {
@@ -1014,35 +1063,17 @@ public class MariaDbValueObject implements ValueObject {
             case DATETIME:
                 return new Date(getTimestamp(cal).getTime());
             default:
-                if (rawBytes.length == 0) {
+                if (length == 0) {
                     return null;
                 }
                 int year;
                 int month;
                 int day;
 
-                year = ((rawBytes[0] & 0xff) | (rawBytes[1] & 0xff) << 8);
-                month = rawBytes[2];
-                day = rawBytes[3];
-
-                Calendar calendar = Calendar.getInstance();
-                /*if (!options.useLegacyDatetimeCode) {
-                    c = cal;
-                }*/
-
-                Date dt;
-                synchronized (calendar) {
-                    calendar.clear();
-                    calendar.set(Calendar.YEAR, year);
-                    calendar.set(Calendar.MONTH, month - 1);
-                    calendar.set(Calendar.DAY_OF_MONTH, day);
-                    calendar.set(Calendar.HOUR_OF_DAY, 0);
-                    calendar.set(Calendar.MINUTE, 0);
-                    calendar.set(Calendar.SECOND, 0);
-                    calendar.set(Calendar.MILLISECOND, 0);
-                    dt = new Date(calendar.getTimeInMillis());
-                }
-                return dt;
+                year = ((rawBytes[offset + 0] & 0xff) | (rawBytes[offset + 1] & 0xff) << 8);
+                month = rawBytes[offset + 2];
+                day = rawBytes[offset + 3];
+                return new Date(TemporalCodec.getDefault().toEpochMillis(year, month, day, 0, 0, 0, 0));
         }
     }
 
@@ -1053,44 +1084,31 @@ public class MariaDbValueObject implements ValueObject {
                 Timestamp ts = binaryTimestamp(cal);
                 return new Time(ts.getTime());
             case DATE:
-                Calendar tmpCalendar = Calendar.getInstance();
-                tmpCalendar.clear();
-                tmpCalendar.set(1970, 0, 1, 0, 0, 0);
-                tmpCalendar.set(Calendar.MILLISECOND, 0);
-                return new Time(tmpCalendar.getTimeInMillis());
+                return new Time(TemporalCodec.getDefault().toEpochMillis(1970, 1, 1, 0, 0, 0, 0));
             default:
-                Calendar calendar = Calendar.getInstance();
-                calendar.clear();
-                if (options.useLegacyDatetimeCode) {
-                    calendar.setLenient(false);
-                }
                 int hour = 0;
                 int minutes = 0;
                 int seconds = 0;
-                if (rawBytes.length > 7) {
-                    hour = rawBytes[5];
-                    minutes = rawBytes[6];
-                    seconds = rawBytes[7];
+                if (length > 7) {
+                    hour = rawBytes[offset + 5];
+                    minutes = rawBytes[offset + 6];
+                    seconds = rawBytes[offset + 7];
                 }
-                calendar.set(1970, 0, 1, hour, minutes, seconds);
-
                 int nanoseconds = 0;
-                if (rawBytes.length > 8) {
-                    nanoseconds = ((rawBytes[8] & 0xff)
-                            | (rawBytes[9] & 0xff) << 8
-                            | (rawBytes[10] & 0xff) << 16
-                            | (rawBytes[11] & 0xff) << 24);
+                if (length > 8) {
+                    nanoseconds = ((rawBytes[offset + 8] & 0xff)
+                            | (rawBytes[offset + 9] & 0xff) << 8
+                            | (rawBytes[offset + 10] & 0xff) << 16
+                            | (rawBytes[offset + 11] & 0xff) << 24);
                 }
 
-                calendar.set(Calendar.MILLISECOND, nanoseconds / 1000);
-
-                return new Time(calendar.getTimeInMillis());
+                return new Time(TemporalCodec.getDefault().toEpochMillis(1970, 1, 1, hour, minutes, seconds, nanoseconds / 1000));
         }
     }
 
 
     private Timestamp binaryTimestamp(Calendar cal) throws ParseException {
-        if (rawBytes.length == 0) {
+        if (length == 0) {
             return null;
         }
         int year;
@@ -1104,50 +1122,54 @@ public class MariaDbValueObject implements ValueObject {
         if (dataType == MariaDbType.TIME) {
             return new Timestamp(getTime(cal).getTime());
         } else {
-            year = ((rawBytes[0] & 0xff) | (rawBytes[1] & 0xff) << 8);
-            month = rawBytes[2];
-            day = rawBytes[3];
-            if (rawBytes.length > 4) {
-                hour = rawBytes[4];
-                minutes = rawBytes[5];
-                seconds = rawBytes[6];
-
-                if (rawBytes.length > 7) {
-                    microseconds = ((rawBytes[7] & 0xff)
-                            | (rawBytes[8] & 0xff) << 8
-                            | (rawBytes[9] & 0xff) << 16
-                            | (rawBytes[10] & 0xff) << 24);
+            year = ((rawBytes[offset + 0] & 0xff) | (rawBytes[offset + 1] & 0xff) << 8);
+            month = rawBytes[offset + 2];
+            day = rawBytes[offset + 3];
+            if (length > 4) {
+                hour = rawBytes[offset + 4];
+                minutes = rawBytes[offset + 5];
+                seconds = rawBytes[offset + 6];
+
+                if (length > 7) {
+                    microseconds = ((rawBytes[offset + 7] & 0xff)
+                            | (rawBytes[offset + 8] & 0xff) << 8
+                            | (rawBytes[offset + 9] & 0xff) << 16
+                            | (rawBytes[offset + 10] & 0xff) << 24);
                 }
             }
         }
 
-        Calendar calendar = Calendar.getInstance();
-        if (!options.useLegacyDatetimeCode) {
-            calendar = cal;
-        }
-        Timestamp tt;
-        synchronized (calendar) {
-            calendar.set(year, month - 1, day, hour, minutes, seconds);
-            tt = new Timestamp(calendar.getTimeInMillis());
-        }
+        Timestamp tt = new Timestamp(getTemporalCodec(cal).toEpochMillis(year, month, day, hour, minutes, seconds, 0));
         tt.setNanos(microseconds * 1000);
         return tt;
     }
 
-    private int extractNanos(String timestring) throws ParseException {
-        int index = timestring.indexOf('.');
+    /**
+     * Codec of the time zone used to read timestamps : session calendar, or JVM default time zone with option
+     * "useLegacyDatetimeCode".
+     * @param cal session calendar
+     * @return codec
+     */
+    private TemporalCodec getTemporalCodec(Calendar cal) {
+        return options.useLegacyDatetimeCode ? TemporalCodec.getDefault() : TemporalCodec.getInstance(cal);
+    }
+
+    private int extractNanos() throws ParseException {
+        final int end = offset + length;
+        int index = indexOf('.', offset, end);
         if (index == -1) {
             return 0;
         }
         int nanos = 0;
         for (int i = index + 1; i < index + 10; i++) {
             int digit;
-            if (i >= timestring.length()) {
+            if (i >= end) {
                 digit = 0;
             } else {
-                char value = timestring.charAt(i);
+                byte value = rawBytes[i];
                 if (value < '0' || value > '9') {
-                    throw new ParseException("cannot parse subsecond part in timestamp string '" + timestring + "'", i);
+                    throw new ParseException("cannot parse subsecond part in timestamp string '"
+                            + new String(rawBytes, offset, length, StandardCharsets.UTF_8) + "'", i - offset);
                 }
                 digit = value - '0';
             }
@@ -1156,6 +1178,32 @@ public class MariaDbValueObject implements ValueObject {
         return nanos;
     }
 
+    private int indexOf(char character, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (rawBytes[i] == character) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compare raw data to an ASCII value, without creating String.
+     * @param value value to compare
+     * @return true if raw data is equal to value
+     */
+    private boolean isRawValue(byte[] value) {
+        if (length != value.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (rawBytes[offset + i] != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Get timeStamp from raw data.
      * @param cal session calendar.
@@ -1167,16 +1215,14 @@ public class MariaDbValueObject implements ValueObject {
             return null;
         }
         if (!this.isBinaryEncoded) {
-            String rawValue = new String(rawBytes, StandardCharsets.UTF_8);
-            String zeroTimestamp = "0000-00-00 00:00:00";
-            if (rawValue.equals(zeroTimestamp)) {
+            if (isRawValue(ZERO_TIMESTAMP)) {
                 return null;
             }
             switch (dataType) {
                 case TIME:
                     //time does not go after millisecond
                     Timestamp tt = new Timestamp(getTime(cal).getTime());
-                    tt.setNanos(extractNanos(rawValue));
+                    tt.setNanos(extractNanos());
                     return tt;
                 default:
                     try {
@@ -1184,36 +1230,25 @@ public class MariaDbValueObject implements ValueObject {
                         int minutes = 0;
                         int seconds = 0;
 
-                        int year = Integer.parseInt(rawValue.substring(0, 4));
-                        int month = Integer.parseInt(rawValue.substring(5, 7));
-                        int day = Integer.parseInt(rawValue.substring(8, 10));
-                        if (rawValue.length() >= 19) {
-                            hour = Integer.parseInt(rawValue.substring(11, 13));
-                            minutes = Integer.parseInt(rawValue.substring(14, 16));
-                            seconds = Integer.parseInt(rawValue.substring(17, 19));
-                        }
-                        int nanoseconds = extractNanos(rawValue);
-                        Timestamp timestamp;
-                        Calendar calendar = cal;
-                        if (options.useLegacyDatetimeCode) {
-                            calendar = Calendar.getInstance();
+                        if (length < 10) {
+                            throw new NumberFormatException();
                         }
-                        synchronized (calendar) {
-                            calendar.set(Calendar.YEAR, year);
-                            calendar.set(Calendar.MONTH, month - 1);
-                            calendar.set(Calendar.DAY_OF_MONTH, day);
-                            calendar.set(Calendar.HOUR_OF_DAY, hour);
-                            calendar.set(Calendar.MINUTE, minutes);
-                            calendar.set(Calendar.SECOND, seconds);
-                            calendar.set(Calendar.MILLISECOND, nanoseconds / 1000000);
-                            timestamp = new Timestamp(calendar.getTime().getTime());
+                        int year = AsciiParser.parseDigits(rawBytes, offset, 4);
+                        int month = AsciiParser.parseDigits(rawBytes, offset + 5, 2);
+                        int day = AsciiParser.parseDigits(rawBytes, offset + 8, 2);
+                        if (length >= 19) {
+                            hour = AsciiParser.parseDigits(rawBytes, offset + 11, 2);
+                            minutes = AsciiParser.parseDigits(rawBytes, offset + 14, 2);
+                            seconds = AsciiParser.parseDigits(rawBytes, offset + 17, 2);
                         }
+                        int nanoseconds = extractNanos();
+                        Timestamp timestamp = new Timestamp(getTemporalCodec(cal).toEpochMillis(year, month, day,
+                                hour, minutes, seconds, 0));
                         timestamp.setNanos(nanoseconds);
                         return timestamp;
                     } catch (NumberFormatException n) {
-                        throw new ParseException("Value \"" + rawValue + "\" cannot be parse as Timestamp", 0);
-                    } catch (StringIndexOutOfBoundsException s) {
-                        throw new ParseException("Value \"" + rawValue + "\" cannot be parse as Timestamp", 0);
+                        throw new ParseException("Value \"" + new String(rawBytes, offset, length, StandardCharsets.UTF_8)
+                                + "\" cannot be parse as Timestamp", 0);
                     }
             }
         } else {
@@ -1230,7 +1265,7 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        return new ByteArrayInputStream(new String(rawBytes, StandardCharsets.UTF_8).getBytes());
+        return new ByteArrayInputStream(new String(rawBytes, offset, length, StandardCharsets.UTF_8).getBytes());
     }
 
     /**
@@ -1241,7 +1276,7 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        return new ByteArrayInputStream(rawBytes);
+        return new ByteArrayInputStream(getBytes());
     }
 
     /**
@@ -1249,11 +1284,18 @@ public class MariaDbValueObject implements ValueObject {
      * @return boolean
      */
     public boolean getBoolean() {
-        if (rawBytes == null) {
+        if (rawBytes == null || length == 0) {
             return false;
         }
-        final String rawVal = new String(rawBytes, StandardCharsets.UTF_8);
-        return rawVal.equalsIgnoreCase("true") || rawVal.equals("1") || (rawBytes[0] & 0x1) == 1;
+        if (length == 4
+                && (rawBytes[offset] | 0x20) == 't'
+                && (rawBytes[offset + 1] | 0x20) == 'r'
+                && (rawBytes[offset + 2] | 0x20) == 'u'
+                && (rawBytes[offset + 3] | 0x20) == 'e') {
+            return true;
+        }
+        //"1" is covered by last bit check
+        return (rawBytes[offset + 0] & 0x1) == 1;
     }
 
     /**
@@ -1261,14 +1303,12 @@ public class MariaDbValueObject implements ValueObject {
      * @return true if data is null
      */
     public boolean isNull() {
-        String zeroTimestamp = "0000-00-00 00:00:00";
-        String zeroDate = "0000-00-00";
         return (rawBytes == null
                 || (isBinaryEncoded && ((dataType == MariaDbType.DATE || dataType == MariaDbType.TIMESTAMP || dataType == MariaDbType.DATETIME)
-                && rawBytes.length == 0))
+                && length == 0))
                 || (!isBinaryEncoded && ((dataType == MariaDbType.TIMESTAMP || dataType == MariaDbType.DATETIME)
-                && zeroTimestamp.equals(new String(rawBytes, StandardCharsets.UTF_8))))
-                || (!isBinaryEncoded && (dataType == MariaDbType.DATE && zeroDate.equals(new String(rawBytes, StandardCharsets.UTF_8)))));
+                && isRawValue(ZERO_TIMESTAMP)))
+                || (!isBinaryEncoded && (dataType == MariaDbType.DATE && isRawValue(ZERO_DATE))));
     }
 
     /**
@@ -1277,7 +1317,7 @@ public class MariaDbValueObject implements ValueObject {
      */
     public int getDisplayLength() {
         if (rawBytes != null) {
-            return rawBytes.length;
+            return length;
         }
         return 4; //NULL
     }
@@ -1290,7 +1330,7 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        return new MariaDbBlob(rawBytes);
+        return new MariaDbBlob(getBytes());
     }
 
     /**
@@ -1301,7 +1341,7 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        return new MariaDbClob(rawBytes);
+        return new MariaDbClob(getBytes());
     }
 
     /**
@@ -1319,12 +1359,12 @@ public class MariaDbValueObject implements ValueObject {
         switch (dataType) {
             case BIT:
                 if (columnInfo.getLength() == 1) {
-                    return (getBytes()[0] != 0);
+                    return (rawBytes[offset] != 0);
                 }
                 return getBytes();
             case TINYINT:
                 if ((dataTypeMappingFlags & TINYINT1_IS_BIT) != 0 && columnInfo.getLength() == 1) {
-                    return (getBytes()[0] != '0');
+                    return (rawBytes[offset] != '0');
                 }
                 return getInt();
             case INTEGER:
@@ -62,6 +62,7 @@ public abstract class SelectQueryResult extends AbstractQueryResult {
     ColumnInformation[] columnInformation;
     int columnInformationLength;
     short warningCount;
+    boolean outputParameterResult;
 
     public ColumnInformation[] getColumnInformation() {
         return columnInformation;
@@ -75,6 +76,16 @@ public abstract class SelectQueryResult extends AbstractQueryResult {
         return null;
     }
 
+    /**
+     * Indicate if this result set contains output parameters of a stored procedure executed with a server prepared
+     * statement (server status flag SERVER_PS_OUT_PARAMS).
+     *
+     * @return true if result contains output parameters
+     */
+    public boolean isOutputParameterResult() {
+        return outputParameterResult;
+    }
+
     public ResultSetType getResultSetType() {
         return ResultSetType.SELECT;
     }
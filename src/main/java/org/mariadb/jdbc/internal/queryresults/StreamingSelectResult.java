@@ -1,7 +1,6 @@
 package org.mariadb.jdbc.internal.queryresults;
 
 import org.mariadb.jdbc.internal.util.buffer.ReadUtil;
-import org.mariadb.jdbc.internal.packet.read.RawPacket;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
 import org.mariadb.jdbc.internal.packet.read.ReadResultPacketFactory;
 import org.mariadb.jdbc.internal.packet.result.EndOfFilePacket;
@@ -11,10 +10,14 @@ import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 import org.mariadb.jdbc.internal.protocol.AbstractConnectProtocol;
 import org.mariadb.jdbc.internal.protocol.AbstractQueryProtocol;
 import org.mariadb.jdbc.internal.protocol.MasterProtocol;
+import org.mariadb.jdbc.internal.packet.result.BinaryRowDecoder;
 import org.mariadb.jdbc.internal.packet.result.BinaryRowPacket;
 import org.mariadb.jdbc.internal.packet.result.TextRowPacket;
 import org.mariadb.jdbc.internal.packet.result.RowPacket;
+import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.constant.ServerStatus;
+import org.mariadb.jdbc.internal.util.dao.PrepareResult;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
 import java.io.IOException;
@@ -28,6 +31,8 @@ public class StreamingSelectResult extends SelectQueryResult {
     private boolean beforeFirst;
     private boolean binaryProtocol;
     private RowPacket rowPacket;
+    private MariaDbValueObject[] reusableValues;
+    private boolean hasRow;
 
 
     /**
@@ -38,6 +43,19 @@ public class StreamingSelectResult extends SelectQueryResult {
      * @param binaryProtocol is binary protocol ?
      */
     public StreamingSelectResult(ColumnInformation[] info, AbstractConnectProtocol protocol, ReadPacketFetcher fetcher, boolean binaryProtocol) {
+        this(info, protocol, fetcher, binaryProtocol, null);
+    }
+
+    /**
+     * Create Streaming resultset.
+     * @param info column information
+     * @param protocol protocol information
+     * @param fetcher stream fetcher
+     * @param binaryProtocol is binary protocol ?
+     * @param decoder binary rows decoding plan (if null, plan will be computed from column information)
+     */
+    public StreamingSelectResult(ColumnInformation[] info, AbstractConnectProtocol protocol, ReadPacketFetcher fetcher, boolean binaryProtocol,
+                                 BinaryRowDecoder decoder) {
         this.columnInformation = info;
         this.columnInformationLength = info.length;
         this.protocol = protocol;
@@ -47,12 +65,24 @@ public class StreamingSelectResult extends SelectQueryResult {
         this.binaryProtocol = binaryProtocol;
         protocol.activeResult = this;
         if (binaryProtocol) {
-            rowPacket = new BinaryRowPacket(columnInformation, protocol.getOptions(), columnInformationLength);
+            rowPacket = new BinaryRowPacket(columnInformation, protocol.getOptions(), columnInformationLength,
+                    (decoder != null) ? decoder : new BinaryRowDecoder(columnInformation));
         } else {
             rowPacket = new TextRowPacket(columnInformation, protocol.getOptions(), columnInformationLength);
         }
     }
 
+    /**
+     * Rows will be read without copying data : values point to the packet buffer, and value objects are reused
+     * for each row. Must only be used for a forward only result set, since data are valid only until next row is read.
+     */
+    public void readRowsInPlace() {
+        reusableValues = new MariaDbValueObject[columnInformationLength];
+        for (int i = 0; i < columnInformationLength; i++) {
+            reusableValues[i] = new MariaDbValueObject(null, columnInformation[i], binaryProtocol, protocol.getOptions());
+        }
+    }
+
     @Override
     public void addResult(AbstractQueryResult other) {
 
@@ -64,52 +94,83 @@ public class StreamingSelectResult extends SelectQueryResult {
      * @param packetFetcher  packetfetcher
      * @param protocol       the current connection protocol class
      * @param binaryProtocol is the mysql protocol binary
+     * @param prepareResult  prepare result if result of a server prepared statement, null otherwise
      * @return a StreamingQueryResult
      * @throws IOException    when something goes wrong while reading/writing from the server
      * @throws QueryException if there is an actual active result on the current connection
      */
     public static StreamingSelectResult createStreamingSelectResult(
-            ResultSetPacket packet, ReadPacketFetcher packetFetcher, AbstractQueryProtocol protocol, boolean binaryProtocol)
-            throws IOException, QueryException {
+            ResultSetPacket packet, ReadPacketFetcher packetFetcher, AbstractQueryProtocol protocol, boolean binaryProtocol,
+            PrepareResult prepareResult) throws IOException, QueryException {
 
         if (protocol.activeResult != null) {
             throw new QueryException("There is an active result set on the current connection, "
                     + "which must be closed prior to opening a new one");
         }
-        long fieldCount = packet.getFieldCount();
-        ColumnInformation[] ci = new ColumnInformation[(int) fieldCount];
+        ColumnInformation[] ci = readColumnInformation(packet, packetFetcher, prepareResult);
+        ByteBuffer bufferEof = packetFetcher.getReusableBuffer();
+        if (!ReadUtil.eofIsNext(bufferEof)) {
+            throw new QueryException("Packets out of order when reading field packets, expected was EOF stream. "
+                    + "Packet contents (hex) = " + MasterProtocol.hexdump(bufferEof, 0));
+        }
+        EndOfFilePacket endOfFilePacket = (EndOfFilePacket) ReadResultPacketFactory.createResultPacket(bufferEof);
+        BinaryRowDecoder decoder = (binaryProtocol && prepareResult != null) ? prepareResult.getRowDecoder(ci) : null;
+        StreamingSelectResult streamingResult = new StreamingSelectResult(ci, protocol, packetFetcher, binaryProtocol, decoder);
+        streamingResult.outputParameterResult = (endOfFilePacket.getStatusFlags() & ServerStatus.PS_OUT_PARAMETERS) != 0;
+        return streamingResult;
 
-        for (int i = 0; i < fieldCount; i++) {
-            final RawPacket rawPacket = packetFetcher.getRawPacket();
-            //   byte b = rawPacket.getByteBuffer().get(0);
-
-            // We do not expect an error stream, but check it just for safety
-//            if (b == (byte) 0xff) {
-//                ErrorPacket errorPacket = new ErrorPacket(rawPacket.getByteBuffer());
-//                throw new QueryException("error when reading field stream " + errorPacket.getMessage(),
-//                        errorPacket.getErrorNumber(), errorPacket.getSqlState());
-//            }
-//            // We do not expect OK or EOF packets either
-//            if (b == 0 || b == (byte) 0xfe) {
-//                throw new QueryException("Packets out of order when trying to read field stream - " +
-//                        "got stream starting with byte " + b + "stream content (hex) = "
-//                        + MasterProtocol.hexdump(rawPacket.getByteBuffer(), 0));
-//            }
+    }
 
+    /**
+     * Read column information packets.
+     * For a server prepared statement, column information of previous execution is reused if definitions are
+     * identical, or if server has skipped them (MARIADB_CLIENT_CACHE_METADATA).
+     * @param packet        the result set stream from the server
+     * @param packetFetcher packetfetcher
+     * @param prepareResult prepare result if result of a server prepared statement, null otherwise
+     * @return column information's
+     * @throws IOException    when something goes wrong while reading/writing from the server
+     * @throws QueryException if column packets cannot be parsed
+     */
+    static ColumnInformation[] readColumnInformation(ResultSetPacket packet, ReadPacketFetcher packetFetcher,
+                                                     PrepareResult prepareResult) throws IOException, QueryException {
+        int fieldCount = (int) packet.getFieldCount();
+        ColumnInformation[] previous = (prepareResult != null) ? prepareResult.columns : null;
+        if (previous != null && previous.length != fieldCount) {
+            previous = null;
+        }
+
+        if (!packet.isMetadataFollows()) {
+            if (previous == null) {
+                throw new QueryException("Server did not send column definitions, but no column information is known for "
+                        + fieldCount + " columns", -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState());
+            }
+            return previous;
+        }
+
+        ColumnInformation[] ci = new ColumnInformation[fieldCount];
+        boolean changed = previous == null;
+        for (int i = 0; i < fieldCount; i++) {
+            ByteBuffer buffer = packetFetcher.getReusableBuffer();
+            if (previous != null && previous[i].isSameDefinition(buffer)) {
+                ci[i] = previous[i];
+                continue;
+            }
+            changed = true;
             try {
-                ci[i] = new ColumnInformation(rawPacket.getByteBuffer());
+                ci[i] = new ColumnInformation(buffer);
             } catch (Exception e) {
                 throw new QueryException("Error when trying to parse field stream : " + e + ",stream content (hex) = "
-                        + MasterProtocol.hexdump(rawPacket.getByteBuffer(), 0), 0, "HY000", e);
+                        + MasterProtocol.hexdump(buffer, 0), 0, "HY000", e);
             }
         }
-        ByteBuffer bufferEof = packetFetcher.getReusableBuffer();
-        if (!ReadUtil.eofIsNext(bufferEof)) {
-            throw new QueryException("Packets out of order when reading field packets, expected was EOF stream. "
-                    + "Packet contents (hex) = " + MasterProtocol.hexdump(bufferEof, 0));
+        if (!changed) {
+            return previous;
         }
-        return new StreamingSelectResult(ci, protocol, packetFetcher, binaryProtocol);
-
+        if (prepareResult != null) {
+            prepareResult.columns = ci;
+        }
+        return ci;
     }
 
     @Override
@@ -138,10 +199,16 @@ public class StreamingSelectResult extends SelectQueryResult {
             protocol.hasWarnings = (warningCount > 0);
             isEof = true;
             values = null;
+            hasRow = false;
             return false;
         }
 
-        values = rowPacket.getRow(packetFetcher, buffer);
+        if (reusableValues != null) {
+            rowPacket.fetchRow(packetFetcher, buffer);
+            hasRow = true;
+        } else {
+            values = rowPacket.getRow(packetFetcher, buffer);
+        }
         return true;
     }
 
@@ -182,6 +249,18 @@ public class StreamingSelectResult extends SelectQueryResult {
      */
     @Override
     public ValueObject getValueObject(int index) throws NoSuchColumnException {
+        if (reusableValues != null) {
+            if (!hasRow) {
+                throw new NoSuchColumnException("No current row");
+            }
+            if (index < 0 || index >= columnInformationLength) {
+                throw new NoSuchColumnException("No such column: " + index);
+            }
+            MariaDbValueObject valueObject = reusableValues[index];
+            int[] positions = rowPacket.getPositions();
+            valueObject.setRawBytes(rowPacket.getBuffer(), positions[2 * index], positions[2 * index + 1]);
+            return valueObject;
+        }
         return values[index];
     }
 
@@ -201,4 +280,20 @@ public class StreamingSelectResult extends SelectQueryResult {
         return binaryProtocol;
     }
 
+    Options getOptions() {
+        return protocol.getOptions();
+    }
+
+    /**
+     * Copy current row (read in place) to cached result.
+     * @param result cached result
+     */
+    void appendCurrentRow(CachedSelectResult result) {
+        byte[] buffer = rowPacket.getBuffer();
+        int[] positions = rowPacket.getPositions();
+        for (int i = 0; i < columnInformationLength; i++) {
+            result.addValue(buffer, positions[2 * i], positions[2 * i + 1]);
+        }
+    }
+
 }
@@ -2,7 +2,6 @@ package org.mariadb.jdbc.internal.stream;
 
 import org.mariadb.jdbc.internal.util.buffer.ReadUtil;
 
-import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -11,11 +10,17 @@ import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
 
 public class DecompressInputStream extends InputStream {
+    private static final int MAX_KEPT_BUFFER_SIZE = 1024 * 1024;
+
     InputStream baseStream;
     int remainingBytes;
     byte[] header;
     boolean doDecompress;
-    ByteArrayInputStream decompressedByteStream;
+    private final Inflater inflater = new Inflater();
+    private byte[] compressedBuffer = new byte[8192];
+    private byte[] decompressedBuffer = new byte[8192];
+    private int decompressedPosition;
+    private int decompressedLimit;
 
     public DecompressInputStream(InputStream baseStream) {
         this.baseStream = baseStream;
@@ -35,7 +40,9 @@ public class DecompressInputStream extends InputStream {
         int ret;
         int bytesToRead = Math.min(remainingBytes, len);
         if (doDecompress) {
-            ret = decompressedByteStream.read(bytes, off, bytesToRead);
+            ret = Math.min(bytesToRead, decompressedLimit - decompressedPosition);
+            System.arraycopy(decompressedBuffer, decompressedPosition, bytes, off, ret);
+            decompressedPosition += ret;
         } else {
             ret = baseStream.read(bytes, off, bytesToRead);
         }
@@ -61,9 +68,15 @@ public class DecompressInputStream extends InputStream {
         return (buffer[0] & 0xff);
     }
 
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        baseStream.close();
+    }
 
     /**
      * Read stream header. If required, decompress compressed stream.
+     * Inflater and buffers are reused for all packets.
      *
      * @throws IOException exception
      */
@@ -71,16 +84,17 @@ public class DecompressInputStream extends InputStream {
         ReadUtil.readFully(baseStream, header);
         int compressedLength = (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
         int decompressedLength = (header[4] & 0xff) + ((header[5] & 0xff) << 8) + ((header[6] & 0xff) << 16);
+
         if (decompressedLength != 0) {
             doDecompress = true;
             remainingBytes += decompressedLength;
-            byte[] compressedBuffer = new byte[compressedLength];
-            byte[] decompressedBuffer = new byte[decompressedLength];
-            ReadUtil.readFully(baseStream, compressedBuffer);
-            Inflater inflater = new Inflater();
-            inflater.setInput(compressedBuffer);
+            compressedBuffer = reuseBuffer(compressedBuffer, compressedLength);
+            decompressedBuffer = reuseBuffer(decompressedBuffer, decompressedLength);
+            ReadUtil.readFully(baseStream, compressedBuffer, 0, compressedLength);
+            inflater.reset();
+            inflater.setInput(compressedBuffer, 0, compressedLength);
             try {
-                int actualUncompressBytes = inflater.inflate(decompressedBuffer);
+                int actualUncompressBytes = inflater.inflate(decompressedBuffer, 0, decompressedLength);
                 if (actualUncompressBytes != decompressedLength) {
                     throw new IOException("Invalid stream length after decompression " + actualUncompressBytes + ",expected "
                             + decompressedLength);
@@ -88,14 +102,25 @@ public class DecompressInputStream extends InputStream {
             } catch (DataFormatException dfe) {
                 throw new IOException(dfe);
             }
-            inflater.end();
-            decompressedByteStream = new ByteArrayInputStream(decompressedBuffer);
-
+            decompressedPosition = 0;
+            decompressedLimit = decompressedLength;
         } else {
             doDecompress = false;
             remainingBytes += compressedLength;
-            decompressedByteStream = null;
         }
     }
 
+    /**
+     * Get a buffer of at least the needed size, reusing current buffer when possible.
+     * Big buffers are not kept after use.
+     * @param buffer current buffer
+     * @param length needed size
+     * @return buffer
+     */
+    private static byte[] reuseBuffer(byte[] buffer, int length) {
+        if (buffer.length >= length && (buffer.length <= MAX_KEPT_BUFFER_SIZE || length > MAX_KEPT_BUFFER_SIZE / 2)) {
+            return buffer;
+        }
+        return new byte[Math.max(length, 8192)];
+    }
 }
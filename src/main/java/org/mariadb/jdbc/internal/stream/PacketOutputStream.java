@@ -1,18 +1,19 @@
 package org.mariadb.jdbc.internal.stream;
 
+import org.mariadb.jdbc.internal.util.TemporalCodec;
 import org.mariadb.jdbc.internal.util.constant.MariaDbCharset;
 
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.sql.Timestamp;
-import java.util.Calendar;
-import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Deflater;
 
 
 public class PacketOutputStream extends OutputStream {
     //private final static Logger log = LoggerFactory.getLogger(PacketOutputStream.class);
     private static final int MIN_COMPRESSION_SIZE = 16 * 1024;
+    private static final int MAX_KEPT_COMPRESSION_BUFFER = 1024 * 1024;
     private static final float MIN_COMPRESSION_RATIO = 0.9f;
     private static final int MAX_PACKET_LENGTH = 0x00ffffff;
     private static final int HEADER_LENGTH = 4;
@@ -23,9 +24,19 @@ public class PacketOutputStream extends OutputStream {
     int maxPacketSize = MAX_PACKET_LENGTH;
     boolean checkPacketLength;
     int maxRewritableLengthAllowed;
+    boolean streamPackets;
+    long flushedLength;
     boolean useCompression;
+    private boolean holdFlush;
     private float increasing = 1.5f;
     private OutputStream outputStream;
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private char[] charBuffer;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int compressionThreshold = MIN_COMPRESSION_SIZE;
+    private Deflater deflater;
+    private byte[] compressBuffer;
+    private final byte[] compressHeader = new byte[7];
 
     /**
      * Initialization with server outputStream.
@@ -34,6 +45,7 @@ public class PacketOutputStream extends OutputStream {
     public PacketOutputStream(OutputStream outputStream) {
         this.outputStream = outputStream;
         buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(HEADER_LENGTH);
         this.seqNo = -1;
         useCompression = false;
     }
@@ -54,6 +66,17 @@ public class PacketOutputStream extends OutputStream {
         this.useCompression = useCompression;
     }
 
+    /**
+     * Activate compression.
+     * @param compressionLevel deflate compression level (0-9)
+     * @param compressionThreshold packets smaller than this size will not be compressed
+     */
+    public void setUseCompression(int compressionLevel, int compressionThreshold) {
+        this.useCompression = true;
+        this.compressionLevel = compressionLevel;
+        this.compressionThreshold = compressionThreshold;
+    }
+
     /**
      * Initialize stream sequence. Max stream allowed size will be checked.
      * @param seqNo stream sequence number
@@ -61,12 +84,28 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any error occur during data send to server
      */
     public void startPacket(int seqNo, boolean checkPacketLength) throws IOException {
+        startPacket(seqNo, checkPacketLength, false);
+    }
+
+    /**
+     * Initialize stream sequence.
+     * When streamPackets is set, full packets are sent to socket as soon as data exceed max packet size, so that
+     * big commands are never fully kept in memory. Data already written must then never be modified.
+     * (Packets are not streamed when using compression)
+     *
+     * @param seqNo stream sequence number
+     * @param checkPacketLength indication that max stream allowed size will be checked.
+     * @param streamPackets indication that full packets can be sent before command end.
+     * @throws IOException if any error occur during data send to server
+     */
+    public void startPacket(int seqNo, boolean checkPacketLength, boolean streamPackets) throws IOException {
         if (this.seqNo != -1) {
             throw new IOException("Last stream not finished");
         }
         this.seqNo = seqNo;
-        buffer.clear();
+        resetBuffer();
         this.checkPacketLength = checkPacketLength;
+        this.streamPackets = streamPackets;
     }
 
     /**
@@ -84,12 +123,39 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any error occur during data send to server
      */
     public void writeEmptyPacket(int seqNo) throws IOException {
-        byte[] buf = new byte[4];
-        buf[0] = ((byte) 0);
-        buf[1] = ((byte) 0);
-        buf[2] = ((byte) 0);
-        buf[3] = ((byte) seqNo);
-        outputStream.write(buf, 0, 4);
+        header[0] = ((byte) 0);
+        header[1] = ((byte) 0);
+        header[2] = ((byte) 0);
+        header[3] = ((byte) seqNo);
+        outputStream.write(header, 0, HEADER_LENGTH);
+        if (!holdFlush) {
+            outputStream.flush();
+        }
+    }
+
+    /**
+     * When set, finished packets are not flushed to socket, so that multiple commands can be sent in one write.
+     * Buffered packets are flushed when hold is released.
+     * (Packets are only kept if underlying outputStream is buffered)
+     *
+     * @param holdFlush hold flush indicator
+     * @throws IOException if any connection error occur when flushing
+     */
+    public void setHoldFlush(boolean holdFlush) throws IOException {
+        this.holdFlush = holdFlush;
+        if (!holdFlush) {
+            outputStream.flush();
+        }
+    }
+
+    /**
+     * Empty buffer, reserving space for packet header : header will be written just before data, so header and data
+     * can be send in one write without copy.
+     */
+    private void resetBuffer() {
+        buffer.clear();
+        buffer.position(HEADER_LENGTH);
+        flushedLength = 0;
     }
 
     /**
@@ -100,13 +166,10 @@ public class PacketOutputStream extends OutputStream {
      */
     public void sendFile(InputStream is, int seq) throws IOException {
         this.seqNo = seq;
-        buffer.clear();
+        resetBuffer();
         this.checkPacketLength = false;
-        byte[] buffer = new byte[8192];
-        int len;
-        while ((len = is.read(buffer)) > 0) {
-            write(buffer, 0, len);
-        }
+        this.streamPackets = true;
+        sendStream(is);
         finishPacket();
         writeEmptyPacket(lastSeq);
     }
@@ -117,11 +180,15 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any error occur during data send to server
      */
     public void sendStream(InputStream is) throws IOException {
-        byte[] buffer = new byte[8192];
         int len;
-        while ((len = is.read(buffer)) > 0) {
-            write(buffer, 0, len);
-        }
+        do {
+            //read directly into packet buffer
+            ensureCapacity(8192);
+            len = is.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            if (len > 0) {
+                buffer.position(buffer.position() + len);
+            }
+        } while (len > 0);
     }
 
     /**
@@ -131,19 +198,150 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any error occur during data send to server
      */
     public void sendStream(InputStream is, long readLength) throws IOException {
-        byte[] buffer = new byte[8192];
         long remainingReadLength = readLength;
         int read;
         while (remainingReadLength > 0) {
-            read = is.read(buffer, 0, Math.min((int)remainingReadLength, 8192));
+            //read directly into packet buffer
+            ensureCapacity(8192);
+            read = is.read(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    (int) Math.min(remainingReadLength, buffer.remaining()));
             if (read == -1) {
                 return;
             }
-            write(buffer, 0, read);
+            buffer.position(buffer.position() + read);
             remainingReadLength -= read;
         }
     }
 
+    private char[] getCharBuffer() {
+        if (charBuffer == null) {
+            charBuffer = new char[8192];
+        }
+        return charBuffer;
+    }
+
+    /**
+     * Write bytes escaped for text protocol directly in packet buffer.
+     * Bytes that don't need escaping are copied by runs.
+     *
+     * @param bytes bytes to write
+     * @param offset offset of first byte to write
+     * @param len number of bytes to write
+     * @param noBackslashEscapes must backslash be escape
+     * @throws IOException if any error occur when sending streamed packets
+     */
+    public void writeEscaped(byte[] bytes, int offset, int len, boolean noBackslashEscapes) throws IOException {
+        final int end = offset + len;
+        while (offset < end) {
+            final int chunkEnd = Math.min(end, offset + 8192);
+            //escaping can at most double length
+            ensureCapacity((chunkEnd - offset) * 2);
+            final byte[] array = buffer.array();
+            int pos = buffer.arrayOffset() + buffer.position();
+            int runStart = offset;
+            for (int i = offset; i < chunkEnd; i++) {
+                final byte bit = bytes[i];
+                if (noBackslashEscapes ? bit == '\'' : (bit == '\\' || bit == '\'' || bit == '"' || bit == 0)) {
+                    System.arraycopy(bytes, runStart, array, pos, i - runStart);
+                    pos += i - runStart;
+                    array[pos++] = (byte) (noBackslashEscapes ? '\'' : '\\');
+                    array[pos++] = bit;
+                    runStart = i + 1;
+                }
+            }
+            System.arraycopy(bytes, runStart, array, pos, chunkEnd - runStart);
+            pos += chunkEnd - runStart;
+            buffer.position(pos - buffer.arrayOffset());
+            offset = chunkEnd;
+        }
+    }
+
+    /**
+     * Write String encoded in UTF-8 and escaped for text protocol directly in packet buffer, without intermediate
+     * byte array.
+     *
+     * @param str String to write
+     * @param noBackslashEscapes must backslash be escape
+     * @throws IOException if any error occur when sending streamed packets
+     */
+    public void writeEscaped(String str, boolean noBackslashEscapes) throws IOException {
+        final char[] chars = getCharBuffer();
+        final int length = str.length();
+        int position = 0;
+        while (position < length) {
+            int len = Math.min(chars.length, length - position);
+            str.getChars(position, position + len, chars, 0);
+            int written = writeEscaped(chars, 0, len, noBackslashEscapes);
+            if (written == 0) {
+                //unpaired high surrogate ending the String
+                buffer.put((byte) '?');
+                written = 1;
+            }
+            position += written;
+        }
+    }
+
+    /**
+     * Write chars encoded in UTF-8 and escaped for text protocol directly in packet buffer.
+     * A high surrogate ending the array is not written, since its low surrogate may be in next chars : caller must
+     * send it again with next chars.
+     *
+     * @param chars chars to write
+     * @param offset offset of first char to write
+     * @param len number of chars to write
+     * @param noBackslashEscapes must backslash be escape
+     * @return number of chars written
+     * @throws IOException if any error occur when sending streamed packets
+     */
+    public int writeEscaped(char[] chars, int offset, int len, boolean noBackslashEscapes) throws IOException {
+        //a char is at most 3 UTF-8 bytes (4 bytes for a surrogate pair), escaped chars are 2 bytes
+        ensureCapacity(len * 3);
+        final byte[] array = buffer.array();
+        int pos = buffer.arrayOffset() + buffer.position();
+        final int end = offset + len;
+        int index = offset;
+        while (index < end) {
+            final char car = chars[index];
+            if (car < 0x80) {
+                if (noBackslashEscapes) {
+                    if (car == '\'') {
+                        array[pos++] = '\'';
+                    }
+                } else if (car == '\\' || car == '\'' || car == '"' || car == 0) {
+                    array[pos++] = '\\';
+                }
+                array[pos++] = (byte) car;
+            } else if (car < 0x800) {
+                array[pos++] = (byte) (0xc0 | (car >> 6));
+                array[pos++] = (byte) (0x80 | (car & 0x3f));
+            } else if (Character.isHighSurrogate(car)) {
+                if (index + 1 == end) {
+                    break;
+                }
+                final char nextCar = chars[index + 1];
+                if (Character.isLowSurrogate(nextCar)) {
+                    final int codePoint = Character.toCodePoint(car, nextCar);
+                    array[pos++] = (byte) (0xf0 | (codePoint >> 18));
+                    array[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    array[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    array[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+                    index++;
+                } else {
+                    array[pos++] = '?';
+                }
+            } else if (Character.isLowSurrogate(car)) {
+                array[pos++] = '?';
+            } else {
+                array[pos++] = (byte) (0xe0 | (car >> 12));
+                array[pos++] = (byte) (0x80 | ((car >> 6) & 0x3f));
+                array[pos++] = (byte) (0x80 | (car & 0x3f));
+            }
+            index++;
+        }
+        buffer.position(pos - buffer.arrayOffset());
+        return index - offset;
+    }
+
     /**
      * Send reader stream to server.
      * @param reader reader to send
@@ -151,7 +349,7 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any error occur during data send to server
      */
     public void sendStream(java.io.Reader reader, MariaDbCharset charset) throws IOException {
-        char[] buffer = new char[8192];
+        char[] buffer = getCharBuffer();
         int len;
         while ((len = reader.read(buffer)) > 0) {
             byte[] bytes = new String(buffer, 0, len).getBytes(charset.javaIoCharsetName);
@@ -167,7 +365,7 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any error occur during data send to server
      */
     public void sendStream(java.io.Reader reader, long readLength, MariaDbCharset charset) throws IOException {
-        char[] buffer = new char[8192];
+        char[] buffer = getCharBuffer();
         long remainingReadLength = readLength;
         int read;
         while (remainingReadLength > 0) {
@@ -191,12 +389,12 @@ public class PacketOutputStream extends OutputStream {
             throw new AssertionError("Packet not started");
         }*/
         internalFlush();
+        this.streamPackets = false;
         if (buffer.capacity() > 8192) {
             //to not keep big buffer in memory
             buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
-        } else {
-            buffer.clear();
         }
+        resetBuffer();
         this.lastSeq = this.seqNo;
         this.seqNo = -1;
     }
@@ -208,8 +406,11 @@ public class PacketOutputStream extends OutputStream {
 
     @Override
     public void write(int byteInt) throws IOException {
-        byte[] byteArray = {(byte) byteInt};
-        write(byteArray);
+        if (this.seqNo == -1) {
+            throw new AssertionError("Use PacketOutputStream.startPacket() before write()");
+        }
+        ensureCapacity(1);
+        buffer.put((byte) byteInt);
     }
 
     @Override
@@ -218,6 +419,18 @@ public class PacketOutputStream extends OutputStream {
             throw new AssertionError("Use PacketOutputStream.startPacket() before write()");
         }
 
+        if (streamPackets && !useCompression) {
+            //big arrays are copied by chunk, so that full packets can be sent in between
+            while (len > 0) {
+                ensureCapacity(Math.min(len, 8192));
+                int chunk = Math.min(len, buffer.remaining());
+                buffer.put(bytes, off, chunk);
+                off += chunk;
+                len -= chunk;
+            }
+            return;
+        }
+
         while (len > buffer.remaining()) {
             int newCapacity = Math.max(len + buffer.position(), (int) (buffer.capacity() * increasing));
             increase(newCapacity);
@@ -238,13 +451,13 @@ public class PacketOutputStream extends OutputStream {
      * @return true if with this additional length stream can be send in the same stream
      */
     public boolean checkRewritableLength(int length) {
-        if (checkPacketLength && buffer.position() + length > maxRewritableLengthAllowed) {
+        if (checkPacketLength && flushedLength + buffer.position() - HEADER_LENGTH + length > maxRewritableLengthAllowed) {
             return false;
         }
         return true;
     }
 
-    private void checkPacketMaxSize(int limit) throws MaxAllowedPacketException {
+    private void checkPacketMaxSize(long limit) throws MaxAllowedPacketException {
         if (checkPacketLength
                 && maxAllowedPacket > 0
                 && limit > (maxAllowedPacket - 1)) {
@@ -255,121 +468,163 @@ public class PacketOutputStream extends OutputStream {
     }
 
     private void internalFlush() throws IOException {
-        buffer.flip();
-        int limit = buffer.limit();
+        int limit = buffer.position() - HEADER_LENGTH;
         if (limit > 0) {
-            checkPacketMaxSize(limit);
+            checkPacketMaxSize(flushedLength + limit);
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset() + HEADER_LENGTH;
 
-            byte[] bufferBytes = new byte[0];
-            int notCompressPosition = 0;
-            int expectedPacketSize = limit + HEADER_LENGTH * ((limit / maxPacketSize) + 1);
             if (useCompression) {
-                bufferBytes = new byte[expectedPacketSize];
-            }
-
-            while (notCompressPosition < expectedPacketSize) {
-                int length = buffer.remaining();
-                if (length > maxPacketSize) {
-                    length = maxPacketSize;
-                }
-                if (useCompression) {
-                    bufferBytes[notCompressPosition++] = (byte) (length & 0xff);
-                    bufferBytes[notCompressPosition++] = (byte) (length >>> 8);
-                    bufferBytes[notCompressPosition++] = (byte) (length >>> 16);
-                    bufferBytes[notCompressPosition++] = (byte) seqNo++;
+                if (limit < maxPacketSize) {
+                    //single packet : header is written in reserved space, no copy needed.
+                    writeHeader(array, offset - HEADER_LENGTH, limit);
+                    compressedAndSend(limit + HEADER_LENGTH, array, offset - HEADER_LENGTH);
                 } else {
-                    byte[] header = new byte[HEADER_LENGTH];
-                    header[0] = (byte) (length & 0xff);
-                    header[1] = (byte) (length >>> 8);
-                    header[2] = (byte) (length >>> 16);
-                    header[3] = (byte) seqNo++;
-                    outputStream.write(header);
-                    notCompressPosition += 4;
+                    byte[] bufferBytes = new byte[limit + HEADER_LENGTH * ((limit / maxPacketSize) + 1)];
+                    int notCompressPosition = 0;
+                    int remaining = limit;
+                    do {
+                        int length = Math.min(remaining, maxPacketSize);
+                        writeHeader(bufferBytes, notCompressPosition, length);
+                        System.arraycopy(array, offset, bufferBytes, notCompressPosition + HEADER_LENGTH, length);
+                        notCompressPosition += length + HEADER_LENGTH;
+                        offset += length;
+                        remaining -= length;
+                    } while (notCompressPosition < bufferBytes.length);
+                    compressedAndSend(notCompressPosition, bufferBytes, 0);
                 }
+                return;
+            }
 
-                if (length > 0) {
-                    if (useCompression) {
-                        buffer.get(bufferBytes, notCompressPosition, length);
-                        notCompressPosition += length;
-                    } else {
-                        if (buffer.hasArray()) {
-                            outputStream.write(buffer.array(), buffer.position(), length);
-                            buffer.position(buffer.position() + length);
-                        } else {
-                            bufferBytes = new byte[length];
-                            buffer.get(bufferBytes, 0, length);
-                            outputStream.write(bufferBytes, 0, length);
-                        }
-                        notCompressPosition += length;
-                        outputStream.flush();
-                    }
-                }
+            //Header of each packet is written just before packet data, in reserved space for the first packet,
+            //and for the following packets, in the end of previous packet data already send to socket.
+            //So data are never copied, even when split into multiple packets.
+            int remaining = limit;
+            int length;
+            do {
+                length = Math.min(remaining, maxPacketSize);
+                writeHeader(array, offset - HEADER_LENGTH, length);
+                outputStream.write(array, offset - HEADER_LENGTH, length + HEADER_LENGTH);
+                offset += length;
+                remaining -= length;
+            } while (remaining > 0 || length == maxPacketSize);
+            if (!holdFlush) {
+                outputStream.flush();
             }
+        }
 
+    }
 
-            if (useCompression) {
-                //now bufferBytes in filled with uncompressed data
-                compressedAndSend(notCompressPosition, bufferBytes);
-            }
+    /**
+     * Send full packets of a streamed command, keeping in buffer the last (1 to maxPacketSize) bytes, so that
+     * command end is always sent by internalFlush().
+     * Max allowed size is checked on the whole command data before each send : when exceeded after some packets are
+     * already sent, connection will have to be reset.
+     *
+     * @throws IOException if max allowed size is exceeded or any connection error occur
+     */
+    private void flushFullPackets() throws IOException {
+        int remaining = buffer.position() - HEADER_LENGTH;
+        checkPacketMaxSize(flushedLength + remaining);
+        byte[] array = buffer.array();
+        int offset = buffer.arrayOffset() + HEADER_LENGTH;
+        while (remaining > maxPacketSize) {
+            writeHeader(array, offset - HEADER_LENGTH, maxPacketSize);
+            outputStream.write(array, offset - HEADER_LENGTH, maxPacketSize + HEADER_LENGTH);
+            offset += maxPacketSize;
+            remaining -= maxPacketSize;
+            flushedLength += maxPacketSize;
         }
+        System.arraycopy(array, offset, array, buffer.arrayOffset() + HEADER_LENGTH, remaining);
+        buffer.position(HEADER_LENGTH + remaining);
+    }
 
+    private void writeHeader(byte[] array, int pos, int length) {
+        array[pos] = (byte) (length & 0xff);
+        array[pos + 1] = (byte) (length >>> 8);
+        array[pos + 2] = (byte) (length >>> 16);
+        array[pos + 3] = (byte) seqNo++;
     }
 
     /**
      * Compress datas and send them to database.
      * @param notCompressPosition notCompressPosition
      * @param bufferBytes not compressed data buffer
+     * @param offset data offset in bufferBytes
      * @throws IOException if any compression or connection error occur
      */
-    private void compressedAndSend(int notCompressPosition, byte[] bufferBytes) throws IOException {
+    private void compressedAndSend(int notCompressPosition, byte[] bufferBytes, int offset) throws IOException {
         this.seqNo = 0;
-        int position = 0;
+        int position = offset;
         int packetLength;
+        notCompressPosition += offset;
 
         while (position - notCompressPosition < 0) {
             packetLength = Math.min(notCompressPosition - position, maxPacketSize);
-            boolean compressedPacketSend = false;
+            int compressedLength = -1;
 
-            if (packetLength > MIN_COMPRESSION_SIZE) {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                DeflaterOutputStream deflater = new DeflaterOutputStream(baos);
-
-                deflater.write(bufferBytes, position, packetLength);
-                deflater.finish();
-                deflater.close();
-
-                byte[] compressedBytes = baos.toByteArray();
-                baos.close();
-
-                if (compressedBytes.length < (int) (MIN_COMPRESSION_RATIO * packetLength)) {
-
-                    int compressedLength = compressedBytes.length;
-                    writeCompressedHeader(compressedLength, packetLength, outputStream);
-                    outputStream.write(compressedBytes, 0, compressedLength);
-                    compressedPacketSend = true;
-                }
+            if (packetLength >= compressionThreshold && packetLength > 0) {
+                compressedLength = compress(bufferBytes, position, packetLength);
             }
 
-            if (!compressedPacketSend) {
+            if (compressedLength != -1) {
+                writeCompressedHeader(compressedLength, packetLength, outputStream);
+                outputStream.write(compressBuffer, 0, compressedLength);
+            } else {
                 writeCompressedHeader(packetLength, 0, outputStream);
                 outputStream.write(bufferBytes, position, packetLength);
             }
 
             position += packetLength;
-            outputStream.flush();
+            if (!holdFlush) {
+                outputStream.flush();
+            }
+        }
+        if (compressBuffer != null && compressBuffer.length > MAX_KEPT_COMPRESSION_BUFFER) {
+            //to not keep big buffer in memory
+            compressBuffer = null;
+        }
+    }
+
+    /**
+     * Compress data into compressBuffer, using a reused Deflater.
+     * Compression is stopped as soon as compressed data would not be enough smaller than initial data.
+     * @param bytes data
+     * @param off data offset
+     * @param len data length
+     * @return compressed length, or -1 if compression is not worth it
+     */
+    private int compress(byte[] bytes, int off, int len) {
+        int maxCompressedLength = (int) (MIN_COMPRESSION_RATIO * len);
+        if (compressBuffer == null || compressBuffer.length < maxCompressedLength) {
+            compressBuffer = new byte[Math.max(maxCompressedLength, 8192)];
+        }
+        if (deflater == null) {
+            deflater = new Deflater(compressionLevel);
+        } else {
+            deflater.reset();
         }
+        deflater.setInput(bytes, off, len);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength >= maxCompressedLength) {
+                return -1;
+            }
+            compressedLength += deflater.deflate(compressBuffer, compressedLength, maxCompressedLength - compressedLength);
+        }
+        return compressedLength;
     }
 
     private void writeCompressedHeader(int packetLength, int initialLength, OutputStream outputStream) throws IOException {
-        byte[] header = new byte[7];
-        header[0] = (byte) (packetLength & 0xff);
-        header[1] = (byte) ((packetLength >> 8) & 0xff);
-        header[2] = (byte) ((packetLength >> 16) & 0xff);
-        header[3] = (byte) seqNo++;
-        header[4] = (byte) (initialLength & 0xff);
-        header[5] = (byte) ((initialLength >> 8) & 0xff);
-        header[6] = (byte) ((initialLength >> 16) & 0xff);
-        outputStream.write(header);
+        compressHeader[0] = (byte) (packetLength & 0xff);
+        compressHeader[1] = (byte) ((packetLength >> 8) & 0xff);
+        compressHeader[2] = (byte) ((packetLength >> 16) & 0xff);
+        compressHeader[3] = (byte) seqNo++;
+        compressHeader[4] = (byte) (initialLength & 0xff);
+        compressHeader[5] = (byte) ((initialLength >> 8) & 0xff);
+        compressHeader[6] = (byte) ((initialLength >> 16) & 0xff);
+        outputStream.write(compressHeader);
     }
 
 
@@ -378,6 +633,10 @@ public class PacketOutputStream extends OutputStream {
     public void close() throws IOException {
         outputStream.close();
         buffer = null;
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
     }
 
     /**
@@ -402,11 +661,29 @@ public class PacketOutputStream extends OutputStream {
     public PacketOutputStream assureBufferCapacity(final int len) {
         while (len > buffer.remaining()) {
             int newCapacity = Math.max(len + buffer.position(), (int) (buffer.capacity() * increasing));
+            if (streamPackets) {
+                //streamed command buffer never need more than a full packet
+                newCapacity = Math.min(newCapacity, Math.max(len + buffer.position(), maxPacketSize + HEADER_LENGTH + len));
+            }
             increase(newCapacity);
         }
         return this;
     }
 
+    /**
+     * Ensure that the buffer remaining size permit to write a data with a size len, sending full packets first
+     * if command is streamed.
+     * @param len size of the data
+     * @throws IOException if any error occur when sending full packets
+     */
+    private void ensureCapacity(final int len) throws IOException {
+        if (len > buffer.remaining() && streamPackets && !useCompression
+                && buffer.position() - HEADER_LENGTH > maxPacketSize) {
+            flushFullPackets();
+        }
+        assureBufferCapacity(len);
+    }
+
     /**
      * Write a byte data to buffer.
      * @param theByte byte to write
@@ -547,21 +824,22 @@ public class PacketOutputStream extends OutputStream {
 
     /**
      * Write timestamp in binary format.
-     * @param calendar session calendar
+     * @param codec session time zone codec
      * @param ts timestamp to send
      * @param fractionalSeconds must fractionnal second be send to server
      * @return this
      */
-    public PacketOutputStream writeTimestampLength(final Calendar calendar, Timestamp ts, boolean fractionalSeconds) {
+    public PacketOutputStream writeTimestampLength(final TemporalCodec codec, Timestamp ts, boolean fractionalSeconds) {
         assureBufferCapacity(12);
         buffer.put((byte) 11);//length
 
-        buffer.putShort((short) calendar.get(Calendar.YEAR));
-        buffer.put((byte) ((calendar.get(Calendar.MONTH) + 1) & 0xff));
-        buffer.put((byte) (calendar.get(Calendar.DAY_OF_MONTH) & 0xff));
-        buffer.put((byte) calendar.get(Calendar.HOUR_OF_DAY));
-        buffer.put((byte) calendar.get(Calendar.MINUTE));
-        buffer.put((byte) calendar.get(Calendar.SECOND));
+        long fields = codec.toFields(ts.getTime());
+        buffer.putShort((short) TemporalCodec.getYear(fields));
+        buffer.put((byte) TemporalCodec.getMonth(fields));
+        buffer.put((byte) TemporalCodec.getDayOfMonth(fields));
+        buffer.put((byte) TemporalCodec.getHour(fields));
+        buffer.put((byte) TemporalCodec.getMinute(fields));
+        buffer.put((byte) TemporalCodec.getSecond(fields));
         if (fractionalSeconds) {
             buffer.putInt(ts.getNanos() / 1000);
         }
@@ -570,15 +848,17 @@ public class PacketOutputStream extends OutputStream {
 
     /**
      * Write date in binary format.
-     * @param calendar date
+     * @param codec time zone codec
+     * @param date date
      * @return this
      */
-    public PacketOutputStream writeDateLength(final Calendar calendar) {
+    public PacketOutputStream writeDateLength(final TemporalCodec codec, final java.util.Date date) {
         assureBufferCapacity(8);
         buffer.put((byte) 7);//length
-        buffer.putShort((short) calendar.get(Calendar.YEAR));
-        buffer.put((byte) ((calendar.get(Calendar.MONTH) + 1) & 0xff));
-        buffer.put((byte) (calendar.get(Calendar.DAY_OF_MONTH) & 0xff));
+        long fields = codec.toFields(date.getTime());
+        buffer.putShort((short) TemporalCodec.getYear(fields));
+        buffer.put((byte) TemporalCodec.getMonth(fields));
+        buffer.put((byte) TemporalCodec.getDayOfMonth(fields));
         buffer.put((byte) 0);
         buffer.put((byte) 0);
         buffer.put((byte) 0);
@@ -587,28 +867,30 @@ public class PacketOutputStream extends OutputStream {
 
     /**
      * Write time in binary format.
-     * @param calendar session calendar.
+     * @param codec time zone codec
+     * @param time time
      * @param fractionalSeconds fractional seconds must be send
      * @return this
      */
-    public PacketOutputStream writeTimeLength(final Calendar calendar, final boolean fractionalSeconds) {
+    public PacketOutputStream writeTimeLength(final TemporalCodec codec, final java.util.Date time, final boolean fractionalSeconds) {
+        long fields = codec.toFields(time.getTime());
         if (fractionalSeconds) {
             assureBufferCapacity(13);
             buffer.put((byte) 12);
             buffer.put((byte) 0);
             buffer.putInt(0);
-            buffer.put((byte) calendar.get(Calendar.HOUR_OF_DAY));
-            buffer.put((byte) calendar.get(Calendar.MINUTE));
-            buffer.put((byte) calendar.get(Calendar.SECOND));
-            buffer.putInt(calendar.get(Calendar.MILLISECOND) * 1000);
+            buffer.put((byte) TemporalCodec.getHour(fields));
+            buffer.put((byte) TemporalCodec.getMinute(fields));
+            buffer.put((byte) TemporalCodec.getSecond(fields));
+            buffer.putInt(TemporalCodec.getMillisecond(fields) * 1000);
         } else {
             assureBufferCapacity(9);
             buffer.put((byte) 8);//length
             buffer.put((byte) 0);
             buffer.putInt(0);
-            buffer.put((byte) calendar.get(Calendar.HOUR_OF_DAY));
-            buffer.put((byte) calendar.get(Calendar.MINUTE));
-            buffer.put((byte) calendar.get(Calendar.SECOND));
+            buffer.put((byte) TemporalCodec.getHour(fields));
+            buffer.put((byte) TemporalCodec.getMinute(fields));
+            buffer.put((byte) TemporalCodec.getSecond(fields));
         }
         return this;
     }
@@ -0,0 +1,190 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.stream;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * OutputStream keeping data in memory up to a threshold, then in a temporary file.
+ * Used when streamed data must be read before being sent, to know their length, without keeping big data in memory.
+ * Once written, data can be read any number of times using getInputStream() or writeTo(), until close() release
+ * them (temporary file is deleted then, or on JVM exit if never closed).
+ */
+public class SpillOutputStream extends OutputStream {
+    public static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+
+    private final int memoryThreshold;
+    private byte[] buf = new byte[1024];
+    private int count;
+    private long size;
+    private File file;
+    private OutputStream fileStream;
+
+    public SpillOutputStream() {
+        this(DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    public SpillOutputStream(int memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    @Override
+    public void write(int byteInt) throws IOException {
+        if (fileStream == null && count == buf.length) {
+            spillIfNeeded(1);
+        }
+        if (fileStream != null) {
+            fileStream.write(byteInt);
+        } else {
+            buf[count++] = (byte) byteInt;
+        }
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        if (fileStream == null && count + len > buf.length) {
+            spillIfNeeded(len);
+        }
+        if (fileStream != null) {
+            fileStream.write(bytes, off, len);
+        } else {
+            System.arraycopy(bytes, off, buf, count, len);
+            count += len;
+        }
+        size += len;
+    }
+
+    private void spillIfNeeded(int len) throws IOException {
+        if (file != null) {
+            throw new IOException("Cannot write data after they have been read");
+        }
+        if (count + len <= memoryThreshold) {
+            buf = Arrays.copyOf(buf, Math.min(memoryThreshold, Math.max(count + len, buf.length * 2)));
+            return;
+        }
+        file = File.createTempFile("mariadb-stream-", ".tmp");
+        file.deleteOnExit();
+        fileStream = new BufferedOutputStream(new FileOutputStream(file), 65536);
+        fileStream.write(buf, 0, count);
+        buf = null;
+        count = 0;
+    }
+
+    /**
+     * Number of bytes written.
+     * @return size
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Stream to read written data. No data must be written after this call.
+     * @return data stream
+     * @throws IOException if temporary file cannot be read
+     */
+    public InputStream getInputStream() throws IOException {
+        if (file == null) {
+            if (buf == null) {
+                throw new IOException("Data have been released");
+            }
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+        if (fileStream != null) {
+            fileStream.close();
+            fileStream = null;
+        }
+        return new FileInputStream(file);
+    }
+
+    /**
+     * Write all data to another stream.
+     * @param out stream to write to
+     * @throws IOException if any error occur reading temporary file or writing data
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (file == null) {
+            out.write(buf, 0, count);
+            return;
+        }
+        byte[] buffer = new byte[8192];
+        try (InputStream is = getInputStream()) {
+            int len;
+            while ((len = is.read(buffer)) > 0) {
+                out.write(buffer, 0, len);
+            }
+        }
+    }
+
+    /**
+     * Release buffered data, deleting temporary file if any.
+     */
+    @Override
+    public void close() {
+        buf = null;
+        count = 0;
+        if (fileStream != null) {
+            try {
+                fileStream.close();
+            } catch (IOException ioe) {
+                //eat exception
+            }
+            fileStream = null;
+        }
+        if (file != null) {
+            file.delete();
+            file = null;
+        }
+    }
+
+}
\ No newline at end of file
@@ -314,7 +314,110 @@ public enum DefaultOptions {
      * if allowMultiQueries or rewriteBatchedStatements is set to true, this options will be set to false.
      * default to true.
      */
-    USESERVERPREPSTMTS("useServerPrepStmts", Boolean.TRUE, "1.3.0");
+    USESERVERPREPSTMTS("useServerPrepStmts", Boolean.TRUE, "1.3.0"),
+
+    /**
+     * When using server prepared statement executeBatch(), send executions to server without waiting for each
+     * result (results are read afterward, in order).
+     * default to true.
+     */
+    USEBATCHMULTISEND("useBatchMultiSend", Boolean.TRUE, "1.4.0"),
+
+    /**
+     * When using useBatchMultiSend, maximum number of executions sent to server before reading the first result.
+     * default to 100.
+     */
+    USEBATCHMULTISENDNUMBER("useBatchMultiSendNumber", new Integer(100), new Integer(1), Integer.MAX_VALUE, "1.4.0"),
+
+    /**
+     * When using server prepared statement with a fetch size > 0, execute query with a read only server cursor,
+     * fetching "fetch size" rows per round trip (result set is then forward only).
+     * default to false.
+     */
+    USECURSORFETCH("useCursorFetch", Boolean.FALSE, "1.4.0"),
+
+    /**
+     * When using compression (option useCompression), deflate compression level, from 0 (no compression) to 9 (best
+     * compression). Lower levels use less CPU.
+     * default to 6.
+     */
+    COMPRESSIONLEVEL("compressionLevel", new Integer(6), new Integer(0), new Integer(9), "1.4.0"),
+
+    /**
+     * When using compression (option useCompression), packets smaller than this size (in bytes) are sent uncompressed.
+     * default to 16384.
+     */
+    COMPRESSIONTHRESHOLD("compressionThreshold", new Integer(16384), new Integer(0), Integer.MAX_VALUE, "1.4.0"),
+
+    /**
+     * Use a socket channel, so results of asynchronous queries (Statement executeQueryAsync / executeUpdateAsync)
+     * are awaited without blocking a thread. Not used with pipe, localSocket, sharedMemory or socketFactory options.
+     * default to false.
+     */
+    USENIOENGINE("useNioEngine", Boolean.FALSE, "1.4.0"),
+
+    /**
+     * Answer getTransactionIsolation() and getCatalog() from the driver's cached session state instead of querying
+     * the server, even when the server does not send session state change notifications.
+     * default to false.
+     */
+    USELOCALSESSIONSTATE("useLocalSessionState", Boolean.FALSE, "1.4.0"),
+
+    /**
+     * Server prepared statements batch of INSERT ... VALUES (...) are executed as multi-row INSERT prepared statements
+     * (chunked according to max_allowed_packet). Server prepared statements are then used even if rewriteBatchedStatements is set.
+     * default to false.
+     */
+    USEBULKSTMTS("useBulkStmts", Boolean.FALSE, "1.4.0"),
+
+    /**
+     * When in multiple hosts, strategy to choose between not blacklisted hosts :
+     * random, leastLatency, leastOutstanding, weighted, or the class name of a HostSelectionStrategy implementation.
+     * default to random.
+     */
+    LOAD_BALANCE_STRATEGY("loadBalanceStrategy", "1.4.0"),
+
+    /**
+     * host=weight pairs separated by comma, relative weight of hosts when loadBalanceStrategy is weighted.
+     * Hosts not listed have a weight of 1.
+     */
+    LOAD_BALANCE_WEIGHTS("loadBalanceWeights", "1.4.0"),
+
+    /**
+     * When in multiple hosts, replicas with a replication lag (Seconds_Behind_Master) greater than this value in seconds
+     * are only used if no other replica is available. 0 to disable. default to 0.
+     */
+    MAX_REPLICATION_LAG("maxReplicationLag", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.4.0"),
+
+    /**
+     * With MariaDbDataSource, use a built-in connection pool : physical connections are reused when connections are closed.
+     */
+    POOL("pool", Boolean.FALSE, "1.4.0"),
+
+    /**
+     * When using pool, maximum number of physical connections. default to 8.
+     */
+    MAX_POOL_SIZE("maxPoolSize", new Integer(8), new Integer(1), Integer.MAX_VALUE, "1.4.0"),
+
+    /**
+     * When using pool, number of physical connections kept open even when not used. default to 0.
+     */
+    MIN_POOL_SIZE("minPoolSize", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.4.0"),
+
+    /**
+     * When using pool, idle connections above minPoolSize are closed after this time in seconds. default to 600.
+     */
+    MAX_IDLE_TIME("maxIdleTime", new Integer(600), new Integer(1), Integer.MAX_VALUE, "1.4.0"),
+
+    /**
+     * When using pool, idle connections are validated (COM_PING) in background every this time in seconds. default to 30.
+     */
+    POOL_VALIDATION_INTERVAL("poolValidationInterval", new Integer(30), new Integer(1), Integer.MAX_VALUE, "1.4.0"),
+
+    /**
+     * When using pool, reset connection state with COM_RESET_CONNECTION when a connection is returned to the pool.
+     */
+    USE_RESET_CONNECTION("useResetConnection", Boolean.FALSE, "1.4.0");
 
 
     protected final String name;
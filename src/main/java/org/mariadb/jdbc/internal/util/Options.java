@@ -93,6 +93,14 @@ public class Options {
     public boolean maximizeMysqlCompatibility;
     public boolean alwaysAutoGeneratedKeys;
     public boolean useServerPrepStmts;
+    public boolean useBatchMultiSend;
+    public int useBatchMultiSendNumber;
+    public boolean useCursorFetch;
+    public int compressionLevel;
+    public int compressionThreshold;
+    public boolean useNioEngine;
+    public boolean useLocalSessionState;
+    public boolean useBulkStmts;
 
     //HA options
     public boolean assureReadOnly;
@@ -103,6 +111,15 @@ public class Options {
     public int retriesAllDown;
     public int validConnectionTimeout;
     public int loadBalanceBlacklistTimeout;
+    public String loadBalanceStrategy;
+    public String loadBalanceWeights;
+    public int maxReplicationLag;
+    public boolean pool;
+    public int maxPoolSize;
+    public int minPoolSize;
+    public int maxIdleTime;
+    public int poolValidationInterval;
+    public boolean useResetConnection;
     public int failoverLoopRetries;
 
     @Override
@@ -151,9 +168,26 @@ public class Options {
                 + ", retriesAllDown=" + retriesAllDown
                 + ", validConnectionTimeout=" + validConnectionTimeout
                 + ", loadBalanceBlacklistTimeout=" + loadBalanceBlacklistTimeout
+                + ", loadBalanceStrategy=" + loadBalanceStrategy
+                + ", loadBalanceWeights=" + loadBalanceWeights
+                + ", maxReplicationLag=" + maxReplicationLag
+                + ", pool=" + pool
+                + ", maxPoolSize=" + maxPoolSize
+                + ", minPoolSize=" + minPoolSize
+                + ", maxIdleTime=" + maxIdleTime
+                + ", poolValidationInterval=" + poolValidationInterval
+                + ", useResetConnection=" + useResetConnection
                 + ", failoverLoopRetries=" + failoverLoopRetries
                 + ", useLegacyDatetimeCode=" + useLegacyDatetimeCode
                 + ", maximizeMysqlCompatibility=" + maximizeMysqlCompatibility
+                + ", useBatchMultiSend=" + useBatchMultiSend
+                + ", useBatchMultiSendNumber=" + useBatchMultiSendNumber
+                + ", useCursorFetch=" + useCursorFetch
+                + ", compressionLevel=" + compressionLevel
+                + ", compressionThreshold=" + compressionThreshold
+                + ", useNioEngine=" + useNioEngine
+                + ", useLocalSessionState=" + useLocalSessionState
+                + ", useBulkStmts=" + useBulkStmts
                 + "}";
     }
 
@@ -238,6 +272,30 @@ public class Options {
         if (useServerPrepStmts != options.useServerPrepStmts) {
             return false;
         }
+        if (useBatchMultiSend != options.useBatchMultiSend) {
+            return false;
+        }
+        if (useBatchMultiSendNumber != options.useBatchMultiSendNumber) {
+            return false;
+        }
+        if (useCursorFetch != options.useCursorFetch) {
+            return false;
+        }
+        if (compressionLevel != options.compressionLevel) {
+            return false;
+        }
+        if (compressionThreshold != options.compressionThreshold) {
+            return false;
+        }
+        if (useNioEngine != options.useNioEngine) {
+            return false;
+        }
+        if (useLocalSessionState != options.useLocalSessionState) {
+            return false;
+        }
+        if (useBulkStmts != options.useBulkStmts) {
+            return false;
+        }
         if (assureReadOnly != options.assureReadOnly) {
             return false;
         }
@@ -262,6 +320,33 @@ public class Options {
         if (loadBalanceBlacklistTimeout != options.loadBalanceBlacklistTimeout) {
             return false;
         }
+        if (loadBalanceStrategy != null ? !loadBalanceStrategy.equals(options.loadBalanceStrategy) : options.loadBalanceStrategy != null) {
+            return false;
+        }
+        if (loadBalanceWeights != null ? !loadBalanceWeights.equals(options.loadBalanceWeights) : options.loadBalanceWeights != null) {
+            return false;
+        }
+        if (maxReplicationLag != options.maxReplicationLag) {
+            return false;
+        }
+        if (pool != options.pool) {
+            return false;
+        }
+        if (maxPoolSize != options.maxPoolSize) {
+            return false;
+        }
+        if (minPoolSize != options.minPoolSize) {
+            return false;
+        }
+        if (maxIdleTime != options.maxIdleTime) {
+            return false;
+        }
+        if (poolValidationInterval != options.poolValidationInterval) {
+            return false;
+        }
+        if (useResetConnection != options.useResetConnection) {
+            return false;
+        }
         if (failoverLoopRetries != options.failoverLoopRetries) {
             return false;
         }
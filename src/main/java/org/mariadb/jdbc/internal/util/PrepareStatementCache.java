@@ -49,39 +49,167 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc.internal.util;
 
+import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server prepared statement cache, shared by all statements of a connection.
+ *
+ * <p>Cache is lock-free : entries are kept in a ConcurrentHashMap, and eviction use a "second chance" algorithm
+ * (approximation of LRU) : entries are queued in insertion order, and an entry used since last eviction pass is
+ * re-queued instead of being evicted.</p>
+ *
+ * <p>Cache own a use of every cached PrepareResult (see PrepareResult.addUse()). Server statement is closed
+ * (COM_STMT_CLOSE) when the last use is released, either by statement close or by cache eviction.</p>
+ */
+public class PrepareStatementCache {
+    private final int maxSize;
+    private final Protocol protocol;
+    private final ConcurrentHashMap<String, CacheEntry> cache;
+    private final ConcurrentLinkedQueue<CacheEntry> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private PrepareStatementCache(int size, Protocol protocol) {
+        this.maxSize = size;
+        this.protocol = protocol;
+        this.cache = new ConcurrentHashMap<>(size, .75f);
+    }
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+    public static PrepareStatementCache newInstance(int size, Protocol protocol) {
+        return new PrepareStatementCache(size, protocol);
+    }
 
-public class PrepareStatementCache extends LinkedHashMap<String, PrepareResult> {
-    private int maxSize;
+    /**
+     * Get cached prepare result for this sql, adding a use to it.
+     * @param sql sql
+     * @return cached PrepareResult, or null if not cached.
+     */
+    public PrepareResult acquire(String sql) {
+        CacheEntry entry = cache.get(sql);
+        if (entry != null && entry.prepareResult.addUse()) {
+            entry.referenced = true;
+            hits.incrementAndGet();
+            return entry.prepareResult;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
 
-    private PrepareStatementCache(int size) {
-        super(size, .75f, true);
-        maxSize = size;
+    /**
+     * Add prepared statement to cache. Cache will then own a use of this PrepareResult.
+     * If cache size exceed maximum size, less recently used entries are evicted.
+     * @param sql sql
+     * @param prepareResult prepareResult
+     * @return true if PrepareResult has been cached, false if a PrepareResult was already cached for this sql.
+     */
+    public boolean put(String sql, PrepareResult prepareResult) {
+        if (!prepareResult.addUse()) {
+            return false;
+        }
+        CacheEntry entry = new CacheEntry(sql, prepareResult);
+        if (cache.putIfAbsent(sql, entry) != null) {
+            prepareResult.removeUse();
+            return false;
+        }
+        evictionQueue.offer(entry);
+        if (size.incrementAndGet() > maxSize) {
+            evict();
+        }
+        return true;
     }
 
-    public static PrepareStatementCache newInstance(int size) {
-        return new PrepareStatementCache(size);
+    private void evict() {
+        CacheEntry entry;
+        while (size.get() > maxSize && (entry = evictionQueue.poll()) != null) {
+            if (cache.get(entry.sql) != entry) {
+                //entry already removed
+                continue;
+            }
+            if (entry.referenced) {
+                //second chance
+                entry.referenced = false;
+                evictionQueue.offer(entry);
+                continue;
+            }
+            if (cache.remove(entry.sql, entry)) {
+                size.decrementAndGet();
+                evictions.incrementAndGet();
+                release(entry.prepareResult);
+            }
+        }
     }
 
     /**
-     * Add prepared statement to cache.
-     * @param key sql
-     * @param value prepareResult
-     * @return PrepareResult to avoid to prepare statement.
+     * Release a use of this PrepareResult, closing server statement if not used anymore.
+     * @param prepareResult prepareResult
      */
-    public PrepareResult putIfNone(String key, PrepareResult value) {
-        if (!containsKey(key)) {
-            put(key, value);
+    private void release(PrepareResult prepareResult) {
+        if (prepareResult.removeUse()) {
+            try {
+                protocol.closePreparedStatement(prepareResult.statementId);
+            } catch (QueryException e) {
+                //connection error, statement will be closed by server
+            }
         }
-        return value;
     }
 
-    @Override
-    protected boolean removeEldestEntry(Map.Entry<String, PrepareResult> eldest) {
-        return this.size() > maxSize;
+    /**
+     * Get cached PrepareResult, without changing usage statistics.
+     * @param sql sql
+     * @return cached PrepareResult, or null if not cached.
+     */
+    public PrepareResult get(String sql) {
+        CacheEntry entry = cache.get(sql);
+        return (entry != null) ? entry.prepareResult : null;
+    }
+
+    public boolean containsKey(String sql) {
+        return cache.containsKey(sql);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Empty cache, without closing server statements (used when connection is closing).
+     */
+    public void clear() {
+        cache.clear();
+        evictionQueue.clear();
+        size.set(0);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private static class CacheEntry {
+        private final String sql;
+        private final PrepareResult prepareResult;
+        private volatile boolean referenced;
+
+        CacheEntry(String sql, PrepareResult prepareResult) {
+            this.sql = sql;
+            this.prepareResult = prepareResult;
+        }
     }
 
 }
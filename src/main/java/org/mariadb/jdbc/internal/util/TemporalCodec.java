@@ -0,0 +1,300 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Conversion between local date-time fields and epoch milliseconds for a time zone, without Calendar.
+ * <p>
+ * Dates are computed with epoch-day arithmetic. Time zone offsets are cached by local day in a small table :
+ * a day is computed directly when the zone offset doesn't change around it. Days with an offset transition
+ * (daylight saving time change), dates before the gregorian calendar (1583) and non gregorian calendars use
+ * Calendar, to keep exactly the same results.
+ * </p>
+ */
+public final class TemporalCodec {
+    public static final long MILLIS_PER_DAY = 86400000L;
+
+    private static final ConcurrentMap<TimeZone, TemporalCodec> codecs = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_CODECS = 64;
+    private static volatile TemporalCodec lastCodec;
+
+    //1583-01-01 : first full year of gregorian calendar
+    private static final long GREGORIAN_EPOCH_DAY = toEpochDay(1583, 1, 1);
+    private static final int OFFSET_CACHE_SIZE = 512;
+    private static final int TRANSITION = Integer.MIN_VALUE;
+
+    private final TimeZone timeZone;
+    private final Calendar calendar;
+    private final boolean calendarOnly;
+    private final DayOffset[] dayOffsets = new DayOffset[OFFSET_CACHE_SIZE];
+
+    private static final class DayOffset {
+        private final long epochDay;
+        private final int offset;
+
+        private DayOffset(long epochDay, int offset) {
+            this.epochDay = epochDay;
+            this.offset = offset;
+        }
+    }
+
+    private TemporalCodec(TimeZone timeZone, Calendar calendar, boolean calendarOnly) {
+        this.timeZone = timeZone;
+        this.calendar = calendar;
+        this.calendarOnly = calendarOnly;
+    }
+
+    /**
+     * Get codec for a time zone. Codecs are shared, so offset tables are only computed once.
+     *
+     * @param timeZone time zone
+     * @return codec
+     */
+    public static TemporalCodec getInstance(TimeZone timeZone) {
+        TemporalCodec codec = lastCodec;
+        if (codec != null && codec.timeZone == timeZone) {
+            return codec;
+        }
+        codec = codecs.get(timeZone);
+        if (codec == null) {
+            if (codecs.size() >= MAX_CACHED_CODECS) {
+                codecs.clear();
+            }
+            codec = new TemporalCodec(timeZone, new GregorianCalendar(timeZone), false);
+            TemporalCodec previous = codecs.putIfAbsent(timeZone, codec);
+            if (previous != null) {
+                codec = previous;
+            }
+        }
+        lastCodec = codec;
+        return codec;
+    }
+
+    /**
+     * Get codec corresponding to a calendar.
+     * Non gregorian calendars (like buddhist calendar) get a codec that always use this calendar.
+     *
+     * @param cal calendar. null means JVM default time zone.
+     * @return codec
+     */
+    public static TemporalCodec getInstance(Calendar cal) {
+        if (cal == null) {
+            return getDefault();
+        }
+        if (cal.getClass() != GregorianCalendar.class) {
+            return new TemporalCodec(cal.getTimeZone(), cal, true);
+        }
+        return getInstance(cal.getTimeZone());
+    }
+
+    /**
+     * Get codec of current JVM default time zone.
+     * @return codec
+     */
+    public static TemporalCodec getDefault() {
+        return getInstance(TimeZone.getDefault());
+    }
+
+    /**
+     * Convert local date-time to epoch milliseconds, with the same leniency than Calendar (like hour = 25 or
+     * negative values).
+     *
+     * @param year year
+     * @param month month (1 - 12)
+     * @param day day of month
+     * @param hour hour of day
+     * @param minutes minutes
+     * @param seconds seconds
+     * @param millis milliseconds
+     * @return milliseconds since epoch
+     */
+    public long toEpochMillis(int year, int month, int day, int hour, int minutes, int seconds, int millis) {
+        if (!calendarOnly && month >= 1 && month <= 12) {
+            long localMillis = toEpochDay(year, month, day) * MILLIS_PER_DAY
+                    + hour * 3600000L + minutes * 60000L + seconds * 1000L + millis;
+            int offset = getOffset(floorDiv(localMillis, MILLIS_PER_DAY));
+            if (offset != TRANSITION) {
+                return localMillis - offset;
+            }
+        }
+        synchronized (calendar) {
+            calendar.clear();
+            calendar.set(year, month - 1, day, hour, minutes, seconds);
+            calendar.set(Calendar.MILLISECOND, millis);
+            return calendar.getTimeInMillis();
+        }
+    }
+
+    /**
+     * Convert epoch milliseconds to local date-time fields in this time zone, packed in a long.
+     * Fields are then extracted with {@link #getYear(long)}, {@link #getMonth(long)}, ...
+     *
+     * @param epochMillis milliseconds since epoch
+     * @return packed local fields
+     */
+    public long toFields(long epochMillis) {
+        if (!calendarOnly && epochMillis >= GREGORIAN_EPOCH_DAY * MILLIS_PER_DAY + MILLIS_PER_DAY) {
+            long localMillis = epochMillis + timeZone.getOffset(epochMillis);
+            long days = floorDiv(localMillis, MILLIS_PER_DAY) + 719468;
+            long era = floorDiv(days, 146097);
+            long dayOfEra = days - era * 146097;
+            long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+            long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            long monthShift = (5 * dayOfYear + 2) / 153;
+            int day = (int) (dayOfYear - (153 * monthShift + 2) / 5 + 1);
+            int month = (int) ((monthShift < 10) ? monthShift + 3 : monthShift - 9);
+            long year = yearOfEra + era * 400 + ((month <= 2) ? 1 : 0);
+            long millisOfDay = localMillis - floorDiv(localMillis, MILLIS_PER_DAY) * MILLIS_PER_DAY;
+            return pack((int) year, month, day, (int) (millisOfDay / 3600000), (int) (millisOfDay / 60000 % 60),
+                    (int) (millisOfDay / 1000 % 60), (int) (millisOfDay % 1000));
+        }
+        synchronized (calendar) {
+            calendar.setTimeInMillis(epochMillis);
+            return pack(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH),
+                    calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE), calendar.get(Calendar.SECOND),
+                    calendar.get(Calendar.MILLISECOND));
+        }
+    }
+
+    private static long pack(int year, int month, int day, int hour, int minutes, int seconds, int millis) {
+        return ((long) year << 36) | ((long) month << 32) | ((long) day << 27) | ((long) hour << 22)
+                | ((long) minutes << 16) | ((long) seconds << 10) | millis;
+    }
+
+    /**
+     * Get year from packed fields.
+     * @param fields packed fields, see {@link #toFields(long)}
+     * @return year
+     */
+    public static int getYear(long fields) {
+        return (int) (fields >> 36);
+    }
+
+    public static int getMonth(long fields) {
+        return (int) ((fields >>> 32) & 0xf);
+    }
+
+    public static int getDayOfMonth(long fields) {
+        return (int) ((fields >>> 27) & 0x1f);
+    }
+
+    public static int getHour(long fields) {
+        return (int) ((fields >>> 22) & 0x1f);
+    }
+
+    public static int getMinute(long fields) {
+        return (int) ((fields >>> 16) & 0x3f);
+    }
+
+    public static int getSecond(long fields) {
+        return (int) ((fields >>> 10) & 0x3f);
+    }
+
+    public static int getMillisecond(long fields) {
+        return (int) (fields & 0x3ff);
+    }
+
+    /**
+     * Zone offset of a local day, or TRANSITION if offset change near this day.
+     * @param epochDay local day
+     * @return zone offset in milliseconds
+     */
+    private int getOffset(long epochDay) {
+        if (epochDay < GREGORIAN_EPOCH_DAY) {
+            return TRANSITION;
+        }
+        int index = (int) (epochDay & (OFFSET_CACHE_SIZE - 1));
+        DayOffset dayOffset = dayOffsets[index];
+        if (dayOffset == null || dayOffset.epochDay != epochDay) {
+            long dayStart = epochDay * MILLIS_PER_DAY;
+            //offsets are less than one day : every instant of this local day is in [dayStart - 1 day, dayStart + 2 days[
+            int offset = timeZone.getOffset(dayStart - MILLIS_PER_DAY);
+            if (offset != timeZone.getOffset(dayStart + MILLIS_PER_DAY / 2)
+                    || offset != timeZone.getOffset(dayStart + 2 * MILLIS_PER_DAY)) {
+                offset = TRANSITION;
+            }
+            dayOffset = new DayOffset(epochDay, offset);
+            dayOffsets[index] = dayOffset;
+        }
+        return dayOffset.offset;
+    }
+
+    /**
+     * Number of days since 1970-01-01 in proleptic gregorian calendar. Day is lenient.
+     *
+     * @param year year
+     * @param month month (1 - 12)
+     * @param day day of month
+     * @return epoch day
+     */
+    public static long toEpochDay(int year, int month, int day) {
+        long yearShift = (month <= 2) ? year - 1 : year;
+        long era = floorDiv(yearShift, 400);
+        long yearOfEra = yearShift - era * 400;
+        long dayOfYear = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static long floorDiv(long value, long divisor) {
+        long result = value / divisor;
+        if ((value % divisor != 0) && ((value < 0) != (divisor < 0))) {
+            result--;
+        }
+        return result;
+    }
+}
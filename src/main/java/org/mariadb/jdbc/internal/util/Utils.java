@@ -66,6 +66,7 @@ import javax.net.SocketFactory;
 import java.io.IOException;
 import java.lang.reflect.Proxy;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
@@ -634,6 +635,9 @@ public class Utils {
             } catch (RuntimeException re) {
                 throw new IOException(re.getMessage(), re.getCause());
             }
+        } else if (urlParser.getOptions().useNioEngine && urlParser.getOptions().socketFactory == null) {
+            //socket with channel, permitting to wait for asynchronous results without blocking a thread
+            return SocketChannel.open().socket();
         } else {
             SocketFactory socketFactory;
             String socketFactoryName = urlParser.getOptions().socketFactory;
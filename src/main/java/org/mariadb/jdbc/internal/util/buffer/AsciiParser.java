@@ -0,0 +1,283 @@
+package org.mariadb.jdbc.internal.util.buffer;
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parse text protocol values directly from raw ASCII bytes, without creating intermediate String.
+ * Uncommon formats fall back to standard java parsing.
+ */
+public final class AsciiParser {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+
+    private AsciiParser() {
+
+    }
+
+    /**
+     * Parse integer value "[-+]digits". Decimal values with only zero in decimal part (like "1.000") are accepted,
+     * since this can be the case when retrieving an integer from a database decimal value.
+     *
+     * @param buf    buffer
+     * @param off    value offset in buffer
+     * @param len    value length
+     * @return long value
+     * @throws NumberFormatException if value is not an integer, or isn't in long range
+     */
+    public static long parseLong(byte[] buf, int off, int len) {
+        int pos = off;
+        final int end = off + len;
+        boolean negate = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negate = buf[pos] == '-';
+            pos++;
+        }
+        final int digitStart = pos;
+        if (digitStart == end) {
+            throw numberFormatException(buf, off, len);
+        }
+
+        //accumulating negatively, like Long.parseLong(), to handle Long.MIN_VALUE
+        final long limit = negate ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; pos < end; pos++) {
+            int digit = buf[pos] - '0';
+            if (digit < 0 || digit > 9) {
+                if (buf[pos] == '.' && pos > digitStart && isZeroDecimalPart(buf, pos + 1, end)) {
+                    break;
+                }
+                throw numberFormatException(buf, off, len);
+            }
+            if (result < multiplyLimit) {
+                throw numberFormatException(buf, off, len);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(buf, off, len);
+            }
+            result -= digit;
+        }
+        return negate ? result : -result;
+    }
+
+    private static boolean isZeroDecimalPart(byte[] buf, int pos, int end) {
+        if (pos == end) {
+            return false;
+        }
+        for (; pos < end; pos++) {
+            if (buf[pos] != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse unsigned digits, for fixed size date/time fields.
+     *
+     * @param buf    buffer
+     * @param off    value offset in buffer
+     * @param len    number of digits
+     * @return int value
+     * @throws NumberFormatException if a character is not a digit
+     */
+    public static int parseDigits(byte[] buf, int off, int len) {
+        int result = 0;
+        for (int pos = off; pos < off + len; pos++) {
+            int digit = buf[pos] - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormatException(buf, off, len);
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Parse double value.
+     * When mantissa and power of ten can be exactly represented as double, result is computed directly with a single
+     * correctly rounded operation. Other values are parsed by Double.parseDouble().
+     *
+     * @param buf    buffer
+     * @param off    value offset in buffer
+     * @param len    value length
+     * @return double value
+     * @throws NumberFormatException if value is not a valid double representation
+     */
+    public static double parseDouble(byte[] buf, int off, int len) {
+        int pos = off;
+        final int end = off + len;
+        boolean negate = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negate = buf[pos] == '-';
+            pos++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean decimalPart = false;
+        for (; pos < end; pos++) {
+            byte current = buf[pos];
+            if (current >= '0' && current <= '9') {
+                digits++;
+                if (mantissa != 0 || current != '0') {
+                    if (++significantDigits > 18) {
+                        return Double.parseDouble(new String(buf, off, len, StandardCharsets.UTF_8));
+                    }
+                    mantissa = mantissa * 10 + (current - '0');
+                }
+                if (decimalPart) {
+                    exponent--;
+                }
+            } else if (current == '.' && !decimalPart) {
+                decimalPart = true;
+            } else {
+                break;
+            }
+        }
+
+        if (pos < end) {
+            if (digits == 0 || (buf[pos] != 'e' && buf[pos] != 'E')) {
+                return Double.parseDouble(new String(buf, off, len, StandardCharsets.UTF_8));
+            }
+            pos++;
+            boolean negateExponent = false;
+            if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+                negateExponent = buf[pos] == '-';
+                pos++;
+            }
+            if (pos == end || end - pos > 3) {
+                return Double.parseDouble(new String(buf, off, len, StandardCharsets.UTF_8));
+            }
+            int exponentValue = 0;
+            for (; pos < end; pos++) {
+                int digit = buf[pos] - '0';
+                if (digit < 0 || digit > 9) {
+                    return Double.parseDouble(new String(buf, off, len, StandardCharsets.UTF_8));
+                }
+                exponentValue = exponentValue * 10 + digit;
+            }
+            exponent += negateExponent ? -exponentValue : exponentValue;
+        }
+
+        if (digits == 0) {
+            throw numberFormatException(buf, off, len);
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        } else if (mantissa <= MAX_EXACT_DOUBLE_MANTISSA && exponent >= -22 && exponent <= 22) {
+            value = (exponent < 0) ? (double) mantissa / POWERS_OF_TEN[-exponent] : (double) mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            return Double.parseDouble(new String(buf, off, len, StandardCharsets.UTF_8));
+        }
+        return negate ? -value : value;
+    }
+
+    /**
+     * Parse decimal value.
+     * Values with less than 19 digits are created from unscaled long value.
+     *
+     * @param buf    buffer
+     * @param off    value offset in buffer
+     * @param len    value length
+     * @return BigDecimal value
+     * @throws NumberFormatException if value is not a valid decimal representation
+     */
+    public static BigDecimal parseBigDecimal(byte[] buf, int off, int len) {
+        int pos = off;
+        final int end = off + len;
+        boolean negate = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negate = buf[pos] == '-';
+            pos++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean decimalPart = false;
+        for (; pos < end; pos++) {
+            byte current = buf[pos];
+            if (current >= '0' && current <= '9') {
+                if (++digits > 18) {
+                    return new BigDecimal(new String(buf, off, len, StandardCharsets.UTF_8));
+                }
+                unscaled = unscaled * 10 + (current - '0');
+                if (decimalPart) {
+                    scale++;
+                }
+            } else if (current == '.' && !decimalPart) {
+                decimalPart = true;
+            } else {
+                //exponent or invalid value
+                return new BigDecimal(new String(buf, off, len, StandardCharsets.UTF_8));
+            }
+        }
+        if (digits == 0) {
+            throw numberFormatException(buf, off, len);
+        }
+        return BigDecimal.valueOf(negate ? -unscaled : unscaled, scale);
+    }
+
+    private static NumberFormatException numberFormatException(byte[] buf, int off, int len) {
+        return new NumberFormatException("For input string: \"" + new String(buf, off, len, StandardCharsets.UTF_8) + "\"");
+    }
+}
@@ -60,4 +60,6 @@ public class ServerStatus {
     public static short DB_DROPPED = 256;
     public static short NO_BACKSLASH_ESCAPES = 512;
     public static short QUERY_WAS_SLOW = 1024;
+    public static short PS_OUT_PARAMETERS = 4096;
+    public static short SESSION_STATE_CHANGED = 16384;
 }
@@ -50,12 +50,19 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.util.dao;
 
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.packet.result.BinaryRowDecoder;
+import org.mariadb.jdbc.internal.queryresults.ColumnNameMap;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PrepareResult {
     public int statementId;
     public ColumnInformation[] columns;
     public ColumnInformation[] parameters;
-    private int useTime = 1;
+    private final AtomicInteger useTime = new AtomicInteger(1);
+    private volatile BinaryRowDecoder rowDecoder;
+    private volatile ColumnNameMap columnNameMap;
+    private volatile Object cursorOwner;
 
     /**
      * PrepareStatement Result object.
@@ -69,20 +76,82 @@ public class PrepareResult {
         this.parameters = parameters;
     }
 
-    public synchronized void addUse() {
-        useTime++;
+    /**
+     * Add a use to this prepared statement.
+     * @return false if statement is already released (and must not be used anymore)
+     */
+    public boolean addUse() {
+        for (;;) {
+            int current = useTime.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (useTime.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a use of this prepared statement.
+     * @return true if statement is not used anymore and server statement has to be closed.
+     */
+    public boolean removeUse() {
+        return useTime.decrementAndGet() == 0;
+    }
+
+    /**
+     * Get decoding plan of binary result rows. Plan is computed for the first result, and reused for next executions
+     * as long as result columns have the same types.
+     * @param columns result set columns information
+     * @return row decoder
+     */
+    public BinaryRowDecoder getRowDecoder(ColumnInformation[] columns) {
+        BinaryRowDecoder decoder = rowDecoder;
+        if (decoder == null || !decoder.isCompatible(columns)) {
+            decoder = new BinaryRowDecoder(columns);
+            rowDecoder = decoder;
+        }
+        return decoder;
+    }
+
+    /**
+     * Get column index by name for result columns. Index is shared by all results having the current columns.
+     * @param columns result set columns information
+     * @return column name map
+     */
+    public ColumnNameMap getColumnNameMap(ColumnInformation[] columns) {
+        if (columns != this.columns) {
+            //not the result of this statement execution (like additional results of a stored procedure)
+            return new ColumnNameMap(columns);
+        }
+        ColumnNameMap map = columnNameMap;
+        if (map == null || !map.isSameColumns(columns)) {
+            map = new ColumnNameMap(columns);
+            columnNameMap = map;
+        }
+        return map;
+    }
+
+    /**
+     * Set result set that owns the server cursor of this statement. Server has only one cursor by statement id :
+     * a new execution closes cursor of previous one.
+     * @param cursorOwner cursor result set, or null if no cursor is open
+     */
+    public void setCursorOwner(Object cursorOwner) {
+        this.cursorOwner = cursorOwner;
     }
 
-    public synchronized void removeUse() {
-        useTime--;
+    public boolean isCursorOwner(Object result) {
+        return cursorOwner == result;
     }
 
-    public synchronized boolean hasToBeClose() {
-        return useTime <= 0;
+    public boolean hasToBeClose() {
+        return useTime.get() <= 0;
     }
 
     //for test unit
-    public synchronized int getUseTime() {
-        return useTime;
+    public int getUseTime() {
+        return useTime.get();
     }
 }
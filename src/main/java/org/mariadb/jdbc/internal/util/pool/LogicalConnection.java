@@ -0,0 +1,184 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.pool;
+
+import org.mariadb.jdbc.MariaDbConnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection handle lent by the pool, for one borrow.
+ *
+ * <p>Closing the handle closes the statements (and their result sets) created with it, then returns the physical
+ * connection to the pool. The handle is then invalid : isClosed() is true and other methods throw an exception, so
+ * a borrower keeping a reference cannot use a connection that has been lent to another thread.</p>
+ *
+ * <p>Statements and database metadata created through the handle return it in getConnection(). Physical connection
+ * can be obtained using unwrap() while handle is open : closing it then closes the handle.</p>
+ */
+class LogicalConnection implements InvocationHandler {
+    //closed statements are purged when this number of statements is reached
+    private static final int PURGE_THRESHOLD = 64;
+
+    private final MariaDbConnection connection;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final List<Statement> statements = new ArrayList<>();
+    private Connection proxy;
+
+    private LogicalConnection(MariaDbConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Create a new handle on a physical connection.
+     * @param connection physical connection
+     * @return connection handle
+     */
+    static Connection newInstance(MariaDbConnection connection) {
+        LogicalConnection logicalConnection = new LogicalConnection(connection);
+        logicalConnection.proxy = (Connection) Proxy.newProxyInstance(LogicalConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, logicalConnection);
+        connection.setConnectionHandle(logicalConnection.proxy);
+        return logicalConnection.proxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                close();
+                return null;
+            case "isClosed":
+                return closed.get() || connection.isClosed();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "LogicalConnection{" + (closed.get() ? "closed" : connection.toString()) + "}";
+            case "isValid":
+                if (closed.get()) {
+                    return false;
+                }
+                break;
+            case "unwrap":
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return proxy;
+                }
+                break;
+            case "isWrapperFor":
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return true;
+                }
+                break;
+            default:
+                break;
+        }
+        if (closed.get()) {
+            throw new SQLException(method.getName() + "() is called on closed connection", "08003");
+        }
+        try {
+            Object result = method.invoke(connection, args);
+            if (result instanceof Statement) {
+                register((Statement) result);
+            }
+            return result;
+        } catch (InvocationTargetException e) {
+            throw (e.getTargetException() != null) ? e.getTargetException() : e;
+        }
+    }
+
+    private synchronized void register(Statement statement) throws SQLException {
+        if (statements.size() >= PURGE_THRESHOLD) {
+            Iterator<Statement> iterator = statements.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isClosed()) {
+                    iterator.remove();
+                }
+            }
+        }
+        statements.add(statement);
+    }
+
+    /**
+     * Invalidate handle, close its statements and return physical connection to pool.
+     * @throws SQLException if physical connection close failed
+     */
+    private void close() throws SQLException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        List<Statement> openStatements;
+        synchronized (this) {
+            openStatements = new ArrayList<>(statements);
+            statements.clear();
+        }
+        for (Statement statement : openStatements) {
+            try {
+                statement.close();
+            } catch (SQLException sqle) {
+                //eat exception : connection is returned anyway
+            }
+        }
+        connection.setConnectionHandle(null);
+        connection.close();
+    }
+}
@@ -0,0 +1,444 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.pool;
+
+import org.mariadb.jdbc.MariaDbConnection;
+import org.mariadb.jdbc.MariaDbPooledConnection;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.Utils;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.threadly.concurrent.ConfigurableThreadFactory;
+import org.threadly.concurrent.PriorityScheduler;
+import org.threadly.concurrent.TaskPriority;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Connection pool used by MariaDbDataSource when option "pool" is set.
+ *
+ * <p>Idle connections are kept in a lock-free deque : borrowing and returning a connection don't take any lock,
+ * as long as an idle connection is available. Most recently returned connections are lent first, so that unused
+ * connections can be closed after maxIdleTime. Only when pool is exhausted, requests wait for a connection to be
+ * returned, up to connectTimeout.</p>
+ *
+ * <p>A connection belongs to the thread that removed it from the idle deque : borrower, or housekeeping task that
+ * validates (COM_PING) idle connections, close those unused for more than maxIdleTime, and keep minPoolSize
+ * connections open.</p>
+ *
+ * <p>Borrowers get a LogicalConnection handle, invalidated when closed. Closing it closes the statements created
+ * with it, then return the physical connection to the pool, using MariaDbPooledConnection events. Connection state
+ * is then restored by MariaDbPooledConnection.resetState(), keeping server prepared statements cached.</p>
+ */
+public class Pool {
+    private static final long DEFAULT_BORROW_TIMEOUT = 30_000;
+    private static final PriorityScheduler housekeepingScheduler =
+            new PriorityScheduler(1, TaskPriority.High, 500, new ConfigurableThreadFactory("MariaDB-pool-", true));
+
+    private final UrlParser urlParser;
+    private final Options options;
+    private final long validationIntervalNanos;
+    private final long maxIdleTimeNanos;
+    private final ConcurrentLinkedDeque<PoolEntry> idleEntries = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+    private final AtomicLong createdConnections = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition available = waitLock.newCondition();
+    private final Runnable housekeeping = new Runnable() {
+        @Override
+        public void run() {
+            housekeep();
+        }
+    };
+    private volatile boolean closed;
+
+    /**
+     * Create a pool, connections will be created using this configuration.
+     * @param urlParser connection configuration
+     */
+    public Pool(UrlParser urlParser) {
+        this.urlParser = urlParser;
+        this.options = urlParser.getOptions();
+        this.validationIntervalNanos = TimeUnit.SECONDS.toNanos(options.poolValidationInterval);
+        this.maxIdleTimeNanos = TimeUnit.SECONDS.toNanos(options.maxIdleTime);
+        long interval = TimeUnit.SECONDS.toMillis(options.poolValidationInterval);
+        housekeepingScheduler.scheduleWithFixedDelay(housekeeping, (options.minPoolSize > 0) ? 0 : interval, interval);
+    }
+
+    /**
+     * Lend a connection. Connection is returned to pool when closed.
+     * Each borrow get its own connection handle, invalid after close.
+     * @return connection
+     * @throws SQLException if no connection is available before connectTimeout, or if connection failed
+     */
+    public Connection getConnection() throws SQLException {
+        PoolEntry entry = pollIdle();
+        if (entry == null) {
+            entry = tryCreate(true);
+            if (entry == null) {
+                entry = waitForConnection();
+            }
+        }
+        return LogicalConnection.newInstance((MariaDbConnection) entry.pooledConnection.getConnection());
+    }
+
+    private PoolEntry waitForConnection() throws SQLException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos((options.connectTimeout != null && options.connectTimeout > 0)
+                ? options.connectTimeout : DEFAULT_BORROW_TIMEOUT);
+        pendingRequests.incrementAndGet();
+        waitLock.lock();
+        try {
+            for (;;) {
+                if (closed) {
+                    throw new SQLException("Pool is closed", "08003");
+                }
+                PoolEntry entry = pollIdle();
+                if (entry != null) {
+                    return entry;
+                }
+                if (totalConnections.get() < options.maxPoolSize) {
+                    //a connection has been discarded : create a new one, without blocking other requests
+                    waitLock.unlock();
+                    try {
+                        entry = tryCreate(true);
+                    } finally {
+                        waitLock.lock();
+                    }
+                    if (entry != null) {
+                        return entry;
+                    }
+                }
+                if (remainingNanos <= 0) {
+                    borrowTimeouts.incrementAndGet();
+                    throw new SQLException("No connection available within the specified time (pool size "
+                            + options.maxPoolSize + ", " + pendingRequests.get() + " pending requests)", "08001");
+                }
+                remainingNanos = available.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", "08001", ie);
+        } finally {
+            waitLock.unlock();
+            pendingRequests.decrementAndGet();
+        }
+    }
+
+    /**
+     * Take an idle connection, validating it if not used nor validated since poolValidationInterval.
+     * @return connection, or null if no idle connection is available
+     */
+    private PoolEntry pollIdle() {
+        PoolEntry entry;
+        while ((entry = idleEntries.pollFirst()) != null) {
+            if (System.nanoTime() - entry.lastValidated < validationIntervalNanos || entry.validate()) {
+                entry.inUse.set(true);
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create a new connection if pool size permit it.
+     * @param inUse is connection created to be lent
+     * @return connection, or null if pool has reached maxPoolSize
+     * @throws SQLException if connection failed
+     */
+    private PoolEntry tryCreate(boolean inUse) throws SQLException {
+        for (;;) {
+            int total = totalConnections.get();
+            if (total >= options.maxPoolSize) {
+                return null;
+            }
+            if (totalConnections.compareAndSet(total, total + 1)) {
+                break;
+            }
+        }
+        try {
+            ReentrantLock lock = new ReentrantLock();
+            Protocol protocol = Utils.retrieveProxy(urlParser, lock);
+            MariaDbConnection connection = MariaDbConnection.newConnection(protocol, lock);
+            createdConnections.incrementAndGet();
+            return new PoolEntry(new MariaDbPooledConnection(connection), inUse);
+        } catch (QueryException e) {
+            releaseSlot();
+            ExceptionMapper.throwException(e, null, null);
+            return null;
+        } catch (SQLException | RuntimeException e) {
+            releaseSlot();
+            throw e;
+        }
+    }
+
+    /**
+     * A connection has been closed : a new one can be created.
+     */
+    private void releaseSlot() {
+        totalConnections.decrementAndGet();
+        signalWaiters();
+    }
+
+    private void signalWaiters() {
+        if (pendingRequests.get() > 0) {
+            waitLock.lock();
+            try {
+                available.signal();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Validate idle connections, close connections not used for maxIdleTime, and keep minPoolSize connections open.
+     */
+    private void housekeep() {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        //least recently used connections are at the end of the deque
+        PoolEntry entry;
+        while (totalConnections.get() > options.minPoolSize
+                && (entry = idleEntries.peekLast()) != null
+                && now - entry.lastUsed > maxIdleTimeNanos) {
+            if (idleEntries.removeLastOccurrence(entry)) {
+                entry.discard();
+            }
+        }
+
+        Iterator<PoolEntry> iterator = idleEntries.iterator();
+        while (iterator.hasNext()) {
+            entry = iterator.next();
+            if (now - entry.lastValidated >= validationIntervalNanos && idleEntries.removeFirstOccurrence(entry)) {
+                if (entry.validate()) {
+                    idleEntries.offerLast(entry);
+                    signalWaiters();
+                }
+            }
+        }
+
+        try {
+            while (!closed && totalConnections.get() < options.minPoolSize) {
+                entry = tryCreate(false);
+                if (entry == null) {
+                    break;
+                }
+                idleEntries.offerLast(entry);
+                signalWaiters();
+            }
+        } catch (SQLException sqle) {
+            //server not reachable, will retry on next run
+        }
+        if (closed) {
+            closeIdleConnections();
+        }
+    }
+
+    /**
+     * Close pool : idle connections are closed, and connections in use will be closed when returned.
+     */
+    public void close() {
+        closed = true;
+        housekeepingScheduler.remove(housekeeping);
+        closeIdleConnections();
+        waitLock.lock();
+        try {
+            available.signalAll();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    private void closeIdleConnections() {
+        PoolEntry entry;
+        while ((entry = idleEntries.pollFirst()) != null) {
+            entry.discard();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Number of physical connections, idle or in use.
+     * @return total connections
+     */
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idleEntries.size();
+    }
+
+    public int getActiveConnections() {
+        return Math.max(0, totalConnections.get() - idleEntries.size());
+    }
+
+    /**
+     * Number of threads waiting for a connection to be returned.
+     * @return pending requests
+     */
+    public int getPendingRequests() {
+        return pendingRequests.get();
+    }
+
+    public long getCreatedConnections() {
+        return createdConnections.get();
+    }
+
+    /**
+     * Number of requests that failed because no connection has been returned before connectTimeout.
+     * @return borrow timeouts
+     */
+    public long getBorrowTimeouts() {
+        return borrowTimeouts.get();
+    }
+
+    /**
+     * Pooled physical connection. Listen to connection events to be returned to pool when closed.
+     */
+    private class PoolEntry implements ConnectionEventListener {
+        private final MariaDbPooledConnection pooledConnection;
+        private final AtomicBoolean inUse;
+        private volatile long lastUsed;
+        private volatile long lastValidated;
+        private volatile boolean broken;
+
+        PoolEntry(MariaDbPooledConnection pooledConnection, boolean inUse) {
+            this.pooledConnection = pooledConnection;
+            this.inUse = new AtomicBoolean(inUse);
+            this.lastUsed = this.lastValidated = System.nanoTime();
+            pooledConnection.addConnectionEventListener(this);
+        }
+
+        /**
+         * Validate connection using COM_PING, discarding it if not valid.
+         * @return true if connection is valid
+         */
+        boolean validate() {
+            try {
+                if (pooledConnection.getConnection().isValid(0)) {
+                    lastValidated = System.nanoTime();
+                    return true;
+                }
+            } catch (SQLException sqle) {
+                //connection not valid
+            }
+            discard();
+            return false;
+        }
+
+        void discard() {
+            try {
+                pooledConnection.close();
+            } catch (SQLException sqle) {
+                //eat exception
+            }
+            releaseSlot();
+        }
+
+        @Override
+        public void connectionClosed(ConnectionEvent event) {
+            if (!inUse.compareAndSet(true, false)) {
+                //connection already returned
+                return;
+            }
+            if (closed || broken) {
+                discard();
+                return;
+            }
+            try {
+                pooledConnection.resetState(options.useResetConnection);
+                if (pooledConnection.getConnection().isClosed()) {
+                    discard();
+                    return;
+                }
+            } catch (SQLException sqle) {
+                discard();
+                return;
+            }
+            lastUsed = lastValidated = System.nanoTime();
+            idleEntries.offerFirst(this);
+            if (closed) {
+                closeIdleConnections();
+            }
+            signalWaiters();
+        }
+
+        @Override
+        public void connectionErrorOccurred(ConnectionEvent event) {
+            SQLException sqle = event.getSQLException();
+            if (sqle == null || sqle.getSQLState() == null || sqle.getSQLState().startsWith("08")) {
+                //connection will be discarded when returned
+                broken = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+
+Copyright (c) 2009-2011, Marcus Eriksson, Stephane Giron, Marc Isambart, Trond Norbye
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.scheduler;
+
+import org.threadly.concurrent.ConfigurableThreadFactory;
+import org.threadly.concurrent.PriorityScheduler;
+import org.threadly.concurrent.TaskPriority;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed wheel timer for query timeouts.
+ *
+ * <p>Scheduling and cancelling a timeout is O(1) and lock-free : new timeouts are queued, and added to the wheel
+ * by the timer thread on next tick. Cancelled timeouts are only marked, and dropped when their bucket is visited.
+ * Precision is one tick, which is fine for timeouts expressed in seconds.</p>
+ *
+ * <p>The timer thread never runs tasks : expired tasks are handed to an executor, so that a slow task (like a
+ * KILL QUERY on an unresponsive server) doesn't delay other timeouts.</p>
+ */
+public class HashedWheelTimer {
+    private static final long DEFAULT_TICK_MILLIS = 100;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+    private static final int DEFAULT_EXECUTOR_THREADS = 4;
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_STOPPED = 2;
+
+    private static volatile HashedWheelTimer defaultTimer;
+    private static PriorityScheduler defaultExecutor;
+
+    private final String threadName;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+    private volatile long startTime;
+    private Thread worker;
+
+    /**
+     * Create a timer. Timer thread is started on first schedule.
+     *
+     * @param threadName timer thread name
+     * @param tickMillis tick duration in milliseconds
+     * @param wheelSize number of buckets, rounded up to a power of 2
+     * @param executor executor that will run expired tasks
+     */
+    public HashedWheelTimer(String threadName, long tickMillis, int wheelSize, Executor executor) {
+        this.threadName = threadName;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(Math.max(wheelSize, 1) - 1) << 1;
+        this.wheel = new Bucket[(size == 0) ? 1 : size];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.executor = executor;
+    }
+
+    /**
+     * Timer shared by all connections, running tasks on a small pool of daemon threads.
+     *
+     * @return shared timer
+     */
+    public static HashedWheelTimer getDefault() {
+        HashedWheelTimer result = defaultTimer;
+        if (result == null) {
+            synchronized (HashedWheelTimer.class) {
+                result = defaultTimer;
+                if (result == null) {
+                    defaultExecutor = new PriorityScheduler(DEFAULT_EXECUTOR_THREADS, TaskPriority.High, 500,
+                            new ConfigurableThreadFactory("MariaDB-JDBC-Cancel-", true));
+                    defaultTimer = result = new HashedWheelTimer("MariaDB-JDBC-Timer", DEFAULT_TICK_MILLIS,
+                            DEFAULT_WHEEL_SIZE, defaultExecutor);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stop shared timer thread and the threads running its tasks. A new timer will be created if needed.
+     */
+    public static void shutdownDefault() {
+        synchronized (HashedWheelTimer.class) {
+            if (defaultTimer != null) {
+                defaultTimer.stop();
+                defaultTimer = null;
+            }
+            if (defaultExecutor != null) {
+                defaultExecutor.shutdownNow();
+                defaultExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param task task to run when timeout expires
+     * @param delayMillis delay in milliseconds
+     * @return timeout, that can be cancelled
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        start();
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void start() {
+        if (state.get() == STATE_STARTED) {
+            return;
+        }
+        synchronized (this) {
+            switch (state.get()) {
+                case STATE_INIT:
+                    startTime = System.nanoTime();
+                    worker = new Thread(new Worker(), threadName);
+                    worker.setDaemon(true);
+                    state.set(STATE_STARTED);
+                    worker.start();
+                    break;
+                case STATE_STOPPED:
+                    throw new IllegalStateException("Timer has been stopped");
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Stop timer thread. Pending timeouts will never expire.
+     */
+    public synchronized void stop() {
+        if (state.getAndSet(STATE_STOPPED) == STATE_STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Number of timeouts scheduled, not yet expired nor dropped from wheel after being cancelled.
+     *
+     * @return number of pending timeouts
+     */
+    public int pendingTimeouts() {
+        int pending = newTimeouts.size();
+        synchronized (wheel) {
+            for (Bucket bucket : wheel) {
+                pending += bucket.size;
+            }
+        }
+        return pending;
+    }
+
+    private class Worker implements Runnable {
+        private long tick;
+
+        @Override
+        public void run() {
+            while (state.get() == STATE_STARTED) {
+                long deadline = waitForNextTick();
+                if (deadline < 0) {
+                    break;
+                }
+                synchronized (wheel) {
+                    transferNewTimeouts();
+                    expire(wheel[(int) (tick & mask)], deadline);
+                }
+                tick++;
+            }
+        }
+
+        private long waitForNextTick() {
+            long deadline = tickNanos * (tick + 1);
+            for (; ; ) {
+                long sleepNanos = deadline - (System.nanoTime() - startTime);
+                if (sleepNanos <= 0) {
+                    return deadline;
+                }
+                LockSupport.parkNanos(sleepNanos);
+                if (Thread.interrupted() && state.get() != STATE_STARTED) {
+                    return -1;
+                }
+            }
+        }
+
+        private void transferNewTimeouts() {
+            Timeout timeout;
+            while ((timeout = newTimeouts.poll()) != null) {
+                if (timeout.state.get() != Timeout.PENDING) {
+                    continue;
+                }
+                long expirationTick = timeout.deadline / tickNanos;
+                timeout.remainingRounds = (expirationTick - tick) / wheel.length;
+                //timeout already expired are executed on current tick
+                wheel[(int) (Math.max(expirationTick, tick) & mask)].add(timeout);
+            }
+        }
+
+        private void expire(Bucket bucket, long deadline) {
+            Timeout previous = null;
+            Timeout timeout = bucket.head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                boolean remove;
+                if (timeout.state.get() != Timeout.PENDING) {
+                    remove = true;
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove = true;
+                    timeout.expire();
+                } else {
+                    remove = false;
+                    timeout.remainingRounds--;
+                }
+                if (remove) {
+                    bucket.remove(previous, timeout);
+                } else {
+                    previous = timeout;
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * Single linked list of timeouts, only modified by timer thread.
+     */
+    private static class Bucket {
+        private Timeout head;
+        private Timeout tail;
+        private int size;
+
+        private void add(Timeout timeout) {
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+            size++;
+        }
+
+        private void remove(Timeout previous, Timeout timeout) {
+            if (previous == null) {
+                head = timeout.next;
+            } else {
+                previous.next = timeout.next;
+            }
+            if (tail == timeout) {
+                tail = previous;
+            }
+            timeout.next = null;
+            size--;
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long remainingRounds;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel task if not already expired.
+         *
+         * @return true if task will not run
+         */
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) {
+                return;
+            }
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException rejected) {
+                //executor has been shut down : run task on timer thread
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    //task failure must not stop timer
+                }
+            }
+        }
+    }
+}
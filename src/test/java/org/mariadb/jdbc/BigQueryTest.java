@@ -8,7 +8,10 @@ import org.junit.Test;
 import java.sql.*;
 import java.util.Arrays;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 public class BigQueryTest extends BaseTest {
@@ -17,6 +20,7 @@ public class BigQueryTest extends BaseTest {
     public static void initClass() throws SQLException {
         createTable("bigblob", "id int not null primary key auto_increment, test longblob");
         createTable("bigblob2", "id int not null primary key auto_increment, test longblob, test2 longblob");
+        createTable("bigblobCompress", "id int not null primary key, test longblob");
     }
 
     @Test
@@ -76,6 +80,36 @@ public class BigQueryTest extends BaseTest {
     }
 
 
+    @Test
+    public void sendCompressedQuery() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = setConnection("&useCompression=true&compressionLevel=1&compressionThreshold=100");
+            byte[] arr = new byte[500000];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = (byte) ('a' + (i % 10));
+            }
+            PreparedStatement ps = connection.prepareStatement("insert into bigblobCompress values(?, ?)");
+            //several packets, so compression buffers are reused
+            for (int i = 0; i < 5; i++) {
+                ps.setInt(1, i);
+                ps.setBytes(2, arr);
+                ps.executeUpdate();
+            }
+            ResultSet rs = connection.createStatement().executeQuery("select * from bigblobCompress order by id");
+            for (int i = 0; i < 5; i++) {
+                assertTrue(rs.next());
+                assertEquals(i, rs.getInt(1));
+                assertArrayEquals(arr, rs.getBytes(2));
+            }
+            assertFalse(rs.next());
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
     @Test
     public void testError() throws SQLException {
         // check that maxAllowedPacket is big enough for the test
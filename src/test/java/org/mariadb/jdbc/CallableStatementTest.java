@@ -25,6 +25,8 @@ public class CallableStatementTest extends BaseTest {
         createProcedure("inoutParam", "(INOUT p1 INT) begin set p1 = p1 + 1; end\n");
         createProcedure("testGetProcedures", "(INOUT p1 INT) begin set p1 = p1 + 1; end\n");
         createProcedure("withStrangeParameter", "(IN a DECIMAL(10,2)) begin select a; end");
+        createProcedure("outParameters", "(IN a INT, OUT b INT, INOUT c VARCHAR(20)) begin set b = a * 2; "
+                + "set c = concat(c, '-', a); select a; end");
     }
 
     @Before
@@ -137,4 +139,34 @@ public class CallableStatementTest extends BaseTest {
         rs.close();
         stmt.close();
     }
+
+    @Test
+    public void outParameters() throws SQLException {
+        checkOutParameters(sharedConnection);
+        try (Connection connection = setConnection("&allowMultiQueries=true")) {
+            checkOutParameters(connection);
+        }
+        try (Connection connection = setConnection("&useServerPrepStmts=false")) {
+            checkOutParameters(connection);
+        }
+    }
+
+    private void checkOutParameters(Connection connection) throws SQLException {
+        CallableStatement stmt = connection.prepareCall("{call outParameters(?, ?, ?)}");
+        stmt.registerOutParameter(2, Types.INTEGER);
+        stmt.registerOutParameter(3, Types.VARCHAR);
+        for (int i = 1; i <= 3; i++) {
+            stmt.setInt(1, i);
+            stmt.setString(3, "val");
+            assertTrue(stmt.execute());
+            ResultSet rs = stmt.getResultSet();
+            assertTrue(rs.next());
+            assertEquals(i, rs.getInt(1));
+            assertFalse(rs.next());
+            assertEquals(i * 2, stmt.getInt(2));
+            assertEquals("val-" + i, stmt.getString(3));
+            assertFalse(stmt.getMoreResults());
+        }
+        stmt.close();
+    }
 }
@@ -61,6 +61,72 @@ public class CancelTest extends BaseTest {
         stmt.execute("select sleep(0.5)");
     }
 
+    @Test
+    public void timeoutSentAgainAfterReset() throws Exception {
+        org.junit.Assume.assumeTrue(isMariadbServer());
+        requireMinimumVersion(10, 2);
+        MariaDbDataSource ds = new MariaDbDataSource();
+        ds.setUrl(connUri + "&pool=true&maxPoolSize=1&useResetConnection=true");
+        try {
+            for (int i = 0; i < 2; i++) {
+                //COM_RESET_CONNECTION restores max_statement_time : it must be set again on next borrow
+                Connection connection = ds.getConnection();
+                Statement stmt = connection.createStatement();
+                stmt.setQueryTimeout(1);
+                ResultSet rs = stmt.executeQuery("select @@max_statement_time");
+                Assert.assertTrue(rs.next());
+                assertEquals(1, rs.getDouble(1), 0.001);
+                connection.close();
+            }
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void timeoutRestoresServerDefault() throws Exception {
+        org.junit.Assume.assumeTrue(isMariadbServer());
+        requireMinimumVersion(10, 1);
+        Statement stmt = sharedConnection.createStatement();
+        stmt.setQueryTimeout(1);
+        stmt.execute("select 1");
+        //statement without timeout must not disable server max_statement_time
+        Statement stmt2 = sharedConnection.createStatement();
+        ResultSet rs = stmt2.executeQuery("select @@session.max_statement_time, @@global.max_statement_time");
+        Assert.assertTrue(rs.next());
+        assertEquals(rs.getDouble(2), rs.getDouble(1), 0.001);
+    }
+
+    @Test
+    public void timeoutNotKeptOnNextStatement() throws Exception {
+        Statement stmt = sharedConnection.createStatement();
+        stmt.setQueryTimeout(1);
+        try {
+            stmt.execute("select sleep(100)");
+            Assert.fail();
+        } catch (SQLTimeoutException e) {
+            //normal exception
+        }
+        Statement stmt2 = sharedConnection.createStatement();
+        stmt2.execute("select sleep(1.5)");
+    }
+
+    @Test
+    public void multipleCancels() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Statement stmt = sharedConnection.createStatement();
+            stmt.setQueryTimeout(1);
+            try {
+                stmt.execute("select sleep(100)");
+                Assert.fail();
+            } catch (SQLTimeoutException e) {
+                //normal exception
+            }
+        }
+        ResultSet rs = sharedConnection.createStatement().executeQuery("select 1");
+        Assert.assertTrue(rs.next());
+    }
+
     @Test
     public void cancelIdleStatement() throws Exception {
         Statement stmt = sharedConnection.createStatement();
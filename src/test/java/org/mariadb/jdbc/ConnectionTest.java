@@ -22,6 +22,7 @@ public class ConnectionTest extends BaseTest {
     @BeforeClass()
     public static void initClass() throws SQLException {
         createTable("dummy", "a BLOB");
+        createTable("connectionDeferred", "id int");
     }
 
     /**
@@ -283,4 +284,88 @@ public class ConnectionTest extends BaseTest {
         }
     }
 
+    @Test
+    public void sessionStateTest() throws SQLException {
+        for (String params : new String[] {"", "&useLocalSessionState=true"}) {
+            Connection connection = null;
+            try {
+                connection = setConnection(params);
+                Statement stmt = connection.createStatement();
+                connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                assertEquals(Connection.TRANSACTION_READ_COMMITTED, connection.getTransactionIsolation());
+                connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                assertEquals(Connection.TRANSACTION_SERIALIZABLE, connection.getTransactionIsolation());
+
+                connection.setCatalog("mysql");
+                assertEquals("mysql", connection.getCatalog());
+                connection.setCatalog(database);
+                assertEquals(database, connection.getCatalog());
+
+                connection.setAutoCommit(false);
+                assertFalse(connection.getAutoCommit());
+                connection.setAutoCommit(true);
+                assertTrue(connection.getAutoCommit());
+
+                //state changed by queries must be reflected when the server reports session state changes
+                stmt.execute("SET SESSION TRANSACTION ISOLATION LEVEL READ UNCOMMITTED");
+                ResultSet rs = stmt.executeQuery("SELECT @@tx_isolation");
+                if (rs.next() && "READ-UNCOMMITTED".equals(rs.getString(1)) && params.isEmpty()) {
+                    assertEquals(Connection.TRANSACTION_READ_UNCOMMITTED, connection.getTransactionIsolation());
+                }
+            } finally {
+                if (connection != null) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void deferredSessionCommandsTest() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = setConnection();
+            Statement stmt = connection.createStatement();
+
+            //transaction like frameworks do : session commands are sent with following queries
+            connection.setAutoCommit(false);
+            assertFalse(connection.getAutoCommit());
+            connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            stmt.execute("INSERT INTO connectionDeferred VALUES (1)");
+            assertFalse(connection.getAutoCommit());
+            connection.rollback();
+            connection.setAutoCommit(true);
+            assertTrue(connection.getAutoCommit());
+
+            ResultSet rs = stmt.executeQuery("SELECT count(*), @@autocommit, @@tx_isolation FROM connectionDeferred");
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+            assertEquals(1, rs.getInt(2));
+            assertEquals("READ-COMMITTED", rs.getString(3));
+
+            //session commands sent before a prepare
+            connection.setAutoCommit(false);
+            PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO connectionDeferred VALUES (?)");
+            preparedStatement.setInt(1, 2);
+            preparedStatement.execute();
+            connection.commit();
+            connection.setAutoCommit(true);
+
+            //max rows is sent with the query
+            stmt.setMaxRows(1);
+            stmt.execute("INSERT INTO connectionDeferred VALUES (3)");
+            rs = stmt.executeQuery("SELECT * FROM connectionDeferred");
+            assertTrue(rs.next());
+            assertFalse(rs.next());
+            stmt.setMaxRows(0);
+            rs = stmt.executeQuery("SELECT * FROM connectionDeferred");
+            assertTrue(rs.next());
+            assertTrue(rs.next());
+            assertFalse(rs.next());
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
 }
@@ -8,8 +8,10 @@ import org.junit.Test;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -149,4 +151,102 @@ public class DataSourceTest extends BaseTest {
         }
 
     }
+
+    @Test
+    public void poolReuseConnection() throws SQLException {
+        MariaDbDataSource ds = new MariaDbDataSource();
+        ds.setUrl(connUri + "&pool=true&maxPoolSize=2");
+        try {
+            Connection connection = ds.getConnection();
+            long connectionId = getConnectionId(connection);
+            int defaultIsolation = connection.getTransactionIsolation();
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            assertEquals(1, ds.getPool().getActiveConnections());
+            connection.close();
+            assertEquals(1, ds.getPool().getIdleConnections());
+
+            connection = ds.getConnection();
+            assertEquals(connectionId, getConnectionId(connection));
+            assertTrue(connection.getAutoCommit());
+            assertEquals(defaultIsolation, connection.getTransactionIsolation());
+
+            Connection connection2 = ds.getConnection();
+            assertEquals(2, ds.getPool().getTotalConnections());
+            connection2.close();
+            connection.close();
+            assertEquals(2, ds.getPool().getCreatedConnections());
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void poolConnectionHandleClosed() throws SQLException {
+        MariaDbDataSource ds = new MariaDbDataSource();
+        ds.setUrl(connUri + "&pool=true&maxPoolSize=1");
+        try {
+            Connection connection = ds.getConnection();
+            long connectionId = getConnectionId(connection);
+            Statement statement = connection.createStatement();
+            statement.executeQuery("SELECT 1");
+            connection.close();
+            connection.close();
+            assertTrue(connection.isClosed());
+            assertTrue(statement.isClosed());
+            try {
+                connection.createStatement();
+                fail("handle must not be usable after close");
+            } catch (SQLException sqle) {
+                assertEquals("08003", sqle.getSQLState());
+            }
+
+            //same physical connection, new handle : previous borrower's handle stay closed
+            Connection connection2 = ds.getConnection();
+            assertEquals(connectionId, getConnectionId(connection2));
+            assertFalse(connection2.isClosed());
+            assertTrue(connection.isClosed());
+            connection2.close();
+            assertEquals(1, ds.getPool().getIdleConnections());
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void poolConnectionHandleFromStatement() throws SQLException {
+        MariaDbDataSource ds = new MariaDbDataSource();
+        ds.setUrl(connUri + "&pool=true&maxPoolSize=1");
+        try {
+            Connection connection = ds.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery("SELECT 1");
+            assertTrue(statement.getConnection() == connection);
+            assertTrue(rs.getStatement() == statement);
+            assertTrue(connection.prepareStatement("SELECT 1").getConnection() == connection);
+            assertTrue(connection.getMetaData().getConnection() == connection);
+
+            rs.getStatement().getConnection().close();
+            assertTrue(connection.isClosed());
+            assertTrue(statement.isClosed());
+            assertEquals(1, ds.getPool().getIdleConnections());
+
+            //driver connection can be unwrapped : closing it closes the handle
+            Connection connection2 = ds.getConnection();
+            assertTrue(connection2.isWrapperFor(MariaDbConnection.class));
+            MariaDbConnection mariaDbConnection = connection2.unwrap(MariaDbConnection.class);
+            assertTrue(mariaDbConnection.createStatement().getConnection() == connection2);
+            mariaDbConnection.close();
+            assertTrue(connection2.isClosed());
+            assertEquals(1, ds.getPool().getIdleConnections());
+        } finally {
+            ds.close();
+        }
+    }
+
+    private long getConnectionId(Connection connection) throws SQLException {
+        ResultSet rs = connection.createStatement().executeQuery("SELECT CONNECTION_ID()");
+        assertTrue(rs.next());
+        return rs.getLong(1);
+    }
 }
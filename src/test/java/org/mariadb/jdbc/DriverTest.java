@@ -750,6 +750,39 @@ public class DriverTest extends BaseTest {
         }
     }
 
+    @Test
+    public void connectWithFailingSessionVariables() throws SQLException {
+        for (int i = 0; i < 2; i++) {
+            try {
+                //error of first pipelined command is reported, after all results have been read
+                setConnection("&sessionVariables=unknown_variable_name=1").close();
+                fail("unknown variable must throw an exception");
+            } catch (SQLException sqle) {
+                assertTrue(sqle.getMessage(), sqle.getMessage().contains("unknown_variable_name"));
+            }
+        }
+    }
+
+    @Test
+    public void connectWithCachedServerData() throws SQLException {
+        for (int i = 0; i < 2; i++) {
+            Connection connection = null;
+            try {
+                //second connection use server variables cached by the first one, session variables must still be set
+                connection = setConnection("&sessionVariables=auto_increment_increment=3");
+                ResultSet rs = connection.createStatement().executeQuery("SELECT @@auto_increment_increment");
+                assertTrue(rs.next());
+                assertEquals(3, rs.getInt(1));
+                assertTrue(connection.getAutoCommit());
+                assertEquals(sharedConnection.getTransactionIsolation(), connection.getTransactionIsolation());
+            } finally {
+                if (connection != null) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
     @Test
     public void testUpdateCount() throws SQLException {
         Statement stmt = sharedConnection.createStatement();
@@ -3,8 +3,10 @@ package org.mariadb.jdbc;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import static org.junit.Assert.*;
 
@@ -16,6 +18,7 @@ public class ResultSetTest extends BaseTest {
     @BeforeClass()
     public static void initClass() throws SQLException {
         createTable("result_set_test", "id int not null primary key auto_increment, name char(20)");
+        createTable("result_set_streaming", "id int not null primary key, name varchar(20), amount bigint, data blob");
     }
 
 
@@ -213,6 +216,140 @@ public class ResultSetTest extends BaseTest {
         }
     }
 
+    @Test
+    public void streamingReadInPlaceTest() throws SQLException {
+        Statement stmt = sharedConnection.createStatement();
+        stmt.execute("truncate result_set_streaming");
+        stmt.execute("INSERT INTO result_set_streaming VALUES (1, 'row1', 10, 'data1'), (2, null, null, null), "
+                + "(3, 'row3', 30, 'data3')");
+
+        stmt.setFetchSize(1);
+        checkStreamingRows(stmt.executeQuery("SELECT * FROM result_set_streaming ORDER BY id"));
+
+        PreparedStatement preparedStatement = sharedConnection.prepareStatement(
+                "SELECT * FROM result_set_streaming WHERE id > ? ORDER BY id");
+        preparedStatement.setFetchSize(1);
+        preparedStatement.setInt(1, 0);
+        checkStreamingRows(preparedStatement.executeQuery());
+    }
+
+    private void checkStreamingRows(ResultSet rs) throws SQLException {
+        assertTrue(rs.next());
+        byte[] firstRowData = rs.getBytes(4);
+        assertEquals(1, rs.getInt(1));
+        assertEquals("row1", rs.getString(2));
+        assertEquals(10L, rs.getLong(3));
+
+        assertTrue(rs.next());
+        assertEquals(2, rs.getInt(1));
+        assertNull(rs.getString(2));
+        assertTrue(rs.wasNull());
+        assertEquals(0, rs.getLong(3));
+        assertTrue(rs.wasNull());
+        assertNull(rs.getBytes(4));
+
+        assertTrue(rs.next());
+        assertEquals(3, rs.getInt(1));
+        assertEquals("row3", rs.getString(2));
+        assertEquals(30L, rs.getLong(3));
+        assertArrayEquals("data3".getBytes(), rs.getBytes(4));
+        assertFalse(rs.next());
+
+        //data retrieved before must not have been changed by next rows
+        assertArrayEquals("data1".getBytes(), firstRowData);
+        rs.close();
+    }
+
+    @Test
+    public void cachedResultScrollTest() throws SQLException {
+        Statement stmt = sharedConnection.createStatement();
+        stmt.execute("truncate result_set_streaming");
+        StringBuilder sb = new StringBuilder("INSERT INTO result_set_streaming VALUES ");
+        for (int i = 1; i <= 150; i++) {
+            if (i > 1) {
+                sb.append(",");
+            }
+            if (i % 3 == 0) {
+                sb.append("(").append(i).append(", null, null, null)");
+            } else {
+                sb.append("(").append(i).append(", 'row").append(i).append("', ").append(i * 10).append(", 'data")
+                        .append(i).append("')");
+            }
+        }
+        stmt.execute(sb.toString());
+
+        Statement scrollStmt = sharedConnection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        checkCachedRows(scrollStmt.executeQuery("SELECT * FROM result_set_streaming ORDER BY id"));
+
+        PreparedStatement preparedStatement = sharedConnection.prepareStatement(
+                "SELECT * FROM result_set_streaming WHERE id > ? ORDER BY id",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        preparedStatement.setInt(1, 0);
+        checkCachedRows(preparedStatement.executeQuery());
+    }
+
+    private void checkCachedRows(ResultSet rs) throws SQLException {
+        for (int i = 1; i <= 150; i++) {
+            assertTrue(rs.next());
+            checkCachedRow(rs, i);
+        }
+        assertFalse(rs.next());
+
+        assertTrue(rs.last());
+        checkCachedRow(rs, 150);
+        assertTrue(rs.absolute(64));
+        checkCachedRow(rs, 64);
+        assertTrue(rs.previous());
+        checkCachedRow(rs, 63);
+        assertTrue(rs.absolute(66));
+        checkCachedRow(rs, 66);
+        assertTrue(rs.first());
+        checkCachedRow(rs, 1);
+        rs.close();
+    }
+
+    private void checkCachedRow(ResultSet rs, int id) throws SQLException {
+        assertEquals(id, rs.getInt(1));
+        if (id % 3 == 0) {
+            assertNull(rs.getString(2));
+            assertEquals(0, rs.getLong(3));
+            assertTrue(rs.wasNull());
+            assertNull(rs.getBytes(4));
+        } else {
+            assertEquals("row" + id, rs.getString(2));
+            assertEquals(id * 10L, rs.getLong(3));
+            assertArrayEquals(("data" + id).getBytes(), rs.getBytes(4));
+        }
+    }
+
+    @Test
+    public void findColumnTest() throws SQLException {
+        insertRows(1);
+        PreparedStatement ps = sharedConnection.prepareStatement("SELECT id, name AS alias, name, id AS name "
+                + "FROM result_set_test WHERE id > ?");
+        for (int execution = 0; execution < 2; execution++) {
+            ps.setInt(1, 0);
+            ResultSet rs = ps.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(1, rs.findColumn("id"));
+            assertEquals(1, rs.findColumn("ID"));
+            assertEquals(2, rs.findColumn("Alias"));
+            //first column with this label
+            assertEquals(3, rs.findColumn("NAME"));
+            assertEquals(3, rs.findColumn("result_set_test.name"));
+            assertEquals(2, rs.findColumn("RESULT_SET_TEST.alias"));
+            assertEquals("row1", rs.getString("alias"));
+            assertEquals("row1", rs.getString("name"));
+            assertEquals(1, rs.getInt("id"));
+            try {
+                rs.findColumn("unknown");
+                fail("must have thrown an exception for unknown column");
+            } catch (SQLException sqle) {
+                assertTrue(sqle.getMessage().contains("No such column"));
+            }
+        }
+    }
+
     private void insertRows(int numberOfRowsToInsert) throws SQLException {
         sharedConnection.createStatement().execute("truncate result_set_test ");
         for (int i = 1; i <= numberOfRowsToInsert; i++) {
@@ -42,6 +42,8 @@ public class ServerPrepareStatementTest extends BaseTest {
                 "ROW_FORMAT=COMPRESSED ENGINE=INNODB");
         createTable("streamtest2", "id int primary key not null, strm text");
         createTable("testServerPrepareMeta", "id int not null primary key auto_increment, id2 int not null, id3 DEC(4,2), id4 BIGINT UNSIGNED ");
+        createTable("ServerPrepareStatementMultiSend", "id int not null primary key auto_increment, test int");
+        createTable("ServerPrepareStatementCursor", "id int not null primary key, test varchar(20)");
     }
 
     @Test
@@ -110,7 +112,44 @@ public class ServerPrepareStatementTest extends BaseTest {
             for (int i = 0; i < 20; i++) {
                 sts[i].close();
             }
-            assertTrue(protocol.prepareStatementCache().size() == 0);
+            //cached statements stay prepared after statement close
+            assertTrue(protocol.prepareStatementCache().size() == 10);
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void prepStmtCacheEvictionTest() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = setConnection("&prepStmtCacheSize=10");
+            Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery("show global status like 'Prepared_stmt_count'");
+            assertTrue(rs.next());
+            final int nbStatementCount = rs.getInt(2);
+
+            for (int i = 0; i < 50; i++) {
+                PreparedStatement ps = connection.prepareStatement("SELECT " + i + ", ?");
+                ps.setInt(1, i);
+                ps.executeQuery();
+                ps.close();
+            }
+            Protocol protocol = getProtocolFromConnection(connection);
+            assertEquals(10, protocol.prepareStatementCache().size());
+
+            //evicted statements must have been closed on server
+            rs = statement.executeQuery("show global status like 'Prepared_stmt_count'");
+            assertTrue(rs.next());
+            assertTrue(rs.getInt(2) <= nbStatementCount + 10);
+
+            PreparedStatement ps = connection.prepareStatement("SELECT 49, ?");
+            ps.close();
+
+            MariaDbConnection mariaDbConnection = (MariaDbConnection) connection;
+            assertEquals(1, mariaDbConnection.getPrepStmtCacheHits());
+            assertEquals(50, mariaDbConnection.getPrepStmtCacheMisses());
+            assertEquals(40, mariaDbConnection.getPrepStmtCacheEvictions());
         } finally {
             connection.close();
         }
@@ -472,6 +511,339 @@ public class ServerPrepareStatementTest extends BaseTest {
         return ps;
     }
 
+    @Test
+    public void executeBatchMultiSend() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = setConnection("&useBatchMultiSendNumber=10");
+            connection.createStatement().execute("truncate ServerPrepareStatementMultiSend");
+            PreparedStatement ps = connection.prepareStatement("INSERT INTO ServerPrepareStatementMultiSend(test) VALUES (?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < 1000; i++) {
+                ps.setInt(1, i);
+                ps.addBatch();
+            }
+            int[] updateCounts = ps.executeBatch();
+            assertEquals(1000, updateCounts.length);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(1, updateCounts[i]);
+            }
+            ResultSet keys = ps.getGeneratedKeys();
+            for (int i = 1; i <= 1000; i++) {
+                assertTrue(keys.next());
+                assertEquals(i, keys.getInt(1));
+            }
+            assertFalse(keys.next());
+
+            ResultSet rs = connection.createStatement().executeQuery("select count(*) from ServerPrepareStatementMultiSend");
+            assertTrue(rs.next());
+            assertEquals(1000, rs.getInt(1));
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void executeBatchMultiSendError() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = setConnection("&useBatchMultiSendNumber=10");
+            connection.createStatement().execute("truncate ServerPrepareStatementMultiSend");
+            PreparedStatement ps = connection.prepareStatement("INSERT INTO ServerPrepareStatementMultiSend(id, test) VALUES (?, ?)");
+            for (int i = 1; i <= 100; i++) {
+                ps.setInt(1, (i == 50) ? 1 : i); // will fail, duplicate primary key
+                ps.setInt(2, i);
+                ps.addBatch();
+            }
+            try {
+                ps.executeBatch();
+                fail("exception should be throw above");
+            } catch (BatchUpdateException bue) {
+                //executions already sent when error is read are reported too (at most useBatchMultiSendNumber - 1)
+                int[] updateCounts = bue.getUpdateCounts();
+                assertTrue(updateCounts.length >= 50 && updateCounts.length < 60);
+                for (int i = 0; i < updateCounts.length; i++) {
+                    assertEquals((i == 49) ? Statement.EXECUTE_FAILED : 1, updateCounts[i]);
+                }
+                assertTrue(bue.getCause() instanceof SQLIntegrityConstraintViolationException);
+
+                ResultSet rs = connection.createStatement().executeQuery("select count(*) from ServerPrepareStatementMultiSend");
+                assertTrue(rs.next());
+                assertEquals(updateCounts.length - 1, rs.getInt(1));
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void executeBatchBulk() throws Throwable {
+        createTable("ServerPrepareStatementBulk", "id int not null primary key auto_increment, test int, test2 varchar(10)");
+        Connection connection = null;
+        try {
+            connection = setConnection("&useBulkStmts=true");
+            PreparedStatement ps = connection.prepareStatement("INSERT INTO ServerPrepareStatementBulk(test, test2) VALUES (?, 'a)')",
+                    Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < 1000; i++) {
+                ps.setInt(1, i);
+                ps.addBatch();
+            }
+            int[] updateCounts = ps.executeBatch();
+            assertEquals(1000, updateCounts.length);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(1, updateCounts[i]);
+            }
+            ResultSet keys = ps.getGeneratedKeys();
+            for (int i = 1; i <= 1000; i++) {
+                assertTrue(keys.next());
+                assertEquals(i, keys.getInt(1));
+            }
+            assertFalse(keys.next());
+
+            ResultSet rs = connection.createStatement().executeQuery("select * from ServerPrepareStatementBulk order by id");
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(rs.next());
+                assertEquals(i, rs.getInt(2));
+                assertEquals("a)", rs.getString(3));
+            }
+            assertFalse(rs.next());
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void executeBatchBulkOnDuplicateKey() throws Throwable {
+        createTable("ServerPrepareStatementBulkDup", "id int not null primary key, test int");
+        Connection connection = null;
+        try {
+            connection = setConnection("&useBulkStmts=true");
+            connection.createStatement().execute("INSERT INTO ServerPrepareStatementBulkDup VALUES (2, 0)");
+            PreparedStatement ps = connection.prepareStatement("INSERT INTO ServerPrepareStatementBulkDup VALUES (?, ?) "
+                    + "/* comment ) */ ON DUPLICATE KEY UPDATE test = VALUES(test)");
+            for (int i = 1; i <= 4; i++) {
+                ps.setInt(1, i);
+                ps.setInt(2, i * 10);
+                ps.addBatch();
+            }
+            int[] updateCounts = ps.executeBatch();
+            assertEquals(4, updateCounts.length);
+            for (int i = 0; i < 4; i++) {
+                //an updated row counts as 2 affected rows : count of each row is unknown
+                assertEquals(Statement.SUCCESS_NO_INFO, updateCounts[i]);
+            }
+            ResultSet rs = connection.createStatement().executeQuery("select * from ServerPrepareStatementBulkDup order by id");
+            for (int i = 1; i <= 4; i++) {
+                assertTrue(rs.next());
+                assertEquals(i, rs.getInt(1));
+                assertEquals(i * 10, rs.getInt(2));
+            }
+            assertFalse(rs.next());
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void executeBatchBulkExplicitKeys() throws Throwable {
+        createTable("ServerPrepareStatementBulkKeys", "id int not null primary key auto_increment, test int");
+        Connection connection = null;
+        try {
+            connection = setConnection("&useBulkStmts=true");
+            PreparedStatement ps = connection.prepareStatement("INSERT INTO ServerPrepareStatementBulkKeys VALUES (?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            int[] ids = {5, 0, 20, 0};
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == 0) {
+                    ps.setNull(1, Types.INTEGER);
+                } else {
+                    ps.setInt(1, ids[i]);
+                }
+                ps.setInt(2, i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            //generated keys must be those really generated, not computed from the first one
+            ResultSet keys = ps.getGeneratedKeys();
+            assertTrue(keys.next());
+            assertTrue(keys.next());
+            assertEquals(6, keys.getInt(1));
+            assertTrue(keys.next());
+            assertTrue(keys.next());
+            assertEquals(21, keys.getInt(1));
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void binaryRowDecoding() throws Throwable {
+        createTable("ServerPrepareStatementDecoding", "id int not null primary key, big bigint, sm smallint, dbl double, "
+                + "str varchar(20)");
+        Statement stmt = sharedConnection.createStatement();
+        stmt.execute("INSERT INTO ServerPrepareStatementDecoding VALUES (1, 10, 2, 1.5, 'a'), (2, null, 3, null, null), "
+                + "(3, 30, null, 3.5, 'ccc')");
+        //fixed width columns only, then with a length encoded column
+        String[] queries = {"SELECT id, big, sm, dbl FROM ServerPrepareStatementDecoding WHERE id > ? ORDER BY id",
+            "SELECT id, big, sm, dbl, str FROM ServerPrepareStatementDecoding WHERE id > ? ORDER BY id"};
+        for (String query : queries) {
+            PreparedStatement ps = sharedConnection.prepareStatement(query);
+            //second execution reuse decoding plan of first one
+            for (int execution = 0; execution < 2; execution++) {
+                ps.setInt(1, 0);
+                ResultSet rs = ps.executeQuery();
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+                assertEquals(10L, rs.getLong(2));
+                assertEquals(2, rs.getShort(3));
+                assertEquals(1.5, rs.getDouble(4), 0.0001);
+                assertTrue(rs.next());
+                assertEquals(2, rs.getInt(1));
+                assertNull(rs.getObject(2));
+                assertEquals(3, rs.getShort(3));
+                assertNull(rs.getObject(4));
+                assertTrue(rs.next());
+                assertEquals(3, rs.getInt(1));
+                assertEquals(30L, rs.getLong(2));
+                assertNull(rs.getObject(3));
+                assertEquals(3.5, rs.getDouble(4), 0.0001);
+                if (rs.getMetaData().getColumnCount() == 5) {
+                    assertEquals("ccc", rs.getString(5));
+                }
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    @Test
+    public void columnInformationReuse() throws Throwable {
+        createTable("ServerPrepareStatementMeta", "id int not null primary key, name varchar(20)");
+        Statement stmt = sharedConnection.createStatement();
+        stmt.execute("INSERT INTO ServerPrepareStatementMeta VALUES (1, 'a')");
+        PreparedStatement ps = sharedConnection.prepareStatement("SELECT * FROM ServerPrepareStatementMeta WHERE id = ?");
+        ps.setInt(1, 1);
+        ResultSet rs = ps.executeQuery();
+        assertEquals(2, rs.getMetaData().getColumnCount());
+        assertEquals("name", rs.getMetaData().getColumnName(2));
+        assertEquals("ServerPrepareStatementMeta", rs.getMetaData().getTableName(2));
+        assertTrue(rs.next());
+        assertEquals("a", rs.getString("name"));
+
+        //same definitions
+        rs = ps.executeQuery();
+        assertEquals(2, rs.getMetaData().getColumnCount());
+        assertEquals("name", rs.getMetaData().getColumnName(2));
+        assertTrue(rs.next());
+        assertEquals("a", rs.getString("name"));
+
+        //changed definitions must not use previous column information
+        stmt.execute("ALTER TABLE ServerPrepareStatementMeta ADD COLUMN amount int default 10");
+        rs = ps.executeQuery();
+        assertEquals(3, rs.getMetaData().getColumnCount());
+        assertEquals("amount", rs.getMetaData().getColumnName(3));
+        assertTrue(rs.next());
+        assertEquals("a", rs.getString("name"));
+        assertEquals(10, rs.getInt("amount"));
+    }
+
+    @Test
+    public void cursorFetch() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = setConnection("&useCursorFetch=true");
+            Statement stmt = connection.createStatement();
+            stmt.execute("truncate ServerPrepareStatementCursor");
+            PreparedStatement insert = connection.prepareStatement("INSERT INTO ServerPrepareStatementCursor VALUES (?, ?)");
+            for (int i = 1; i <= 95; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "row" + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+
+            PreparedStatement ps = connection.prepareStatement("SELECT * FROM ServerPrepareStatementCursor WHERE id > ? ORDER BY id");
+            ps.setFetchSize(10);
+            ps.setInt(1, 0);
+            ResultSet rs = ps.executeQuery();
+            assertEquals(ResultSet.TYPE_FORWARD_ONLY, rs.getType());
+            for (int i = 1; i <= 95; i++) {
+                assertTrue(rs.next());
+                assertEquals(i, rs.getInt(1));
+                assertEquals("row" + i, rs.getString(2));
+                if (i % 10 == 0) {
+                    //connection is not locked between fetches
+                    ResultSet otherRs = stmt.executeQuery("SELECT count(*) FROM ServerPrepareStatementCursor");
+                    assertTrue(otherRs.next());
+                    assertEquals(95, otherRs.getInt(1));
+                }
+            }
+            assertFalse(rs.next());
+
+            //closing cursor before end
+            rs = ps.executeQuery();
+            assertTrue(rs.next());
+            rs.close();
+            ResultSet otherRs = stmt.executeQuery("SELECT 1");
+            assertTrue(otherRs.next());
+            assertEquals(1, otherRs.getInt(1));
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void cursorFetchSameQuery() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = setConnection("&useCursorFetch=true");
+            Statement stmt = connection.createStatement();
+            stmt.execute("truncate ServerPrepareStatementCursor");
+            PreparedStatement insert = connection.prepareStatement("INSERT INTO ServerPrepareStatementCursor VALUES (?, ?)");
+            for (int i = 1; i <= 30; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "row" + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+
+            //same sql : statements must not share the server statement that holds the cursor
+            String sql = "SELECT * FROM ServerPrepareStatementCursor WHERE id > ? ORDER BY id";
+            PreparedStatement ps1 = connection.prepareStatement(sql);
+            PreparedStatement ps2 = connection.prepareStatement(sql);
+            ps1.setFetchSize(5);
+            ps2.setFetchSize(5);
+            ps1.setInt(1, 0);
+            ps2.setInt(1, 10);
+            ResultSet rs1 = ps1.executeQuery();
+            assertTrue(rs1.next());
+            ResultSet rs2 = ps2.executeQuery();
+            for (int i = 11; i <= 30; i++) {
+                assertTrue(rs2.next());
+                assertEquals(i, rs2.getInt(1));
+            }
+            assertFalse(rs2.next());
+            for (int i = 2; i <= 30; i++) {
+                assertTrue(rs1.next());
+                assertEquals(i, rs1.getInt(1));
+            }
+            assertFalse(rs1.next());
+
+            //closing a result set of a previous execution must not close current cursor
+            ResultSet firstRs = ps1.executeQuery();
+            assertTrue(firstRs.next());
+            rs1 = ps1.executeQuery();
+            firstRs.close();
+            for (int i = 1; i <= 30; i++) {
+                assertTrue(rs1.next());
+                assertEquals(i, rs1.getInt(1));
+            }
+            ps1.close();
+            ps2.close();
+        } finally {
+            connection.close();
+        }
+    }
+
     @Test
     public void directExecuteNumber() throws Throwable {
         sharedConnection.createStatement().execute("truncate ServerPrepareStatementParameters");
@@ -6,6 +6,8 @@ import org.junit.Test;
 import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
 import java.sql.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.*;
@@ -41,6 +43,7 @@ public class StatementTest extends BaseTest {
         createTable("vendor_code_test2", "a INT", "PARTITION BY KEY (a) (PARTITION x0, PARTITION x1)");
         createTable("vendor_code_test3", "a INT", "PARTITION BY LIST(a) (PARTITION p0 VALUES IN (1))");
         createTable("StatementTestt1", "c1 INT, c2 VARCHAR(255)");
+        createTable("StatementTestAsync", "id int not null primary key auto_increment, test varchar(20)");
 
 
     }
@@ -237,4 +240,61 @@ public class StatementTest extends BaseTest {
             statement.execute("drop view if exists v2");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void asyncQueryTest() throws SQLException, InterruptedException, ExecutionException {
+        asyncQuery("");
+        asyncQuery("&useNioEngine=true");
+    }
+
+    private void asyncQuery(String parameters) throws SQLException, InterruptedException, ExecutionException {
+        try (Connection connection = setConnection(parameters)) {
+            MariaDbStatement stmt = connection.createStatement().unwrap(MariaDbStatement.class);
+            stmt.execute("truncate StatementTestAsync");
+            Future<Integer> insertResult = stmt.executeUpdateAsync("INSERT INTO StatementTestAsync (test) VALUES ('a'), ('b')");
+            assertEquals(2, insertResult.get().intValue());
+
+            Future<ResultSet> sleepResult = stmt.executeQueryAsync("SELECT SLEEP(0.2), 1");
+            //synchronous query must wait for asynchronous result to be read
+            ResultSet rs = connection.createStatement().executeQuery("SELECT count(*) FROM StatementTestAsync");
+            assertTrue(sleepResult.isDone());
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+
+            ResultSet sleepRs = sleepResult.get();
+            assertTrue(sleepRs.next());
+            assertEquals(1, sleepRs.getInt(2));
+
+            Future<ResultSet> selectResult = stmt.executeQueryAsync("SELECT test FROM StatementTestAsync ORDER BY id");
+            rs = selectResult.get();
+            assertTrue(rs.next());
+            assertEquals("a", rs.getString(1));
+            assertTrue(rs.next());
+            assertEquals("b", rs.getString(1));
+            assertFalse(rs.next());
+
+            Future<ResultSet> errorResult = stmt.executeQueryAsync("SELECT * FROM StatementTestAsyncUnknown");
+            try {
+                errorResult.get();
+                fail("Must have thrown an error");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof SQLException);
+                assertEquals(ER_NO_SUCH_TABLE, ((SQLException) e.getCause()).getErrorCode());
+            }
+            assertTrue(connection.isValid(0));
+
+            MariaDbConnection mariaDbConnection = connection.unwrap(MariaDbConnection.class);
+            Future<Integer> connectionInsert = mariaDbConnection.executeUpdateAsync("INSERT INTO StatementTestAsync (test) VALUES ('c')");
+            Future<ResultSet> connectionSelect = mariaDbConnection.executeQueryAsync("SELECT count(*) FROM StatementTestAsync");
+            assertEquals(1, connectionInsert.get().intValue());
+            rs = connectionSelect.get();
+            assertTrue(rs.next());
+            assertEquals(3, rs.getInt(1));
+            //internal statement is closed with its result set
+            Statement internalStatement = rs.getStatement();
+            assertTrue(internalStatement.isCloseOnCompletion());
+            rs.close();
+            assertTrue(internalStatement.isClosed());
+        }
+    }
+}
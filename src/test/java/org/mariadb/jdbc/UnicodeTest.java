@@ -3,11 +3,15 @@ package org.mariadb.jdbc;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 
@@ -24,6 +28,7 @@ public class UnicodeTest extends BaseTest {
         createTable("umlaut_test", "id varchar(100), test_text varchar(100), t int", "charset utf8");
         createTable("unicode_test2", "id int not null primary key auto_increment, test_text varchar(100)",
                 "charset=utf8");
+        createTable("unicode_escape", "id int, test_text mediumtext, test_blob mediumblob", "charset utf8");
     }
 
     @Test
@@ -62,4 +67,46 @@ public class UnicodeTest extends BaseTest {
         assertEquals(true, rs.next());
         assertEquals(jaString, rs.getString(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void textProtocolEscapeTest() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 20000) {
+            sb.append("json {\"key\": 'value\\n', \u0000 \u00e9t\u00e9 \u65e5\u672c} ");
+        }
+        String text = sb.toString();
+        byte[] bytes = text.getBytes("UTF-8");
+
+        Connection connection = null;
+        try {
+            connection = setConnection("&useServerPrepStmts=false");
+            Statement stmt = connection.createStatement();
+            stmt.execute("truncate unicode_escape");
+            PreparedStatement ps = connection.prepareStatement("insert into unicode_escape values (?, ?, ?)");
+            ps.setInt(1, 1);
+            ps.setString(2, text);
+            ps.setBytes(3, bytes);
+            ps.execute();
+            ps.setInt(1, 2);
+            ps.setCharacterStream(2, new StringReader(text));
+            ps.setBinaryStream(3, new ByteArrayInputStream(bytes));
+            ps.execute();
+            ps.setInt(1, 3);
+            ps.setCharacterStream(2, new StringReader(text), text.length());
+            ps.setBinaryStream(3, new ByteArrayInputStream(bytes), bytes.length);
+            ps.execute();
+
+            ResultSet rs = stmt.executeQuery("select test_text, test_blob from unicode_escape order by id");
+            for (int i = 0; i < 3; i++) {
+                assertEquals(true, rs.next());
+                assertEquals(text, rs.getString(1));
+                assertArrayEquals(bytes, rs.getBytes(2));
+            }
+            assertEquals(false, rs.next());
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+}
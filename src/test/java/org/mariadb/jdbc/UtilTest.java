@@ -1,11 +1,55 @@
 package org.mariadb.jdbc;
 
 import org.junit.Test;
+import org.mariadb.jdbc.internal.failover.tools.HostHealthListener;
+import org.mariadb.jdbc.internal.failover.tools.HostHealthMonitor;
+import org.mariadb.jdbc.internal.failover.tools.HostSelectionStrategies;
+import org.mariadb.jdbc.internal.failover.tools.HostSelectionStrategy;
+import org.mariadb.jdbc.internal.failover.tools.HostStatistics;
+import org.mariadb.jdbc.internal.packet.dao.parameters.IntParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ReaderParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.StreamParameter;
+import org.mariadb.jdbc.internal.query.MariaDbClientParameterizeQuery;
+import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+import org.mariadb.jdbc.internal.stream.SpillOutputStream;
+import org.mariadb.jdbc.internal.util.TemporalCodec;
 import org.mariadb.jdbc.internal.util.Utils;
+import org.mariadb.jdbc.internal.util.buffer.AsciiParser;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.scheduler.HashedWheelTimer;
+import org.threadly.concurrent.ConfigurableThreadFactory;
+import org.threadly.concurrent.PriorityScheduler;
+import org.threadly.concurrent.TaskPriority;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 public class UtilTest {
@@ -45,4 +89,445 @@ public class UtilTest {
             assertEquals(Utils.nativeSql(inputs[i], false), outputs[i]);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void packetSplit() throws IOException {
+        int maxPacketLength = 0x00ffffff;
+        checkPacketSplit(10, new int[] {10});
+        checkPacketSplit(maxPacketLength, new int[] {maxPacketLength, 0});
+        checkPacketSplit(maxPacketLength + 10, new int[] {maxPacketLength, 10});
+    }
+
+    @Test
+    public void streamedPacketSplit() throws IOException {
+        int maxPacketLength = 0x00ffffff;
+        checkPacketSplit(10, new int[] {10}, true);
+        checkPacketSplit(maxPacketLength, new int[] {maxPacketLength, 0}, true);
+        checkPacketSplit(maxPacketLength + 10, new int[] {maxPacketLength, 10}, true);
+        checkPacketSplit(2 * maxPacketLength, new int[] {maxPacketLength, maxPacketLength, 0}, true);
+        checkPacketSplit(2 * maxPacketLength + 10, new int[] {maxPacketLength, maxPacketLength, 10}, true);
+    }
+
+    private void checkPacketSplit(int dataLength, int[] expectedPacketLengths) throws IOException {
+        checkPacketSplit(dataLength, expectedPacketLengths, false);
+    }
+
+    private void checkPacketSplit(int dataLength, int[] expectedPacketLengths, boolean streamPackets) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        byte[] data = new byte[dataLength];
+        for (int i = 0; i < dataLength; i++) {
+            data[i] = (byte) i;
+        }
+        writer.startPacket(0, false, streamPackets);
+        writer.write(data);
+        if (streamPackets) {
+            //no more than a full packet and a chunk are kept in memory
+            assertTrue(out.size() >= dataLength - 0x00ffffff - 8192);
+        }
+        writer.finishPacket();
+
+        byte[] sent = out.toByteArray();
+        int pos = 0;
+        int dataPos = 0;
+        for (int i = 0; i < expectedPacketLengths.length; i++) {
+            int length = (sent[pos] & 0xff) + ((sent[pos + 1] & 0xff) << 8) + ((sent[pos + 2] & 0xff) << 16);
+            assertEquals(expectedPacketLengths[i], length);
+            assertEquals(i, sent[pos + 3]);
+            pos += 4;
+            for (int j = 0; j < length; j++) {
+                if (sent[pos + j] != data[dataPos + j]) {
+                    fail("wrong data at position " + (dataPos + j));
+                }
+            }
+            pos += length;
+            dataPos += length;
+        }
+        assertEquals(sent.length, pos);
+    }
+
+    @Test
+    public void parseBulkInsert() {
+        assertArrayEquals(new String[] {"INSERT INTO t (a, b) VALUES ", "(?, concat(?, ')'))", ""},
+                MariaDbServerPreparedStatement.parseBulkInsert("INSERT INTO t (a, b) VALUES (?, concat(?, ')'))", 2, false));
+        assertArrayEquals(new String[] {"/* VALUES (?) */ INSERT INTO t -- VALUES (?)\n VALUES ", "(?, '?')", ""},
+                MariaDbServerPreparedStatement.parseBulkInsert("/* VALUES (?) */ INSERT INTO t -- VALUES (?)\n VALUES (?, '?')",
+                        1, false));
+        assertArrayEquals(new String[] {"INSERT INTO t VALUES ", "('it\\'s (', ?)", " ON DUPLICATE KEY UPDATE a = VALUES(a)"},
+                MariaDbServerPreparedStatement.parseBulkInsert(
+                        "INSERT INTO t VALUES ('it\\'s (', ?) ON DUPLICATE KEY UPDATE a = VALUES(a)", 1, false));
+        //parameter outside values, multiple rows, INSERT ... SELECT, executable comment, not an INSERT
+        assertEquals(0, MariaDbServerPreparedStatement.parseBulkInsert(
+                "INSERT INTO t VALUES (?) ON DUPLICATE KEY UPDATE a = ?", 2, false).length);
+        assertEquals(0, MariaDbServerPreparedStatement.parseBulkInsert("INSERT INTO t VALUES (?), (?)", 2, false).length);
+        assertEquals(0, MariaDbServerPreparedStatement.parseBulkInsert("INSERT INTO t SELECT ? FROM dual", 1, false).length);
+        assertEquals(0, MariaDbServerPreparedStatement.parseBulkInsert("/*!50000 INSERT */ INTO t VALUES (?)", 1, false).length);
+        assertEquals(0, MariaDbServerPreparedStatement.parseBulkInsert("UPDATE t SET a = ?", 1, false).length);
+    }
+
+    @Test
+    public void hostSelectionStrategies() throws SQLException, QueryException {
+        HostStatistics.clear();
+        HostAddress fast = new HostAddress("strategy-fast", 3306);
+        HostAddress slow = new HostAddress("strategy-slow", 3306);
+        HostAddress unmeasured = new HostAddress("strategy-unmeasured", 3306);
+        HostStatistics.get(fast).addLatency(1000);
+        HostStatistics.get(slow).addLatency(5000);
+        HostStatistics.get(slow).startRequest();
+        HostStatistics.get(slow).startRequest();
+        HostStatistics.get(unmeasured).startRequest();
+
+        UrlParser urlParser = UrlParser.parse("jdbc:mysql://strategy-fast,strategy-slow,strategy-unmeasured/test");
+        List<HostAddress> hosts = new ArrayList<>(Arrays.asList(slow, fast, unmeasured));
+        HostSelectionStrategies.getStrategy("leastLatency").sort(hosts, urlParser);
+        assertEquals(Arrays.asList(unmeasured, fast, slow), hosts);
+
+        HostSelectionStrategies.getStrategy("leastOutstanding").sort(hosts, urlParser);
+        assertEquals(Arrays.asList(fast, unmeasured, slow), hosts);
+
+        HostSelectionStrategy random = HostSelectionStrategies.getStrategy(null);
+        random.sort(hosts, urlParser);
+        assertEquals(3, hosts.size());
+        assertTrue(hosts.containsAll(Arrays.asList(fast, slow, unmeasured)));
+
+        //a host with weight 0 is always last, unknown weight and wrong weight count as 1
+        Properties props = new Properties();
+        props.setProperty("loadBalanceWeights", "strategy-fast=0,strategy-slow:3306=10,strategy-unmeasured=wrong");
+        UrlParser weightedParser = UrlParser.parse("jdbc:mysql://strategy-fast,strategy-slow,strategy-unmeasured/test", props);
+        HostSelectionStrategy weighted = HostSelectionStrategies.getStrategy("weighted");
+        int slowFirst = 0;
+        for (int i = 0; i < 200; i++) {
+            weighted.sort(hosts, weightedParser);
+            assertEquals(fast, hosts.get(2));
+            if (slow.equals(hosts.get(0))) {
+                slowFirst++;
+            }
+        }
+        assertTrue(slowFirst > 100);
+
+        try {
+            HostSelectionStrategies.getStrategy("unknownStrategy");
+            fail("must have thrown error");
+        } catch (QueryException queryException) {
+            assertEquals("08000", queryException.getSqlState());
+        }
+        HostStatistics.clear();
+    }
+
+    @Test
+    public void replicationLag() {
+        HostStatistics hostStatistics = new HostStatistics();
+        assertEquals(HostStatistics.UNKNOWN, hostStatistics.getReplicationLag());
+        assertFalse(hostStatistics.isLagging(5));
+
+        hostStatistics.setReplicationLag(5, 100);
+        assertFalse(hostStatistics.isLagging(5));
+        assertEquals(100, hostStatistics.getReplicationLagTimestamp());
+
+        hostStatistics.setReplicationLag(6, 200);
+        assertTrue(hostStatistics.isLagging(5));
+        //no limit
+        assertFalse(hostStatistics.isLagging(0));
+
+        hostStatistics.setReplicationLag(HostStatistics.REPLICATION_STOPPED, 300);
+        assertTrue(hostStatistics.isLagging(5));
+        assertTrue(hostStatistics.isLagging(Integer.MAX_VALUE));
+
+        //lag that cannot be read is unknown : host is used
+        hostStatistics.setReplicationLag(HostStatistics.UNKNOWN, 400);
+        assertFalse(hostStatistics.isLagging(5));
+    }
+
+    @Test
+    public void reconnectDelay() {
+        for (int i = 0; i < 100; i++) {
+            checkDelay(HostHealthMonitor.getReconnectDelay(-1), 125, 250);
+            checkDelay(HostHealthMonitor.getReconnectDelay(0), 125, 250);
+            checkDelay(HostHealthMonitor.getReconnectDelay(1), 250, 500);
+            checkDelay(HostHealthMonitor.getReconnectDelay(4), 2000, 4000);
+            checkDelay(HostHealthMonitor.getReconnectDelay(5), 2500, 5000);
+            checkDelay(HostHealthMonitor.getReconnectDelay(Integer.MAX_VALUE), 2500, 5000);
+            checkDelay(HostHealthMonitor.getHostUpDelay(), 0, 999);
+        }
+        //jitter : connections failing together don't retry together
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            delays.add(HostHealthMonitor.getReconnectDelay(3));
+        }
+        assertTrue(delays.size() > 10);
+    }
+
+    private void checkDelay(long delay, long min, long max) {
+        assertTrue(delay + " must be between " + min + " and " + max, delay >= min && delay <= max);
+    }
+
+    @Test
+    public void hostHealthMonitor() throws SQLException {
+        //interval is long enough for the scheduler never to run the monitor : verifications are launched by the test
+        PriorityScheduler scheduler = new PriorityScheduler(1, TaskPriority.High, 500,
+                new ConfigurableThreadFactory("test-monitor-", true));
+        String url = "jdbc:mysql://127.0.0.1:1,127.0.0.1:2/test?validConnectionTimeout=120&connectTimeout=500";
+        UrlParser urlParser = UrlParser.parse(url);
+        HostAddress first = urlParser.getHostAddresses().get(0);
+        HostAddress second = urlParser.getHostAddresses().get(1);
+        StubHealthListener listener1 = new StubHealthListener();
+        StubHealthListener listener2 = new StubHealthListener();
+        StubHealthListener listener3 = new StubHealthListener();
+
+        HostHealthMonitor monitor = HostHealthMonitor.register(urlParser, listener1, scheduler);
+        assertSame(monitor, HostHealthMonitor.register(UrlParser.parse(url), listener2, scheduler));
+        //other verification options : other monitor
+        HostHealthMonitor otherMonitor = HostHealthMonitor.register(
+                UrlParser.parse("jdbc:mysql://127.0.0.1:1,127.0.0.1:2/test?validConnectionTimeout=120&connectTimeout=1000"),
+                listener3, scheduler);
+        assertNotSame(monitor, otherMonitor);
+        otherMonitor.unregister(listener3);
+
+        //no idle connection : hosts are not verified
+        monitor.run();
+        assertFalse(monitor.isDown(first));
+        assertEquals(0, listener1.downs.size());
+
+        //a single failure doesn't make host down
+        listener1.probeResult = false;
+        monitor.run();
+        assertFalse(monitor.isDown(first));
+        assertEquals(0, listener1.downs.size());
+
+        //consecutive failures : all listeners notified for each host
+        monitor.run();
+        assertTrue(monitor.isDown(first));
+        assertTrue(monitor.isDown(second));
+        assertEquals(Arrays.asList(first, second), listener1.downs);
+        assertEquals(Arrays.asList(first, second), listener2.downs);
+
+        //still down : notified again, so hosts stay blacklisted
+        monitor.run();
+        assertEquals(4, listener1.downs.size());
+        assertEquals(0, listener1.ups.size());
+
+        //hosts answer on an idle connection : up notification only once
+        listener1.probeResult = true;
+        monitor.run();
+        monitor.run();
+        assertFalse(monitor.isDown(first));
+        assertFalse(monitor.isDown(second));
+        assertEquals(Arrays.asList(first, second), listener1.ups);
+        assertEquals(Arrays.asList(first, second), listener2.ups);
+        assertEquals(4, listener2.downs.size());
+        assertEquals(0, listener3.downs.size());
+
+        //failure count restart after a successful verification
+        listener1.probeResult = false;
+        monitor.run();
+        assertFalse(monitor.isDown(first));
+        listener1.probeResult = true;
+        monitor.run();
+        listener1.probeResult = false;
+        monitor.run();
+        assertFalse(monitor.isDown(first));
+        assertEquals(4, listener1.downs.size());
+
+        //monitor is stopped when last listener is unregistered
+        monitor.unregister(listener1);
+        assertSame(monitor, HostHealthMonitor.register(urlParser, listener1, scheduler));
+        monitor.unregister(listener1);
+        monitor.unregister(listener2);
+        HostHealthMonitor newMonitor = HostHealthMonitor.register(urlParser, listener1, scheduler);
+        assertNotSame(monitor, newMonitor);
+        assertFalse(newMonitor.isDown(first));
+        newMonitor.unregister(listener1);
+    }
+
+    private static class StubHealthListener implements HostHealthListener {
+        private volatile Boolean probeResult = null;
+        private final List<HostAddress> downs = new ArrayList<>();
+        private final List<HostAddress> ups = new ArrayList<>();
+
+        @Override
+        public Boolean probe(HostAddress hostAddress) {
+            return probeResult;
+        }
+
+        @Override
+        public synchronized void hostDown(HostAddress hostAddress) {
+            downs.add(hostAddress);
+        }
+
+        @Override
+        public synchronized void hostUp(HostAddress hostAddress) {
+            ups.add(hostAddress);
+        }
+    }
+
+    @Test
+    public void hashedWheelTimer() throws InterruptedException {
+        Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, 8, direct);
+        try {
+            final CountDownLatch latch = new CountDownLatch(2);
+            final AtomicInteger cancelledRuns = new AtomicInteger();
+            Runnable count = new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            };
+            Runnable cancelled = new Runnable() {
+                @Override
+                public void run() {
+                    cancelledRuns.incrementAndGet();
+                }
+            };
+            HashedWheelTimer.Timeout shortTimeout = timer.schedule(count, 20);
+            //more than a wheel rotation
+            HashedWheelTimer.Timeout longTimeout = timer.schedule(count, 200);
+            for (int i = 0; i < 100; i++) {
+                assertTrue(timer.schedule(cancelled, 50).cancel());
+            }
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            assertTrue(shortTimeout.isExpired());
+            assertTrue(longTimeout.isExpired());
+            assertFalse(longTimeout.cancel());
+            assertEquals(0, cancelledRuns.get());
+            assertEquals(0, timer.pendingTimeouts());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    public void spillOutputStream() throws IOException {
+        byte[] data = new byte[10000];
+        new Random(1).nextBytes(data);
+        for (int threshold : new int[] {100000, 1000}) {
+            SpillOutputStream spill = new SpillOutputStream(threshold);
+            spill.write(data[0]);
+            spill.write(data, 1, data.length - 1);
+            assertEquals(data.length, spill.size());
+            //data can be read more than once
+            for (int i = 0; i < 2; i++) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                spill.writeTo(out);
+                assertArrayEquals(data, out.toByteArray());
+            }
+            spill.close();
+        }
+    }
+
+    @Test
+    public void streamParameterLength() throws IOException {
+        byte[] data = "a'b\\c".getBytes("UTF-8");
+        StreamParameter parameter = new StreamParameter(new ByteArrayInputStream(data), false);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new StreamParameter(new ByteArrayInputStream(data), false).writeTo(expected);
+
+        //length is exact, and data read to compute it are still sent
+        assertEquals(expected.size(), parameter.getApproximateTextProtocolLength());
+        assertEquals(expected.size(), parameter.getApproximateTextProtocolLength());
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            parameter.writeTo(out);
+            assertArrayEquals(expected.toByteArray(), out.toByteArray());
+        }
+        parameter.release();
+    }
+
+    @Test
+    public void readerParameterLength() throws IOException {
+        String data = "a'b\\c\u00e9\ud83d\ude00\"";
+        ReaderParameter parameter = new ReaderParameter(new StringReader(data), false);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new ReaderParameter(new StringReader(data), false).writeTo(expected);
+
+        assertEquals(expected.size(), parameter.getApproximateTextProtocolLength());
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            parameter.writeTo(out);
+            assertArrayEquals(expected.toByteArray(), out.toByteArray());
+        }
+        parameter.release();
+    }
+
+    @Test
+    public void parsedQueryCache() throws SQLException {
+        String sql = "INSERT INTO parsedQueryCache(id, test) VALUES (?, '?')";
+        MariaDbClientParameterizeQuery query1 = MariaDbClientParameterizeQuery.newInstance(sql, false, -1);
+        MariaDbClientParameterizeQuery query2 = MariaDbClientParameterizeQuery.newInstance(sql, false, -1);
+        assertSame(query1.getQueryPartsArray(), query2.getQueryPartsArray());
+        assertEquals(1, query1.getParamCount());
+
+        //parameters are not shared
+        query1.setParameter(0, new IntParameter(1));
+        assertNull(query2.getParameters()[0]);
+
+        //key contain noBackslashEscapes and rewriteOffset
+        MariaDbClientParameterizeQuery query3 = MariaDbClientParameterizeQuery.newInstance(sql, true, -1);
+        MariaDbClientParameterizeQuery query4 = MariaDbClientParameterizeQuery.newInstance(sql, false, 42);
+        assertFalse(query1.getQueryPartsArray() == query3.getQueryPartsArray());
+        assertFalse(query1.getQueryPartsArray() == query4.getQueryPartsArray());
+    }
+
+    @Test
+    public void asciiParser() {
+        String[] longs = new String[]{"0", "-12", "+12", "1.000", "9223372036854775807", "-9223372036854775808"};
+        for (String value : longs) {
+            byte[] bytes = ("#" + value + "#").getBytes();
+            assertEquals(Long.parseLong(value.replace(".000", "")), AsciiParser.parseLong(bytes, 1, value.length()));
+        }
+        for (String value : new String[]{"", "-", "1.5", "1.", "1e3", "9223372036854775808"}) {
+            try {
+                AsciiParser.parseLong(value.getBytes(), 0, value.length());
+                fail("must have thrown a NumberFormatException for " + value);
+            } catch (NumberFormatException nfe) {
+                //expected
+            }
+        }
+
+        String[] decimals = new String[]{"0", "-0.5", "1.25", "123456.789", "1e10", "-1.5E-7", "0.1", "3.4028235E38",
+                "12345678901234567890.123"};
+        for (String value : decimals) {
+            byte[] bytes = ("#" + value + "#").getBytes();
+            assertEquals(Double.parseDouble(value), AsciiParser.parseDouble(bytes, 1, value.length()), 0);
+            assertEquals(new BigDecimal(value), AsciiParser.parseBigDecimal(bytes, 1, value.length()));
+        }
+    }
+
+    @Test
+    public void temporalCodec() {
+        Random random = new Random(42);
+        for (String zoneId : new String[]{"UTC", "Europe/Paris", "America/New_York", "Australia/Lord_Howe", "GMT+05:30"}) {
+            TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+            TemporalCodec codec = TemporalCodec.getInstance(timeZone);
+            GregorianCalendar calendar = new GregorianCalendar(timeZone);
+            for (int i = 0; i < 20000; i++) {
+                //include daylight saving time days, julian dates and lenient values
+                int year = 1500 + random.nextInt(700);
+                int month = 1 + random.nextInt(12);
+                int day = 1 + random.nextInt(31);
+                int hour = random.nextInt(30) - 3;
+                int minutes = random.nextInt(60);
+                int seconds = random.nextInt(60);
+                calendar.clear();
+                calendar.set(year, month - 1, day, hour, minutes, seconds);
+                assertEquals(calendar.getTimeInMillis(), codec.toEpochMillis(year, month, day, hour, minutes, seconds, 0));
+
+                long epochMillis = calendar.getTimeInMillis() + random.nextInt();
+                calendar.setTimeInMillis(epochMillis);
+                long fields = codec.toFields(epochMillis);
+                assertEquals(calendar.get(Calendar.YEAR), TemporalCodec.getYear(fields));
+                assertEquals(calendar.get(Calendar.MONTH) + 1, TemporalCodec.getMonth(fields));
+                assertEquals(calendar.get(Calendar.DAY_OF_MONTH), TemporalCodec.getDayOfMonth(fields));
+                assertEquals(calendar.get(Calendar.HOUR_OF_DAY), TemporalCodec.getHour(fields));
+                assertEquals(calendar.get(Calendar.MINUTE), TemporalCodec.getMinute(fields));
+                assertEquals(calendar.get(Calendar.SECOND), TemporalCodec.getSecond(fields));
+                assertEquals(calendar.get(Calendar.MILLISECOND), TemporalCodec.getMillisecond(fields));
+            }
+        }
+    }
+}